@@ -0,0 +1,4 @@
+update statistics high for table ${JAILER_ENTITY};
+update statistics high for table ${JAILER_GRAPH};
+update statistics high for table ${JAILER_DEPENDENCY};
+update statistics high for table ${JAILER_SET};
\ No newline at end of file
@@ -0,0 +1,2 @@
+${for-each:mapping-tables}${drop-table}${schema}$;
+${end}
\ No newline at end of file
@@ -0,0 +1,4 @@
+UPDATE STATISTICS ${JAILER_ENTITY};
+UPDATE STATISTICS ${JAILER_DEPENDENCY};
+UPDATE STATISTICS ${JAILER_GRAPH};
+UPDATE STATISTICS ${JAILER_SET};
\ No newline at end of file
@@ -0,0 +1,4 @@
+analyse ${JAILER_ENTITY};
+analyse ${JAILER_GRAPH};
+analyse ${JAILER_DEPENDENCY};
+analyse ${JAILER_SET};
@@ -181,12 +181,30 @@ public class CommandLine {
 	@Option(name="-limit-transaction-size", usage="collects the rows using multiple insert operations with a limited number of rows per operation")
 	boolean insertIncrementally = false;
 
+	@Option(name="-transaction-latency", usage="with -limit-transaction-size: adapt the number of rows per operation for each table so that an operation takes about the given number of milliseconds (default is 0, fixed number of rows)", metaVar="#milliseconds")
+	int transactionLatency = 0;
+
+	@Option(name="-explain-slowest-statements", usage="time the statements used to collect the rows and write the execution plans of the given number of slowest ones into the file '<export-script>.plans.txt' (default is 0, no profiling)", metaVar="#statements")
+	int explainSlowestStatements = 0;
+
+	@Option(name="-delete-directly", usage="delete the rows directly in the source database using set-based statements instead of writing them into the delete-script (not with scope LOCAL_DATABASE)")
+	boolean deleteDirectly = false;
+
+	@Option(name="-lob-files", usage="write the content of CLOBs/BLOBs/XMLs into separate files (in the folder '<export-script>.lobs') instead of into the export-script")
+	boolean lobFiles = false;
+
 	@Option(name="-abortInCaseOfInconsistency", usage="abort the process if the result is inconsistent due to insufficient transaction isolation")
 	boolean abortInCaseOfInconsistency = false;
 
 	@Option(name="-row-limit", usage="maximum allowed number of exported rows. If this limit is exceeded, the export aborts with an error.")
 	public String limit = null;
 
+	@Option(name="-row-budget", usage="maximum number of rows to be collected. Associations whose (estimated) number of new rows would exceed the remaining budget are not resolved. The export is truncated instead of aborted.", metaVar="#rows")
+	public String rowBudget = null;
+
+	@Option(name="-table-row-budget", usage="maximum number of rows to be collected per table. Associations whose (estimated) number of new rows would exceed the remaining budget of the destination table are not resolved.", metaVar="#rows")
+	public String tableRowBudget = null;
+
 	@Option(name="-local-database-storage", usage="the folder where the local database will be stored. \nDefault temp folder is used if this is not specified.")
 	public String localDatabaseStorage = null;
 
@@ -90,11 +90,17 @@ public class ExecutionContext {
 		this.rawparameters = other.rawparameters;
 		this.embedded = other.embedded;
 		this.insertIncrementally = other.insertIncrementally;
+		this.transactionLatency = other.transactionLatency;
+		this.explainSlowestStatements = other.explainSlowestStatements;
+		this.deleteDirectly = other.deleteDirectly;
+		this.lobFiles = other.lobFiles;
 		this.abortInCaseOfInconsistency = other.abortInCaseOfInconsistency;
 		this.independentWorkingTables = other.independentWorkingTables;
 		this.upkDomain = other.upkDomain;
 		this.currentConnectionAlias = other.currentConnectionAlias;
 		this.limit = other.limit;
+		this.rowBudget = other.rowBudget;
+		this.tableRowBudget = other.tableRowBudget;
 		this.singleRoot = other.singleRoot;
 		this.includeNonAggregated = other.includeNonAggregated;
 		this.ignoreNonAggregated = other.ignoreNonAggregated;
@@ -608,6 +614,72 @@ public class ExecutionContext {
 		this.insertIncrementally = insertIncrementally;
 	}
 
+	/**
+	 * Gets the target duration (in milliseconds) of an operation if the transaction size is limited.
+	 * The number of rows per operation is adapted for each table accordingly. <br>
+	 * <code>0</code> if the number of rows per operation is fixed.
+	 */
+	public int getTransactionLatency() {
+		return transactionLatency;
+	}
+
+	/**
+	 * Sets the target duration (in milliseconds) of an operation if the transaction size is limited.
+	 * The number of rows per operation is adapted for each table accordingly. <br>
+	 * <code>0</code> if the number of rows per operation is fixed.
+	 */
+	public void setTransactionLatency(int transactionLatency) {
+		this.transactionLatency = transactionLatency;
+	}
+
+	/**
+	 * Gets the number of slowest collection statements whose execution plans are fetched after collection.
+	 * <code>0</code> if statements are not profiled.
+	 */
+	public int getExplainSlowestStatements() {
+		return explainSlowestStatements;
+	}
+
+	/**
+	 * Sets the number of slowest collection statements whose execution plans are fetched after collection.
+	 * <code>0</code> if statements are not profiled.
+	 */
+	public void setExplainSlowestStatements(int explainSlowestStatements) {
+		this.explainSlowestStatements = explainSlowestStatements;
+	}
+
+	/**
+	 * If <code>true</code>, the rows to be deleted are deleted directly in the source database
+	 * using set-based statements instead of being written into the delete-script.
+	 */
+	public boolean isDeleteDirectly() {
+		return deleteDirectly;
+	}
+
+	/**
+	 * If <code>true</code>, the rows to be deleted are deleted directly in the source database
+	 * using set-based statements instead of being written into the delete-script.
+	 */
+	public void setDeleteDirectly(boolean deleteDirectly) {
+		this.deleteDirectly = deleteDirectly;
+	}
+
+	/**
+	 * If <code>true</code>, the content of CLOBs/BLOBs/XMLs is written into separate files
+	 * (in the folder "&lt;export-script&gt;.lobs") instead of into the export-script.
+	 */
+	public boolean isLobFiles() {
+		return lobFiles;
+	}
+
+	/**
+	 * If <code>true</code>, the content of CLOBs/BLOBs/XMLs is written into separate files
+	 * (in the folder "&lt;export-script&gt;.lobs") instead of into the export-script.
+	 */
+	public void setLobFiles(boolean lobFiles) {
+		this.lobFiles = lobFiles;
+	}
+
 	/**
 	 * @return if <code>true</code>, {@link Subsetter#execute(String, File)} throws an
 	 *         {@link InconsistentSubsettingResultException} if the result is inconsistent
@@ -985,6 +1057,18 @@ public class ExecutionContext {
 	// collects the rows using multiple insert operations with a limited number of rows per operation
 	private boolean insertIncrementally = false;
 
+	// target duration (in milliseconds) of an operation if the transaction size is limited, 0 for a fixed number of rows
+	private int transactionLatency = 0;
+
+	// number of slowest collection statements to explain, 0 for no profiling
+	private int explainSlowestStatements = 0;
+
+	// delete the rows directly in the source database instead of writing them into the delete-script
+	private boolean deleteDirectly = false;
+
+	// write the content of LOBs into separate files instead of into the export-script
+	private boolean lobFiles = false;
+
 	// abort the process if the result is inconsistent due to insufficient transaction isolation
 	private boolean abortInCaseOfInconsistency = false;
 
@@ -996,6 +1080,12 @@ public class ExecutionContext {
 
 	// maximum allowed number of exported rows. If this limit is exceeded, the export aborts with an error.
 	private Long limit;
+
+	// maximum number of rows to be collected. Associations that would exceed it are not resolved.
+	private Long rowBudget;
+
+	// maximum number of rows to be collected per table. Associations that would exceed it are not resolved.
+	private Long tableRowBudget;
 	
 	// allow only a single root/subject object to be written out into JSON/YAML/XML export file
 	private boolean singleRoot;
@@ -1131,6 +1221,34 @@ public class ExecutionContext {
 		this.limit = limit;
 	}
 
+	/**
+	 * @return maximum number of rows to be collected. Associations that would exceed it are not resolved (truncated).
+	 */
+	public Long getRowBudget() {
+		return rowBudget;
+	}
+
+	/**
+	 * @param rowBudget maximum number of rows to be collected. Associations that would exceed it are not resolved (truncated).
+	 */
+	public void setRowBudget(Long rowBudget) {
+		this.rowBudget = rowBudget;
+	}
+
+	/**
+	 * @return maximum number of rows to be collected per table. Associations that would exceed it are not resolved (truncated).
+	 */
+	public Long getTableRowBudget() {
+		return tableRowBudget;
+	}
+
+	/**
+	 * @param tableRowBudget maximum number of rows to be collected per table. Associations that would exceed it are not resolved (truncated).
+	 */
+	public void setTableRowBudget(Long tableRowBudget) {
+		this.tableRowBudget = tableRowBudget;
+	}
+
 	/**
 	 * Create working tables that are independent of the extraction model. (Potentially less efficient)
 	 */
@@ -1246,15 +1364,25 @@ public class ExecutionContext {
 		addGoBatchSeparator = commandLine.addGoBatchSeparator;
 		importFilterMappingTableSchema = commandLine.importFilterMappingTableSchema;
 		insertIncrementally = commandLine.insertIncrementally;
+		transactionLatency = commandLine.transactionLatency;
+		explainSlowestStatements = commandLine.explainSlowestStatements;
+		deleteDirectly = commandLine.deleteDirectly;
+		lobFiles = commandLine.lobFiles;
 		abortInCaseOfInconsistency = commandLine.abortInCaseOfInconsistency;
-		limit = null;
-		if (commandLine.limit != null) {
-			String limitStr = commandLine.limit.trim();
-			if (!limitStr.isEmpty()) {
-				limit = Long.parseLong(commandLine.limit);
+		limit = parseRowCount(commandLine.limit);
+		rowBudget = parseRowCount(commandLine.rowBudget);
+		tableRowBudget = parseRowCount(commandLine.tableRowBudget);
+		localDatabaseStorage = commandLine.localDatabaseStorage;
+	}
+
+	private static Long parseRowCount(String rowCount) {
+		if (rowCount != null) {
+			String rowCountStr = rowCount.trim();
+			if (!rowCountStr.isEmpty()) {
+				return Long.parseLong(rowCountStr);
 			}
 		}
-		localDatabaseStorage = commandLine.localDatabaseStorage;
+		return null;
 	}
 
 	private Map<String, String> copy(Map<String, String> map) {
@@ -22,6 +22,7 @@ import java.net.URL;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -60,6 +61,7 @@ public class Subsetter {
 		this.dbms = other.dbms;
 		this.executionContext = new ExecutionContext(other.executionContext);
 		this.extractionModelURL = other.extractionModelURL;
+		this.verifiedWorkingTables = other.verifiedWorkingTables;
 	}
 
 	/**
@@ -181,7 +183,9 @@ public class Subsetter {
 					throw new IllegalStateException("no DBMS set but data-source is not net.sf.jailer.database.BasicDataSource");
 				}
 			}
-			return new SubsettingEngine(executionContext).export(
+			SubsettingEngine engine = new SubsettingEngine(executionContext);
+			engine.setVerifiedWorkingTables(verifiedWorkingTables);
+			return engine.export(
 					whereClause,
 					getExtractionModelURL(),
 					exportScriptFile == null? null : exportScriptFile.getAbsolutePath(),
@@ -877,4 +881,9 @@ public class Subsetter {
 	private DataSource dataSource;
 	private DBMS dbms;
 
+	/**
+	 * Working-table configurations already verified, shared by the requests of a {@link SubsettingService}.
+	 */
+	Set<String> verifiedWorkingTables;
+
 }
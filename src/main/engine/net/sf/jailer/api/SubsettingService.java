@@ -0,0 +1,198 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.database.BasicDataSource;
+import net.sf.jailer.database.WorkingTableScope;
+import net.sf.jailer.subsetting.ExportStatistic;
+
+/**
+ * Long-lived service for embedded use that executes many subsetting requests
+ * against the same source database and extraction model.<br>
+ * <br>
+ * All requests share
+ * <ul>
+ * <li>the pool of parsed extraction models (keyed by model, parameters and schema mapping),</li>
+ * <li>the connection pool of the data source (use a {@link BasicDataSource} with a sufficient <code>maxPoolSize</code>) and</li>
+ * <li>the knowledge of which global working tables are already up-to-date (keyed by data model and its universal primary key).</li>
+ * </ul>
+ * Requests may be executed concurrently. Each request is admitted only when enough of the
+ * service's connections are available; waiting requests are admitted in arrival order.
+ *
+ * @author Ralf Wisser
+ */
+public class SubsettingService {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(SubsettingService.class);
+
+	private final Subsetter template;
+	private final int maxConnections;
+	private final Semaphore availableConnections;
+	private final Set<String> verifiedWorkingTables = Collections.synchronizedSet(new HashSet<String>());
+	private final AtomicInteger numActiveRequests = new AtomicInteger(0);
+
+	/**
+	 * Creates a new service.
+	 *
+	 * @param template the subsetter with the settings all requests have in common (data source, models, script format, ...)
+	 * @param maxConnections maximum number of connections used concurrently by all requests
+	 */
+	public SubsettingService(Subsetter template, int maxConnections) {
+		if (maxConnections < 1) {
+			throw new IllegalArgumentException("maxConnections < 1");
+		}
+		this.template = new Subsetter(template);
+		this.template.verifiedWorkingTables = verifiedWorkingTables;
+		if (this.template.getModelPoolSize() < maxConnections) {
+			this.template.setModelPoolSize(maxConnections);
+		}
+		this.maxConnections = maxConnections;
+		this.availableConnections = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * Creates a new request. The request is a copy of the template
+	 * and can be customized (parameters, limit, ...) before it is passed to {@link #execute(Subsetter, String, File, File)}.
+	 *
+	 * @return new request
+	 */
+	public Subsetter createRequest() {
+		return new Subsetter(template);
+	}
+
+	/**
+	 * Generates the export-script.
+	 *
+	 * @param parameters parameter values of this request, overriding those of the template. Optional.
+	 * @param limit maximum allowed number of exported rows. Optional.
+	 * @param whereClause if not <code>null</code>, overrides the extraction model's subject condition
+	 * @param exportScriptFile the export-script file (compressed if it ends with '.zip' or '.gz')
+	 *
+	 * @return export statistic
+	 */
+	public ExportStatistic execute(Map<String, String> parameters, Long limit, String whereClause, File exportScriptFile) throws SQLException, IOException {
+		Subsetter request = createRequest();
+		if (parameters != null) {
+			for (Map.Entry<String, String> e: parameters.entrySet()) {
+				request.setParameter(e.getKey(), e.getValue());
+			}
+		}
+		if (limit != null) {
+			request.getExecutionContext().setLimit(limit);
+		}
+		return execute(request, whereClause, exportScriptFile, null);
+	}
+
+	/**
+	 * Generates the export- and/or delete-script. Blocks until the request is admitted.
+	 *
+	 * @param request the request, created with {@link #createRequest()}
+	 * @param whereClause if not <code>null</code>, overrides the extraction model's subject condition
+	 * @param exportScriptFile the export-script file (compressed if it ends with '.zip' or '.gz'), optional
+	 * @param deleteScriptFile the delete-script file (compressed if it ends with '.zip' or '.gz'), optional
+	 *
+	 * @return export statistic
+	 */
+	public ExportStatistic execute(Subsetter request, String whereClause, File exportScriptFile, File deleteScriptFile) throws SQLException, IOException {
+		if (request.verifiedWorkingTables != verifiedWorkingTables) {
+			throw new IllegalArgumentException("request not created by this service");
+		}
+		int demand = connectionDemand(request);
+		availableConnections.acquireUninterruptibly(demand);
+		try {
+			_log.info("executing request (" + numActiveRequests.incrementAndGet() + " active, " + availableConnections.getQueueLength() + " waiting)");
+			return executeAdmitted(request, whereClause, exportScriptFile, deleteScriptFile);
+		} catch (SQLException e) {
+			// working tables might have been dropped or altered in the meantime
+			verifiedWorkingTables.clear();
+			throw e;
+		} finally {
+			numActiveRequests.decrementAndGet();
+			availableConnections.release(demand);
+		}
+	}
+
+	/**
+	 * Executes a request that has been admitted.
+	 *
+	 * @param request the request
+	 * @param whereClause if not <code>null</code>, overrides the extraction model's subject condition
+	 * @param exportScriptFile the export-script file, optional
+	 * @param deleteScriptFile the delete-script file, optional
+	 *
+	 * @return export statistic
+	 */
+	protected ExportStatistic executeAdmitted(Subsetter request, String whereClause, File exportScriptFile, File deleteScriptFile) throws SQLException, IOException {
+		return request.execute(whereClause, exportScriptFile, deleteScriptFile);
+	}
+
+	/**
+	 * Gets the number of connections a request needs concurrently.
+	 * Each collector thread uses a connection of its own.
+	 * Requests using temporary working tables need one more for the session that holds them.
+	 */
+	private int connectionDemand(Subsetter request) {
+		int demand = Math.max(1, request.getNumberOfThreads());
+		WorkingTableScope scope = request.getExecutionContext().getScope();
+		if (scope == WorkingTableScope.SESSION_LOCAL || scope == WorkingTableScope.TRANSACTION_LOCAL) {
+			++demand;
+		}
+		return Math.min(demand, maxConnections);
+	}
+
+	/**
+	 * Forces the next request to check whether the working tables are up-to-date.
+	 * Call this after the working tables have been dropped or altered outside of this service.
+	 */
+	public void invalidateWorkingTables() {
+		verifiedWorkingTables.clear();
+	}
+
+	/**
+	 * Gets the number of requests currently being executed.
+	 *
+	 * @return number of requests currently being executed
+	 */
+	public int getNumActiveRequests() {
+		return numActiveRequests.get();
+	}
+
+	/**
+	 * Gets the number of requests waiting for admission.
+	 *
+	 * @return number of requests waiting for admission
+	 */
+	public int getNumWaitingRequests() {
+		return availableConnections.getQueueLength();
+	}
+
+}
@@ -45,6 +45,8 @@ import net.sf.jailer.render.HtmlDataModelRenderer;
 	"additionalSQLKeywords",
 	"urlRewriteRule",
 	"databaseConnectionInteractiveTimeout",
+	"fastPKCheckSamplePercent",
+	"fastPKCheckFullScanBudget",
 	"generateUpsertStatementsWithoutNulls"
 })
 @JsonIgnoreProperties({
@@ -53,7 +55,9 @@ import net.sf.jailer.render.HtmlDataModelRenderer;
 	"commentRenderer",
 	"commentAdditionalSQLKeywords",
 	"commentDatabaseConnectionInteractiveTimeout",
-	"commentColumnsPerIFMTable"
+	"commentColumnsPerIFMTable",
+	"commentFastPKCheckSamplePercent",
+	"commentFastPKCheckFullScanBudget"
 })
 public class Configuration {
 	
@@ -200,6 +204,16 @@ public class Configuration {
 	 */
 	private int databaseConnectionInteractiveTimeout = 240;
 
+	/**
+	 * Sample size of the fast primary key check in percent.
+	 */
+	private double fastPKCheckSamplePercent = 1.0;
+
+	/**
+	 * Time budget for full table scans of the fast primary key check in seconds.
+	 */
+	private int fastPKCheckFullScanBudget = 600;
+
 	private String additionalSQLKeywords;
 
 	/**
@@ -256,6 +270,42 @@ public class Configuration {
 		this.databaseConnectionInteractiveTimeout = databaseConnectionInteractiveTimeout;
 	}
 
+	/**
+	 * Gets the sample size of the fast primary key check in percent.
+	 *
+	 * @return the sample size in percent
+	 */
+	public double getFastPKCheckSamplePercent() {
+		return fastPKCheckSamplePercent;
+	}
+
+	/**
+	 * Sets the sample size of the fast primary key check in percent.
+	 *
+	 * @param fastPKCheckSamplePercent the sample size in percent
+	 */
+	public void setFastPKCheckSamplePercent(double fastPKCheckSamplePercent) {
+		this.fastPKCheckSamplePercent = fastPKCheckSamplePercent;
+	}
+
+	/**
+	 * Gets the time budget for full table scans of the fast primary key check in seconds.
+	 *
+	 * @return the time budget in seconds
+	 */
+	public int getFastPKCheckFullScanBudget() {
+		return fastPKCheckFullScanBudget;
+	}
+
+	/**
+	 * Sets the time budget for full table scans of the fast primary key check in seconds.
+	 *
+	 * @param fastPKCheckFullScanBudget the time budget in seconds
+	 */
+	public void setFastPKCheckFullScanBudget(int fastPKCheckFullScanBudget) {
+		this.fastPKCheckFullScanBudget = fastPKCheckFullScanBudget;
+	}
+
 	/**
 	 * The configuration.
 	 */
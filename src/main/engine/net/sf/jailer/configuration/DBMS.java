@@ -45,6 +45,7 @@ import net.sf.jailer.database.SqlScriptBasedStatisticRenovator;
 	"jdbcProperties",
 	"stringLiteralEscapeSequences",
 	"sqlLimitSuffix",
+	"tableSampleClause",
 	"tableProperties",
 	"sessionTemporaryTableManager",
 	"ncharPrefix",
@@ -228,6 +229,11 @@ public class DBMS {
 	 */
 	private String sqlLimitSuffix;
 
+	/**
+	 * Clause following the table alias in the FROM clause to sample a percentage of the rows.
+	 */
+	private String tableSampleClause;
+
 	private Integer varcharLengthLimit = null;
 
 	private String tableProperties = "";
@@ -1055,6 +1061,24 @@ public class DBMS {
 		return sqlLimitSuffix;
 	}
 
+	/**
+	 * Sets the clause following the table alias in the FROM clause to sample a percentage of the rows.
+	 *
+	 * @param tableSampleClause the table sample clause to set, with "%s" as placeholder for the percentage
+	 */
+	public void setTableSampleClause(String tableSampleClause) {
+		this.tableSampleClause = tableSampleClause;
+	}
+
+	/**
+	 * Gets the clause following the table alias in the FROM clause to sample a percentage of the rows.
+	 *
+	 * @return the table sample clause, with "%s" as placeholder for the percentage, or <code>null</code> if not supported
+	 */
+	public String getTableSampleClause() {
+		return tableSampleClause;
+	}
+
 	/**
 	 * Gets the maximum length for VARCHAR columns, or {@code null} if unlimited.
 	 *
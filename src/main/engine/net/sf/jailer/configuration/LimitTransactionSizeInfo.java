@@ -73,8 +73,19 @@ public class LimitTransactionSizeInfo {
 	 * @return fragment (may be the empty string)
 	 */
 	public String afterSelectFragment(ExecutionContext executionContext) {
+		return afterSelectFragment(executionContext, limit);
+	}
+
+	/**
+	 * Gets fragment to be inserted into a select statement after the "SELECT".
+	 *
+	 * @param executionContext the execution context
+	 * @param size the number of rows per operation
+	 * @return fragment (may be the empty string)
+	 */
+	public String afterSelectFragment(ExecutionContext executionContext, long size) {
 		if (afterSelect != null && !afterSelect.trim().isEmpty() && isApplicable(executionContext)) {
-			return String.format(Locale.ENGLISH, afterSelect, limit) + " ";
+			return String.format(Locale.ENGLISH, afterSelect, size) + " ";
 		} else {
 			return "";
 		}
@@ -87,8 +98,19 @@ public class LimitTransactionSizeInfo {
 	 * @return fragment (may be the empty string)
 	 */
 	public String additionalWhereConditionFragment(ExecutionContext executionContext) {
+		return additionalWhereConditionFragment(executionContext, limit);
+	}
+
+	/**
+	 * Gets fragment to be inserted as condition into the "WHERE".
+	 *
+	 * @param executionContext the execution context
+	 * @param size the number of rows per operation
+	 * @return fragment (may be the empty string)
+	 */
+	public String additionalWhereConditionFragment(ExecutionContext executionContext, long size) {
 		if (additionalWhereCondition != null && !additionalWhereCondition.trim().isEmpty() && isApplicable(executionContext)) {
-			return "and " + String.format(Locale.ENGLISH, additionalWhereCondition, limit) + " ";
+			return "and " + String.format(Locale.ENGLISH, additionalWhereCondition, size) + " ";
 		} else {
 			return "";
 		}
@@ -101,8 +123,19 @@ public class LimitTransactionSizeInfo {
 	 * @return fragment (may be the empty string)
 	 */
 	public String statementSuffixFragment(ExecutionContext executionContext) {
+		return statementSuffixFragment(executionContext, limit);
+	}
+
+	/**
+	 * Gets fragment to be appended.
+	 *
+	 * @param executionContext the execution context
+	 * @param size the number of rows per operation
+	 * @return fragment (may be the empty string)
+	 */
+	public String statementSuffixFragment(ExecutionContext executionContext, long size) {
 		if (statementSuffix != null && !statementSuffix.trim().isEmpty() && isApplicable(executionContext)) {
-			return String.format(Locale.ENGLISH, statementSuffix, limit) + " ";
+			return String.format(Locale.ENGLISH, statementSuffix, size) + " ";
 		} else {
 			return "";
 		}
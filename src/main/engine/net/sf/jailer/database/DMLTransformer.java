@@ -16,10 +16,15 @@
 
 package net.sf.jailer.database;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.ResultSet;
@@ -46,6 +51,7 @@ import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.Filter;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.subsetting.ScriptSegments;
 import net.sf.jailer.subsetting.TransformerFactory;
 import net.sf.jailer.util.Base64;
 import net.sf.jailer.util.CellContentConverter;
@@ -181,6 +187,21 @@ public class DMLTransformer extends AbstractResultSetReader {
 	private final Set<String> primaryKeyColumnNames;
 	private final Set<String> nullableColumnNames;
 
+	/**
+	 * Folder into which the content of LOBs is written, <code>null</code> if the content is written into the script.
+	 */
+	private File lobDirectory;
+
+	/**
+	 * Numbers the LOB files.
+	 */
+	private AtomicLong lobFileCounter;
+
+	/**
+	 * Size of the buffer used to transfer LOB content into LOB files.
+	 */
+	private static final int LOB_BUFFER_SIZE = 1024 * 64;
+
 	/**
 	 * Factory.
 	 */
@@ -193,6 +214,9 @@ public class DMLTransformer extends AbstractResultSetReader {
 		private final DBMS targetDBMSConfiguration;
 		private ImportFilterTransformer importFilterTransformer;
 		private final AtomicReference<Table> identityInsertTable = new AtomicReference<Table>();
+		private final AtomicLong lobFileCounter = new AtomicLong();
+		private File lobDirectory;
+		private volatile ScriptSegments scriptSegments;
 
 		/**
 		 * The execution context.
@@ -227,7 +251,35 @@ public class DMLTransformer extends AbstractResultSetReader {
 		 */
 		@Override
 		public ResultSetReader create(Table table) throws SQLException {
-			return new DMLTransformer(table, scriptFileWriter, upsertOnly, maxBodySize, session, targetDBMSConfiguration, importFilterTransformer, identityInsertTable, executionContext);
+			ScriptSegments.Segment segment = scriptSegments != null? scriptSegments.get(table) : null;
+			DMLTransformer transformer;
+			if (segment != null) {
+				transformer = new DMLTransformer(table, segment.getWriter(), upsertOnly, maxBodySize, session, targetDBMSConfiguration, importFilterTransformer, segment.getIdentityInsertTable(), executionContext);
+			} else {
+				transformer = new DMLTransformer(table, scriptFileWriter, upsertOnly, maxBodySize, session, targetDBMSConfiguration, importFilterTransformer, identityInsertTable, executionContext);
+			}
+			transformer.lobDirectory = lobDirectory;
+			transformer.lobFileCounter = lobFileCounter;
+			return transformer;
+		}
+
+		/**
+		 * Sets the folder into which the content of CLOBs/BLOBs/XMLs is written.
+		 * The script then only references these files.
+		 *
+		 * @param lobDirectory the folder (next to the script file) or <code>null</code> to write the content into the script
+		 */
+		public void setLobDirectory(File lobDirectory) {
+			this.lobDirectory = lobDirectory;
+		}
+
+		/**
+		 * Sets the segments into which the rows of the tables are written instead of into the script.
+		 *
+		 * @param scriptSegments the segments or <code>null</code> to write into the script
+		 */
+		public void setScriptSegments(ScriptSegments scriptSegments) {
+			this.scriptSegments = scriptSegments;
 		}
 
 		/**
@@ -874,6 +926,10 @@ public class DMLTransformer extends AbstractResultSetReader {
 	 * @param resultSet export current row
 	 */
 	private void exportLobs(Table table, ResultSet resultSet, Set<Integer> smallLobsIndexes) throws IOException, SQLException {
+		if (lobDirectory != null) {
+			exportLobsIntoFiles(table, resultSet, smallLobsIndexes);
+			return;
+		}
 		synchronized (scriptFileWriter) {
 			CellContentConverter cellContentConverter = getCellContentConverter(resultSet, session, targetDBMSConfiguration);
 			for (int i = 0; i < lobColumnIndexes.size(); ++i) {
@@ -881,32 +937,7 @@ public class DMLTransformer extends AbstractResultSetReader {
 					continue;
 				}
 				Object lob = cellContentConverter.getObject(resultSet, lobColumnIndexes.get(i));
-				Map<String, String> val = new HashMap<String, String>();
-				for (int j = 1; j <= columnCount; ++j) {
-					if (columnLabel[j] == null) {
-						continue;
-					}
-					Object content = cellContentConverter.getObject(resultSet, j);
-					if (resultSet.wasNull()) {
-						content = null;
-					}
-					String cVal = cellContentConverter.toSql(content);
-					val.put(columnLabel[j], cVal);
-				}
-				boolean f = true;
-				StringBuffer where = new StringBuffer("");
-				if (table.getNonVirtualPKColumns(session).isEmpty()) {
-					throw new DataModel.NoPrimaryKeyException(table, "has no " +
-							(table.primaryKey != null && table.primaryKey.getColumns() != null && !table.primaryKey.getColumns().isEmpty()? "non-virtual " : "") +
-							"primary key. Update statement to import CLOB/BLOB/XML can not be generated.");
-				}
-				for (Column pk: table.getNonVirtualPKColumns(session)) {
-					if (!f) {
-						where.append(" and ");
-					}
-					f = false;
-					where.append(quoting.requote(pk.name) + "=" + val.get(pk.name));
-				}
+				String where = lobRowCondition(table, resultSet, cellContentConverter);
 				if (lob instanceof SQLXML) {
 					numberOfExportedLOBs.incrementAndGet();
 					flush();
@@ -992,6 +1023,100 @@ public class DMLTransformer extends AbstractResultSetReader {
 		}
 	}
 
+	/**
+	 * Exports the (c|b)lob content into separate files. Only the reference to the file is written into the script,
+	 * so that the script file is not locked while the content is transferred.
+	 *
+	 * @param resultSet export current row
+	 */
+	private void exportLobsIntoFiles(Table table, ResultSet resultSet, Set<Integer> smallLobsIndexes) throws IOException, SQLException {
+		CellContentConverter cellContentConverter = getCellContentConverter(resultSet, session, targetDBMSConfiguration);
+		String where = null;
+		for (int i = 0; i < lobColumnIndexes.size(); ++i) {
+			if (smallLobsIndexes.contains(lobColumnIndexes.get(i))) {
+				continue;
+			}
+			Object lob = cellContentConverter.getObject(resultSet, lobColumnIndexes.get(i));
+			String type;
+			if (lob instanceof SQLXML) {
+				type = "XML";
+			} else if (lob instanceof Clob) {
+				type = "CLOB";
+			} else if (lob instanceof Blob) {
+				type = "BLOB";
+			} else {
+				continue;
+			}
+			if (where == null) {
+				where = lobRowCondition(table, resultSet, cellContentConverter);
+			}
+			numberOfExportedLOBs.getAndIncrement();
+			String fileName = lobFileCounter.incrementAndGet() + "." + type.toLowerCase(Locale.ENGLISH);
+			File lobFile = new File(lobDirectory, fileName);
+			long length = 0;
+			if (lob instanceof Blob) {
+				try (InputStream in = ((Blob) lob).getBinaryStream(); OutputStream out = new FileOutputStream(lobFile)) {
+					byte[] buffer = new byte[LOB_BUFFER_SIZE];
+					int n;
+					while ((n = in.read(buffer)) != -1) {
+						out.write(buffer, 0, n);
+						length += n;
+					}
+				}
+			} else {
+				try (Reader in = lob instanceof SQLXML? ((SQLXML) lob).getCharacterStream() : ((Clob) lob).getCharacterStream();
+						Writer out = new OutputStreamWriter(new FileOutputStream(lobFile), StandardCharsets.UTF_8)) {
+					char[] buffer = new char[LOB_BUFFER_SIZE];
+					int n;
+					while ((n = in.read(buffer)) != -1) {
+						out.write(buffer, 0, n);
+						length += n;
+					}
+				}
+			}
+			synchronized (scriptFileWriter) {
+				flush();
+				writeToScriptFile(SqlScriptExecutor.UNFINISHED_MULTILINE_COMMENT + SqlScriptExecutor.LOB_FILE + " " + type + " " + length + " " + lobDirectory.getName() + "/" + fileName + ", " + qualifiedTableName(table) + ", " + lobColumns.get(i) + ", " + where + PrintUtil.LINE_SEPARATOR, false);
+			}
+		}
+	}
+
+	/**
+	 * Gets the condition identifying the current row for the statements importing the LOBs.
+	 *
+	 * @param resultSet export current row
+	 * @return condition on the primary key
+	 */
+	private String lobRowCondition(Table table, ResultSet resultSet, CellContentConverter cellContentConverter) throws SQLException {
+		Map<String, String> val = new HashMap<String, String>();
+		for (int j = 1; j <= columnCount; ++j) {
+			if (columnLabel[j] == null) {
+				continue;
+			}
+			Object content = cellContentConverter.getObject(resultSet, j);
+			if (resultSet.wasNull()) {
+				content = null;
+			}
+			String cVal = cellContentConverter.toSql(content);
+			val.put(columnLabel[j], cVal);
+		}
+		boolean f = true;
+		StringBuffer where = new StringBuffer("");
+		if (table.getNonVirtualPKColumns(session).isEmpty()) {
+			throw new DataModel.NoPrimaryKeyException(table, "has no " +
+					(table.primaryKey != null && table.primaryKey.getColumns() != null && !table.primaryKey.getColumns().isEmpty()? "non-virtual " : "") +
+					"primary key. Update statement to import CLOB/BLOB/XML can not be generated.");
+		}
+		for (Column pk: table.getNonVirtualPKColumns(session)) {
+			if (!f) {
+				where.append(" and ");
+			}
+			f = false;
+			where.append(quoting.requote(pk.name) + "=" + val.get(pk.name));
+		}
+		return where.toString();
+	}
+
 	/**
 	 * Flushes the export-reader.
 	 */
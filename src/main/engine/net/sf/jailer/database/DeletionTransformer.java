@@ -28,6 +28,7 @@ import net.sf.jailer.database.Session.ResultSetReader;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.subsetting.ScriptSegments;
 import net.sf.jailer.subsetting.TransformerFactory;
 import net.sf.jailer.util.CellContentConverter;
 import net.sf.jailer.util.PrintUtil;
@@ -86,6 +87,7 @@ public class DeletionTransformer extends AbstractResultSetReader {
 		private final OutputStreamWriter scriptFileWriter;
 		private final Session session;
 		private final DBMS targetDBMSConfiguration;
+		private volatile ScriptSegments scriptSegments;
 		
 		/**
 		 * The execution context.
@@ -118,7 +120,17 @@ public class DeletionTransformer extends AbstractResultSetReader {
 		 */
 		@Override
 		public ResultSetReader create(Table table) throws SQLException {
-			return new DeletionTransformer(table, scriptFileWriter, maxBodySize, session, targetDBMSConfiguration, executionContext);
+			ScriptSegments.Segment segment = scriptSegments != null? scriptSegments.get(table) : null;
+			return new DeletionTransformer(table, segment != null? segment.getWriter() : scriptFileWriter, maxBodySize, session, targetDBMSConfiguration, executionContext);
+		}
+
+		/**
+		 * Sets the segments into which the rows of the tables are written instead of into the script.
+		 * 
+		 * @param scriptSegments the segments or <code>null</code> to write into the script
+		 */
+		public void setScriptSegments(ScriptSegments scriptSegments) {
+			this.scriptSegments = scriptSegments;
 		}
 	}
 
@@ -15,16 +15,23 @@
  */
 package net.sf.jailer.database;
 
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.modelbuilder.JDBCMetaDataBasedModelElementFinder;
@@ -35,7 +42,15 @@ import net.sf.jailer.util.JobManager.Job;
 import net.sf.jailer.util.Quoting;
 
 /**
- * Validates all primary keys of a set of tables.
+ * Validates all primary keys of a set of tables.<br>
+ * <br>
+ * In tiered mode (see {@link #setTiered(double, long)}), tables are validated in three steps:
+ * <ol>
+ * <li>Tables whose primary key is backed by the catalog (primary key constraint, or unique index on not nullable columns) are skipped.</li>
+ * <li>A sample of each remaining table is checked for duplicate keys among the sampled rows only, so that the table is not scanned.
+ * If the sample contains duplicates, the table is checked completely.</li>
+ * <li>Only tables that cannot be sampled are scanned fully, as long as the time budget permits.</li>
+ * </ol>
  *
  * @author Ralf Wisser
  */
@@ -43,6 +58,16 @@ public abstract class PrimaryKeyValidator {
 
 	private final Object cancellationContext;
 
+	/**
+	 * Size of the samples in percent, 0 for full validation.
+	 */
+	private double samplePercent = 0;
+
+	/**
+	 * Time budget for full scans in tiered mode in milliseconds, 0 for unlimited.
+	 */
+	private long fullScanBudget = 0;
+
 	/**
 	 * Constructor.
 	 *
@@ -52,6 +77,17 @@ public abstract class PrimaryKeyValidator {
 		this.cancellationContext = cancellationContext;
 	}
 
+	/**
+	 * Switches to tiered mode.
+	 *
+	 * @param samplePercent size of the samples in percent, 0 for full validation of all tables
+	 * @param fullScanBudget time budget for full scans in milliseconds, 0 for unlimited
+	 */
+	public void setTiered(double samplePercent, long fullScanBudget) {
+		this.samplePercent = samplePercent;
+		this.fullScanBudget = fullScanBudget;
+	}
+
 	/**
 	 * Validates all primary keys of a set of tables.
 	 *
@@ -64,7 +100,13 @@ public abstract class PrimaryKeyValidator {
 		numTotal.set(0);
 		numErrors.set(0);
 		numDone.set(0);
+		provenByCatalog.clear();
+		sampled.clear();
+		notChecked.clear();
+		startTime = System.currentTimeMillis();
 		updateProgressBar();
+		final boolean tiered = samplePercent > 0;
+		final String sampleClause = tiered? sampleClause(session.dbms, samplePercent) : null;
 
 		String defaultSchema = JDBCMetaDataBasedModelElementFinder.getDefaultSchema(session, session.getSchema());
 		List<JobManager.Job> jobsUDPK = new ArrayList<JobManager.Job>();
@@ -99,9 +141,17 @@ public abstract class PrimaryKeyValidator {
 					// real PK
 					realPK = true;
 				}
+				if (tiered && (realPK || isUniqueByCatalog(session, table, defaultSchema, tabPkColumns))) {
+					provenByCatalog.add(table);
+				}
 			} catch (Exception e) {
 				// ignore
 			}
+			if (provenByCatalog.contains(table)) {
+				numDone.getAndAdd(3);
+				updateProgressBar();
+				continue;
+			}
 
 			List<JobManager.Job> jobListToAddTo;
 			if (realPK) {
@@ -113,16 +163,47 @@ public abstract class PrimaryKeyValidator {
 			numDone.getAndIncrement();
 			updateProgressBar();
 			
-			jobListToAddTo.add(() -> {
-				checkUniqueness(session, table, Quoting.getQuoting(session));
-				numDone.getAndIncrement();
-				updateProgressBar();
-			});
-			jobListToAddTo.add(() -> {
-				checkNoNull(session, table, Quoting.getQuoting(session));
-				numDone.getAndIncrement();
-				updateProgressBar();
-			});
+			if (sampleClause != null) {
+				jobListToAddTo.add(() -> {
+					SampleResult result = checkUniquenessOfSample(session, table, Quoting.getQuoting(session), sampleClause);
+					if (result == SampleResult.CLEAN) {
+						sampled.add(table);
+					} else if (result == SampleResult.SUSPICIOUS) {
+						// confirm and report the duplicates regardless of the time budget
+						checkUniqueness(session, table, Quoting.getQuoting(session));
+					} else {
+						fullScan(session, table, () -> checkUniqueness(session, table, Quoting.getQuoting(session)));
+					}
+					numDone.getAndIncrement();
+					updateProgressBar();
+				});
+				jobListToAddTo.add(() -> {
+					if (!checkNoNull(session, table, Quoting.getQuoting(session), sampleClause)) {
+						fullScan(session, table, () -> checkNoNull(session, table, Quoting.getQuoting(session), null));
+					}
+					numDone.getAndIncrement();
+					updateProgressBar();
+				});
+			} else {
+				jobListToAddTo.add(() -> {
+					if (tiered) {
+						fullScan(session, table, () -> checkUniqueness(session, table, Quoting.getQuoting(session)));
+					} else {
+						checkUniqueness(session, table, Quoting.getQuoting(session));
+					}
+					numDone.getAndIncrement();
+					updateProgressBar();
+				});
+				jobListToAddTo.add(() -> {
+					if (tiered) {
+						fullScan(session, table, () -> checkNoNull(session, table, Quoting.getQuoting(session), null));
+					} else {
+						checkNoNull(session, table, Quoting.getQuoting(session), null);
+					}
+					numDone.getAndIncrement();
+					updateProgressBar();
+				});
+			}
 		}
 
 		Collection<Job> jobs = new ArrayList<JobManager.Job>();
@@ -161,6 +242,24 @@ public abstract class PrimaryKeyValidator {
 		}
 	}
 
+	/**
+	 * A validation step.
+	 */
+	private interface Check {
+		void run() throws SQLException;
+	}
+
+	/**
+	 * Runs a full scan if the time budget permits.
+	 */
+	private void fullScan(Session session, Table table, Check check) throws SQLException {
+		if (fullScanBudget > 0 && System.currentTimeMillis() - startTime > fullScanBudget) {
+			notChecked.add(table);
+			return;
+		}
+		check.run();
+	}
+
 	private void checkUniqueness(Session session, final Table table, Quoting quoting) throws SQLException {
 		StringBuilder pks = new StringBuilder();
 		for (Column pkCol: table.primaryKey.getColumns()) {
@@ -183,7 +282,52 @@ public abstract class PrimaryKeyValidator {
 		}
 	}
 
-	private void checkNoNull(Session session, final Table table, Quoting quoting) throws SQLException {
+	/**
+	 * Outcome of checking a sample.
+	 */
+	private enum SampleResult {
+		CLEAN, SUSPICIOUS, NOT_SAMPLEABLE
+	}
+
+	/**
+	 * Checks whether the rows of a sample contain duplicate primary keys.
+	 * Only the sampled rows are compared with each other, the table is not scanned.
+	 *
+	 * @param sampleClause the clause restricting the table to a sample
+	 * @return {@link SampleResult#SUSPICIOUS} if the sample contains duplicates,
+	 * {@link SampleResult#NOT_SAMPLEABLE} if the sample could not be checked
+	 */
+	private SampleResult checkUniquenessOfSample(Session session, final Table table, Quoting quoting, String sampleClause) throws SQLException {
+		StringBuilder pks = new StringBuilder();
+		for (Column pkCol: table.primaryKey.getColumns()) {
+			if (pks.length() > 0) {
+				pks.append(", ");
+			}
+			pks.append(quoting.requote(pkCol.name));
+		}
+		final String sql = "Select " + pks + " from " + quoting.requote(table.getName()) + sampleClause + " " +
+				"Group by " + pks + " having count(*) > 1";
+		final boolean[] duplicateFound = new boolean[1];
+		try {
+			session.executeQuery(sql, new Session.AbstractResultSetReader() {
+				@Override
+				public void readCurrentRow(ResultSet resultSet) throws SQLException {
+					duplicateFound[0] = true;
+				}
+			}, null, cancellationContext, 1, true);
+		} catch (SqlException e) {
+			return SampleResult.NOT_SAMPLEABLE;
+		}
+		return duplicateFound[0]? SampleResult.SUSPICIOUS : SampleResult.CLEAN;
+	}
+
+	/**
+	 * Checks that the primary key contains no null.
+	 *
+	 * @param sampleClause if not <code>null</code>, only a sample is checked
+	 * @return <code>false</code> if the sample could not be checked
+	 */
+	private boolean checkNoNull(Session session, final Table table, Quoting quoting, String sampleClause) throws SQLException {
 		StringBuilder hasNull = new StringBuilder();
 		for (Column pkCol: table.primaryKey.getColumns()) {
 			if (!pkCol.isNullable) {
@@ -194,7 +338,7 @@ public abstract class PrimaryKeyValidator {
 			}
 		}
 		if (hasNull.length() > 0) {
-			final String sql = "Select * from " + quoting.requote(table.getName()) + " " +
+			final String sql = "Select * from " + quoting.requote(table.getName()) + (sampleClause != null? sampleClause : "") + " " +
 					"Where " + hasNull;
 			try {
 				session.executeQuery(sql, new Session.AbstractResultSetReader() {
@@ -204,9 +348,79 @@ public abstract class PrimaryKeyValidator {
 					}
 				}, null, cancellationContext, 1, true);
 			} catch (SqlException e) {
+				if (sampleClause != null) {
+					return false;
+				}
 				addError(table, "Table \"" + table.getName() + "\": " + e.message, sql.toString());
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the catalog guarantees the uniqueness of the primary key,
+	 * that is, there is a unique index on a subset of the primary key columns and all of them are not nullable.
+	 */
+	private boolean isUniqueByCatalog(Session session, Table table, String defaultSchema, Set<String> pkColumns) throws SQLException {
+		String schema = Quoting.staticUnquote(table.getSchema(defaultSchema));
+		String tableName = Quoting.staticUnquote(table.getUnqualifiedName());
+
+		Set<String> notNullColumns = new HashSet<String>();
+		try (ResultSet resultSet = JDBCMetaDataBasedModelElementFinder.getColumns(session, schema, tableName, "%", true, false, null)) {
+			while (resultSet.next()) {
+				if (Quoting.equalsWROSearchPattern(tableName, resultSet.getString(3)) && resultSet.getInt(11) == DatabaseMetaData.columnNoNulls) {
+					notNullColumns.add(Quoting.normalizeIdentifier(resultSet.getString(4)));
+				}
+			}
+		}
+		if (!notNullColumns.containsAll(pkColumns)) {
+			return false;
+		}
+
+		Map<String, Set<String>> uniqueIndexes = new HashMap<String, Set<String>>();
+		try (ResultSet resultSet = JDBCMetaDataBasedModelElementFinder.getIndexInfo(session, schema, tableName, true, true)) {
+			while (resultSet.next()) {
+				String indexName = resultSet.getString(6);
+				if (indexName == null || resultSet.getBoolean(4) || !Quoting.equalsWROSearchPattern(tableName, resultSet.getString(3))) {
+					continue;
+				}
+				String column = resultSet.getString(9);
+				Set<String> indexColumns = uniqueIndexes.get(indexName);
+				if (indexColumns == null) {
+					indexColumns = new HashSet<String>();
+					uniqueIndexes.put(indexName, indexColumns);
+				}
+				// expressions are never part of the key
+				indexColumns.add(column == null? "" : Quoting.normalizeIdentifier(column));
+			}
+		}
+		for (Set<String> indexColumns: uniqueIndexes.values()) {
+			if (!indexColumns.isEmpty() && pkColumns.containsAll(indexColumns)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the clause that restricts a table to a random sample.
+	 *
+	 * @param dbms the DBMS
+	 * @param samplePercent size of the sample in percent of the table
+	 * @return the clause to be appended to the table name or <code>null</code> if the DBMS does not support sampling
+	 */
+	public static String sampleClause(DBMS dbms, double samplePercent) {
+		String percent = BigDecimal.valueOf(Math.min(samplePercent, 99.0)).stripTrailingZeros().toPlainString();
+		if (DBMS.POSTGRESQL.equals(dbms) || DBMS.DB2.equals(dbms)) {
+			return " TABLESAMPLE SYSTEM (" + percent + ")";
+		}
+		if (DBMS.MSSQL.equals(dbms)) {
+			return " TABLESAMPLE (" + percent + " PERCENT)";
+		}
+		if (DBMS.ORACLE.equals(dbms)) {
+			return " SAMPLE BLOCK (" + percent + ")";
+		}
+		return null;
 	}
 
 	private List<String> errorMessage = new LinkedList<String>();
@@ -220,6 +434,53 @@ public abstract class PrimaryKeyValidator {
 	protected AtomicInteger numDone = new AtomicInteger();
 	protected AtomicInteger numTotal = new AtomicInteger();
 
+	private volatile long startTime;
+	private final Set<Table> provenByCatalog = Collections.synchronizedSet(new HashSet<Table>());
+	private final Set<Table> sampled = Collections.synchronizedSet(new HashSet<Table>());
+	private final Set<Table> notChecked = Collections.synchronizedSet(new HashSet<Table>());
+
+	/**
+	 * Gets the estimated remaining time of the validation.
+	 *
+	 * @return remaining time in milliseconds or -1 if not yet known
+	 */
+	protected long getEstimatedRemainingTime() {
+		int done = numDone.get();
+		int total = numTotal.get();
+		if (done == 0 || total == 0) {
+			return -1;
+		}
+		long elapsed = System.currentTimeMillis() - startTime;
+		return Math.max(0, elapsed * (total - done) / done);
+	}
+
+	/**
+	 * Gets the tables whose primary keys are guaranteed by the catalog and that were not checked (tiered mode only).
+	 *
+	 * @return the tables, sorted
+	 */
+	public Set<Table> getTablesProvenByCatalog() {
+		return new TreeSet<Table>(provenByCatalog);
+	}
+
+	/**
+	 * Gets the tables whose primary keys are only checked by sampling (tiered mode only).
+	 *
+	 * @return the tables, sorted
+	 */
+	public Set<Table> getSampledTables() {
+		return new TreeSet<Table>(sampled);
+	}
+
+	/**
+	 * Gets the tables that were not fully checked because the time budget was exhausted (tiered mode only).
+	 *
+	 * @return the tables, sorted
+	 */
+	public Set<Table> getNotCheckedTables() {
+		return new TreeSet<Table>(notChecked);
+	}
+
 	/**
 	 * Updates the progress bar to reflect the current validation progress.
 	 */
@@ -189,6 +189,15 @@ public class Session {
 		public void init(ResultSet resultSet) throws SQLException {
 		}
 
+		/**
+		 * Whether the reader doesn't need any more rows.
+		 *
+		 * @return <code>true</code> if reading can stop
+		 */
+		public boolean isComplete() {
+			return false;
+		}
+
 	}
 
 	/**
@@ -741,6 +750,9 @@ public class Session {
 				if (limit > 0 && rc >= limit) {
 					break;
 				}
+				if (reader instanceof AbstractResultSetReader && ((AbstractResultSetReader) reader).isComplete()) {
+					break;
+				}
 			}
 			reader.close();
 			resultSet.close();
@@ -757,6 +769,7 @@ public class Session {
 		if (getLogStatements()) {
 			_log.info(logPrefix + rc + " row(s) in " + (System.currentTimeMillis() - startTime) + " ms");
 		}
+		executed(sqlQuery, startTime);
 		return rc;
 	}
 
@@ -899,6 +912,7 @@ public class Session {
 					if (getLogStatements()) {
 						_log.info(logPrefix + "" + rowCount + " row(s) in " + (System.currentTimeMillis() - startTime) + " ms");
 					}
+					executed(sqlUpdate, startTime);
 				} catch (SQLException e) {
 					if (con != null) {
 						markConnectionAsPotentiallyInvalid(con);
@@ -1187,6 +1201,7 @@ public class Session {
 					if (getLogStatements()) {
 						_log.info(logPrefix + "" + rowCount + " row(s) in " + (System.currentTimeMillis() - startTime) + " ms");
 					}
+					executed(sql, startTime);
 				} catch (SQLException e) {
 					if (con != null) {
 						markConnectionAsPotentiallyInvalid(con);
@@ -1603,6 +1618,8 @@ public class Session {
 	private final static ThreadLocal<Boolean> sharesConnection = new ThreadLocal<Boolean>();
 
 	public final Object MD_GETCOLUMNS_LOCK = new String("MD_GETCOLUMNS_LOCK");
+	public final Object MD_GETIMPORTEDKEYS_LOCK = new String("MD_GETIMPORTEDKEYS_LOCK");
+	public final Object MD_GETINDEXINFO_LOCK = new String("MD_GETINDEXINFO_LOCK");
 
 	/**
 	 * Marks the current thread as sharing a connection with other threads.
@@ -1612,6 +1629,72 @@ public class Session {
 	}
 
 	private String logPrefix = "";
+
+	/**
+	 * Records the slowest statements, if any.
+	 */
+	private volatile StatementProfiler statementProfiler;
+
+	/**
+	 * Sets the profiler that records the slowest statements.
+	 *
+	 * @param statementProfiler the profiler, <code>null</code> to stop profiling
+	 */
+	public void setStatementProfiler(StatementProfiler statementProfiler) {
+		this.statementProfiler = statementProfiler;
+	}
+
+	/**
+	 * Gets the profiler that records the slowest statements.
+	 *
+	 * @return the profiler or <code>null</code>
+	 */
+	public StatementProfiler getStatementProfiler() {
+		return statementProfiler;
+	}
+
+	/**
+	 * Observes the execution of the statements of all sessions.
+	 */
+	public interface StatementObserver {
+
+		/**
+		 * Called after a statement has been executed successfully by the executing thread.
+		 *
+		 * @param session the session
+		 * @param sql the statement
+		 * @param duration execution time in milliseconds
+		 */
+		void executed(Session session, String sql, long duration);
+	}
+
+	private static volatile StatementObserver statementObserver;
+
+	/**
+	 * Sets the observer of the statements of all sessions.
+	 *
+	 * @param statementObserver the observer, <code>null</code> to stop observing
+	 */
+	public static void setStatementObserver(StatementObserver statementObserver) {
+		Session.statementObserver = statementObserver;
+	}
+
+	/**
+	 * Notifies profiler and observer about an executed statement.
+	 */
+	private void executed(String sql, long startTime) {
+		StatementProfiler profiler = statementProfiler;
+		StatementObserver observer = statementObserver;
+		if (profiler != null || observer != null) {
+			long duration = System.currentTimeMillis() - startTime;
+			if (profiler != null) {
+				profiler.record(this, sql, duration);
+			}
+			if (observer != null) {
+				observer.executed(this, sql, duration);
+			}
+		}
+	}
 	
 	/**
 	 * Sets a prefix string that is prepended to all log messages from this session.
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.configuration.DBMS;
+
+/**
+ * Times the statements executed on behalf of an origin (an association, the subject, ...)
+ * and keeps the slowest ones so that their execution plans can be fetched afterwards.<br>
+ * Statements are only recorded while an origin is set for the executing thread.
+ *
+ * @author Ralf Wisser
+ */
+public class StatementProfiler {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(StatementProfiler.class);
+
+	/**
+	 * Maximum number of plan lines kept per statement.
+	 */
+	private static final int MAX_PLAN_LINES = 200;
+
+	/**
+	 * A recorded statement.
+	 */
+	public static class Entry {
+		public final String sql;
+		public final String origin;
+		public final long duration;
+		final Session session;
+		String plan;
+
+		Entry(Session session, String sql, String origin, long duration) {
+			this.session = session;
+			this.sql = sql;
+			this.origin = origin;
+			this.duration = duration;
+		}
+
+		/**
+		 * Gets the execution plan.
+		 *
+		 * @return the execution plan or <code>null</code> if it has not been fetched
+		 */
+		public String getPlan() {
+			return plan;
+		}
+	}
+
+	private final int maxEntries;
+	private final PriorityQueue<Entry> slowest;
+	private final ThreadLocal<String> origin = new ThreadLocal<String>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxEntries number of statements to keep
+	 */
+	public StatementProfiler(int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.slowest = new PriorityQueue<Entry>(this.maxEntries + 1, (a, b) -> Long.compare(a.duration, b.duration));
+	}
+
+	/**
+	 * Sets the origin of the statements subsequently executed by the current thread.
+	 *
+	 * @param origin the origin, <code>null</code> to stop recording
+	 */
+	public void setOrigin(String origin) {
+		if (origin == null) {
+			this.origin.remove();
+		} else {
+			this.origin.set(origin);
+		}
+	}
+
+	/**
+	 * Records an executed statement.
+	 *
+	 * @param session the session that executed the statement
+	 * @param sql the statement
+	 * @param duration execution time in milliseconds
+	 */
+	void record(Session session, String sql, long duration) {
+		String theOrigin = origin.get();
+		if (theOrigin == null) {
+			return;
+		}
+		synchronized (slowest) {
+			if (slowest.size() >= maxEntries && slowest.peek().duration >= duration) {
+				return;
+			}
+			slowest.add(new Entry(session, sql, theOrigin, duration));
+			if (slowest.size() > maxEntries) {
+				slowest.poll();
+			}
+		}
+	}
+
+	/**
+	 * Gets the slowest statements, slowest first.
+	 *
+	 * @return the slowest statements
+	 */
+	public List<Entry> getSlowestStatements() {
+		List<Entry> result;
+		synchronized (slowest) {
+			result = new ArrayList<Entry>(slowest);
+		}
+		Collections.sort(result, (a, b) -> Long.compare(b.duration, a.duration));
+		return result;
+	}
+
+	/**
+	 * Fetches the execution plans of the slowest statements using the DBMS-specific explain mechanism.
+	 * Statements for which no plan is available keep a <code>null</code> plan.
+	 *
+	 * @return the slowest statements, slowest first
+	 */
+	public List<Entry> explain() {
+		List<Entry> result = getSlowestStatements();
+		int stmtNr = 0;
+		for (Entry entry: result) {
+			DBMS dbms = entry.session.dbms;
+			if (dbms == null || dbms.getExplainQuery() == null || dbms.getExplainQuery().isEmpty()) {
+				continue;
+			}
+			String stmtId = "Jailer" + (stmtNr++ % 8);
+			try {
+				entry.plan = explain(entry.session, dbms, entry.sql, stmtId);
+			} catch (Exception e) {
+				_log.info("unable to explain statement: " + e.getMessage());
+			}
+		}
+		return result;
+	}
+
+	private String explain(Session session, DBMS dbms, String sql, String stmtId) throws SQLException {
+		Connection connection = session.getConnection();
+		synchronized (connection) {
+			if (dbms.getExplainCreateExplainTable() != null) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute(dbms.getExplainCreateExplainTable());
+				} catch (SQLException e) {
+					// explain table already exists
+				}
+			}
+			boolean prepared = false;
+			try {
+				if (dbms.getExplainPrepare() != null && !dbms.getExplainPrepare().isEmpty()) {
+					try (Statement statement = connection.createStatement()) {
+						statement.execute(String.format(Locale.ENGLISH, dbms.getExplainPrepare(), sql, stmtId));
+					}
+					prepared = true;
+				}
+				StringBuilder plan = new StringBuilder();
+				try (Statement statement = connection.createStatement()) {
+					if (statement.execute(String.format(Locale.ENGLISH, dbms.getExplainQuery(), sql, stmtId))) {
+						try (ResultSet resultSet = statement.getResultSet()) {
+							int columnCount = resultSet.getMetaData().getColumnCount();
+							int lines = 0;
+							while (resultSet.next() && lines++ < MAX_PLAN_LINES) {
+								for (int i = 1; i <= columnCount; ++i) {
+									if (i > 1) {
+										plan.append(" | ");
+									}
+									String value = resultSet.getString(i);
+									plan.append(value == null? "" : value);
+								}
+								plan.append("\n");
+							}
+						}
+					}
+				}
+				return plan.length() == 0? null : plan.toString();
+			} finally {
+				if (prepared && dbms.getExplainCleanup() != null && !dbms.getExplainCleanup().isEmpty()) {
+					try (Statement statement = connection.createStatement()) {
+						statement.execute(String.format(Locale.ENGLISH, dbms.getExplainCleanup(), sql, stmtId));
+					} catch (SQLException e) {
+						_log.info("explain cleanup failed: " + e.getMessage());
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.database;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.ExecutionContext;
+
+/**
+ * Renews the DB table statistics for the working-tables in the background.<br>
+ * A renewal is triggered as soon as one of the working tables has grown by
+ * a given factor since the last renewal. Callers are only blocked by the initial renewal.
+ *
+ * @author Ralf Wisser
+ */
+public class StatisticRenovationScheduler {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(StatisticRenovationScheduler.class);
+
+	/**
+	 * A working table must have grown by this factor since the last renewal to trigger a new one.
+	 */
+	private static final long GROWTH_FACTOR = 4;
+
+	/**
+	 * Working tables with fewer rows don't trigger a renewal.
+	 */
+	private static final long MIN_ROWCOUNT = 1000;
+
+	private final Session session;
+	private final StatisticRenovator statisticRenovator;
+	private final ExecutionContext executionContext;
+
+	/**
+	 * Row counts of the working tables at the time of the last renewal.
+	 */
+	private final Map<String, Long> rowcountsAtLastRenewal = new HashMap<String, Long>();
+
+	private Thread renewalThread;
+	private boolean initialRenewalStarted = false;
+	private boolean initialRenewalFinished = false;
+	private boolean down = false;
+	private int numRenewals = 0;
+	private long totalRenewalTime = 0;
+	private long maxRenewalTime = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param session for execution of SQL-statements
+	 * @param statisticRenovator the renovator
+	 * @param executionContext the execution context
+	 */
+	public StatisticRenovationScheduler(Session session, StatisticRenovator statisticRenovator, ExecutionContext executionContext) {
+		this.session = session;
+		this.statisticRenovator = statisticRenovator;
+		this.executionContext = executionContext;
+	}
+
+	/**
+	 * Gets the session.
+	 *
+	 * @return the session
+	 */
+	public Session getSession() {
+		return session;
+	}
+
+	/**
+	 * Starts a renewal in the background if no renewal is running and one of the working tables
+	 * has grown sufficiently. Returns immediately, except while the initial renewal is running,
+	 * which is awaited by all callers so that the collection starts with up-to-date statistics.
+	 *
+	 * @param rowcounts current row counts per working table
+	 */
+	public synchronized void check(Map<String, Long> rowcounts) {
+		awaitInitialRenewal();
+		if (renewalThread != null || down) {
+			return;
+		}
+		String trigger = null;
+		boolean initial = !initialRenewalStarted;
+		if (initial) {
+			trigger = "initially";
+			initialRenewalStarted = true;
+		} else {
+			for (Map.Entry<String, Long> e: rowcounts.entrySet()) {
+				Long last = rowcountsAtLastRenewal.get(e.getKey());
+				long current = e.getValue();
+				if (current > MIN_ROWCOUNT && (last == null || last * GROWTH_FACTOR <= current)) {
+					trigger = "after " + current + " rows in " + e.getKey();
+					break;
+				}
+			}
+		}
+		if (trigger == null) {
+			return;
+		}
+		rowcountsAtLastRenewal.putAll(rowcounts);
+		final String reason = trigger;
+		renewalThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				long startTime = System.currentTimeMillis();
+				try {
+					_log.info("gather statistics " + reason + "...");
+					statisticRenovator.renew(session, executionContext);
+				} catch (Throwable t) {
+					_log.warn("unable to update table statistics: " + t.getMessage());
+				} finally {
+					long time = System.currentTimeMillis() - startTime;
+					_log.info("statistics gathered in " + time + " ms");
+					synchronized (StatisticRenovationScheduler.this) {
+						++numRenewals;
+						totalRenewalTime += time;
+						maxRenewalTime = Math.max(maxRenewalTime, time);
+						renewalThread = null;
+						if (initial) {
+							initialRenewalFinished = true;
+						}
+						StatisticRenovationScheduler.this.notifyAll();
+					}
+				}
+			}
+		}, "StatisticRenovation");
+		renewalThread.setDaemon(true);
+		renewalThread.start();
+		if (initial) {
+			awaitInitialRenewal();
+		}
+	}
+
+	/**
+	 * Waits until the initial renewal is finished if it has been started.
+	 */
+	private synchronized void awaitInitialRenewal() {
+		while (initialRenewalStarted && !initialRenewalFinished) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Waits until the running renewal (if any) is finished.
+	 */
+	private synchronized void awaitRenewal() {
+		while (renewalThread != null) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Waits until the running renewal (if any) is finished and logs the timings.
+	 * Must be called before the working tables are dropped.
+	 */
+	public synchronized void shutDown() {
+		if (down) {
+			return;
+		}
+		down = true;
+		awaitRenewal();
+		if (numRenewals > 0) {
+			_log.info("statistics gathered " + numRenewals + " times, total " + totalRenewalTime + " ms, max " + maxRenewalTime + " ms");
+		}
+	}
+
+	/**
+	 * Gets the number of completed renewals.
+	 *
+	 * @return number of completed renewals
+	 */
+	public synchronized int getNumRenewals() {
+		return numRenewals;
+	}
+
+	/**
+	 * Gets the total time spent for renewals in milliseconds.
+	 *
+	 * @return total time spent for renewals
+	 */
+	public synchronized long getTotalRenewalTime() {
+		return totalRenewalTime;
+	}
+
+}
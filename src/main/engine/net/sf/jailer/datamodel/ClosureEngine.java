@@ -0,0 +1,405 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.datamodel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.util.LogUtil;
+
+/**
+ * Computes and caches the closures of sets of root tables together with the distances of the tables (BFS layers).<br>
+ * If the data model has been changed by a single restriction since a closure was computed,
+ * the closure is updated incrementally instead of being recomputed.
+ * Closures are published as immutable {@link Snapshot}s and can be computed on a background thread.
+ * The background thread never reads the (mutable) restrictions, it works on the enabled associations
+ * taken by the thread requesting the closure.
+ *
+ * @author Ralf Wisser
+ */
+public class ClosureEngine {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(ClosureEngine.class);
+
+	/**
+	 * Maximum number of cached snapshots.
+	 */
+	private static final int MAX_SNAPSHOTS = 16;
+
+	/**
+	 * Maximum number of remembered changes.
+	 */
+	private static final int MAX_CHANGES = 64;
+
+	/**
+	 * Immutable closure of a set of root tables.
+	 */
+	public static class Snapshot {
+		private final Set<Table> roots;
+		private final Map<Table, Integer> distances;
+		private final List<Set<Table>> layers;
+		private final long version;
+
+		private Snapshot(Set<Table> roots, Map<Table, Integer> distances, long version) {
+			this.roots = roots;
+			this.distances = Collections.unmodifiableMap(distances);
+			this.version = version;
+			List<Set<Table>> layers = new ArrayList<Set<Table>>();
+			for (Map.Entry<Table, Integer> e: distances.entrySet()) {
+				while (layers.size() <= e.getValue()) {
+					layers.add(new LinkedHashSet<Table>());
+				}
+				layers.get(e.getValue()).add(e.getKey());
+			}
+			for (int i = 0; i < layers.size(); ++i) {
+				layers.set(i, Collections.unmodifiableSet(layers.get(i)));
+			}
+			this.layers = Collections.unmodifiableList(layers);
+		}
+
+		/**
+		 * Gets the root tables.
+		 *
+		 * @return the root tables
+		 */
+		public Set<Table> getRoots() {
+			return roots;
+		}
+
+		/**
+		 * Gets the closure (all tables associated (in-)directly with a root table).
+		 *
+		 * @return the closure
+		 */
+		public Set<Table> getClosure() {
+			return distances.keySet();
+		}
+
+		/**
+		 * Gets the distance of a table from the nearest root table.
+		 *
+		 * @param table the table
+		 * @return the distance or <code>null</code> if the table is not in the closure
+		 */
+		public Integer getDistance(Table table) {
+			return distances.get(table);
+		}
+
+		/**
+		 * Gets the tables of the closure by distance.
+		 *
+		 * @return list of layers, layer <code>i</code> contains the tables with distance <code>i</code>
+		 */
+		public List<Set<Table>> getLayers() {
+			return layers;
+		}
+
+		/**
+		 * Gets the version of the data model the snapshot is based on.
+		 *
+		 * @return the data model version
+		 */
+		public long getVersion() {
+			return version;
+		}
+	}
+
+	/**
+	 * A change of an association's restriction.
+	 */
+	private static class Change {
+		final long versionBefore;
+		final long versionAfter;
+		final Association association;
+
+		Change(long versionBefore, long versionAfter, Association association) {
+			this.versionBefore = versionBefore;
+			this.versionAfter = versionAfter;
+			this.association = association;
+		}
+	}
+
+	/**
+	 * The enabled associations of a version of the data model.
+	 */
+	private static class Inputs {
+		final long version;
+		final Set<Association> enabled;
+
+		Inputs(long version, Set<Association> enabled) {
+			this.version = version;
+			this.enabled = enabled;
+		}
+	}
+
+	private final DataModel dataModel;
+	private final Map<Set<Table>, Snapshot> snapshots = new LinkedHashMap<Set<Table>, Snapshot>(MAX_SNAPSHOTS, 0.75f, true) {
+		private static final long serialVersionUID = -5765398734853208823L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Set<Table>, Snapshot> eldest) {
+			return size() > MAX_SNAPSHOTS;
+		}
+	};
+	private final LinkedList<Change> changes = new LinkedList<Change>();
+	private final Map<Set<Table>, Consumer<Snapshot>> pendingRequests = new HashMap<Set<Table>, Consumer<Snapshot>>();
+	private final Map<Set<Table>, Inputs> pendingInputs = new HashMap<Set<Table>, Inputs>();
+	private Inputs inputs;
+	private ExecutorService executor;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataModel the data model
+	 */
+	public ClosureEngine(DataModel dataModel) {
+		this.dataModel = dataModel;
+	}
+
+	/**
+	 * Notifies the engine that the restriction of an association has been changed.
+	 * Enables the incremental update of the cached closures.
+	 *
+	 * @param association the association
+	 * @param versionBefore the version of the data model before the change
+	 */
+	public synchronized void associationChanged(Association association, long versionBefore) {
+		changes.add(new Change(versionBefore, dataModel.getVersion(), association));
+		if (changes.size() > MAX_CHANGES) {
+			changes.removeFirst();
+		}
+	}
+
+	/**
+	 * Gets the most recently computed closure of a set of root tables without computing it.
+	 *
+	 * @param roots the root tables
+	 * @return the closure, possibly outdated, or <code>null</code> if it has not been computed yet
+	 */
+	public synchronized Snapshot getLatestSnapshot(Set<Table> roots) {
+		return snapshots.get(roots);
+	}
+
+	/**
+	 * Gets the enabled associations of the current version of the data model.
+	 * Must be called by the thread that modifies the data model.
+	 */
+	private synchronized Inputs currentInputs() {
+		long version = dataModel.getVersion();
+		if (inputs == null || inputs.version != version) {
+			Set<Association> enabled = new HashSet<Association>();
+			for (Table table: dataModel.getTables()) {
+				for (Association association: table.associations) {
+					if (association.getJoinCondition() != null) {
+						enabled.add(association);
+					}
+				}
+			}
+			inputs = new Inputs(version, Collections.unmodifiableSet(enabled));
+		}
+		return inputs;
+	}
+
+	/**
+	 * Gets the closure of a set of root tables, computing or updating it if it is outdated.
+	 * Must be called by the thread that modifies the data model.
+	 *
+	 * @param roots the root tables
+	 * @return the closure
+	 */
+	public Snapshot getSnapshot(Set<Table> roots) {
+		return getSnapshot(roots, currentInputs());
+	}
+
+	/**
+	 * Gets the closure of a set of root tables for a given version of the data model.
+	 *
+	 * @param roots the root tables
+	 * @param inputs the enabled associations
+	 * @return the closure
+	 */
+	private Snapshot getSnapshot(Set<Table> roots, Inputs inputs) {
+		long version = inputs.version;
+		Snapshot cached;
+		Change change = null;
+		synchronized (this) {
+			cached = snapshots.get(roots);
+			if (cached != null && cached.version == version) {
+				return cached;
+			}
+			if (cached != null) {
+				for (Change c: changes) {
+					if (c.versionBefore == cached.version && c.versionAfter == version) {
+						change = c;
+						break;
+					}
+				}
+			}
+		}
+		roots = Collections.unmodifiableSet(new HashSet<Table>(roots));
+		Map<Table, Integer> distances = null;
+		if (change != null) {
+			distances = new HashMap<Table, Integer>(cached.distances);
+			if (!update(distances, roots, change.association, inputs.enabled)) {
+				distances = null;
+			}
+		}
+		if (distances == null) {
+			distances = compute(roots, inputs.enabled);
+		}
+		Snapshot snapshot = new Snapshot(roots, distances, version);
+		synchronized (this) {
+			Snapshot latest = snapshots.get(roots);
+			if (latest == null || latest.version <= version) {
+				snapshots.put(roots, snapshot);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Computes the closure of a set of root tables on a background thread.
+	 * The enabled associations are taken on the calling thread, which must be the one that modifies the data model.
+	 * Requests for the same roots that are not yet being processed are combined.
+	 *
+	 * @param roots the root tables
+	 * @param consumer receives the closure (on the background thread)
+	 */
+	public void requestSnapshot(Set<Table> roots, Consumer<Snapshot> consumer) {
+		final Set<Table> theRoots = Collections.unmodifiableSet(new HashSet<Table>(roots));
+		Inputs theInputs = currentInputs();
+		synchronized (this) {
+			pendingInputs.put(theRoots, theInputs);
+			if (pendingRequests.put(theRoots, consumer) != null) {
+				return;
+			}
+			if (executor == null) {
+				executor = Executors.newSingleThreadExecutor(r -> {
+					Thread thread = new Thread(r, "ClosureEngine");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+		executor.execute(() -> {
+			Consumer<Snapshot> theConsumer;
+			Inputs inputs;
+			synchronized (ClosureEngine.this) {
+				theConsumer = pendingRequests.remove(theRoots);
+				inputs = pendingInputs.remove(theRoots);
+			}
+			Snapshot snapshot;
+			try {
+				snapshot = getSnapshot(theRoots, inputs);
+			} catch (RuntimeException e) {
+				_log.error("closure computation failed", e);
+				LogUtil.warn(e);
+				return;
+			}
+			theConsumer.accept(snapshot);
+		});
+	}
+
+	/**
+	 * Computes the closure by a breadth-first search starting at the root tables.
+	 */
+	private static Map<Table, Integer> compute(Set<Table> roots, Set<Association> enabled) {
+		Map<Table, Integer> distances = new HashMap<Table, Integer>();
+		Deque<Table> toCheck = new ArrayDeque<Table>();
+		for (Table root: roots) {
+			distances.put(root, 0);
+			toCheck.add(root);
+		}
+		relax(distances, toCheck, enabled);
+		return distances;
+	}
+
+	/**
+	 * Propagates the distances of the given tables along the enabled associations.
+	 */
+	private static void relax(Map<Table, Integer> distances, Deque<Table> toCheck, Set<Association> enabled) {
+		while (!toCheck.isEmpty()) {
+			Table table = toCheck.poll();
+			int distance = distances.get(table) + 1;
+			for (Association association: table.associations) {
+				if (enabled.contains(association)) {
+					Integer d = distances.get(association.destination);
+					if (d == null || d > distance) {
+						distances.put(association.destination, distance);
+						toCheck.add(association.destination);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the distances after the restriction of an association has been changed.
+	 *
+	 * @return <code>false</code> if the closure must be recomputed
+	 */
+	private static boolean update(Map<Table, Integer> distances, Set<Table> roots, Association association, Set<Association> enabled) {
+		Integer sourceDistance = distances.get(association.source);
+		if (sourceDistance == null) {
+			return true;
+		}
+		Integer destinationDistance = distances.get(association.destination);
+		if (enabled.contains(association)) {
+			// enabled: shorter paths via the association
+			if (destinationDistance == null || destinationDistance > sourceDistance + 1) {
+				distances.put(association.destination, sourceDistance + 1);
+				Deque<Table> toCheck = new ArrayDeque<Table>();
+				toCheck.add(association.destination);
+				relax(distances, toCheck, enabled);
+			}
+			return true;
+		}
+		// disabled: only relevant if the association was the last one on a shortest path to the destination
+		if (roots.contains(association.destination) || destinationDistance == null || destinationDistance != sourceDistance + 1) {
+			return true;
+		}
+		for (Association a: association.destination.associations) {
+			Association incoming = a.reversalAssociation;
+			if (incoming != null && incoming != association && enabled.contains(incoming)) {
+				Integer d = distances.get(incoming.source);
+				if (d != null && d == destinationDistance - 1) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -35,6 +35,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -42,6 +43,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Future;
 
 import org.apache.commons.collections4.MapUtils;
 import org.slf4j.Logger;
@@ -465,6 +467,27 @@ public class DataModel {
 		this.executionContext = executionContext;
 		this.primaryKeyFactory = primaryKeyFactory;
 		try {
+			// associations are read in parallel with tables and columns
+			final File assFile = new File(getAssociationsFile(executionContext));
+			Future<List<CsvFile.Line>> associationListFuture = CsvFile.submit(() -> {
+				List<CsvFile.Line> associationList;
+				DataModelSnapshot associationsSnapshot = DataModelSnapshot.load(localModelFile(assFile, executionContext), assFile.getPath(), false);
+				if (associationsSnapshot != null) {
+					associationList = new ArrayList<CsvFile.Line>();
+					for (CsvFile.Line line: associationsSnapshot.getLines()) {
+						if (assocFilter == null || assocFilter.accept(line)) {
+							associationList.add(line);
+						}
+					}
+				} else {
+					associationList = new ArrayList<CsvFile.Line>(new CsvFile(openModelFile(assFile, executionContext), null, assFile.getPath(), assocFilter).getLines());
+				}
+				if (additionalAssociationsFile != null) {
+					associationList.addAll(new CsvFile(new File(additionalAssociationsFile)).getLines());
+				}
+				return associationList;
+			});
+
 			List<String> excludeFromDeletion = new ArrayList<String>();
 			PrintUtil.loadTableList(excludeFromDeletion, openModelFile(new File(DataModel.getExcludeFromDeletionFile(executionContext)), executionContext));
 
@@ -475,8 +498,15 @@ public class DataModel {
 			if (failOnMissingTables && nTablesFile == null) {
 				throw new DataModelNotFoundException("Data model not found: " + resourceName);
 			}
-			CsvFile tablesFile = new CsvFile(nTablesFile, null, tabFile.getPath(), null);
-			List<CsvFile.Line> tableList = new ArrayList<CsvFile.Line>(tablesFile.getLines());
+			List<CsvFile.Line> tableList;
+			DataModelSnapshot tablesSnapshot = nTablesFile == null? null : DataModelSnapshot.load(localModelFile(tabFile, executionContext), tabFile.getPath(), false);
+			if (tablesSnapshot != null) {
+				nTablesFile.close();
+				tableList = new ArrayList<CsvFile.Line>(tablesSnapshot.getLines());
+			} else {
+				CsvFile tablesFile = new CsvFile(nTablesFile, null, tabFile.getPath(), null);
+				tableList = new ArrayList<CsvFile.Line>(tablesFile.getLines());
+			}
 			if (additionalTablesFile != null) {
 				tableList.addAll(new CsvFile(new File(additionalTablesFile)).getLines());
 			}
@@ -541,27 +571,39 @@ public class DataModel {
 			File colFile = new File(getColumnsFile(executionContext));
 			InputStream is = openModelFile(colFile, executionContext);
 			if (is != null) {
-				CsvFile columnsFile = new CsvFile(is, null, colFile.getPath(), null);
-				List<CsvFile.Line> columnsList = new ArrayList<CsvFile.Line>(columnsFile.getLines());
-				for (CsvFile.Line line: columnsList) {
+				List<CsvFile.Line> columnsList;
+				DataModelSnapshot columnsSnapshot = knownIdentifiers == null? DataModelSnapshot.load(localModelFile(colFile, executionContext), colFile.getPath(), true) : null;
+				if (columnsSnapshot != null) {
+					is.close();
+					columnsList = columnsSnapshot.getLines();
+				} else {
+					CsvFile columnsFile = new CsvFile(is, null, colFile.getPath(), null);
+					columnsList = new ArrayList<CsvFile.Line>(columnsFile.getLines());
+				}
+				for (int lineIndex = 0; lineIndex < columnsList.size(); ++lineIndex) {
+					CsvFile.Line line = columnsList.get(lineIndex);
 					List<Column> columns = new ArrayList<Column>();
-					for (int j = 1; j < line.cells.size() && line.cells.get(j).toString().length() > 0; ++j) {
-						String col = line.cells.get(j).trim();
-						String newName = null;
-						if (knownIdentifiers != null) {
+					if (columnsSnapshot != null) {
+						columns.addAll(columnsSnapshot.getColumns(lineIndex));
+					} else {
+						for (int j = 1; j < line.cells.size() && line.cells.get(j).toString().length() > 0; ++j) {
+							String col = line.cells.get(j).trim();
+							String newName = null;
+							if (knownIdentifiers != null) {
+								try {
+									Column c = Column.parse(col);
+									newName = knownIdentifiers.getColumnName(Quoting.normalizeIdentifier(line.cells.get(0)), c.name);
+								} catch (Exception e) {
+									_log.debug("unable to resolve column name for '" + col + "'", e);
+								}
+							}
 							try {
-								Column c = Column.parse(col);
-								newName = knownIdentifiers.getColumnName(Quoting.normalizeIdentifier(line.cells.get(0)), c.name);
-							} catch (Exception e) {
-								_log.debug("unable to resolve column name for '" + col + "'", e);
+								columns.add(Column.parse(newName, col));
+							} catch (Throwable e) {
+								_log.warn("unable to parse column", e);
+								// ignore
 							}
 						}
-						try {
-							columns.add(Column.parse(newName, col));
-						} catch (Throwable e) {
-							_log.warn("unable to parse column", e);
-							// ignore
-						}
 					}
 					// order columns
 					if (!columnOrderPrio.isEmpty()) {
@@ -600,11 +642,7 @@ public class DataModel {
 			}
 
 			// associations
-			File assFile = new File(getAssociationsFile(executionContext));
-			List<CsvFile.Line> associationList = new ArrayList<CsvFile.Line>(new CsvFile(openModelFile(assFile, executionContext), null, assFile.getPath(), assocFilter).getLines());
-			if (additionalAssociationsFile != null) {
-				associationList.addAll(new CsvFile(new File(additionalAssociationsFile)).getLines());
-			}
+			List<CsvFile.Line> associationList = CsvFile.await(associationListFuture);
 			for (CsvFile.Line line: associationList) {
 				String location = line.location;
 				try {
@@ -1074,6 +1112,23 @@ public class DataModel {
 		return openModelFile(file, new StringBuilder(), false, executionContext);
 	}
 
+	/**
+	 * Gets a model file as local file.
+	 *
+	 * @return the file or <code>null</code> if the data model is not stored in the local file system
+	 */
+	private static File localModelFile(File file, ExecutionContext executionContext) {
+		try {
+			URL dataModelURL = executionContext.getDataModelURL();
+			if (dataModelURL == null || !"file".equals(dataModelURL.getProtocol())) {
+				return null;
+			}
+			return new File(new File(dataModelURL.toURI()), file.getName());
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
 	private static InputStream openModelFile(File file, StringBuilder resourceName, boolean failOnIOException, ExecutionContext executionContext) throws IOException {
 		try {
 			URL dataModelURL = executionContext.getDataModelURL();
@@ -1147,24 +1202,26 @@ public class DataModel {
 	public void save(String file, Table stable, SubjectLimitDefinition subjectLimitDefinition, String subjectCondition, ScriptFormat scriptFormat, List<RestrictionDefinition> restrictionDefinitions, Map<String, Map<String, double[]>> positions, List<AdditionalSubject> additionalSubjects, String currentModelSubfolder) throws FileNotFoundException {
 		File extractionModel = new File(file);
 		PrintWriter out = new PrintWriter(extractionModel);
-		out.println("# subject; condition; limit; limit-order");
+		out.println("# subject; condition; limit; limit-order; sampling; sample-percent");
 		out.println(
 				CsvFile.encodeCell("" + stable.getName()) + "; " +
 				CsvFile.encodeCell(subjectCondition) + "; " +
 				CsvFile.encodeCell(subjectLimitDefinition.limit == null? "" : subjectLimitDefinition.limit.toString()) + "; " +
-				CsvFile.encodeCell(subjectLimitDefinition.orderBy == null? "" : subjectLimitDefinition.orderBy)
+				CsvFile.encodeCell(subjectLimitDefinition.orderBy == null? "" : subjectLimitDefinition.orderBy) + "; " +
+				samplingCells(subjectLimitDefinition)
 				);
 		saveRestrictions(out, restrictionDefinitions);
 		out.println();
 		out.println(CsvFile.BLOCK_INDICATOR + "additional subjects");
-		out.println("# subject; condition; limit; limit-order");
+		out.println("# subject; condition; limit; limit-order; sampling; sample-percent");
 		try (SortedWriter sOut = new SortedWriter(out)) {
 			for (AdditionalSubject as: additionalSubjects) {
 				sOut.println(
 						CsvFile.encodeCell("" + as.getSubject().getName()) + "; " +
 						CsvFile.encodeCell(as.getCondition()) + "; " +
 						CsvFile.encodeCell(as.getSubjectLimitDefinition().limit == null? "" : as.getSubjectLimitDefinition().limit.toString()) + "; " +
-						CsvFile.encodeCell(as.getSubjectLimitDefinition().orderBy == null? "" : as.getSubjectLimitDefinition().orderBy)
+						CsvFile.encodeCell(as.getSubjectLimitDefinition().orderBy == null? "" : as.getSubjectLimitDefinition().orderBy) + "; " +
+						samplingCells(as.getSubjectLimitDefinition())
 						);
 			}
 		} catch (Exception e) {
@@ -1266,6 +1323,17 @@ public class DataModel {
 		}
 	}
 
+	/**
+	 * Gets the sampling cells of a subject line.
+	 *
+	 * @param subjectLimitDefinition the subject limit definition
+	 * @return the encoded "sampling" and "sample-percent" cells
+	 */
+	private String samplingCells(SubjectLimitDefinition subjectLimitDefinition) {
+		return CsvFile.encodeCell(subjectLimitDefinition.sampling == null? "" : subjectLimitDefinition.sampling.name().toLowerCase(Locale.ENGLISH)) + "; " +
+				CsvFile.encodeCell(subjectLimitDefinition.samplePercent == null? "" : subjectLimitDefinition.samplePercent.toString());
+	}
+
 	/**
 	 * Saves restrictions only.
 	 *
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.datamodel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.configuration.Configuration;
+import net.sf.jailer.util.CsvFile;
+
+/**
+ * Binary snapshot of a parsed data model file (<code>table.csv</code>, <code>column.csv</code>, ...).<br>
+ * Snapshots are kept in the temporary files folder and are read via memory-mapped I/O.
+ * A snapshot is used only if length, modification time and checksum of the model file are unchanged,
+ * otherwise the model file is parsed again and the snapshot is renewed.
+ *
+ * @author Ralf Wisser
+ */
+public class DataModelSnapshot {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(DataModelSnapshot.class);
+
+	private static final int MAGIC = 0x4a444d53;
+	private static final int VERSION = 1;
+
+	/**
+	 * Smaller model files are parsed directly.
+	 */
+	private static final long MIN_FILE_SIZE = 64 * 1024;
+
+	private static final String FOLDER = "datamodel-snapshots";
+
+	private static final int FLAG_NULLABLE = 1;
+	private static final int FLAG_IDENTITY = 2;
+	private static final int FLAG_VIRTUAL = 4;
+
+	private final List<CsvFile.Line> lines;
+	private final List<List<Column>> columns;
+
+	private DataModelSnapshot(List<CsvFile.Line> lines, List<List<Column>> columns) {
+		this.lines = lines;
+		this.columns = columns;
+	}
+
+	/**
+	 * Gets the lines of the model file. If the column declarations have been parsed,
+	 * the lines read from the snapshot only contain the first cell.
+	 *
+	 * @return the lines
+	 */
+	public List<CsvFile.Line> getLines() {
+		return lines;
+	}
+
+	/**
+	 * Gets the parsed column declarations (cells 1 up to the first empty cell) of a line.
+	 *
+	 * @param lineIndex index of the line
+	 * @return the columns or <code>null</code> if columns have not been parsed
+	 */
+	public List<Column> getColumns(int lineIndex) {
+		return columns == null? null : columns.get(lineIndex);
+	}
+
+	/**
+	 * Loads a model file, using the snapshot if it is up-to-date.
+	 *
+	 * @param modelFile the model file, <code>null</code> if the model is not available as local file
+	 * @param location a description of the file used in error messages
+	 * @param parseColumns <code>true</code> if the lines contain column declarations to be parsed
+	 * @return the snapshot or <code>null</code> if the file is too small, missing or not a local file
+	 */
+	public static DataModelSnapshot load(File modelFile, String location, boolean parseColumns) {
+		if (modelFile == null || !modelFile.isFile() || modelFile.length() < MIN_FILE_SIZE) {
+			return null;
+		}
+		try {
+			long length = modelFile.length();
+			long lastModified = modelFile.lastModified();
+			long checksum = checksum(modelFile);
+			File snapshotFile = snapshotFile(modelFile);
+			if (snapshotFile.isFile()) {
+				try {
+					DataModelSnapshot snapshot = read(snapshotFile, length, lastModified, checksum, parseColumns);
+					if (snapshot != null) {
+						return snapshot;
+					}
+				} catch (Exception e) {
+					_log.info("invalid snapshot " + snapshotFile + ": " + e.getMessage());
+				}
+			}
+			List<CsvFile.Line> lines = new CsvFile(new FileInputStream(modelFile), null, location, null).getLines();
+			List<List<Column>> columns = null;
+			if (parseColumns) {
+				columns = new ArrayList<List<Column>>(lines.size());
+				for (CsvFile.Line line: lines) {
+					List<Column> lineColumns = new ArrayList<Column>();
+					for (int j = 1; j < line.cells.size() && line.cells.get(j).length() > 0; ++j) {
+						try {
+							lineColumns.add(Column.parse(null, line.cells.get(j).trim()));
+						} catch (Throwable e) {
+							_log.warn("unable to parse column", e);
+						}
+					}
+					columns.add(lineColumns);
+				}
+			}
+			try {
+				write(snapshotFile, length, lastModified, checksum, lines, columns);
+			} catch (Exception e) {
+				_log.info("unable to write snapshot " + snapshotFile + ": " + e.getMessage());
+			}
+			return new DataModelSnapshot(lines, columns);
+		} catch (IOException e) {
+			_log.info("unable to load " + modelFile + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static File snapshotFile(File modelFile) throws IOException {
+		String path = modelFile.getCanonicalPath();
+		return new File(new File(Configuration.getInstance().getTempFileFolder(), FOLDER),
+				modelFile.getName() + "-" + Integer.toHexString(path.hashCode()) + "-" + Integer.toHexString(path.length()) + ".bin");
+	}
+
+	private static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = new FileInputStream(file)) {
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, n);
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static DataModelSnapshot read(File snapshotFile, long length, long lastModified, long checksum, boolean parseColumns) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(snapshotFile, "r"); FileChannel channel = file.getChannel()) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (in.getInt() != MAGIC || in.getInt() != VERSION
+					|| in.getLong() != length || in.getLong() != lastModified || in.getLong() != checksum) {
+				return null;
+			}
+			boolean withColumns = in.get() != 0;
+			if (withColumns != parseColumns) {
+				return null;
+			}
+			int numLines = in.getInt();
+			List<CsvFile.Line> lines = new ArrayList<CsvFile.Line>(numLines);
+			List<List<Column>> columns = withColumns? new ArrayList<List<Column>>(numLines) : null;
+			Map<String, String> types = new HashMap<String, String>();
+			for (int i = 0; i < numLines; ++i) {
+				String location = readString(in);
+				int numCells = in.getInt();
+				List<String> cells = new ArrayList<String>(numCells + 32);
+				for (int j = 0; j < numCells; ++j) {
+					cells.add(readString(in));
+				}
+				lines.add(new CsvFile.Line(location, cells));
+				if (withColumns) {
+					int numColumns = in.getInt();
+					List<Column> lineColumns = new ArrayList<Column>(numColumns);
+					for (int j = 0; j < numColumns; ++j) {
+						String name = readString(in);
+						String type = readString(in);
+						String knownType = types.putIfAbsent(type, type);
+						if (knownType != null) {
+							type = knownType;
+						}
+						int size = in.getInt();
+						int precision = in.getInt();
+						int flags = in.get();
+						Column column = new Column(name, type, size, precision);
+						column.isNullable = (flags & FLAG_NULLABLE) != 0;
+						column.isIdentityColumn = (flags & FLAG_IDENTITY) != 0;
+						column.isVirtual = (flags & FLAG_VIRTUAL) != 0;
+						lineColumns.add(column);
+					}
+					columns.add(lineColumns);
+				}
+			}
+			return new DataModelSnapshot(lines, columns);
+		}
+	}
+
+	private static String readString(MappedByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void write(File snapshotFile, long length, long lastModified, long checksum, List<CsvFile.Line> lines, List<List<Column>> columns) throws IOException {
+		File folder = snapshotFile.getParentFile();
+		folder.mkdirs();
+		File tmpFile = new File(folder, snapshotFile.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 64 * 1024))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(length);
+			out.writeLong(lastModified);
+			out.writeLong(checksum);
+			out.writeByte(columns != null? 1 : 0);
+			out.writeInt(lines.size());
+			for (int i = 0; i < lines.size(); ++i) {
+				CsvFile.Line line = lines.get(i);
+				writeString(out, line.location);
+				// omit the legacy padding cells and the declarations of parsed columns
+				int numCells = columns != null? 1 : Math.max(0, line.cells.size() - 32);
+				out.writeInt(numCells);
+				for (int j = 0; j < numCells; ++j) {
+					writeString(out, line.cells.get(j));
+				}
+				if (columns != null) {
+					List<Column> lineColumns = columns.get(i);
+					out.writeInt(lineColumns.size());
+					for (Column column: lineColumns) {
+						writeString(out, column.name);
+						writeString(out, column.type);
+						out.writeInt(column.length);
+						out.writeInt(column.precision);
+						out.writeByte((column.isNullable? FLAG_NULLABLE : 0) | (column.isIdentityColumn? FLAG_IDENTITY : 0) | (column.isVirtual? FLAG_VIRTUAL : 0));
+					}
+				}
+			}
+		}
+		try {
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tmpFile.delete();
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+}
@@ -20,10 +20,12 @@ import java.io.OutputStreamWriter;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.DBMS;
@@ -96,6 +98,11 @@ public abstract class EntityGraph {
 	 */
 	protected final ExecutionContext executionContext;
 
+	/**
+	 * Adapts the number of rows per operation if the transaction size is limited, or <code>null</code>.
+	 */
+	private TransactionSizeController transactionSizeController;
+
 	/**
 	 * <code>true</code> if the graph is operating in delete mode.
 	 *
@@ -250,6 +257,22 @@ public abstract class EntityGraph {
 	 */
 	public abstract long resolveAssociation(Table table, Association association, int today) throws SQLException;
 
+	/**
+	 * Estimates the number of entities {@link #resolveAssociation(Table, Association, int)} would add.
+	 * Only rows that are not yet collected are taken into account, each one once.
+	 * The estimate is capped.
+	 *
+	 * @param table the table
+	 * @param association the association to resolve
+	 * @param today the birthday of the new entities
+	 * @param cap the estimation stops at this number
+	 *
+	 * @return the estimated row-count (at most <code>cap</code>) or -1, if unknown
+	 */
+	public long estimateAssociation(Table table, Association association, int today, long cap) throws SQLException {
+		return -1;
+	}
+
 	/**
 	 * Resolves an association. Retrieves and adds all entities
 	 * associated with an entity into a given entity-graph.
@@ -418,6 +441,15 @@ public abstract class EntityGraph {
 	 */
 	public abstract long getTotalRowcount();
 
+	/**
+	 * Gets the number of rows inserted into each working table.
+	 *
+	 * @return row-count per working table name
+	 */
+	public Map<String, Long> getWorkingTableRowcounts() {
+		return Collections.singletonMap(ENTITY, getTotalRowcount());
+	}
+
 	/**
 	 * Gets the universal primary key.
 	 *
@@ -599,26 +631,89 @@ public abstract class EntityGraph {
 	 * @return row count
 	 */
 	protected long deleteRows(Session session, String table, String where) throws SQLException {
-		LimitTransactionSizeInfo limitTransactionSize = session.dbms.getLimitTransactionSize();
-		long rc = 0;
+		final LimitTransactionSizeInfo limitTransactionSize = session.dbms.getLimitTransactionSize();
+		final long[] rc = new long[] { 0 };
 
 		if (limitTransactionSize.isApplicable(executionContext)) {
 			try {
-				long c;
-				do {
-					c = session.executeUpdate("Delete " + limitTransactionSize.afterSelectFragment(executionContext)
-							+ "from " + table + " where (" + where + ") "
-							+ limitTransactionSize.additionalWhereConditionFragment(executionContext)
-							+ limitTransactionSize.statementSuffixFragment(executionContext));
-					rc += c;
-				} while (c > 0 && c == limitTransactionSize.getLimit());
-				return rc;
+				executeIncrementally(session, table, size ->
+					"Delete " + limitTransactionSize.afterSelectFragment(executionContext, size)
+						+ "from " + table + " where (" + where + ") "
+						+ limitTransactionSize.additionalWhereConditionFragment(executionContext, size)
+						+ limitTransactionSize.statementSuffixFragment(executionContext, size),
+					c -> rc[0] += c);
+				return rc[0];
 			} catch (Exception e) {
 				_log.warn("limited delete failed, falling back to full delete", e);
 			}
 		}
 
-		return rc + session.executeUpdate("Delete from " + table + " where " + where);
+		return rc[0] + session.executeUpdate("Delete from " + table + " where " + where);
+	}
+
+	/**
+	 * Creates a DML statement for a given number of rows per operation.
+	 */
+	protected interface IncrementalStatement {
+		String create(long size) throws SQLException;
+	}
+
+	/**
+	 * Executes a DML statement repeatedly until fewer rows than the number of rows per operation are affected,
+	 * or only once if the transaction size is not limited.
+	 *
+	 * @param session the session
+	 * @param table name of the table the number of rows per operation is adapted for
+	 * @param statement creates the statement for a given number of rows per operation
+	 * @param rowCountListener gets the row count of each operation, may be <code>null</code>
+	 * @return total row count
+	 */
+	protected long executeIncrementally(Session session, String table, IncrementalStatement statement, LongConsumer rowCountListener) throws SQLException {
+		long fixedSize = session.dbms.getLimitTransactionSize().getSize(executionContext);
+		TransactionSizeController controller = fixedSize > 0? transactionSizeController : null;
+		long total = 0;
+		for (;;) {
+			long size = controller != null? controller.getSize(table) : fixedSize;
+			long startTime = System.currentTimeMillis();
+			long rc;
+			try {
+				rc = session.executeUpdate(statement.create(size));
+			} catch (SQLException e) {
+				if (controller != null && TransactionSizeController.isTooBig(e, session.dbms) && controller.shrink(table, size)) {
+					continue;
+				}
+				throw e;
+			}
+			if (controller != null) {
+				controller.executed(table, size, rc, System.currentTimeMillis() - startTime);
+			}
+			total += rc;
+			if (rowCountListener != null) {
+				rowCountListener.accept(rc);
+			}
+			if (size <= 0 || rc != size) {
+				break;
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Sets the controller that adapts the number of rows per operation if the transaction size is limited.
+	 *
+	 * @param transactionSizeController the controller or <code>null</code> for a fixed number of rows
+	 */
+	public void setTransactionSizeController(TransactionSizeController transactionSizeController) {
+		this.transactionSizeController = transactionSizeController;
+	}
+
+	/**
+	 * Gets the controller that adapts the number of rows per operation if the transaction size is limited.
+	 *
+	 * @return the controller or <code>null</code> for a fixed number of rows
+	 */
+	public TransactionSizeController getTransactionSizeController() {
+		return transactionSizeController;
 	}
 
 	/**
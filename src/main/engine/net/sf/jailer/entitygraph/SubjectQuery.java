@@ -0,0 +1,293 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.entitygraph;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.database.Session;
+import net.sf.jailer.database.Session.AbstractResultSetReader;
+import net.sf.jailer.database.Session.ResultSetReader;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
+import net.sf.jailer.extractionmodel.SubjectLimitDefinition.Sampling;
+import net.sf.jailer.util.Quoting;
+import net.sf.jailer.util.SqlUtil;
+
+/**
+ * Query selecting the rows of a subject restricted by a {@link SubjectLimitDefinition}.<br>
+ * The row limit is pushed into the query (see {@link DBMS#getSqlLimitSuffix()}) so that the DBMS
+ * can stop after the first rows (in index order) instead of producing all candidates, and random sampling
+ * is done by the DBMS if it supports it (see {@link DBMS#getTableSampleClause()}).
+ * Sampling the DBMS can't do is done while reading the rows, see {@link #filter(ResultSetReader)}.
+ * This is also the fallback if the DBMS fails to sample the subject (TABLESAMPLE is not supported for views, for instance).
+ *
+ * @author Ralf Wisser
+ */
+public class SubjectQuery {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(SubjectQuery.class);
+
+	/**
+	 * Percentage of rows sampled to estimate the number of candidates for stratified sampling.
+	 */
+	private static final double COUNT_SAMPLE_PERCENT = 1.0;
+
+	/**
+	 * Minimum number of sampled candidates for the estimation to be used. Otherwise the candidates are counted.
+	 */
+	private static final long MIN_SAMPLED_CANDIDATES = 1000;
+
+	private final String sql;
+	private final String alternativeSql;
+	private final long maxRows;
+	private final Long limit;
+
+	/**
+	 * Query without the DBMS specific sample clause, <code>null</code> if the DBMS doesn't sample.
+	 */
+	private String unsampledSql;
+
+	/**
+	 * Percentage of rows to be sampled by the DBMS.
+	 */
+	private Double dbmsSamplePercent;
+
+	/**
+	 * Whether the query has been executed successfully.
+	 */
+	private boolean executed;
+
+	/**
+	 * Percentage of rows to be sampled randomly while reading, <code>null</code> if the DBMS samples.
+	 */
+	private Double randomPercent;
+
+	/**
+	 * Every n-th row is selected (stratified sampling).
+	 */
+	private long step = 1;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param table the subject table
+	 * @param alias the table alias
+	 * @param selectList the select list
+	 * @param keyColumns the (primary) key columns, defining the default order for stratified sampling
+	 * @param condition the subject condition
+	 * @param limitDefinition the restriction
+	 * @param session the session for the subject table
+	 * @param quoting the quoting
+	 */
+	public SubjectQuery(Table table, String alias, String selectList, List<Column> keyColumns, String condition, SubjectLimitDefinition limitDefinition, Session session, Quoting quoting) throws SQLException {
+		DBMS dbms = session.dbms;
+		String from = " From " + quoting.requote(table.getName()) + " " + alias;
+		String where = "";
+		if (condition != null && !SqlUtil.SQL_TRUE.equals(condition)) {
+			where = " Where (" + condition + ")";
+		}
+		String orderBy = limitDefinition.orderBy != null && limitDefinition.orderBy.trim().length() > 0? limitDefinition.orderBy : null;
+		limit = limitDefinition.limit;
+		long maxRows = limit != null? limit : 0;
+		Double percent = limitDefinition.samplePercent;
+		String sampleClause = "";
+
+		if (limitDefinition.sampling == Sampling.RANDOM) {
+			if (percent != null && percent < 100) {
+				if (dbms.getTableSampleClause() != null) {
+					sampleClause = " " + String.format(Locale.ENGLISH, dbms.getTableSampleClause(), new BigDecimal(percent.toString()).stripTrailingZeros().toPlainString());
+					dbmsSamplePercent = percent;
+				} else {
+					// the number of rows to be read to get "limit" rows is unknown
+					randomPercent = percent;
+					maxRows = 0;
+				}
+			}
+		} else if (limitDefinition.sampling == Sampling.STRATIFIED) {
+			if (orderBy == null) {
+				StringBuilder sb = new StringBuilder();
+				for (Column column: keyColumns) {
+					if (sb.length() > 0) {
+						sb.append(", ");
+					}
+					sb.append(alias + "." + quoting.requote(column.name));
+				}
+				orderBy = sb.length() > 0? sb.toString() : null;
+			}
+			if (percent != null && percent > 0) {
+				step = Math.max(1, Math.round(100.0 / percent));
+			} else if (limit != null && limit > 0) {
+				step = Math.max(1, countCandidates(from, where, session) / limit);
+			}
+			if (limit != null) {
+				maxRows = (limit - 1) * step + 1;
+			}
+		}
+
+		// the order only matters if not all rows are read
+		String orderByClause = orderBy != null && (limit != null || step > 1)? " order by " + orderBy : "";
+		String select = "Select " + selectList + from + sampleClause + where + orderByClause;
+		if (dbmsSamplePercent != null) {
+			unsampledSql = "Select " + selectList + from + where + orderByClause;
+		}
+		String limitedSelect = maxRows > 0? SqlUtil.limitSelect(select, maxRows, dbms) : null;
+		if (limitedSelect != null) {
+			sql = limitedSelect;
+			alternativeSql = select;
+		} else {
+			sql = select;
+			alternativeSql = null;
+		}
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * Gets the number of candidates for stratified sampling. It is estimated from a sample if the DBMS supports sampling
+	 * and the sample is large enough, so that the subject table is not scanned completely. Otherwise the candidates are counted.
+	 *
+	 * @param from the from clause
+	 * @param where the where clause
+	 * @param session the session for the subject table
+	 * @return (estimated) number of candidates
+	 */
+	private static long countCandidates(String from, String where, Session session) throws SQLException {
+		final long[] count = new long[1];
+		AbstractResultSetReader reader = new AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				count[0] = resultSet.getLong(1);
+			}
+		};
+		String tableSampleClause = session.dbms.getTableSampleClause();
+		if (tableSampleClause != null) {
+			String sampleClause = " " + String.format(Locale.ENGLISH, tableSampleClause, new BigDecimal(Double.toString(COUNT_SAMPLE_PERCENT)).stripTrailingZeros().toPlainString());
+			boolean silent = session.getSilent();
+			session.setSilent(true);
+			try {
+				session.executeQuery("Select count(*)" + from + sampleClause + where, reader);
+				if (count[0] >= MIN_SAMPLED_CANDIDATES) {
+					return Math.round(count[0] * 100.0 / COUNT_SAMPLE_PERCENT);
+				}
+			} catch (SQLException e) {
+				// sampling not supported for the subject, count the candidates
+				_log.warn("sampling failed, counting candidates. Reason: " + e.getMessage());
+			} finally {
+				session.setSilent(silent);
+			}
+		}
+		session.executeQuery("Select count(*)" + from + where, reader);
+		return count[0];
+	}
+
+	/**
+	 * Gets the query.
+	 *
+	 * @return the query
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Executes the query.
+	 * If the DBMS fails to sample the subject, the rows are sampled while reading instead.
+	 *
+	 * @param session the session for the subject table
+	 * @param reader the reader for the selected rows
+	 * @param sqlSuffix suffix to be appended to the query
+	 * @param withExplicitCommit if <code>true</code>, switch of autocommit and commit explicitly
+	 */
+	public void execute(Session session, ResultSetReader reader, String sqlSuffix, boolean withExplicitCommit) throws SQLException {
+		try {
+			session.executeQuery(sql + sqlSuffix, filter(reader), alternativeSql, null, maxRows, withExplicitCommit);
+		} catch (SQLException e) {
+			if (unsampledSql == null || executed) {
+				throw e;
+			}
+			_log.warn("sampling failed, sampling while reading. Reason: " + e.getMessage());
+			randomPercent = dbmsSamplePercent;
+			session.executeQuery(unsampledSql + sqlSuffix, filter(reader), null, null, 0, withExplicitCommit);
+		}
+	}
+
+	/**
+	 * Wraps a reader so that it only gets the sampled rows and the reading stops
+	 * when the limit is reached.
+	 *
+	 * @param reader the reader
+	 * @return the filtering reader (or the reader itself if no filtering is needed)
+	 */
+	public ResultSetReader filter(final ResultSetReader reader) {
+		if (randomPercent == null && step == 1 && unsampledSql == null) {
+			return reader;
+		}
+		final Random random = new Random();
+		return new AbstractResultSetReader() {
+			long rowNumber = 0;
+			long accepted = 0;
+
+			@Override
+			public void init(ResultSet resultSet) throws SQLException {
+				executed = true;
+				if (reader instanceof AbstractResultSetReader) {
+					((AbstractResultSetReader) reader).init(resultSet);
+				}
+			}
+
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				if (isComplete()) {
+					return;
+				}
+				boolean accept;
+				if (randomPercent != null) {
+					accept = random.nextDouble() * 100.0 < randomPercent;
+				} else {
+					accept = rowNumber % step == 0;
+				}
+				++rowNumber;
+				if (accept) {
+					++accepted;
+					reader.readCurrentRow(resultSet);
+				}
+			}
+
+			@Override
+			public boolean isComplete() {
+				return limit != null && accepted >= limit;
+			}
+
+			@Override
+			public void close() throws SQLException {
+				reader.close();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.entitygraph;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.configuration.DBMS;
+
+/**
+ * Adapts the number of rows per operation for each table if the transaction size is limited
+ * so that an operation takes about a given target time.<br>
+ * Wide rows or high lock/undo pressure lead to smaller operations, cheap rows to larger ones.
+ *
+ * @author Ralf Wisser
+ */
+public class TransactionSizeController {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(TransactionSizeController.class);
+
+	/**
+	 * Minimum number of rows per operation.
+	 */
+	private static final long MIN_SIZE = 100;
+
+	/**
+	 * Maximum factor by which the size is changed at once.
+	 */
+	private static final double MAX_STEP = 2.0;
+
+	private final long initialSize;
+	private final long maxSize;
+	private final long targetLatency;
+	private final Map<String, Long> sizePerTable = new HashMap<String, Long>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param initialSize the configured number of rows per operation
+	 * @param targetLatency target duration of an operation in milliseconds
+	 */
+	public TransactionSizeController(long initialSize, long targetLatency) {
+		this.initialSize = Math.max(MIN_SIZE, initialSize);
+		this.maxSize = this.initialSize * 100;
+		this.targetLatency = targetLatency;
+	}
+
+	/**
+	 * Gets the number of rows for the next operation on a table.
+	 *
+	 * @param table the table
+	 * @return number of rows
+	 */
+	public synchronized long getSize(String table) {
+		Long size = sizePerTable.get(table);
+		return size == null? initialSize : size;
+	}
+
+	/**
+	 * Adapts the size after an operation.
+	 *
+	 * @param table the table
+	 * @param size number of rows the operation was limited to
+	 * @param rowCount number of rows affected
+	 * @param duration duration of the operation in milliseconds
+	 */
+	public synchronized void executed(String table, long size, long rowCount, long duration) {
+		double factor = targetLatency / (double) Math.max(1, duration);
+		if (rowCount < size) {
+			// the last operation on the table says nothing about larger ones
+			factor = Math.min(factor, 1.0);
+		}
+		factor = Math.max(1.0 / MAX_STEP, Math.min(MAX_STEP, factor));
+		long newSize = Math.max(MIN_SIZE, Math.min(maxSize, (long) (size * factor)));
+		if (newSize != size) {
+			_log.debug("transaction size for " + table + ": " + size + " -> " + newSize + " (" + rowCount + " rows in " + duration + " ms)");
+		}
+		sizePerTable.put(table, newSize);
+	}
+
+	/**
+	 * Shrinks the size after an operation failed due to lack of undo space.
+	 *
+	 * @param table the table
+	 * @param size number of rows the failed operation was limited to
+	 * @return <code>true</code> if the size could be reduced and the operation should be retried
+	 */
+	public synchronized boolean shrink(String table, long size) {
+		if (size <= MIN_SIZE) {
+			return false;
+		}
+		long newSize = Math.max(MIN_SIZE, size / 4);
+		_log.warn("transaction size for " + table + " reduced to " + newSize + " rows");
+		sizePerTable.put(table, newSize);
+		return true;
+	}
+
+	/**
+	 * Oracle error codes of operations that failed because they were too big:
+	 * ORA-01555 "snapshot too old", ORA-30036 "unable to extend segment in undo tablespace",
+	 * ORA-01650 "unable to extend rollback segment".
+	 * These errors only roll back the failed statement.
+	 */
+	private static final int[] TOO_BIG_ERROR_CODES = { 1555, 30036, 1650 };
+
+	/**
+	 * Checks whether an operation failed because it was too big.
+	 * The vendor codes of the exception, its causes and chained exceptions are checked.
+	 *
+	 * @param e the exception
+	 * @param dbms the DBMS
+	 * @return <code>true</code> if the operation should be retried with a smaller size
+	 */
+	public static boolean isTooBig(SQLException e, DBMS dbms) {
+		if (!DBMS.ORACLE.equals(dbms)) {
+			return false;
+		}
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SQLException) {
+				for (SQLException next = (SQLException) t; next != null; next = next.getNextException()) {
+					for (int errorCode: TOO_BIG_ERROR_CODES) {
+						if (next.getErrorCode() == errorCode) {
+							return true;
+						}
+					}
+					if (next.getNextException() == next) {
+						break;
+					}
+				}
+			}
+			if (t.getCause() == t) {
+				break;
+			}
+		}
+		return false;
+	}
+
+}
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +31,6 @@ import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.database.SQLDialect;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.database.SqlException;
-import net.sf.jailer.database.StatementBuilder;
 import net.sf.jailer.database.UpdateTransformer;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
@@ -132,6 +132,8 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 				+ SQLDialect.dmlTableReference(ENTITY, session, executionContext)
 				+ " Where r_entitygraph=" + graphID + "");
 		entityGraph.setTransformerFactory(getTransformerFactory());
+		entityGraph.setDeleteDirectly(isDeleteDirectly());
+		entityGraph.setTransactionSizeController(getTransactionSizeController());
 		return entityGraph;
 	}
 
@@ -144,6 +146,8 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 		IntraDatabaseEntityGraph entityGraph = create(dataModel, createUniqueGraphID(),
 				session, universalPrimaryKey, null, executionContext);
 		entityGraph.setBirthdayOfSubject(birthdayOfSubject);
+		entityGraph.setDeleteDirectly(isDeleteDirectly());
+		entityGraph.setTransactionSizeController(getTransactionSizeController());
 		return entityGraph;
 	}
 
@@ -161,6 +165,10 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 	@Override
 	public void readMarkedEntities(Table table, boolean orderByPK)
 			throws SQLException {
+		if (isDeleteDirectly()) {
+			super.readMarkedEntities(table, orderByPK);
+			return;
+		}
 		String selectionSchema = filteredSelectionClause(table, COLUMN_PREFIX, quoting, true);
 		readEntitiesByQuery(table, "Select " + selectionSchema + " From "
 				+ SQLDialect.dmlTableReference(ENTITY, session, executionContext) + " E join "
@@ -181,6 +189,10 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 	@Override
 	public void readEntities(Table table, boolean orderByPK)
 			throws SQLException {
+		if (isDeleteDirectly()) {
+			super.readEntities(table, orderByPK);
+			return;
+		}
 		long incSize = session.dbms.getLimitTransactionSize().getSize(executionContext);
 		if (incSize > 0) {
 			String update =
@@ -314,22 +326,22 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 	}
 
 	/**
-	 * Inserts rows into a table. Falls back to {@link #upsertRows(Table, String, boolean)} on error.
+	 * Inserts rows into a table using a single set-based statement.
+	 * Uses {@link #upsertRows(Table, String, boolean)} if some of the rows already exist in the table.
+	 * Rows inserted concurrently after the probe make the insert fail, in which case it falls back to upsert, too.
 	 *
 	 * @param table the table
 	 * @param sqlSelect the rows to insert
 	 * @return row count
 	 */
 	private long insertRows(Table table, String sqlSelect) throws SQLException {
-		StringBuilder sb = new StringBuilder();
-		String labelCSL = insertClause(table, null, null);
-		sb.append("Insert into " + qualifiedTableName(table) + "(" + labelCSL
-				+ ") " + sqlSelect);
-
+		if (!table.primaryKey.getColumns().isEmpty() && hasConflicts(table, sqlSelect)) {
+			return upsertRows(table, sqlSelect, true);
+		}
 		boolean silent = session.getSilent();
 		session.setSilent(true);
 		try {
-			return session.executeUpdate(sb.toString());
+			return session.executeUpdate("Insert into " + qualifiedTableName(table) + "(" + insertClause(table, null, null) + ") " + sqlSelect);
 		} catch (SQLException e) {
 			try {
 				// try upsert
@@ -345,6 +357,30 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 		}
 	}
 
+	/**
+	 * Checks whether any of the rows to be inserted already exists in the table (semi-join on the primary key).
+	 *
+	 * @param table the table
+	 * @param sqlSelect the rows to insert
+	 * @return <code>true</code> if the rows must be upserted
+	 */
+	private boolean hasConflicts(Table table, String sqlSelect) throws SQLException {
+		StringBuilder where = new StringBuilder();
+		for (Column pk : table.primaryKey.getColumns()) {
+			if (where.length() > 0) {
+				where.append(" and ");
+			}
+			where.append(applyImportFilter("T." + quoting.requote(pk.name), pk) + "=Q." + prefixColumnName(COLUMN_PREFIX, quoting, pk));
+		}
+		String probe = "Select 1 From (" + sqlSelect + ") Q "
+				+ "Where exists (Select * from " + qualifiedTableName(table) + " T Where " + where + ")";
+		return session.executeQuery(probe, new Session.AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+			}
+		}, null, null, 1) > 0;
+	}
+
 	/**
 	 * Upserts rows of a table. Tries all {@link UpsertStrategy}s until it find one that works.
 	 *
@@ -469,8 +505,6 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 	}
 
 	private long insertWhereNotExists(Table table, String sqlSelect) throws SQLException {
-		StatementBuilder upsertInsertStatementBuilder = new StatementBuilder(1);
-
 		String insertHead = "Insert into " + qualifiedTableName(table)
 				+ "(" + insertClause(table, null, null) + ") ";
 		StringBuffer whereForTerminator = new StringBuffer("");
@@ -491,11 +525,7 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 				+ qualifiedTableName(table) + " T " + "Where ");
 		terminator.append(whereForTerminator + ")");
 
-		upsertInsertStatementBuilder.append(insertHead, sqlSelect, "",
-				terminator.toString());
-
-		String sql = upsertInsertStatementBuilder.build();
-		return session.executeUpdate(sql);
+		return session.executeUpdate(insertHead + sqlSelect + terminator);
 	}
 
 	/**
@@ -519,11 +549,6 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 		@Override
 		public long upsert(Table table, String sqlSelect)
 				throws SQLException {
-			String labelCSL = insertClause(table, null, null);
-			StatementBuilder upsertInsertStatementBuilder = new StatementBuilder(1);
-
-			String insertHead = "Insert into " + qualifiedTableName(table)
-					+ "(" + labelCSL + ") ";
 			StringBuffer whereForTerminator = new StringBuffer("");
 
 			// assemble 'where'
@@ -536,7 +561,7 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 				whereForTerminator.append(applyImportFilter("T." + quoting.requote(pk.name), pk) + "=Q." + prefixColumnName(COLUMN_PREFIX, quoting, pk));
 			}
 
-			insertHead = "MERGE INTO " + qualifiedTableName(table)
+			String insertHead = "MERGE INTO " + qualifiedTableName(table)
 					+ " T USING(";
 			StringBuffer terminator = new StringBuffer(") Q ON("
 					+ whereForTerminator + ") ");
@@ -566,11 +591,7 @@ public class IntraDatabaseEntityGraph extends RemoteEntityGraph {
 			terminator.append("WHEN NOT MATCHED THEN INSERT (" + tSchema
 					+ ") VALUES(" + iSchema + ")");
 
-			upsertInsertStatementBuilder.append(insertHead, sqlSelect, "",
-					terminator.toString());
-
-			String sql = upsertInsertStatementBuilder.build();
-			return session.executeUpdate(sql + (withSemicolon? ";" : ""));
+			return session.executeUpdate(insertHead + sqlSelect + terminator + (withSemicolon? ";" : ""));
 		}
 	}
 
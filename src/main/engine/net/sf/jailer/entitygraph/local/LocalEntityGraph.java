@@ -50,6 +50,7 @@ import net.sf.jailer.datamodel.RowIdSupport;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.ddl.DDLCreator;
 import net.sf.jailer.entitygraph.EntityGraph;
+import net.sf.jailer.entitygraph.SubjectQuery;
 import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
 import net.sf.jailer.util.CellContentConverter;
 import net.sf.jailer.util.Quoting;
@@ -522,29 +523,7 @@ public class LocalEntityGraph extends EntityGraph {
 					remoteSession.executeQuery(select, new LocalInlineViewBuilder(destAlias, upkColumnList(destination, null)) {
 						@Override
 						protected void process(String inlineView) throws SQLException {
-							Map<Column, Column> match = upkMatch(destination);
-							StringBuffer sb = new StringBuffer();
-							for (Column column: universalPrimaryKey.getColumns()) {
-								if (sb.length() > 0) {
-									sb.append(" and ");
-								}
-								Column tableColumn = match.get(column);
-								if (tableColumn != null && tableColumn.isNullable) {
-									sb.append("(Duplicate." + column.name);
-									sb.append("=" + destAlias + "." + column.name + " or ");
-									sb.append("(Duplicate." + column.name + " is null and ");
-									sb.append(destAlias + "." + column.name + " is null))");
-								} else {
-									sb.append("Duplicate." + column.name);
-									if (tableColumn != null) {
-										sb.append("=" + destAlias + "." + column.name);
-									} else {
-										sb.append(" is null");
-									}
-								}
-							}
-
-							String entityJoinCondition = sb.toString();
+							String entityJoinCondition = duplicateJoinCondition(destination, destAlias);
 							String select = "Select " + graphID + " as graph_id, " + upkColumnList(destination, destAlias, null) + ", " + today + " as birthday, " + typeName(destination) + " as type" +
 							" From " + inlineView +
 							" left join " + dmlTableReference(ENTITY, localSession) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(destination) + " and " +
@@ -564,6 +543,116 @@ public class LocalEntityGraph extends EntityGraph {
 		return -1;
 	}
 
+	/**
+	 * Number of source entities the estimation of an association is based on.
+	 */
+	private static final int ESTIMATION_SAMPLE_SIZE = 100;
+
+	/**
+	 * Gets the condition joining the entity-table (alias "Duplicate") with the rows of an inline view
+	 * holding the primary keys of a table.
+	 *
+	 * @param table the table
+	 * @param alias the alias of the inline view
+	 * @return the join condition
+	 */
+	private String duplicateJoinCondition(Table table, String alias) {
+		Map<Column, Column> match = upkMatch(table);
+		StringBuffer sb = new StringBuffer();
+		for (Column column: universalPrimaryKey.getColumns()) {
+			if (sb.length() > 0) {
+				sb.append(" and ");
+			}
+			Column tableColumn = match.get(column);
+			if (tableColumn != null && tableColumn.isNullable) {
+				sb.append("(Duplicate." + column.name);
+				sb.append("=" + alias + "." + column.name + " or ");
+				sb.append("(Duplicate." + column.name + " is null and ");
+				sb.append(alias + "." + column.name + " is null))");
+			} else {
+				sb.append("Duplicate." + column.name);
+				if (tableColumn != null) {
+					sb.append("=" + alias + "." + column.name);
+				} else {
+					sb.append(" is null");
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Estimates the number of entities {@link #resolveAssociation(Table, Association, int)} would add
+	 * by counting the distinct rows joined with a sample of the entities born yesterday and extrapolating.
+	 * The destination keys are read from the remote database and rows that have already been collected
+	 * are excluded in the local database the same way the insert excludes them.
+	 *
+	 * @param table the table
+	 * @param association the association to resolve
+	 * @param today the birthday of the new entities
+	 * @param cap the estimation stops at this number
+	 *
+	 * @return the estimated row-count (at most <code>cap</code>) or -1, if association is ignored
+	 */
+	@Override
+	public long estimateAssociation(final Table table, Association association, final int today, long cap) throws SQLException {
+		if (association.getJoinCondition() == null) {
+			return -1;
+		}
+		final String jc = SqlUtil.resolvePseudoColumns(association.getJoinCondition(), today, birthdayOfSubject, association.reversed, inDeleteMode);
+		final String destAlias = association.reversed? "A" : "B";
+		final String sourceAlias = association.reversed? "B" : "A";
+		final Table destination = association.destination;
+		final Table source = association.source;
+		final String condition = "E.r_entitygraph=" + graphID + " and E.birthday = " + (today - 1) + " and E.type=" + typeName(table) + "";
+
+		final long[] numSources = new long[1];
+		localSession.executeQuery("Select count(*) From " + dmlTableReference(ENTITY, localSession) + " E Where " + condition, new Session.AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				numSources[0] = resultSet.getLong(1);
+			}
+		});
+		if (numSources[0] == 0) {
+			return 0;
+		}
+
+		final long[] numRows = new long[1];
+		String select =
+				"Select " + upkColumnList(source, "E", null) +
+				" From " + dmlTableReference(ENTITY, localSession) + " E" +
+				" Where " + condition;
+		long sampleSize = localSession.executeQuery(select, new RemoteInlineViewBuilder("E", upkColumnList(source, null)) {
+			@Override
+			protected void process(String inlineView) throws SQLException {
+				String select =
+						"Select distinct " + pkList(destination, destAlias) +
+						" From " + inlineView + " join " + quoting.requote(source.getName()) + " " + sourceAlias + " on " + pkEqualsEntityID(source, sourceAlias, "E", "", false) +
+						" join " + quoting.requote(destination.getName()) + " " + destAlias + " on (" + jc + ")";
+				remoteSession.executeQuery(select, new LocalInlineViewBuilder(destAlias, upkColumnList(destination, null)) {
+					@Override
+					protected void process(String inlineView) throws SQLException {
+						String select = "Select count(*)" +
+						" From " + inlineView +
+						" left join " + dmlTableReference(ENTITY, localSession) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(destination) + " and " +
+						duplicateJoinCondition(destination, destAlias) +
+						" Where Duplicate.type is null";
+						localSession.executeQuery(select, new Session.AbstractResultSetReader() {
+							@Override
+							public void readCurrentRow(ResultSet resultSet) throws SQLException {
+								numRows[0] += resultSet.getLong(1);
+							}
+						});
+					}
+				});
+			}
+		}, null, null, ESTIMATION_SAMPLE_SIZE, false);
+		if (sampleSize == 0) {
+			return 0;
+		}
+		return Math.min(cap, (long) Math.ceil((double) numRows[0] * numSources[0] / sampleSize));
+	}
+
 	/**
 	 * Resolves an association. Retrieves and adds all entities
 	 * associated with an entity into a given entity-graph.
@@ -673,15 +762,10 @@ public class LocalEntityGraph extends EntityGraph {
 	 * @return row-count
 	 */
 	private long addEntities(final Table table, final String alias, String condition, final int today, SubjectLimitDefinition limitDefinition, final boolean joinWithEntity) throws SQLException {
-		String select =
-			"Select " + pkList(table, alias) +
-			" From " + quoting.requote(table.getName()) + " " + alias;
-		if (condition != null && !SqlUtil.SQL_TRUE.equals(condition)) {
-			select += " Where (" + condition + ")";
-		}
-		if (limitDefinition != null && limitDefinition.limit != null && limitDefinition.orderBy != null && limitDefinition.orderBy.length() > 0) {
-			select += " order by " + limitDefinition.orderBy;
+		if (limitDefinition == null) {
+			limitDefinition = new SubjectLimitDefinition(null, null);
 		}
+		SubjectQuery subjectQuery = new SubjectQuery(table, alias, pkList(table, alias), rowIdSupport.getPrimaryKey(table).getColumns(), condition, limitDefinition, remoteSession, quoting);
 
 		final long[] rc = new long[1];
 		ResultSetReader reader = new LocalInlineViewBuilder(alias, upkColumnList(table, null)) {
@@ -725,7 +809,7 @@ public class LocalEntityGraph extends EntityGraph {
 			}
 		};
 
-		remoteSession.executeQuery(select, reader, null, null, limitDefinition != null && limitDefinition.limit != null? limitDefinition.limit : 0, withExplicitCommit());
+		subjectQuery.execute(remoteSession, reader, "", withExplicitCommit());
 
 		return rc[0];
 	}
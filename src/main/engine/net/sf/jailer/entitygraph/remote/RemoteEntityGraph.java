@@ -15,11 +15,16 @@
  */
 package net.sf.jailer.entitygraph.remote;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -27,8 +32,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import net.sf.jailer.ExecutionContext;
+import net.sf.jailer.configuration.Configuration;
 import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.configuration.LimitTransactionSizeInfo;
 import net.sf.jailer.database.SQLDialect;
@@ -43,9 +50,12 @@ import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.RowIdSupport;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.entitygraph.EntityGraph;
+import net.sf.jailer.entitygraph.SubjectQuery;
 import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
 import net.sf.jailer.util.CellContentConverter;
+import net.sf.jailer.util.PrintUtil;
 import net.sf.jailer.util.Quoting;
+import net.sf.jailer.util.SqlScriptExecutor;
 import net.sf.jailer.util.SqlUtil;
 
 /**
@@ -98,6 +108,32 @@ public class RemoteEntityGraph extends EntityGraph {
 
 	private final Quoting quoting;
 
+	/**
+	 * If <code>true</code>, reading entities deletes the corresponding rows in the source database
+	 * instead of passing them to the transformer.
+	 */
+	private boolean deleteDirectly = false;
+
+	/**
+	 * Sets whether reading entities deletes the corresponding rows in the source database
+	 * instead of passing them to the transformer.
+	 *
+	 * @param deleteDirectly <code>true</code> to delete directly using set-based statements
+	 */
+	public void setDeleteDirectly(boolean deleteDirectly) {
+		this.deleteDirectly = deleteDirectly;
+	}
+
+	/**
+	 * Gets whether reading entities deletes the corresponding rows in the source database
+	 * instead of passing them to the transformer.
+	 *
+	 * @return <code>true</code> if rows are deleted directly using set-based statements
+	 */
+	public boolean isDeleteDirectly() {
+		return deleteDirectly;
+	}
+
 	/**
 	 * Sets birthday of subject rows.
 	 *
@@ -155,6 +191,8 @@ public class RemoteEntityGraph extends EntityGraph {
 				"Insert into " + dmlTableReference(ENTITY, session) + "(r_entitygraph, " + universalPrimaryKey.columnList(null) + ", birthday, orig_birthday, type) " +
 					"Select " + newGraphID + ", " + universalPrimaryKey.columnList(null) + ", birthday, birthday, type From " + dmlTableReference(ENTITY, session) + " Where r_entitygraph=" + graphID + "");
 		entityGraph.setTransformerFactory(getTransformerFactory());
+		entityGraph.setDeleteDirectly(deleteDirectly);
+		entityGraph.setTransactionSizeController(getTransactionSizeController());
 		return entityGraph;
 	}
 
@@ -166,6 +204,8 @@ public class RemoteEntityGraph extends EntityGraph {
 	public EntityGraph createNewGraph() throws SQLException {
 		RemoteEntityGraph entityGraph = create(dataModel, createUniqueGraphID(), session, universalPrimaryKey, null, executionContext);
 		entityGraph.setBirthdayOfSubject(birthdayOfSubject);
+		entityGraph.setDeleteDirectly(isDeleteDirectly());
+		entityGraph.setTransactionSizeController(getTransactionSizeController());
 		return entityGraph;
 	}
 
@@ -289,18 +329,9 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public long addEntities(Table table, String condition, int today, SubjectLimitDefinition limitDefinition, boolean joinWithEntity) throws SQLException {
-		String select;
 		String alias = "T";
-
-		select =
-				"Select " + pkList(table, alias) +
-				" From " + quoting.requote(table.getName()) + " " + alias;
-		if (condition != null && !SqlUtil.SQL_TRUE.equals(condition)) {
-			select += " Where (" + condition + ")";
-		}
-		if (limitDefinition.limit != null && limitDefinition.orderBy != null && limitDefinition.orderBy.length() > 0) {
-			select += " order by " + limitDefinition.orderBy;
-		}
+		SubjectQuery subjectQuery = new SubjectQuery(table, alias, pkList(table, alias), rowIdSupport.getPrimaryKey(table).getColumns(), condition, limitDefinition, session, quoting);
+		String select = subjectQuery.getSql();
 
 		final Map<Column, Column> match = universalPrimaryKey.match(rowIdSupport.getPrimaryKey(table));
 		final int MAX_BATCH_SIZE = 200;
@@ -356,7 +387,7 @@ public class RemoteEntityGraph extends EntityGraph {
 		final long[] rc = new long[] { 0 };
 		final boolean[] rcValid = new boolean[] { true };
 
-		session.executeQuery(select + " /*!*/", new Session.AbstractResultSetReader() {
+		subjectQuery.execute(session, new Session.AbstractResultSetReader() {
 			int batchSize = 0;
 			Map<Integer, Integer> columnType = null;
 			@Override
@@ -451,7 +482,7 @@ public class RemoteEntityGraph extends EntityGraph {
 					throw new RuntimeException(new SqlException("\"" + e.getMessage() + "\" in statement \"" + insert + "\"", finalSelect, e));
 	            }
 			}
-		}, null, null, limitDefinition.limit != null? limitDefinition.limit : 0, false);
+		}, " /*!*/", false);
 
 		if (updateStatistics != null) {
 			updateStatistics.run();
@@ -488,6 +519,74 @@ public class RemoteEntityGraph extends EntityGraph {
 		return -1;
 	}
 
+	/**
+	 * Number of source entities the estimation of an association is based on.
+	 */
+	private static final int ESTIMATION_SAMPLE_SIZE = 100;
+
+	/**
+	 * Estimates the number of entities {@link #resolveAssociation(Table, Association, int)} would add
+	 * by counting the distinct rows joined with a sample of the entities born yesterday and extrapolating.
+	 * Rows that have already been collected are excluded the same way the insert excludes them.
+	 * The rows are counted by the DBMS.
+	 * If the DBMS has no limit clause, the rows joined with all entities born yesterday are counted.
+	 *
+	 * @param table the table
+	 * @param association the association to resolve
+	 * @param today the birthday of the new entities
+	 * @param cap the estimation stops at this number
+	 *
+	 * @return the estimated row-count (at most <code>cap</code>) or -1, if association is ignored
+	 */
+	@Override
+	public long estimateAssociation(Table table, Association association, int today, long cap) throws SQLException {
+		String jc = association.getJoinCondition();
+		if (jc == null) {
+			return -1;
+		}
+		String destAlias, sourceAlias;
+		if (association.reversed) {
+			destAlias = "A";
+			sourceAlias = "B";
+		} else {
+			destAlias = "B";
+			sourceAlias = "A";
+		}
+		jc = SqlUtil.resolvePseudoColumns(jc, association.reversed? null : "E", association.reversed? "E" : null, today, birthdayOfSubject, inDeleteMode);
+		String condition = "E.r_entitygraph=" + graphID + " and E.birthday = " + (today - 1) + " and E.type=" + typeName(table);
+
+		final long[] count = new long[1];
+		Session.AbstractResultSetReader countReader = new Session.AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				count[0] = resultSet.getLong(1);
+			}
+		};
+		session.executeQuery("Select count(*) From " + dmlTableReference(ENTITY, session) + " E Where " + condition, countReader);
+		long numSources = count[0];
+		if (numSources == 0) {
+			return 0;
+		}
+		String sample = "Select * From " + dmlTableReference(ENTITY, session) + " E Where " + condition;
+		long sampleSize = numSources;
+		if (numSources > ESTIMATION_SAMPLE_SIZE) {
+			String limitedSample = SqlUtil.limitSelect(sample, ESTIMATION_SAMPLE_SIZE, session.dbms);
+			if (limitedSample != null) {
+				sample = limitedSample;
+				sampleSize = ESTIMATION_SAMPLE_SIZE;
+			}
+		}
+		count[0] = 0;
+		session.executeQuery(
+				"Select count(*) From (Select distinct " + pkList(association.destination, destAlias) + " From (" + sample + ") E" +
+				" join " + quoting.requote(table.getName()) + " " + sourceAlias + " on " + pkEqualsEntityID(table, sourceAlias, "E") +
+				" join " + quoting.requote(association.destination.getName()) + " " + destAlias + " on (" + jc + ")" +
+				" Where NOT EXISTS (select * from " + dmlTableReference(ENTITY, session) + " Duplicate" +
+				" where Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(association.destination) +
+				" and " + pkEqualsEntityID(association.destination, destAlias, "Duplicate") + ")) Q", countReader);
+		return Math.min(cap, (long) Math.ceil((double) count[0] * numSources / sampleSize));
+	}
+
 	/**
 	 * Resolves an association. Retrieves and adds all entities
 	 * associated with an entity into a given entity-graph.
@@ -516,10 +615,9 @@ public class RemoteEntityGraph extends EntityGraph {
 			Table table1 = association.destination;
 			String condition = "E.r_entitygraph=" + graphID + " and E.birthday >= 0 and E.type=" + typeName(association.destination) + " and " + pkEqualsEntityID(association.destination, destAlias, "E");
 			Table source = association.source;
-			String select;
 			LimitTransactionSizeInfo limitTransactionSize = session.dbms.getLimitTransactionSize();
-			select =
-					"Select " + (table != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext) + otherGraph.graphID + " as graph_id, " + pkList(source, sourceAlias) + ", " + 1 + " as birthday, " + typeName(source) + " as type" +
+			IncrementalStatement select = size ->
+					"Select " + (table != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext, size) + otherGraph.graphID + " as graph_id, " + pkList(source, sourceAlias) + ", " + 1 + " as birthday, " + typeName(source) + " as type" +
 							" From " + quoting.requote(table1.getName()) + " " + destAlias +
 							" left join " + dmlTableReference(ENTITY, session) + " Duplicate on Duplicate.r_entitygraph=" + otherGraph.graphID + " and Duplicate.type=" + typeName(table1) + " and " +
 							pkEqualsEntityID(table1, destAlias, "Duplicate") +
@@ -529,24 +627,17 @@ public class RemoteEntityGraph extends EntityGraph {
 							", " + dmlTableReference(ENTITY, session) + " E" +
 							" Where (" + condition + ") and Duplicate.type is null and DUnivers.type " +
 							(forDelete? "is null" : "is not null") +
-							(table != null? " and (" + jc + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
-							limitTransactionSize.statementSuffixFragment(executionContext);
+							(table != null? " and (" + jc + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext, size) +
+							limitTransactionSize.statementSuffixFragment(executionContext, size);
 
-			long incrementSize = limitTransactionSize.getSize(executionContext);
-			String insert = "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(source, null) + ", birthday, type) " + select;
+			IncrementalStatement insert = size -> "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(source, null) + ", birthday, type) " + select.create(size);
 			if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan on ");
-			long rc = 0;
-			for (;;) {
-				long incRc = session.executeUpdate(insert);
-				rc += incRc;
+			long rc = executeIncrementally(session, source.getName(), insert, incRc -> {
 				totalRowcount.addAndGet(incRc);
 				if (updateStatistics != null) {
 					updateStatistics.run();
 				}
-				if (incRc != incrementSize || incrementSize == 0) {
-					break;
-				}
-			}
+			});
 			if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan off ");
 			return rc;
 		}
@@ -570,15 +661,36 @@ public class RemoteEntityGraph extends EntityGraph {
 		if (joinCondition != null) {
 			joinCondition = SqlUtil.resolvePseudoColumns(joinCondition, isInverseAssociation? null : "E", isInverseAssociation? "E" : null, today, birthdayOfSubject, inDeleteMode);
 		}
+		String resolvedJoinCondition = joinCondition;
+		IncrementalStatement insert = size -> "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " +
+				addEntitiesSelect(table, alias, condition, joinedTable, joinedTableAlias, resolvedJoinCondition, joinWithEntity, today, size);
+		if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan on ");
+		long rc = executeIncrementally(session, table.getName(), insert, incRc -> {
+			totalRowcount.addAndGet(incRc);
+			if (updateStatistics != null) {
+				updateStatistics.run();
+			}
+		});
+		if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan off ");
+		return rc;
+	}
+
+	/**
+	 * Creates the query selecting the entities to be added to the graph (see {@link #addEntities(Table, String, String, Table, String, Table, String, boolean, int, boolean)}).
+	 *
+	 * @param size the maximum number of rows to be selected (transaction size), 0 for unlimited
+	 * @return the query
+	 */
+	private String addEntitiesSelect(Table table, String alias, String condition, Table joinedTable, String joinedTableAlias, String joinCondition, boolean joinWithEntity, int today, long size) throws SQLException {
 		String select;
 		LimitTransactionSizeInfo limitTransactionSize = session.dbms.getLimitTransactionSize();
 		if (joinedTable == null && !joinWithEntity && !limitTransactionSize.isApplicable(executionContext)) {
 			select =
-					"Select " + graphID + " " + limitTransactionSize.afterSelectFragment(executionContext) + "as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
+					"Select " + graphID + " " + limitTransactionSize.afterSelectFragment(executionContext, size) + "as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
 					" From " + quoting.requote(table.getName()) + " " + alias +
 					(condition != null && !SqlUtil.SQL_TRUE.equals(condition) ? " Where (" + condition + ") " : " ") + 
-					limitTransactionSize.additionalWhereConditionFragment(executionContext) +
-					limitTransactionSize.statementSuffixFragment(executionContext);
+					limitTransactionSize.additionalWhereConditionFragment(executionContext, size) +
+					limitTransactionSize.statementSuffixFragment(executionContext, size);
 		} else {
 			if (session.dbms.isAvoidLeftJoin()) {
 				// bug fix for [https://sourceforge.net/p/jailer/bugs/12/ ] "Outer Join for selecting dependant entries and Oracle 10"
@@ -586,7 +698,7 @@ public class RemoteEntityGraph extends EntityGraph {
 
 				// TODO is this still necessary?
 				select =
-					"Select " + (joinedTable != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext) + graphID + " as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
+					"Select " + (joinedTable != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext, size) + graphID + " as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
 					" From " + quoting.requote(table.getName()) + " " + alias
 						+
 					(joinedTable != null? ", " + quoting.requote(joinedTable.getName()) + " " + joinedTableAlias + " ": "") +
@@ -598,40 +710,23 @@ public class RemoteEntityGraph extends EntityGraph {
 						" AND NOT EXISTS (select * from " + dmlTableReference(ENTITY, session)
 						+ " DuplicateExists where r_entitygraph=" + graphID + " " + "AND DuplicateExists.type="
 						+ typeName(table)
-						+ " and " + pkEqualsEntityID(table, alias, "DuplicateExists") + ") " + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
-						limitTransactionSize.statementSuffixFragment(executionContext);
+						+ " and " + pkEqualsEntityID(table, alias, "DuplicateExists") + ") " + limitTransactionSize.additionalWhereConditionFragment(executionContext, size) +
+						limitTransactionSize.statementSuffixFragment(executionContext, size);
 
 			} else {
 				select =
-					"Select " + (joinedTable != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext) + graphID + " as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
+					"Select " + (joinedTable != null? "distinct " : "") + limitTransactionSize.afterSelectFragment(executionContext, size) + graphID + " as graph_id, " + pkList(table, alias) + ", " + today + " as birthday, " + typeName(table) + " as type" +
 					" From " + quoting.requote(table.getName()) + " " + alias +
 					" left join " + dmlTableReference(ENTITY, session) + " Duplicate on Duplicate.r_entitygraph=" + graphID + " and Duplicate.type=" + typeName(table) + " and " +
 					pkEqualsEntityID(table, alias, "Duplicate") +
 					(joinedTable != null? ", " + quoting.requote(joinedTable.getName()) + " " + joinedTableAlias + " ": "") +
 					(joinWithEntity? ", " + dmlTableReference(ENTITY, session) + " E" : "") +
 					" Where (" + condition + ") and Duplicate.type is null" +
-					(joinedTable != null? " and (" + joinCondition + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext) +
-					limitTransactionSize.statementSuffixFragment(executionContext);
-			}
-		}
-
-		long incrementSize = limitTransactionSize.getSize(executionContext);
-		String insert = "Insert into " + dmlTableReference(ENTITY, session) + " (r_entitygraph, " + upkColumnList(table, null) + ", birthday, type) " + select;
-		if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan on ");
-		long rc = 0;
-		for (;;) {
-			long incRc = session.executeUpdate(insert);
-			rc += incRc;
-			totalRowcount.addAndGet(incRc);
-			if (updateStatistics != null) {
-				updateStatistics.run();
-			}
-			if (incRc != incrementSize || incrementSize == 0) {
-				break;
+					(joinedTable != null? " and (" + joinCondition + ") " : " ") + limitTransactionSize.additionalWhereConditionFragment(executionContext, size) +
+					limitTransactionSize.statementSuffixFragment(executionContext, size);
 			}
 		}
-		if (DBMS.SYBASE.equals(session.dbms)) session.execute("set forceplan off ");
-		return rc;
+		return select;
 	}
 
 	/**
@@ -657,7 +752,9 @@ public class RemoteEntityGraph extends EntityGraph {
 			" and E1.type=" + typeName(from) + " and E2.type=" + typeName(to) + "" +
 			" and " + pkEqualsEntityID(from, fromAlias, "E1") +
 			" and " + pkEqualsEntityID(to, toAlias, "E2");
-		totalRowcount.addAndGet(session.executeUpdate(insert));
+		long rc = session.executeUpdate(insert);
+		totalRowcount.addAndGet(rc);
+		dependencyRowcount.addAndGet(rc);
 	}
 
 	/**
@@ -755,6 +852,10 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readMarkedEntities(Table table, boolean orderByPK) throws SQLException {
+		if (deleteDirectly) {
+			deleteRows(table, "E.birthday=0");
+			return;
+		}
 		Session.ResultSetReader reader = getTransformerFactory().create(table);
 		readMarkedEntities(table, reader, filteredSelectionClause(table, false), orderByPK);
 	}
@@ -828,12 +929,86 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void readEntities(Table table, boolean orderByPK) throws SQLException {
+		if (deleteDirectly) {
+			deleteRows(table, "E.birthday>=0");
+			return;
+		}
 		Session.ResultSetReader reader = getTransformerFactory().create(table);
 		long rc = readEntities(table, orderByPK, reader);
 		executionContext.getProgressListenerRegistry().fireExported(table, rc);
 		addExportedCount(rc);
 	}
 
+	/**
+	 * Deletes the rows of a given table that belong to entities of this graph using set-based statements.
+	 * If the transaction size is to be limited, the rows are deleted in chunks, each in its own transaction.
+	 *
+	 * @param table the table
+	 * @param entityCondition condition on the entities (alias "E")
+	 * @return number of deleted rows
+	 */
+	protected long deleteRows(Table table, String entityCondition) throws SQLException {
+		String tableName = deletionTableName(table);
+		String entityTable = dmlTableReference(ENTITY, session);
+		String condition = entityCondition + " and E.r_entitygraph=" + graphID + " and E.type=" + typeName(table);
+		return executeIncrementally(session, table.getName(), size ->
+				deleteRowsStatement(session.dbms, tableName, entityTable, condition, alias -> pkEqualsEntityID(table, alias, "E"), executionContext, size),
+			rc -> {
+				if (rc > 0) {
+					executionContext.getProgressListenerRegistry().fireExported(table, rc);
+					addExportedCount(rc);
+				}
+			});
+	}
+
+	/**
+	 * Creates a statement that deletes the rows of a table that belong to some entities.
+	 * The rows are correlated with the entities through an alias of the table if the DBMS allows aliases in delete statements.
+	 *
+	 * @param dbms the DBMS
+	 * @param tableName qualified name of the table
+	 * @param entityTable reference to the entity table
+	 * @param entityCondition condition on the entities (alias "E")
+	 * @param pkEqualsEntityID creates the condition that compares the rows of the table (given alias) with the entities
+	 * @param executionContext the execution context
+	 * @param size the number of rows per statement, if the transaction size is limited
+	 * @return the delete statement
+	 */
+	public static String deleteRowsStatement(DBMS dbms, String tableName, String entityTable, String entityCondition, Function<String, String> pkEqualsEntityID, ExecutionContext executionContext, long size) {
+		LimitTransactionSizeInfo limitTransactionSize = dbms.getLimitTransactionSize();
+		boolean withAlias = DELETION_ALIAS_DBMS.contains(dbms);
+		return "Delete " + limitTransactionSize.afterSelectFragment(executionContext, size) + "from " + tableName + (withAlias? " T " : " ") +
+				"Where exists (Select 1 From " + entityTable + " E " +
+				"Where " + entityCondition + " and " +
+				pkEqualsEntityID.apply(withAlias? "T" : tableName) + ") " +
+				limitTransactionSize.additionalWhereConditionFragment(executionContext, size) +
+				limitTransactionSize.statementSuffixFragment(executionContext, size);
+	}
+
+	/**
+	 * DBMS that allow an alias for the table in delete statements.
+	 */
+	private static final Set<DBMS> DELETION_ALIAS_DBMS = new HashSet<DBMS>(Arrays.asList(
+			DBMS.ORACLE, DBMS.POSTGRESQL, DBMS.DB2, DBMS.DB2_ZOS, DBMS.H2, DBMS.HSQL, DBMS.DERBY, DBMS.FIREBIRD));
+
+	/**
+	 * Gets the qualified name of a table to delete rows from, taking the deletion schema mapping into account.
+	 *
+	 * @param table the table
+	 * @return qualified name of table
+	 */
+	private String deletionTableName(Table table) {
+		String schema = table.getOriginalSchema("");
+		String mappedSchema = executionContext.getDeletionSchemaMapping().get(schema);
+		if (mappedSchema != null) {
+			schema = mappedSchema;
+		}
+		if (schema.length() == 0) {
+			return quoting.requote(table.getUnqualifiedName());
+		}
+		return quoting.requote(schema) + "." + quoting.requote(table.getUnqualifiedName());
+	}
+
 	/**
 	 * Reads some columns of all entities of a given table without using filters.
 	 *
@@ -902,10 +1077,45 @@ public class RemoteEntityGraph extends EntityGraph {
 	 */
 	@Override
 	public void updateEntities(Table table, Set<Column> columns, OutputStreamWriter scriptFileWriter, DBMS targetConfiguration, boolean inSourceSchema, String reason) throws SQLException {
+		if (deleteDirectly) {
+			executeUpdates(table, columns, inSourceSchema, reason);
+			return;
+		}
 		Session.ResultSetReader reader = new UpdateTransformer(table, columns, scriptFileWriter, executionContext.getNumberOfEntities(), getTargetSession(), targetConfiguration, importFilterManager, inSourceSchema, reason, executionContext);
 		readEntities(table, false, reader);
 	}
 
+	/**
+	 * Updates columns of a table directly in the source database.
+	 *
+	 * @param table the table
+	 * @param columns the columns
+	 * @param inSourceSchema if <code>true</code>, use source-schema-mapping, else use schema-mapping
+	 * @param reason to be written as comment
+	 */
+	private void executeUpdates(Table table, Set<Column> columns, boolean inSourceSchema, String reason) throws SQLException {
+		File tmp = Configuration.getInstance().createTempFile();
+		try {
+			Charset charset = SqlUtil.getDefaultCharset();
+			if (executionContext.getUTF8()) {
+				charset = Charset.forName("UTF8");
+			}
+			try (OutputStreamWriter tmpFileWriter = new OutputStreamWriter(new FileOutputStream(tmp), charset)) {
+				if (executionContext.getUTF8()) {
+					// lets the script executor read the script with the same encoding
+					tmpFileWriter.append("-- encoding " + charset.name() + PrintUtil.LINE_SEPARATOR);
+				}
+				UpdateTransformer reader = new UpdateTransformer(table, columns, tmpFileWriter, executionContext.getNumberOfEntities(), session, session.dbms, importFilterManager, inSourceSchema, reason, executionContext);
+				readEntities(table, false, reader);
+			}
+			new SqlScriptExecutor(session, executionContext.getNumberOfThreads()).executeScript(tmp.getPath());
+		} catch (IOException e) {
+			throw new SQLException("can't update table " + table.getName() + ": " + e.getMessage(), e);
+		} finally {
+			tmp.delete();
+		}
+	}
+
 	/**
 	 * Gets select clause for reading rows of given type
 	 * with respect of the column filters.
@@ -1437,6 +1647,25 @@ public class RemoteEntityGraph extends EntityGraph {
 		return totalRowcount.get();
 	}
 
+	/**
+	 * Row-count of dependencies.
+	 */
+	private AtomicLong dependencyRowcount = new AtomicLong(0);
+
+	/**
+	 * Gets the number of rows inserted into each working table.
+	 *
+	 * @return row-count per working table name
+	 */
+	@Override
+	public Map<String, Long> getWorkingTableRowcounts() {
+		Map<String, Long> rowcounts = new HashMap<String, Long>();
+		long dependencies = dependencyRowcount.get();
+		rowcounts.put(ENTITY, totalRowcount.get() - dependencies);
+		rowcounts.put(DEPENDENCY, dependencies);
+		return rowcounts;
+	}
+
 	/**
 	 * Gets the universal primary key.
 	 *
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -275,7 +276,7 @@ public class ExtractionModel {
 		if ("".equals(condition)) {
 			condition = SqlUtil.SQL_TRUE;
 		}
-		subjectLimitDefinition = createLimitDefinition(subjectLine.cells.get(2), subjectLine.cells.get(3));
+		subjectLimitDefinition = createLimitDefinition(subjectLine.cells.get(2), subjectLine.cells.get(3), subjectLine.cells.get(4), subjectLine.cells.get(5));
 		if (dataModel.getRestrictionModel() == null) {
 			dataModel.setRestrictionModel(new RestrictionModel(dataModel, executionContext));
 		}
@@ -466,7 +467,7 @@ public class ExtractionModel {
 		for (CsvFile.Line line: additionalSubsLines) {
 			Table additSubject = getTable(dataModel, SqlUtil.mappedSchema(sourceSchemaMapping, line.cells.get(0)));
 			if (additSubject != null) {
-				additionalSubjects.add(new AdditionalSubject(additSubject, line.cells.get(1), createLimitDefinition(line.cells.get(2), line.cells.get(3))));
+				additionalSubjects.add(new AdditionalSubject(additSubject, line.cells.get(1), createLimitDefinition(line.cells.get(2), line.cells.get(3), line.cells.get(4), line.cells.get(5))));
 			}
 		}
 		
@@ -508,7 +509,7 @@ public class ExtractionModel {
 		}
 	}
 
-	private SubjectLimitDefinition createLimitDefinition(String limit, String orderBy) {
+	private SubjectLimitDefinition createLimitDefinition(String limit, String orderBy, String sampling, String samplePercent) {
 		Long lLimit = null;
 		if (!"".equals(limit)) {
 			try {
@@ -517,7 +518,23 @@ public class ExtractionModel {
 				lLimit = null;
 			}
 		}
-		return new SubjectLimitDefinition(lLimit, orderBy.length() == 0? null : orderBy);
+		SubjectLimitDefinition.Sampling eSampling = null;
+		if (!"".equals(sampling)) {
+			try {
+				eSampling = SubjectLimitDefinition.Sampling.valueOf(sampling.toUpperCase(Locale.ENGLISH));
+			} catch (IllegalArgumentException e) {
+				_log.warn("unknown sampling mode '" + sampling + "'");
+			}
+		}
+		Double dSamplePercent = null;
+		if (!"".equals(samplePercent)) {
+			try {
+				dSamplePercent = Double.parseDouble(samplePercent);
+			} catch (NumberFormatException e) {
+				dSamplePercent = null;
+			}
+		}
+		return new SubjectLimitDefinition(lLimit, orderBy.length() == 0? null : orderBy, eSampling, dSamplePercent);
 	}
 
 	private KnownIdentifierMap knownIdentifierMap;
@@ -15,13 +15,35 @@
  */
 package net.sf.jailer.extractionmodel;
 
+import java.util.Locale;
+
 /**
- * Defines a limit of rows to be exported per subject table wrt an ordering.
+ * Defines a limit of rows to be exported per subject table wrt an ordering,
+ * optionally restricted to a sample of the rows.
  * 
  * @author Ralf Wisser
  */
 public class SubjectLimitDefinition {
 
+	/**
+	 * Sampling mode.
+	 */
+	public enum Sampling {
+		/**
+		 * Each row is selected with a probability of {@link SubjectLimitDefinition#samplePercent}.
+		 */
+		RANDOM,
+
+		/**
+		 * Rows are selected at regular intervals in the order of the "order by" clause
+		 * (or the primary key), so that the sample spreads evenly over the key range.
+		 * Without {@link SubjectLimitDefinition#samplePercent}, the interval is derived from the row limit
+		 * and the number of candidates, which is estimated from a sample of the subject table (if the DBMS supports sampling)
+		 * or counted by an additional (unlimited) query.
+		 */
+		STRATIFIED
+	}
+
 	/**
 	 * Row limit.
 	 */
@@ -32,6 +54,17 @@ public class SubjectLimitDefinition {
 	 */
 	public String orderBy;
 
+	/**
+	 * Sampling mode, <code>null</code> if all rows are candidates.
+	 */
+	public Sampling sampling;
+
+	/**
+	 * Percentage of rows to be sampled. Optional for {@link Sampling#STRATIFIED} if there is a row limit,
+	 * at the cost of estimating the number of candidates first.
+	 */
+	public Double samplePercent;
+
 	/**
 	 * Constructor.
 	 * 
@@ -39,8 +72,50 @@ public class SubjectLimitDefinition {
 	 * @param orderBy "order by" clause
 	 */
 	public SubjectLimitDefinition(Long limit, String orderBy) {
+		this(limit, orderBy, null, null);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param limit row limit
+	 * @param orderBy "order by" clause
+	 * @param sampling sampling mode
+	 * @param samplePercent percentage of rows to be sampled
+	 */
+	public SubjectLimitDefinition(Long limit, String orderBy, Sampling sampling, Double samplePercent) {
 		this.limit = limit;
 		this.orderBy = orderBy;
+		this.sampling = sampling;
+		this.samplePercent = samplePercent;
+	}
+
+	/**
+	 * Whether the subject rows are restricted (by limit or sampling).
+	 * 
+	 * @return <code>true</code> if not all rows fulfilling the subject condition are to be exported
+	 */
+	public boolean isRestricted() {
+		return limit != null || sampling != null;
+	}
+
+	/**
+	 * Gets a description of the restriction, such as "limit 1000 order by id sample 10% stratified".
+	 * 
+	 * @return the description, empty if the rows are not restricted
+	 */
+	public String getDescription() {
+		StringBuilder sb = new StringBuilder();
+		if (limit != null) {
+			sb.append("limit " + limit);
+		}
+		if (orderBy != null && orderBy.trim().length() > 0) {
+			sb.append((sb.length() > 0? " " : "") + "order by " + orderBy);
+		}
+		if (sampling != null) {
+			sb.append((sb.length() > 0? " " : "") + "sample " + (samplePercent != null? samplePercent + "% " : "") + sampling.name().toLowerCase(Locale.ENGLISH));
+		}
+		return sb.toString();
 	}
 
 	@Override
@@ -49,6 +124,8 @@ public class SubjectLimitDefinition {
 		int result = 1;
 		result = prime * result + ((limit == null) ? 0 : limit.hashCode());
 		result = prime * result + ((orderBy == null) ? 0 : orderBy.hashCode());
+		result = prime * result + ((sampling == null) ? 0 : sampling.hashCode());
+		result = prime * result + ((samplePercent == null) ? 0 : samplePercent.hashCode());
 		return result;
 	}
 
@@ -71,6 +148,13 @@ public class SubjectLimitDefinition {
 				return false;
 		} else if (!orderBy.equals(other.orderBy))
 			return false;
+		if (sampling != other.sampling)
+			return false;
+		if (samplePercent == null) {
+			if (other.samplePercent != null)
+				return false;
+		} else if (!samplePercent.equals(other.samplePercent))
+			return false;
 		return true;
 	}
 
@@ -36,8 +36,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.Configuration;
@@ -100,7 +102,17 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 		public String newValueColumnName;
 		public String type;
 		public String filterExpression;
+		/**
+		 * Values already inserted into the local mapping table (bounded).
+		 */
+		public final Set<String> insertedValues = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 	}
+
+	/**
+	 * Maximum number of values per mapping column that are remembered for de-duplication.
+	 * Further values are inserted as they come, duplicates are then removed when the mapping tables are written out.
+	 */
+	private static final int MAX_DEDUPLICATED_VALUES = 100000;
 	
 	public static String MAPPINGTABLE_NAME_PREFIX = "JAILER_IFM";
 	
@@ -342,15 +354,17 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 			insertJobs.add(new Job() {
 				@Override
 				public void run() throws SQLException {
-					final Map<Column, PreparedStatement> insertStatement = new HashMap<Column, PreparedStatement>();
 					Connection connection;
 					connection = getLocalSession().getConnection();
 					final List<Column> columns = filters.getValue();
-					for (Column column: columns) {
-						insertStatement.put(column, connection.prepareStatement( // lgtm [java/database-resource-leak]S
-								"Insert into " + columnMapping.get(column).mappingTableName
-								+ "(" + columnMapping.get(column).oldValueColumnName + ")"
-								+ " values (?)"));
+					final PreparedStatement[] insertStatement = new PreparedStatement[columns.size()];
+					final ColumnToMappingTable[] mappings = new ColumnToMappingTable[columns.size()];
+					for (int i = 0; i < columns.size(); ++i) {
+						mappings[i] = columnMapping.get(columns.get(i));
+						insertStatement[i] = connection.prepareStatement( // lgtm [java/database-resource-leak]S
+								"Insert into " + mappings[i].mappingTableName
+								+ "(" + mappings[i].oldValueColumnName + ")"
+								+ " values (?)");
 					}
 					
 					try {
@@ -364,11 +378,15 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 									Object content = cellContentConverter.getObject(resultSet, i + 1);
 									if (content != null) {
 										String value = cellContentConverter.toSql(content);
-										insertStatement.get(columns.get(i)).setString(1, value);
-										insertStatement.get(columns.get(i)).addBatch();
+										Set<String> insertedValues = mappings[i].insertedValues;
+										if (insertedValues.contains(value) || (insertedValues.size() < MAX_DEDUPLICATED_VALUES && !insertedValues.add(value))) {
+											continue;
+										}
+										insertStatement[i].setString(1, value);
+										insertStatement[i].addBatch();
 										++batchSize[i];
 										if (batchSize[i] > MAX_BATCH_SIZE) {
-											insertStatement.get(columns.get(i)).executeBatch();
+											insertStatement[i].executeBatch();
 											batchSize[i] = 0;
 										}
 									}
@@ -379,14 +397,14 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 							public void close() throws SQLException {
 								for (int i = 0; i < columns.size(); ++i) {
 									if (batchSize[i] > 0) {
-										insertStatement.get(columns.get(i)).executeBatch();
+										insertStatement[i].executeBatch();
 										batchSize[i] = 0;
 									}
 								}
 							}
 						});
 					} finally {
-						for (PreparedStatement st: insertStatement.values()) {
+						for (PreparedStatement st: insertStatement) {
 							try {
 								st.close();
 							} catch (SQLException e) {
@@ -400,16 +418,22 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 
 		final String schema = quotedMappingTablesSchema;
 		AtomicReference<Table> identityInsertTable = new AtomicReference<Table>();
+		// multi-row inserts only where "values (...), (...)" is supported, filter expressions
+		// using sequences are not allowed in "Select ... Union all" inserts (ORA-02287)
+		final int maxBodySize = targetDBMSConfiguration.getSqlDialect().isSupportsMultiRowInserts()
+				&& !DBMS.ORACLE.equals(targetDBMSConfiguration) && !DBMS.DB2_ZOS.equals(targetDBMSConfiguration) && !DBMS.SQLITE.equals(targetDBMSConfiguration)?
+				Math.max(1, numberOfEntities) : 1;
 		
 		for (final ColumnToMappingTable mapping: columnToMappingTableSet) {
 			writeOutJobs.add(new Job() {
 				@Override
 				public void run() throws SQLException {
+					final Pattern oldValuePattern = Pattern.compile(Filter.OLD_VALUE_PROP_RE);
 					Table mappingTable = new Table(schema + mapping.mappingTableName, null, false, false);
 					Column newValueColumn = new Column(mapping.newValueColumnName, mapping.type, 0, -1);
 					Column oldValueColumn = new Column(mapping.oldValueColumnName, mapping.type, 0, -1);
 					mappingTable.setColumns(Arrays.asList(oldValueColumn, newValueColumn));
-					ResultSetReader scriptFileWriter = new DMLTransformer(mappingTable, dmlResultWriter, false, 1, targetSession, targetDBMSConfiguration, null, identityInsertTable, executionContext) {
+					ResultSetReader scriptFileWriter = new DMLTransformer(mappingTable, dmlResultWriter, false, maxBodySize, targetSession, targetDBMSConfiguration, null, identityInsertTable, executionContext) {
 						@Override
 						protected String convertToSql(CellContentConverter cellContentConverter,
 								ResultSet resultSet, int i, Object content, int callerId, String suffix) throws SQLException {
@@ -420,7 +444,7 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 							} else {
 								// new value
 								String oldValue = resultSet.getString(1);
-								return mapping.filterExpression.replaceAll(Filter.OLD_VALUE_PROP_RE, Matcher.quoteReplacement(oldValue));
+								return oldValuePattern.matcher(mapping.filterExpression).replaceAll(Matcher.quoteReplacement(oldValue));
 							}
 						}
 						@Override
@@ -459,7 +483,13 @@ public abstract class ImportFilterManager implements ImportFilterTransformer {
 			});
 		}
 
-		jobManager.executeJobs(insertJobs);
+		try {
+			jobManager.executeJobs(insertJobs);
+		} finally {
+			for (ColumnToMappingTable mapping: columnToMappingTableSet) {
+				mapping.insertedValues.clear();
+			}
+		}
 		jobManager.executeJobs(writeOutJobs);
 	}
 
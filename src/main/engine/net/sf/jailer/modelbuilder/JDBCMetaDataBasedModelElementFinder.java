@@ -51,10 +51,12 @@ import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.PrimaryKeyFactory;
 import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.CancellationException;
 import net.sf.jailer.util.CancellationHandler;
 import net.sf.jailer.util.CsvFile;
 import net.sf.jailer.util.CsvFile.Line;
 import net.sf.jailer.util.JSqlParserUtil;
+import net.sf.jailer.util.JobManager;
 import net.sf.jailer.util.LogUtil;
 import net.sf.jailer.util.Pair;
 import net.sf.jailer.util.Quoting;
@@ -120,7 +122,7 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	/**
 	 * Map from element (table, column) to the comment.
 	 */
-	private Map<Pair<Table, Column>, String> comments = new HashMap<>();
+	private Map<Pair<Table, Column>, String> comments = Collections.synchronizedMap(new HashMap<>());
 
 	/**
 	 * Gets the names of user defined types.
@@ -128,7 +130,7 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	 * @param session to retrieve the UDT names
 	 * @return names of user defined types
 	 */
-	private Set<String> getUserDefinedTypes(Session session) {
+	private synchronized Set<String> getUserDefinedTypes(Session session) {
 		if (userDefinedTypes == null) {
 			userDefinedTypes = new HashSet<String>();
 			if (session.dbms.getUserDefinedColumnsQuery() != null) {
@@ -154,7 +156,9 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	}
 
 	/**
-	 * Finds associations by reading the databases meta-data.
+	 * Finds associations by reading the databases meta-data.<br>
+	 * The foreign keys of the tables are read concurrently, using as many connections as
+	 * threads are configured (see {@link ExecutionContext#getNumberOfThreads()}).
 	 *
 	 * @param dataModel model containing already known elements
 	 * @param namingSuggestion to put naming suggestions for associations into
@@ -164,129 +168,180 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	 */
 	@Override
 	public Collection<Association> findAssociations(DataModel dataModel, Map<Association, String[]> namingSuggestion, Session session, ExecutionContext executionContext) throws Exception {
+		final Quoting quoting = Quoting.getQuoting(session);
+		final String defaultSchema = getDefaultSchema(session, session.getSchema());
+
+		List<Table> tables = new ArrayList<Table>(dataModel.getTables());
+		final List<TableAssociations> results = new ArrayList<TableAssociations>(tables.size());
+		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>(tables.size());
+		for (final Table table: tables) {
+			final TableAssociations result = new TableAssociations();
+			results.add(result);
+			jobs.add(new JobManager.Job() {
+				@Override
+				public void run() throws SQLException, CancellationException {
+					findAssociations(table, dataModel, session, quoting, defaultSchema, result);
+				}
+			});
+		}
+		JobManager jobManager = new JobManager(executionContext.getNumberOfThreads()) {
+			@Override
+			protected void onException(Throwable t) {
+				session.killRunningStatements();
+			}
+		};
+		try {
+			jobManager.executeJobs(jobs);
+		} finally {
+			jobManager.shutdown();
+		}
+
+		// collected in table order, so the result doesn't depend on the order of execution
 		Collection<Association> associations = new ArrayList<Association>();
-		Quoting quoting = Quoting.getQuoting(session);
-		ResultSet resultSet;
-		String defaultSchema = getDefaultSchema(session, session.getSchema());
 		Set<Association> toRemove = new HashSet<Association>();
+		for (TableAssociations result: results) {
+			associations.addAll(result.associations);
+			namingSuggestion.putAll(result.namingSuggestion);
+			toRemove.addAll(result.toRemove);
+		}
+		associations.removeAll(toRemove);
+		shutDownSessionsWithPermissionToReadSchema();
+		return associations;
+	}
 
-		for (Table viewOrTable: dataModel.getTables()) {
-			Table table;
-			Table underlyingTable = null;
-			UnderlyingTableInfo uti = null;
-			uti = underlyingTableInfos.get(viewOrTable.getName());
-			if (uti != null) {
-				underlyingTable = uti.underlyingTable;
-			}
-			table = viewOrTable;
-			_log.info("find associations with " + table.getName());
-			try {
-				Table child = underlyingTable != null? underlyingTable : table;
-				String ikSchema = quoting.unquote(child.getOriginalSchema(quoting.quote(defaultSchema)));
-				Session ikSession = session;
-				if (sessionWithPermissionToReadSchema.containsKey(Quoting.normalizeIdentifier(ikSchema))) {
-					ikSession = sessionWithPermissionToReadSchema.get(Quoting.normalizeIdentifier(ikSchema));
-				}
-				resultSet = getImportedKeys(ikSession, ikSchema, quoting.unquote(child.getUnqualifiedName()), true);
-			} catch (Exception e) {
-				_log.info("failed. " + e.getMessage());
-				continue;
+	/**
+	 * Associations found for one table.
+	 */
+	private static class TableAssociations {
+		final List<Association> associations = new ArrayList<Association>();
+		final Map<Association, String[]> namingSuggestion = new HashMap<Association, String[]>();
+		final Set<Association> toRemove = new HashSet<Association>();
+	}
+
+	/**
+	 * Finds the associations of a table (its imported keys).
+	 *
+	 * @param viewOrTable the table or view
+	 * @param dataModel model containing already known elements
+	 * @param session the statement executor for executing SQL-statements
+	 * @param quoting the quoting
+	 * @param defaultSchema the default schema
+	 * @param result to put the associations into
+	 */
+	private void findAssociations(Table viewOrTable, DataModel dataModel, Session session, Quoting quoting, String defaultSchema, TableAssociations result) throws SQLException {
+		ResultSet resultSet;
+		Table table;
+		Table underlyingTable = null;
+		UnderlyingTableInfo uti = null;
+		uti = underlyingTableInfos.get(viewOrTable.getName());
+		if (uti != null) {
+			underlyingTable = uti.underlyingTable;
+		}
+		table = viewOrTable;
+		_log.info("find associations with " + table.getName());
+		try {
+			Table child = underlyingTable != null? underlyingTable : table;
+			String ikSchema = quoting.unquote(child.getOriginalSchema(quoting.quote(defaultSchema)));
+			Session ikSession = session;
+			if (sessionWithPermissionToReadSchema.containsKey(Quoting.normalizeIdentifier(ikSchema))) {
+				ikSession = sessionWithPermissionToReadSchema.get(Quoting.normalizeIdentifier(ikSchema));
 			}
-			Map<String, Association> fkMap = new HashMap<String, Association>();
-			Map<String, Integer> unknownFKCounter = new HashMap<String, Integer>();
-			while (resultSet.next()) {
-				String qualifiedPKTableName = toQualifiedTableName(quoting.quote(defaultSchema), quoting.quote(resultSet.getString(session.dbms.isUsesCatalog()? 1 : 2)), quoting.quote(resultSet.getString(3)));
+			resultSet = getImportedKeys(ikSession, ikSchema, quoting.unquote(child.getUnqualifiedName()), true);
+		} catch (Exception e) {
+			_log.info("failed. " + e.getMessage());
+			return;
+		}
+		Map<String, Association> fkMap = new HashMap<String, Association>();
+		Map<String, Integer> unknownFKCounter = new HashMap<String, Integer>();
+		while (resultSet.next()) {
+			String qualifiedPKTableName = toQualifiedTableName(quoting.quote(defaultSchema), quoting.quote(resultSet.getString(session.dbms.isUsesCatalog()? 1 : 2)), quoting.quote(resultSet.getString(3)));
 //				String qualifiedFKTableName = toQualifiedTableName(quoting.quote(defaultSchema), quoting.quote(resultSet.getString(session.dbms.isUsesCatalog()? 5 : 6)), quoting.quote(resultSet.getString(7)));
-				Table defaultPkTable = dataModel.getTable(qualifiedPKTableName);
+			Table defaultPkTable = dataModel.getTable(qualifiedPKTableName);
 
-				Table fkTable = table;
+			Table fkTable = table;
 
-				String uqFK = resultSet.getString(8);
-				String fkColumn = quoting.quote(uqFK);
-				if (uti != null) {
-					fkColumn = uti.origColumnName.get(quoting.normalizeCase(uqFK));
-					if (fkColumn == null) {
-						fkColumn = uti.columnMapping.get(quoting.normalizeCase(uqFK));
-					}
-					if (fkColumn != null) {
-						fkColumn = quoting.quote(fkColumn);
-					}
+			String uqFK = resultSet.getString(8);
+			String fkColumn = quoting.quote(uqFK);
+			if (uti != null) {
+				fkColumn = uti.origColumnName.get(quoting.normalizeCase(uqFK));
+				if (fkColumn == null) {
+					fkColumn = uti.columnMapping.get(quoting.normalizeCase(uqFK));
 				}
-
-				// collect all PKTables
-				Map<Table, UnderlyingTableInfo> infos = new LinkedHashMap<Table, UnderlyingTableInfo>();
-				if (defaultPkTable != null) {
-					infos.put(defaultPkTable, null);
+				if (fkColumn != null) {
+					fkColumn = quoting.quote(fkColumn);
 				}
-				for (Entry<String, UnderlyingTableInfo> e: underlyingTableInfos.entrySet()) {
-					Table view = dataModel.getTable(e.getKey());
-					if (view != null && qualifiedPKTableName.equals(e.getValue().underlyingTable.getName())) {
-						infos.put(view, e.getValue());
-					}
+			}
+
+			// collect all PKTables
+			Map<Table, UnderlyingTableInfo> infos = new LinkedHashMap<Table, UnderlyingTableInfo>();
+			if (defaultPkTable != null) {
+				infos.put(defaultPkTable, null);
+			}
+			for (Entry<String, UnderlyingTableInfo> e: underlyingTableInfos.entrySet()) {
+				Table view = dataModel.getTable(e.getKey());
+				if (view != null && qualifiedPKTableName.equals(e.getValue().underlyingTable.getName())) {
+					infos.put(view, e.getValue());
 				}
+			}
 
-				for (Entry<Table, UnderlyingTableInfo> e: infos.entrySet()) {
-					Table pkTable = e.getKey();
-					String pkColumn = quoting.quote(resultSet.getString(4));
-					String foreignKey = resultSet.getString(12);
+			for (Entry<Table, UnderlyingTableInfo> e: infos.entrySet()) {
+				Table pkTable = e.getKey();
+				String pkColumn = quoting.quote(resultSet.getString(4));
+				String foreignKey = resultSet.getString(12);
 
-					UnderlyingTableInfo info = e.getValue();
-					if (info != null) {
-						pkColumn = info.columnMapping.get(quoting.normalizeCase(Quoting.staticUnquote(pkColumn)));
-					}
+				UnderlyingTableInfo info = e.getValue();
+				if (info != null) {
+					pkColumn = info.columnMapping.get(quoting.normalizeCase(Quoting.staticUnquote(pkColumn)));
+				}
 
-					if (pkTable != null) {
-						if (foreignKey == null || foreignKey.trim().length() == 0) {
-							foreignKey = pkTable.getName();
-							if (info != null) {
-								foreignKey += "." + quoting.unquote(pkTable.getUnqualifiedName());
-							}
-							int seq = resultSet.getInt(9);
-							String fkKey = pkTable.getName() + "." + foreignKey;
-							if (seq == 1) {
-								Integer count = unknownFKCounter.get(fkKey);
-								if (count == null) {
-									count = 1;
-								} else {
-									count++;
-								}
-								unknownFKCounter.put(fkKey, count);
-							}
-							foreignKey += "." + unknownFKCounter.get(fkKey);
-						} else {
-							if (info != null) {
-								foreignKey += "." + quoting.unquote(pkTable.getUnqualifiedName());
-							}
+				if (pkTable != null) {
+					if (foreignKey == null || foreignKey.trim().length() == 0) {
+						foreignKey = pkTable.getName();
+						if (info != null) {
+							foreignKey += "." + quoting.unquote(pkTable.getUnqualifiedName());
 						}
-						String fkName = pkTable.getName() + "." + foreignKey;
-
-						if (foreignKey != null && fkMap.containsKey(fkName)) {
-							if (fkColumn == null || pkColumn == null) {
-								toRemove.add(fkMap.get(fkName));
+						int seq = resultSet.getInt(9);
+						String fkKey = pkTable.getName() + "." + foreignKey;
+						if (seq == 1) {
+							Integer count = unknownFKCounter.get(fkKey);
+							if (count == null) {
+								count = 1;
 							} else {
-								fkMap.get(fkName).appendCondition("A." + fkColumn + "=B." + pkColumn);
+								count++;
 							}
+							unknownFKCounter.put(fkKey, count);
+						}
+						foreignKey += "." + unknownFKCounter.get(fkKey);
+					} else {
+						if (info != null) {
+							foreignKey += "." + quoting.unquote(pkTable.getUnqualifiedName());
+						}
+					}
+					String fkName = pkTable.getName() + "." + foreignKey;
+
+					if (foreignKey != null && fkMap.containsKey(fkName)) {
+						if (fkColumn == null || pkColumn == null) {
+							result.toRemove.add(fkMap.get(fkName));
 						} else {
-							Association association = new Association(fkTable, pkTable, false, true, "A." + fkColumn + "=B." + pkColumn, dataModel, false, Cardinality.MANY_TO_ONE);
-							association.setAuthor(session.getMetaData().getDriverName());
-							associations.add(association);
-							fkMap.put(fkName, association);
-							if (foreignKey != null) {
-								namingSuggestion.put(association, new String[] { foreignKey, fkTable.getUnqualifiedName() + "." + foreignKey });
-							}
-							if (fkColumn == null || pkColumn == null) {
-								toRemove.add(association);
-							}
+							fkMap.get(fkName).appendCondition("A." + fkColumn + "=B." + pkColumn);
+						}
+					} else {
+						Association association = new Association(fkTable, pkTable, false, true, "A." + fkColumn + "=B." + pkColumn, dataModel, false, Cardinality.MANY_TO_ONE);
+						association.setAuthor(session.getMetaData().getDriverName());
+						result.associations.add(association);
+						fkMap.put(fkName, association);
+						if (foreignKey != null) {
+							result.namingSuggestion.put(association, new String[] { foreignKey, fkTable.getUnqualifiedName() + "." + foreignKey });
+						}
+						if (fkColumn == null || pkColumn == null) {
+							result.toRemove.add(association);
 						}
 					}
 				}
 			}
-			resultSet.close();
-			CancellationHandler.checkForCancellation(null);
 		}
-		associations.removeAll(toRemove);
-		shutDownSessionsWithPermissionToReadSchema();
-		return associations;
+		resultSet.close();
+		CancellationHandler.checkForCancellation(null);
 	}
 
 	/**
@@ -301,10 +356,13 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	public static ResultSet getImportedKeys(Session session, String schema, String table, boolean withCaching) throws SQLException {
 		if (withCaching) {
 			final String NAME = "getImportedKeys " + schema;
-			MetaDataCache metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
-			if (metaDataCache == null) {
-				metaDataCache = MetaDataCache.readImportedKeys(session, schema);
-				session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+			MetaDataCache metaDataCache;
+			synchronized (session.MD_GETIMPORTEDKEYS_LOCK) {
+				metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
+				if (metaDataCache == null) {
+					metaDataCache = MetaDataCache.readImportedKeys(session, schema);
+					session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+				}
 			}
 			ResultSet resultSet = metaDataCache.forTable(table);
 			if (resultSet != null) {
@@ -1054,12 +1112,25 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 		}
 	}
 
-	private ResultSet getIndexInfo(Session session, String schema, String table, boolean unique, boolean approximate) throws SQLException {
+	/**
+	 * Calls {@link DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)}, using the cached index info of the schema if available.
+	 *
+	 * @param session the database session
+	 * @param schema the schema name
+	 * @param table the table name
+	 * @param unique if <code>true</code>, return only indexes for unique values
+	 * @param approximate if <code>true</code>, result may be approximate
+	 * @return a result set describing the indexes of the table
+	 */
+	public static ResultSet getIndexInfo(Session session, String schema, String table, boolean unique, boolean approximate) throws SQLException {
 		final String NAME = "getIndexInfo " + schema;
-		MetaDataCache metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
-		if (metaDataCache == null) {
-			metaDataCache = MetaDataCache.readIndexInfo(session, schema);
-			session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+		MetaDataCache metaDataCache;
+		synchronized (session.MD_GETINDEXINFO_LOCK) {
+			metaDataCache = (MetaDataCache) session.getSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME);
+			if (metaDataCache == null) {
+				metaDataCache = MetaDataCache.readIndexInfo(session, schema);
+				session.setSessionProperty(JDBCMetaDataBasedModelElementFinder.class, NAME, metaDataCache);
+			}
 		}
 		ResultSet resultSet = metaDataCache.forTable(table);
 		if (resultSet != null) {
@@ -1340,7 +1411,9 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	private String defaultSchema = null;
 
 	/**
-	 * Finds the {@link Column}s of a given {@link Table}.
+	 * Finds the {@link Column}s of a given {@link Table}.<br>
+	 * Can be called concurrently once it has been called for a table of the introspected schema,
+	 * which initializes the (per-session) meta data caches.
 	 *
 	 * @param table the table
 	 * @param session the statement executor for executing SQL-statements
@@ -1352,11 +1425,15 @@ public class JDBCMetaDataBasedModelElementFinder implements ModelElementFinder {
 	public List<Column> findColumns(Table table, Session session, ExecutionContext executionContext) throws SQLException {
 		List<Column> columns = new ArrayList<Column>();
 		Quoting quoting = Quoting.getQuoting(session);
-		if (forDefaultSchema != session) {
-			forDefaultSchema = session;
-			_log.info("getting default schema...");
-			defaultSchema = getDefaultSchema(session, session.getSchema());
-			_log.info("default schema is '" + defaultSchema + "'");
+		String defaultSchema;
+		synchronized (this) {
+			if (forDefaultSchema != session) {
+				forDefaultSchema = session;
+				_log.info("getting default schema...");
+				this.defaultSchema = getDefaultSchema(session, session.getSchema());
+				_log.info("default schema is '" + this.defaultSchema + "'");
+			}
+			defaultSchema = this.defaultSchema;
 		}
 		UnderlyingTableInfo uti = underlyingTableInfos.get(table.getName());
 		String schemaName = quoting.unquote(table.getOriginalSchema(defaultSchema));
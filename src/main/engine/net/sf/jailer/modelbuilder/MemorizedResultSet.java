@@ -155,7 +155,7 @@ public class MemorizedResultSet implements ResultSet {
 	 */
 	public MemorizedResultSet(ResultSet resultSet, Integer limit, Session session, Object cancellationContext, int[] projection, String[] columnNames)
 			throws SQLException {
-		this.rowList = new ArrayList<Object[]>();
+		this.rowList = createRowList(limit);
 		ResultSetMetaData rmd = resultSet.getMetaData();
 		prepareHook(rmd);
 		CellContentConverter cellContentConverter = new CellContentConverter(rmd, session, session.dbms);
@@ -181,6 +181,9 @@ public class MemorizedResultSet implements ResultSet {
 			if (limit != null && rowList.size() > limit) {
 				break;
 			}
+			if (rowList.size() % ROWS_READ_HOOK_INTERVAL == 0) {
+				rowsReadHook(rowList.size());
+			}
 			if (cancellationContext != null) {
 				CancellationHandler.checkForCancellation(cancellationContext);
 			}
@@ -188,6 +191,29 @@ public class MemorizedResultSet implements ResultSet {
 		resultSetMetaData = new MemorizedResultSetMetaData(numCol, names, types, typeNames);
 	}
 
+	/**
+	 * Number of rows between two invocations of {@link #rowsReadHook(int)}.
+	 */
+	private static final int ROWS_READ_HOOK_INTERVAL = 1000;
+
+	/**
+	 * Creates the list that holds the memorized rows.
+	 *
+	 * @param limit maximum number of rows to read, or {@code null} for no limit
+	 * @return the row list the rows are appended to
+	 */
+	protected List<Object[]> createRowList(Integer limit) {
+		return new ArrayList<Object[]>();
+	}
+
+	/**
+	 * Called periodically while rows are being read.
+	 *
+	 * @param numRowsRead number of rows read so far
+	 */
+	protected void rowsReadHook(int numRowsRead) {
+	}
+
 	protected void prepareHook(ResultSetMetaData rmd) throws SQLException {
 	}
 
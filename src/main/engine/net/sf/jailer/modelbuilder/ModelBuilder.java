@@ -19,7 +19,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -32,6 +34,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
@@ -48,8 +52,11 @@ import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.PrimaryKeyFactory;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.importfilter.ImportFilterManager;
+import net.sf.jailer.util.CancellationException;
+import net.sf.jailer.util.CancellationHandler;
 import net.sf.jailer.util.CsvFile;
 import net.sf.jailer.util.CsvFile.Line;
+import net.sf.jailer.util.JobManager;
 import net.sf.jailer.util.PrintUtil;
 import net.sf.jailer.util.Quoting;
 import net.sf.jailer.util.SqlUtil;
@@ -159,10 +166,27 @@ public class ModelBuilder {
 	 */
 	public static void buildAndMerge(DataSource dataSource, DBMS dbms, String schema, StringBuffer warnings, ExecutionContext executionContext) throws Exception {
 		build(dataSource, dbms, schema, warnings, executionContext);
-		merge(getModelBuilderTablesFilename(executionContext), DataModel.getTablesFile(executionContext), 0, TABLE_HEADER);
-		merge(getModelBuilderAssociationsFilename(executionContext), DataModel.getAssociationsFile(executionContext), 5, ASSOC_HEADER);
-		merge(getModelBuilderColumnsFilename(executionContext), DataModel.getColumnsFile(executionContext), 0, COLUMN_HEADER);
-		merge(getModelBuilderCommentsFilename(executionContext), DataModel.getCommentsFile(executionContext), 0, COMMENT_HEADER);
+		// the model files are independent of each other, so they are merged in parallel
+		List<Future<Void>> merges = new ArrayList<Future<Void>>();
+		merges.add(CsvFile.submit(() -> {
+			merge(getModelBuilderTablesFilename(executionContext), DataModel.getTablesFile(executionContext), 0, TABLE_HEADER);
+			return null;
+		}));
+		merges.add(CsvFile.submit(() -> {
+			merge(getModelBuilderAssociationsFilename(executionContext), DataModel.getAssociationsFile(executionContext), 5, ASSOC_HEADER);
+			return null;
+		}));
+		merges.add(CsvFile.submit(() -> {
+			merge(getModelBuilderColumnsFilename(executionContext), DataModel.getColumnsFile(executionContext), 0, COLUMN_HEADER);
+			return null;
+		}));
+		merges.add(CsvFile.submit(() -> {
+			merge(getModelBuilderCommentsFilename(executionContext), DataModel.getCommentsFile(executionContext), 0, COMMENT_HEADER);
+			return null;
+		}));
+		for (Future<Void> merge: merges) {
+			CsvFile.await(merge);
+		}
 		cleanUp(executionContext);
 	}
 
@@ -219,7 +243,8 @@ public class ModelBuilder {
 	private static void build(String schema, StringBuffer warnings, ExecutionContext executionContext) throws Exception {
 		session.setIntrospectionSchema(schema);
 
-		resetFiles(executionContext);
+		// the model-builder files are written once their content is complete
+		cleanUp(executionContext);
 
 		KnownIdentifierMap knownIdentifiers = new KnownIdentifierMap();
 
@@ -244,7 +269,7 @@ public class ModelBuilder {
 			}
 		}
 
-		String tableDefinitions = "";
+		StringBuilder tableDefinitions = new StringBuilder();
 		List<Table> sortedTables = new ArrayList<Table>(tables);
 		Collections.sort(sortedTables, new Comparator<Table>() {
 			@Override
@@ -253,43 +278,42 @@ public class ModelBuilder {
 			}
 		});
 
-		Map<Table, List<Column>> columnPerTable = new HashMap<Table, List<Column>>();
-
 		Quoting quoting = Quoting.getQuoting(session);
 
-		StringBuilder columnsDefinition = new StringBuilder();
-		CsvFile excludeTablesCSV = getExcludeTablesCSV(executionContext);
+		Set<List<String>> excludedTables = index(getExcludeTablesCSV(executionContext), 0);
 		Map<String, Table> allTablesSet = new TreeMap<String, Table>();
 		for (Table table: allTables) {
 			allTablesSet.put(table.getName(), table);
 		}
+		List<Table> introspectedTables = new ArrayList<Table>();
 		for (Table table: allTablesSet.values()) {
-			if (!isJailerTable(table, quoting) &&
-				!excludeTablesCSV.contains(new String[] { table.getName()}) &&
-				!excludeTablesCSV.contains(new String[] { table.getName().toUpperCase(Locale.ENGLISH) })) {
-				_log.info("find colums with " + finder);
-				List<Column> columns = finder.findColumns(table, session, executionContext);
-				if (!columns.isEmpty()) {
-					columnPerTable.put(table, columns);
-					columnsDefinition.append(CsvFile.encodeCell(table.getName()) + "; ");
-					for (Column c: columns) {
-						columnsDefinition.append(CsvFile.encodeCell(c.toSQL(null) + (c.isIdentityColumn? " identity" : "") + (c.isVirtual? " virtual" : "") + (c.isNullable? " null" : "")) + "; ");
-						knownIdentifiers.putColumnName(table.getName(), c.name);
-					}
-					columnsDefinition.append(PrintUtil.LINE_SEPARATOR);
+			if (!isJailerTable(table, quoting) && !isExcluded(table, excludedTables)) {
+				introspectedTables.add(table);
+			}
+		}
+		Map<Table, List<Column>> columnPerTable = findColumns(finder, introspectedTables, executionContext);
+
+		StringBuilder columnsDefinition = new StringBuilder();
+		for (Table table: introspectedTables) {
+			List<Column> columns = columnPerTable.get(table);
+			if (!columns.isEmpty()) {
+				columnsDefinition.append(CsvFile.encodeCell(table.getName()) + "; ");
+				for (Column c: columns) {
+					columnsDefinition.append(CsvFile.encodeCell(c.toSQL(null) + (c.isIdentityColumn? " identity" : "") + (c.isVirtual? " virtual" : "") + (c.isNullable? " null" : "")) + "; ");
+					knownIdentifiers.putColumnName(table.getName(), c.name);
 				}
+				columnsDefinition.append(PrintUtil.LINE_SEPARATOR);
+			} else {
+				columnPerTable.remove(table);
 			}
 		}
-		resetColumnsFile(columnsDefinition.toString(), executionContext);
 
 		DataModel dataModel = new DataModel(knownIdentifiers, executionContext);
 
 		int numWarnings = 0;
 		int maxNumWarnings = 10;
 		for (Table table: sortedTables) {
-			if (!isJailerTable(table, quoting) &&
-				!excludeTablesCSV.contains(new String[] { table.getName()}) &&
-				!excludeTablesCSV.contains(new String[] { table.getName().toUpperCase(Locale.ENGLISH) })) {
+			if (!isJailerTable(table, quoting) && !isExcluded(table, excludedTables)) {
 				if (table.primaryKey.getColumns().isEmpty()) {
 					// try find user defined pk
 					Table old = dataModel.getTable(table.getName());
@@ -319,21 +343,22 @@ public class ModelBuilder {
 					}
 					_log.warn(warning);
 				}
-				tableDefinitions += CsvFile.encodeCell(table.getName()) + "; N; ";
+				tableDefinitions.append(CsvFile.encodeCell(table.getName()) + "; N; ");
 				for (Column pk: table.primaryKey.getColumns()) {
-					tableDefinitions += CsvFile.encodeCell(pk.toString()) + (pk.isNullable? " null" : "") + ";";
+					tableDefinitions.append(CsvFile.encodeCell(pk.toString()) + (pk.isNullable? " null" : "") + ";");
 				}
-				tableDefinitions += "   ;" + CsvFile.encodeCell(table.getAuthor()) + ";" + PrintUtil.LINE_SEPARATOR;
+				tableDefinitions.append("   ;" + CsvFile.encodeCell(table.getAuthor()) + ";" + PrintUtil.LINE_SEPARATOR);
 			}
 		}
 		if (numWarnings > maxNumWarnings) {
 			warnings.append("(" + (numWarnings - maxNumWarnings) +" warnings more)" + PrintUtil.LINE_SEPARATOR);
 		}
 
-		resetTableFile(tableDefinitions, executionContext);
+		// the tables file is needed (and complete) now, the other files are written at the end
+		resetTableFile(tableDefinitions.toString(), executionContext);
 
 		// re-read data model with new tables
-		dataModel = new DataModel(getModelBuilderTablesFilename(executionContext), getModelBuilderAssociationsFilename(executionContext), new HashMap<String, String>(), assocFilter, new PrimaryKeyFactory(executionContext), executionContext, false, knownIdentifiers);
+		dataModel = new DataModel(getModelBuilderTablesFilename(executionContext), null, new HashMap<String, String>(), assocFilter, new PrimaryKeyFactory(executionContext), executionContext, false, knownIdentifiers);
 
 		Collection<Association> associations = new ArrayList<Association>();
 		Map<Association, String[]> namingSuggestion = new HashMap<Association, String[]>();
@@ -341,28 +366,23 @@ public class ModelBuilder {
 		associations.addAll(finder.findAssociations(dataModel, namingSuggestion, session, executionContext));
 
 		Collection<Association> associationsToWrite = new ArrayList<Association>();
-		CsvFile excludeAssociationsCSV = getExcludeAssociationsCSV(executionContext);
+		Set<List<String>> excludedAssociations = index(getExcludeAssociationsCSV(executionContext), 0, 1, 3);
+		List<Association> includedAssociations = new ArrayList<Association>();
 		for (Association association: associations) {
-			if (!excludeAssociationsCSV.contains(new String[] {
+			if (!excludedAssociations.contains(Arrays.asList(
 					association.source.getName(),
 					association.destination.getName(),
-					null,
-					association.getJoinCondition()
-					})) {
+					association.getJoinCondition()))) {
 				knownIdentifiers.putCondition(association.getUnrestrictedJoinCondition());
+				includedAssociations.add(association);
 			}
 		}
-		for (Association association: associations) {
-			if (!excludeAssociationsCSV.contains(new String[] {
-					association.source.getName(),
-					association.destination.getName(),
-					null,
-					association.getJoinCondition()
-					})) {
-				if (!contains(association, dataModel, knownIdentifiers)) {
-					insert(association, dataModel);
-					associationsToWrite.add(association);
-				}
+		AssociationIndex knownAssociations = new AssociationIndex(dataModel, knownIdentifiers);
+		for (Association association: includedAssociations) {
+			if (!knownAssociations.contains(association)) {
+				knownAssociations.add(association);
+				knownAssociations.add(insert(association, dataModel));
+				associationsToWrite.add(association);
 			}
 		}
 
@@ -421,17 +441,96 @@ public class ModelBuilder {
 			associationDefinition.append(line + PrintUtil.LINE_SEPARATOR);
 		}
 
-		resetAssociationFile(associationDefinition.toString(), executionContext);
-		
 		StringBuilder commentsDefinitions = new StringBuilder();
 		finder.getComments().forEach((element, comment) -> {
 			String line = CsvFile.encodeCell(element.a.getName() + (element.b != null? "." + element.b.name : "")) + "; "
 						+ CsvFile.encodeCell(comment);
 			commentsDefinitions.append(line + PrintUtil.LINE_SEPARATOR);
 		});
+
+		resetColumnsFile(columnsDefinition.toString(), executionContext);
+		resetAssociationFile(associationDefinition.toString(), executionContext);
 		resetCommentsFile(commentsDefinitions.toString(), executionContext);
 	}
 
+	/**
+	 * Finds the columns of tables. The tables are introspected concurrently, using as many
+	 * connections as threads are configured (see {@link ExecutionContext#getNumberOfThreads()}).
+	 *
+	 * @param finder the finder
+	 * @param tables the tables
+	 * @param executionContext the execution context
+	 * @return the columns per table
+	 */
+	private static Map<Table, List<Column>> findColumns(final ModelElementFinder finder, List<Table> tables, final ExecutionContext executionContext) throws Exception {
+		_log.info("find colums with " + finder);
+		final Map<Table, List<Column>> columnPerTable = new ConcurrentHashMap<Table, List<Column>>();
+		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+		for (final Table table: tables) {
+			if (columnPerTable.isEmpty()) {
+				// the first table is introspected in advance, which initializes the finder's meta data caches
+				columnPerTable.put(table, finder.findColumns(table, session, executionContext));
+				continue;
+			}
+			jobs.add(new JobManager.Job() {
+				@Override
+				public void run() throws SQLException, CancellationException {
+					try {
+						columnPerTable.put(table, finder.findColumns(table, session, executionContext));
+					} catch (SQLException | RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+					CancellationHandler.checkForCancellation(null);
+				}
+			});
+		}
+		JobManager jobManager = new JobManager(executionContext.getNumberOfThreads()) {
+			@Override
+			protected void onException(Throwable t) {
+				session.killRunningStatements();
+			}
+		};
+		try {
+			jobManager.executeJobs(jobs);
+		} finally {
+			jobManager.shutdown();
+		}
+		return columnPerTable;
+	}
+
+	/**
+	 * Checks if a table is listed in exclude-tables.csv.
+	 *
+	 * @param table the table
+	 * @param excludedTables index of exclude-tables.csv, see {@link #index(CsvFile, int...)}
+	 * @return <code>true</code> if the table is excluded
+	 */
+	private static boolean isExcluded(Table table, Set<List<String>> excludedTables) {
+		return excludedTables.contains(Collections.singletonList(table.getName()))
+			|| excludedTables.contains(Collections.singletonList(table.getName().toUpperCase(Locale.ENGLISH)));
+	}
+
+	/**
+	 * Creates a hashed index of the lines of a CSV file.
+	 *
+	 * @param csvFile the file
+	 * @param keyColumns the indexes of the key cells
+	 * @return the keys (key cells) of all lines
+	 */
+	private static Set<List<String>> index(CsvFile csvFile, int... keyColumns) {
+		Set<List<String>> index = new HashSet<List<String>>();
+		for (Line line: csvFile.getLines()) {
+			List<String> key = new ArrayList<String>(keyColumns.length);
+			for (int i: keyColumns) {
+				key.add(line.cells.get(i));
+			}
+			index.add(key);
+		}
+		return index;
+	}
+
 	private static String ASSOC_HEADER = "# Table A; Table B; First-insert; Cardinality (opt); Join-condition; Name; Author" + PrintUtil.LINE_SEPARATOR;
 
 	private static void resetAssociationFile(String associationDefinition, ExecutionContext executionContext) throws IOException {
@@ -469,8 +568,9 @@ public class ModelBuilder {
 	 *
 	 * @param association the association
 	 * @param dataModel the model
+	 * @return the reversal association
 	 */
-	private static void insert(Association association, DataModel dataModel) {
+	private static Association insert(Association association, DataModel dataModel) {
 		Association associationA = association;
 		Cardinality reversedCard = association.getCardinality();
 		if (reversedCard != null) {
@@ -481,6 +581,7 @@ public class ModelBuilder {
 		associationB.reversalAssociation = associationA;
 		associationA.source.associations.add(associationA);
 		associationB.source.associations.add(associationB);
+		return associationB;
 	}
 
 	/**
@@ -511,36 +612,65 @@ public class ModelBuilder {
 	}
 
 	/**
-	 * Checks if an association is already in a model.
-	 *
-	 * @param association the association to check
-	 * @param dataModel the model to check against
-	 * @param knownIdentifiers map of known identifiers for normalizing join conditions
-	 * @return <code>true</code> iff the association is already in the model
+	 * Hashed index of the associations of a model by source, destination and (normalized) join condition.
 	 */
-	private static boolean contains(Association association, DataModel dataModel, KnownIdentifierMap knownIdentifiers) {
-		for (Association a: association.source.associations) {
-			if (a.source.equals(association.source)) {
-				if (a.destination.equals(association.destination)) {
+	private static class AssociationIndex {
+		private final KnownIdentifierMap knownIdentifiers;
+		private final Map<List<Object>, List<Association>> associations = new HashMap<List<Object>, List<Association>>();
+
+		/**
+		 * Constructor.
+		 *
+		 * @param dataModel the model
+		 * @param knownIdentifiers map of known identifiers for normalizing join conditions
+		 */
+		AssociationIndex(DataModel dataModel, KnownIdentifierMap knownIdentifiers) {
+			this.knownIdentifiers = knownIdentifiers;
+			for (Table table: dataModel.getTables()) {
+				for (Association association: table.associations) {
+					if (association.source.equals(table)) {
+						add(association);
+					}
+				}
+			}
+		}
+
+		private List<Object> key(Association association) {
+			String joinCondition = knownIdentifiers.getCondition(association.getJoinCondition());
+			if (joinCondition == null) {
+				joinCondition = association.getJoinCondition();
+			}
+			return Arrays.asList(association.source, association.destination, joinCondition);
+		}
+
+		/**
+		 * Adds an association.
+		 *
+		 * @param association the association
+		 */
+		void add(Association association) {
+			associations.computeIfAbsent(key(association), k -> new ArrayList<Association>(1)).add(association);
+		}
+
+		/**
+		 * Checks if an association is already in the model.
+		 *
+		 * @param association the association to check
+		 * @return <code>true</code> iff an association with the same tables, join condition and (at least) the same insertion order is in the model
+		 */
+		boolean contains(Association association) {
+			List<Association> candidates = associations.get(key(association));
+			if (candidates != null) {
+				for (Association a: candidates) {
 					if (a.isInsertDestinationBeforeSource() || !association.isInsertDestinationBeforeSource()) {
 						if (a.isInsertSourceBeforeDestination() || !association.isInsertSourceBeforeDestination()) {
-							String jcA = knownIdentifiers.getCondition(a.getJoinCondition());
-							if (jcA == null) {
-								jcA = a.getJoinCondition();
-							}
-							String jcB = knownIdentifiers.getCondition(association.getJoinCondition());
-							if (jcB == null) {
-								jcB = association.getJoinCondition();
-							}
-							if (jcA.equals(jcB)) {
-								return true;
-							}
+							return true;
 						}
 					}
 				}
 			}
+			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -15,9 +15,13 @@
  */
 package net.sf.jailer.subsetting;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import net.sf.jailer.database.StatementProfiler;
+import net.sf.jailer.datamodel.Association;
 import net.sf.jailer.datamodel.Table;
 
 /**
@@ -29,6 +33,8 @@ public class ExportStatistic {
 
 	private Map<Table, Long> exportedRows = new HashMap<Table, Long>();
 	private long total;
+	private List<StatementProfiler.Entry> slowestStatements = new ArrayList<StatementProfiler.Entry>();
+	private List<Association> truncatedAssociations = new ArrayList<Association>();
 
 	/**
 	 * Gets number of exported rows per table.
@@ -65,5 +71,42 @@ public class ExportStatistic {
 	public void setTotal(long total) {
 		this.total = total;
 	}
+
+	/**
+	 * Gets the slowest statements used to collect the rows, including their execution plans.
+	 * Empty if statements have not been profiled.
+	 *
+	 * @return the slowest statements, slowest first
+	 */
+	public List<StatementProfiler.Entry> getSlowestStatements() {
+		return slowestStatements;
+	}
+
+	/**
+	 * Sets the slowest statements used to collect the rows.
+	 *
+	 * @param slowestStatements the slowest statements, slowest first
+	 */
+	public void setSlowestStatements(List<StatementProfiler.Entry> slowestStatements) {
+		this.slowestStatements = slowestStatements;
+	}
+
+	/**
+	 * Gets the associations that have not been resolved because the row budget would have been exceeded.
+	 *
+	 * @return the truncated associations
+	 */
+	public List<Association> getTruncatedAssociations() {
+		return truncatedAssociations;
+	}
+
+	/**
+	 * Sets the associations that have not been resolved because the row budget would have been exceeded.
+	 *
+	 * @param truncatedAssociations the truncated associations
+	 */
+	public void setTruncatedAssociations(List<Association> truncatedAssociations) {
+		this.truncatedAssociations = truncatedAssociations;
+	}
 	
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.subsetting;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jailer.configuration.Configuration;
+import net.sf.jailer.datamodel.Table;
+
+/**
+ * Temporary script files, one per table, into which the rows of the tables of a dependency layer
+ * are written in parallel. Afterwards the segments are appended to the script in table order,
+ * so that the transformers don't have to synchronize on the script writer and the rows of a table
+ * are not interleaved with those of other tables.
+ *
+ * @author Ralf Wisser
+ */
+public class ScriptSegments {
+
+	/**
+	 * The logger.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(ScriptSegments.class);
+
+	/**
+	 * Segment of a table.
+	 */
+	public static class Segment {
+		private final File file;
+		private final OutputStreamWriter writer;
+		private final AtomicReference<Table> identityInsertTable = new AtomicReference<Table>();
+
+		private Segment(File file, Charset charset) throws IOException {
+			this.file = file;
+			this.writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024), charset);
+		}
+
+		/**
+		 * Gets the writer for the segment.
+		 *
+		 * @return the writer
+		 */
+		public OutputStreamWriter getWriter() {
+			return writer;
+		}
+
+		/**
+		 * Gets the table currently enabled for identity-inserts within the segment.
+		 *
+		 * @return reference to the table
+		 */
+		public AtomicReference<Table> getIdentityInsertTable() {
+			return identityInsertTable;
+		}
+	}
+
+	private final Map<Table, Segment> segments = new LinkedHashMap<Table, Segment>();
+
+	/**
+	 * Constructor. Creates a segment for each table.
+	 *
+	 * @param tables the tables, in the order in which the segments are appended to the script
+	 * @param charset the script's charset
+	 */
+	public ScriptSegments(List<Table> tables, Charset charset) throws IOException {
+		try {
+			for (Table table: tables) {
+				if (!segments.containsKey(table)) {
+					segments.put(table, new Segment(Configuration.getInstance().createTempFile(), charset));
+				}
+			}
+		} catch (IOException e) {
+			discard();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the segment of a table.
+	 *
+	 * @param table the table
+	 * @return the segment of the table or <code>null</code> if there is none
+	 */
+	public Segment get(Table table) {
+		return segments.get(table);
+	}
+
+	/**
+	 * Closes the segments and appends them to the script.
+	 * If the script is an uncompressed file, the segments are transferred directly between the file channels.
+	 *
+	 * @param result the script writer (gets flushed before the segments are appended)
+	 * @param scriptStream the stream the script writer writes into
+	 * @param scriptChannel the channel of the script file if the script is not compressed, else <code>null</code>
+	 */
+	public void appendTo(OutputStreamWriter result, OutputStream scriptStream, FileChannel scriptChannel) throws IOException {
+		try {
+			for (Segment segment: segments.values()) {
+				segment.writer.close();
+			}
+			result.flush();
+			for (Segment segment: segments.values()) {
+				if (scriptChannel != null) {
+					try (FileChannel in = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ)) {
+						long size = in.size();
+						long position = 0;
+						while (position < size) {
+							position += in.transferTo(position, size - position, scriptChannel);
+						}
+					}
+				} else {
+					Files.copy(segment.file.toPath(), scriptStream);
+				}
+			}
+		} finally {
+			discard();
+		}
+	}
+
+	/**
+	 * Closes and deletes the segments.
+	 */
+	public void discard() {
+		for (Segment segment: segments.values()) {
+			try {
+				segment.writer.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			if (!segment.file.delete() && segment.file.exists()) {
+				_log.warn("can't delete file '" + segment.file + "'");
+			}
+		}
+		segments.clear();
+	}
+
+}
@@ -23,6 +23,7 @@ import java.io.OutputStreamWriter;
 import java.net.InetAddress;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -35,13 +36,16 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
@@ -71,6 +75,8 @@ import net.sf.jailer.database.DeletionTransformer;
 import net.sf.jailer.database.LocalDatabase;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.database.SqlException;
+import net.sf.jailer.database.StatementProfiler;
+import net.sf.jailer.database.StatisticRenovationScheduler;
 import net.sf.jailer.database.StatisticRenovator;
 import net.sf.jailer.database.WorkingTableScope;
 import net.sf.jailer.datamodel.AggregationSchema;
@@ -86,11 +92,13 @@ import net.sf.jailer.dbunit.FlatXMLTransformer;
 import net.sf.jailer.ddl.DDLCreator;
 import net.sf.jailer.enhancer.ScriptEnhancer;
 import net.sf.jailer.entitygraph.EntityGraph;
+import net.sf.jailer.entitygraph.TransactionSizeController;
 import net.sf.jailer.entitygraph.intradatabase.IntraDatabaseEntityGraph;
 import net.sf.jailer.entitygraph.local.LocalEntityGraph;
 import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
 import net.sf.jailer.extractionmodel.ExtractionModel;
 import net.sf.jailer.extractionmodel.ExtractionModel.AdditionalSubject;
+import net.sf.jailer.extractionmodel.SubjectLimitDefinition;
 import net.sf.jailer.importfilter.ImportFilterManager;
 import net.sf.jailer.liquibase.LiquibaseXMLTransformer;
 import net.sf.jailer.progress.ProgressListener;
@@ -156,6 +164,21 @@ public class SubsettingEngine {
 
 	private final CollectedRowsCounter collectedRowsCounter;
 
+	/**
+	 * Keys of working-table configurations already known to be up-to-date, or <code>null</code> to check each time.
+	 */
+	private Set<String> verifiedWorkingTables;
+
+	/**
+	 * Lets the engine skip the (costly) up-to-date check of global working tables already verified by a previous run.
+	 * The engine adds the keys of the working-table configurations it has verified or created.
+	 *
+	 * @param verifiedWorkingTables keys of verified working-table configurations, shared between runs. <code>null</code> to check each time
+	 */
+	public void setVerifiedWorkingTables(Set<String> verifiedWorkingTables) {
+		this.verifiedWorkingTables = verifiedWorkingTables;
+	}
+
 	/**
 	 * The job-manager to be used for concurrent execution of jobs.
 	 */
@@ -176,11 +199,24 @@ public class SubsettingEngine {
 	 */
 	private OutputStreamWriter result;
 
+	/**
+	 * The stream {@link #result} writes into, the channel of the script file
+	 * (<code>null</code> if the script is compressed) and the script's charset.
+	 */
+	private OutputStream resultStream;
+	private FileChannel resultChannel;
+	private Charset resultCharset;
+
 	/**
 	 * Export statistic.
 	 */
 	private ExportStatistic exportStatistic;
 
+	/**
+	 * Records the slowest collection statements, <code>null</code> if statements are not profiled.
+	 */
+	private StatementProfiler statementProfiler;
+
 	/**
 	 * Gets the entity-graph to be used for finding the transitive closure.
 	 *
@@ -272,6 +308,19 @@ public class SubsettingEngine {
 
 		appendCommentHeader("");
 
+		synchronized (truncatedAssociations) {
+			exportStatistic.setTruncatedAssociations(new ArrayList<Association>(truncatedAssociations));
+			if (!truncatedAssociations.isEmpty()) {
+				appendCommentHeader("Truncated associations (row budget exceeded):");
+				for (Association association: truncatedAssociations) {
+					String line = "    " + datamodel.getDisplayName(association.source) + " -> " + datamodel.getDisplayName(association.destination) + " (" + association.getName() + ")";
+					appendCommentHeader(line);
+					_log.info("truncated: " + line.trim());
+				}
+				appendCommentHeader("");
+			}
+		}
+
 		Map<Table, List<Association>> restDeps = withRestDep ? restrictedDependencies(totalProgress, false) : null;
 
 		boolean isFiltered = false;
@@ -338,7 +387,7 @@ public class SubsettingEngine {
 				subjectsPerTables.put(as.getSubject(), spt);
 			}
 			spt.add(as);
-			if (as.getSubjectLimitDefinition().limit == null) {
+			if (!as.getSubjectLimitDefinition().isRestricted()) {
 				String cond = conditionPerUnlimitedTable.get(as.getSubject());
 				if (cond == null || cond.trim().length() > 0) {
 					if (as.getCondition().trim().length() > 0) {
@@ -379,47 +428,52 @@ public class SubsettingEngine {
 
 					executionContext.getProgressListenerRegistry().fireCollectionJobEnqueued(today, table);
 					executionContext.getProgressListenerRegistry().fireCollectionJobStarted(today, table);
+					setStatementOrigin("subject " + datamodel.getDisplayName(table));
+					try {
+						// unlimited
+						if (condition != null) {
+							long rc = entityGraph.addEntities(table, condition.length() > 0? condition : SqlUtil.SQL_TRUE, today);
+							sumRc += rc;
+							if (rc > 0) {
+								progress.add(table);
+								joinWithEntity = true;
+							}
+							checkRowLimit(table, rc);
 
-					// unlimited
-					if (condition != null) {
-						long rc = entityGraph.addEntities(table, condition.length() > 0? condition : SqlUtil.SQL_TRUE, today);
-						sumRc += rc;
-						if (rc > 0) {
-							progress.add(table);
-							joinWithEntity = true;
-						}
-						checkRowLimit(rc);
-
-						if (condition.length() == 0 || SqlUtil.SQL_TRUE.equals(condition)) {
-							// no more rows left
-							moreRows = false;
+							if (condition.length() == 0 || SqlUtil.SQL_TRUE.equals(condition)) {
+								// no more rows left
+								moreRows = false;
+							}
 						}
-					}
-					// limited
-					if (moreRows) {
-						for (AdditionalSubject as: subjects) {
-							if (as.getSubjectLimitDefinition().limit != null && as.getSubjectLimitDefinition().limit > 0) {
-								String lCondition = as.getCondition();
-								long rc = entityGraph.addEntities(table, lCondition != null && lCondition.trim().length() > 0? lCondition : SqlUtil.SQL_TRUE, today, as.getSubjectLimitDefinition(), joinWithEntity);
-								if (rc < 0) {
-									sumRc = -1;
-								} else if (sumRc >= 0) {
-									sumRc += rc;
-								}
-								if (rc > 0) {
-									progress.add(table);
-									joinWithEntity = true;
+						// limited
+						if (moreRows) {
+							for (AdditionalSubject as: subjects) {
+								SubjectLimitDefinition limitDefinition = as.getSubjectLimitDefinition();
+								if (limitDefinition.isRestricted() && (limitDefinition.limit == null || limitDefinition.limit > 0)) {
+									String lCondition = as.getCondition();
+									long rc = entityGraph.addEntities(table, lCondition != null && lCondition.trim().length() > 0? lCondition : SqlUtil.SQL_TRUE, today, limitDefinition, joinWithEntity);
+									if (rc < 0) {
+										sumRc = -1;
+									} else if (sumRc >= 0) {
+										sumRc += rc;
+									}
+									if (rc > 0) {
+										progress.add(table);
+										joinWithEntity = true;
+									}
+									checkRowLimit(table, rc);
 								}
-								checkRowLimit(rc);
 							}
 						}
-					}
 
-					if (sumRc < 0) {
-						sumRc = entityGraph.countEntities(table);
-						if (sumRc > 0) {
-							progress.add(table);
+						if (sumRc < 0) {
+							sumRc = entityGraph.countEntities(table);
+							if (sumRc > 0) {
+								progress.add(table);
+							}
 						}
+					} finally {
+						setStatementOrigin(null);
 					}
 
 					executionContext.getProgressListenerRegistry().fireCollected(today, table, sumRc);
@@ -430,6 +484,49 @@ public class SubsettingEngine {
 		return progress;
 	}
 
+	/**
+	 * Sets the origin of the statements subsequently executed by the current thread.
+	 *
+	 * @param origin the origin, <code>null</code> to stop profiling the statements
+	 */
+	private void setStatementOrigin(String origin) {
+		if (statementProfiler != null) {
+			statementProfiler.setOrigin(origin);
+		}
+	}
+
+	/**
+	 * Fetches the execution plans of the slowest collection statements
+	 * and writes them into the file "&lt;script&gt;.plans.txt" next to the export- (or delete-) script.
+	 * Adds them to the export statistic.
+	 *
+	 * @param scriptFileName name of the script next to which the plans are written, or <code>null</code> to write them into the log
+	 */
+	private void explainSlowestStatements(String scriptFileName) throws IOException {
+		List<StatementProfiler.Entry> slowest = statementProfiler.explain();
+		StringBuilder report = new StringBuilder();
+		for (StatementProfiler.Entry entry: slowest) {
+			report.append("-- " + entry.duration + " ms, " + entry.origin + "\n");
+			report.append(entry.sql + ";\n");
+			if (entry.getPlan() != null) {
+				report.append("-- execution plan:\n" + entry.getPlan() + "\n");
+			}
+			report.append("\n");
+		}
+		if (scriptFileName == null) {
+			_log.info("slowest statements:\n" + report);
+		} else {
+			File scriptFile = new File(scriptFileName).getAbsoluteFile();
+			File reportFile = new File(scriptFile.getParentFile(), scriptFile.getName().replace(',', '_') + ".plans.txt");
+			Charset charset = executionContext.getUTF8()? Charset.forName("UTF8") : SqlUtil.getDefaultCharset();
+			try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(reportFile), charset)) {
+				out.write(report.toString());
+			}
+			_log.info("execution plans of the " + slowest.size() + " slowest statements written into '" + reportFile + "'");
+		}
+		exportStatistic.setSlowestStatements(slowest);
+	}
+
 	/**
 	 * Resolves all associations defined in data-model.
 	 *
@@ -445,9 +542,7 @@ public class SubsettingEngine {
 	private Map<Table, Collection<Association>> resolveAssociations(final int today, Map<Table, Collection<Association>> progressOfYesterday, Set<Table> completedTables) throws CancellationException, SQLException {
 		final Map<Table, Collection<Association>> progress = new HashMap<Table, Collection<Association>>();
 
-		// resolve associations with same dest-type sequentially
-		Map<Table, List<JobManager.Job>> jobsPerDestination = new HashMap<Table, List<JobManager.Job>>();
-
+		List<Association> associations = new ArrayList<Association>();
 		for (final Table table : progressOfYesterday.keySet()) {
 			for (final Association association : table.associations) {
 				Collection<Association> as = progressOfYesterday.get(table);
@@ -462,44 +557,60 @@ public class SubsettingEngine {
 					_log.info("skip association " + datamodel.getDisplayName(table) + " -> " + datamodel.getDisplayName(association.destination) + ". All rows exported.");
 					continue;
 				}
+				associations.add(association);
+			}
+		}
+		if (rowBudgetLeft != null || tableRowBudget != null) {
+			associations = applyRowBudget(today, associations);
+		}
 
-				String jc = association.getJoinCondition();
-				if (jc != null) {
-					executionContext.getProgressListenerRegistry().fireCollectionJobEnqueued(today, association);
-				}
-				JobManager.Job job = new JobManager.Job() {
-					@Override
-					public void run() throws SQLException {
-						runstats();
-						if (association.getJoinCondition() != null) {
-							_log.info("resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true) + "...");
-						}
-						executionContext.getProgressListenerRegistry().fireCollectionJobStarted(today, association);
-						long rc = entityGraph.resolveAssociation(table, association, today);
-						executionContext.getProgressListenerRegistry().fireCollected(today, association, rc);
-						if (rc >= 0) {
-							_log.info(rc + " entities found resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true));
-						}
-						checkRowLimit(rc);
-						synchronized (progress) {
-							if (rc > 0) {
-								Collection<Association> as = progress.get(association.destination);
-								if (as == null) {
-									as = new ArrayList<Association>();
-									progress.put(association.destination, as);
-								}
-								as.add(association);
+		// resolve associations with same dest-type sequentially
+		Map<Table, List<JobManager.Job>> jobsPerDestination = new HashMap<Table, List<JobManager.Job>>();
+
+		for (final Association association : associations) {
+			final Table table = association.source;
+			String jc = association.getJoinCondition();
+			if (jc != null) {
+				executionContext.getProgressListenerRegistry().fireCollectionJobEnqueued(today, association);
+			}
+			JobManager.Job job = new JobManager.Job() {
+				@Override
+				public void run() throws SQLException {
+					runstats();
+					if (association.getJoinCondition() != null) {
+						_log.info("resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true) + "...");
+					}
+					executionContext.getProgressListenerRegistry().fireCollectionJobStarted(today, association);
+					setStatementOrigin(datamodel.getDisplayName(table) + " -> " + association.toString(0, true));
+					long rc;
+					try {
+						rc = entityGraph.resolveAssociation(table, association, today);
+					} finally {
+						setStatementOrigin(null);
+					}
+					executionContext.getProgressListenerRegistry().fireCollected(today, association, rc);
+					if (rc >= 0) {
+						_log.info(rc + " entities found resolving " + datamodel.getDisplayName(table) + " -> " + association.toString(0, true));
+					}
+					checkRowLimit(association.destination, rc);
+					synchronized (progress) {
+						if (rc > 0) {
+							Collection<Association> as = progress.get(association.destination);
+							if (as == null) {
+								as = new ArrayList<Association>();
+								progress.put(association.destination, as);
 							}
+							as.add(association);
 						}
 					}
-				};
-				List<JobManager.Job> jobList = jobsPerDestination.get(association.destination);
-				if (jobList == null) {
-					jobList = new ArrayList<JobManager.Job>();
-					jobsPerDestination.put(association.destination, jobList);
 				}
-				jobList.add(job);
+			};
+			List<JobManager.Job> jobList = jobsPerDestination.get(association.destination);
+			if (jobList == null) {
+				jobList = new ArrayList<JobManager.Job>();
+				jobsPerDestination.put(association.destination, jobList);
 			}
+			jobList.add(job);
 		}
 		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
 		for (Map.Entry<Table, List<JobManager.Job>> entry : jobsPerDestination.entrySet()) {
@@ -732,6 +843,9 @@ public class SubsettingEngine {
 			transformerHandler.startElement("", "", "changeSet", attrchangeset);
 		} else {
 			result = new OutputStreamWriter(outputStream, charset);
+			resultStream = outputStream;
+			resultChannel = outputStream == base? base.getChannel() : null;
+			resultCharset = charset;
 			result.append(commentHeader);
 			for (ScriptEnhancer enhancer: Configuration.getScriptEnhancer()) {
 				enhancer.addComments(result, scriptType, session, targetDBMSConfiguration(session), entityGraph, progress, executionContext);
@@ -764,6 +878,11 @@ public class SubsettingEngine {
 		if (importFilterManager != null && entityGraph.getTransformerFactory() instanceof DMLTransformer.Factory) {
 			((DMLTransformer.Factory) entityGraph.getTransformerFactory()).setImportFilterTransformer(importFilterManager);
 		}
+		if (executionContext.isLobFiles() && entityGraph.getTransformerFactory() instanceof DMLTransformer.Factory) {
+			File lobDirectory = new File(file.getAbsoluteFile().getParentFile(), file.getName().replace(',', '_') + ".lobs");
+			lobDirectory.mkdirs();
+			((DMLTransformer.Factory) entityGraph.getTransformerFactory()).setLobDirectory(lobDirectory);
+		}
 
 		Session targetSession = entityGraph.getTargetSession();
 		entityGraph.fillAndWriteMappingTables(jobManager, result, executionContext.getNumberOfEntities(), targetSession, targetDBMSConfiguration(targetSession), session.dbms);
@@ -1095,10 +1214,12 @@ public class SubsettingEngine {
 				theEntityGraph.markIndependentEntities(table);
 			}
 			List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+			List<Table> jobTables = new ArrayList<Table>();
 			for (final Table table : dependentTables) {
-				if (executionContext.getOrderByPK()) {
+				if (executionContext.getOrderByPK() && !ScriptFormat.INTRA_DATABASE.equals(executionContext.getScriptFormat())) {
 					theEntityGraph.readMarkedEntities(table, true);
 				} else {
+					jobTables.add(table);
 					jobs.add(new JobManager.Job() {
 						@Override
 						public void run() throws SQLException {
@@ -1110,7 +1231,7 @@ public class SubsettingEngine {
 			if (result != null && !jobs.isEmpty()) {
 				appendSync(result);
 			}
-			jobManager.executeJobs(jobs);
+			executeWriteJobs(result, theEntityGraph.getTransformerFactory(), jobTables, jobs);
 			for (final Table table : dependentTables) {
 				theEntityGraph.deleteIndependentEntities(table);
 			}
@@ -1392,14 +1513,16 @@ public class SubsettingEngine {
 		while (!independentTables.isEmpty()) {
 			_log.info("independent tables: " + asString(independentTables));
 			List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+			List<Table> jobTables = new ArrayList<Table>();
 			for (final Table independentTable : independentTables) {
-				if (executionContext.getOrderByPK()
+				if ((executionContext.getOrderByPK() && !ScriptFormat.INTRA_DATABASE.equals(executionContext.getScriptFormat()))
 						|| ScriptFormat.DBUNIT_FLAT_XML.equals(executionContext.getScriptFormat())
 						|| ScriptFormat.LIQUIBASE_XML.equals(executionContext.getScriptFormat())) {
 					// export rows sequentially, don't mix rows of different
 					// tables in a dataset!
 					writeEntities(independentTable, true);
 				} else {
+					jobTables.add(independentTable);
 					jobs.add(new JobManager.Job() {
 						@Override
 						public void run() throws SQLException {
@@ -1412,7 +1535,7 @@ public class SubsettingEngine {
 				if (result != null) {
 					appendSync(result);
 				}
-				jobManager.executeJobs(jobs);
+				executeWriteJobs(result, entityGraph.getTransformerFactory(), jobTables, jobs);
 			}
 			tables.removeAll(independentTables);
 			independentTables = datamodel.getIndependentTables(tables);
@@ -1421,6 +1544,43 @@ public class SubsettingEngine {
 		return tables;
 	}
 
+	/**
+	 * Executes jobs writing the rows of tables into the script.
+	 * If the rows are written in parallel into a SQL script, each table gets its own {@link ScriptSegments.Segment segment},
+	 * the segments are appended to the script after all jobs are done.
+	 *
+	 * @param result the script writer
+	 * @param transformerFactory the transformer factory
+	 * @param tables the tables written by the jobs, in the order in which they appear in the script
+	 * @param jobs the jobs
+	 */
+	private void executeWriteJobs(OutputStreamWriter result, TransformerFactory transformerFactory, List<Table> tables, List<JobManager.Job> jobs) throws SQLException, IOException {
+		if (result == null || jobs.size() < 2 || executionContext.getNumberOfThreads() < 2
+				|| !(transformerFactory instanceof DMLTransformer.Factory || transformerFactory instanceof DeletionTransformer.Factory)) {
+			jobManager.executeJobs(jobs);
+			return;
+		}
+		ScriptSegments scriptSegments = new ScriptSegments(tables, resultCharset);
+		try {
+			setScriptSegments(transformerFactory, scriptSegments);
+			jobManager.executeJobs(jobs);
+		} catch (SQLException | RuntimeException e) {
+			scriptSegments.discard();
+			throw e;
+		} finally {
+			setScriptSegments(transformerFactory, null);
+		}
+		scriptSegments.appendTo(result, resultStream, resultChannel);
+	}
+
+	private void setScriptSegments(TransformerFactory transformerFactory, ScriptSegments scriptSegments) {
+		if (transformerFactory instanceof DMLTransformer.Factory) {
+			((DMLTransformer.Factory) transformerFactory).setScriptSegments(scriptSegments);
+		} else if (transformerFactory instanceof DeletionTransformer.Factory) {
+			((DeletionTransformer.Factory) transformerFactory).setScriptSegments(scriptSegments);
+		}
+	}
+
 	private AtomicBoolean syncWritten = new AtomicBoolean(false);
 
 	private void appendSync(OutputStreamWriter result) throws IOException {
@@ -1467,29 +1627,50 @@ public class SubsettingEngine {
 	}
 
 	/**
-	 * Total row-count at last runstats run.
+	 * Renews the DB-statistics in the background.
 	 */
-	private long lastRunstats = 0;
+	private StatisticRenovationScheduler statisticRenovationScheduler;
 
 	/**
-	 * Runs script for updating the DB-statistics.
+	 * Triggers updating the DB-statistics if the working tables have grown sufficiently.
+	 * Doesn't wait for the update.
 	 */
-	private synchronized void runstats() {
-		if (entityGraph != null) {
-			Session session = entityGraph.getSession();
-			if (lastRunstats == 0 || (lastRunstats * 4 <= entityGraph.getTotalRowcount() && entityGraph.getTotalRowcount() > 1000)) {
-				lastRunstats = entityGraph.getTotalRowcount();
-
-				StatisticRenovator statisticRenovator = session.dbms.getStatisticRenovator();
-				if (statisticRenovator != null) {
-					_log.info("gather statistics after " + lastRunstats + " inserted rows...");
-					try {
-						statisticRenovator.renew(session, executionContext);
-					} catch (Throwable t) {
-						_log.warn("unable to update table statistics: " + t.getMessage());
-					}
-				}
+	private void runstats() {
+		EntityGraph theEntityGraph = getEntityGraph();
+		if (theEntityGraph != null) {
+			StatisticRenovationScheduler scheduler = getStatisticRenovationScheduler(theEntityGraph.getSession());
+			if (scheduler != null) {
+				scheduler.check(theEntityGraph.getWorkingTableRowcounts());
+			}
+		}
+	}
+
+	/**
+	 * Gets the scheduler for updating the DB-statistics.
+	 *
+	 * @param session the session
+	 * @return the scheduler or <code>null</code> if the DBMS has no statistic renovator
+	 */
+	private synchronized StatisticRenovationScheduler getStatisticRenovationScheduler(Session session) {
+		if (statisticRenovationScheduler == null || statisticRenovationScheduler.getSession() != session) {
+			StatisticRenovator statisticRenovator = session.dbms.getStatisticRenovator();
+			if (statisticRenovator == null) {
+				return null;
+			}
+			if (statisticRenovationScheduler != null) {
+				statisticRenovationScheduler.shutDown();
 			}
+			statisticRenovationScheduler = new StatisticRenovationScheduler(session, statisticRenovator, executionContext);
+		}
+		return statisticRenovationScheduler;
+	}
+
+	/**
+	 * Waits for the running update of the DB-statistics (if any). No further updates will be started.
+	 */
+	private synchronized void shutDownStatisticRenovation() {
+		if (statisticRenovationScheduler != null) {
+			statisticRenovationScheduler.shutDown();
 		}
 	}
 
@@ -1498,6 +1679,35 @@ public class SubsettingEngine {
 	private static ReadWriteLock workingTablesLockGlobal;
 	private static ReadWriteLock workingTablesLockTemp;
 
+	/**
+	 * Extraction models are parsed with the actual parameters and schema mapping,
+	 * so these are part of the pool key.
+	 */
+	private String modelPoolKey(URL extractionModelURL) {
+		return extractionModelURL + "\n" + executionContext.getDataModelURL()
+			+ "\n" + new TreeMap<String, String>(executionContext.getParameters())
+			+ "\n" + new TreeMap<String, String>(executionContext.getSourceSchemaMapping());
+	}
+
+	/**
+	 * Gets the key under which global working tables are remembered as being up-to-date.
+	 * The working tables depend on the universal primary key, which is derived from the primary keys of all tables.
+	 * So a hash of them is part of the key, and editing the primary keys of the data model invalidates the verification.
+	 *
+	 * @param executionContext the execution context
+	 * @param dataModel the data model
+	 * @return the key
+	 */
+	public static String workingTablesKey(ExecutionContext executionContext, DataModel dataModel) {
+		Map<String, String> primaryKeys = new TreeMap<String, String>();
+		for (Table table: dataModel.getTables()) {
+			primaryKeys.put(table.getName(), table.primaryKey.toSQL(null));
+		}
+		return executionContext.getDataModelURL() + "\n" + executionContext.getUseRowid() + "\n" + executionContext.getUseRowIdsOnlyForTablesWithoutPK()
+			+ "\n" + executionContext.getWorkingTableSchema()
+			+ "\n" + primaryKeys.toString().hashCode();
+	}
+
 	private synchronized static ReadWriteLock getWorkingTablesLock(WorkingTableScope workingTableScope) {
 		if (workingTableScope == WorkingTableScope.GLOBAL) {
 			if (workingTablesLockGlobal == null) {
@@ -1550,7 +1760,7 @@ public class SubsettingEngine {
 			ExtractionModel extractionModel = null;
 			if (modelPoolSize > 0) {
 				synchronized (modelPool) {
-					List<ExtractionModel> models = modelPool.get(extractionModelURL.toString());
+					List<ExtractionModel> models = modelPool.get(modelPoolKey(extractionModelURL));
 					if (models != null && models.size() > 0) {
 						extractionModel = models.remove(0);
 					}
@@ -1585,16 +1795,24 @@ public class SubsettingEngine {
 				}
 			} else if (executionContext.getScope() == WorkingTableScope.GLOBAL) {
 				ReadWriteLock workingTablesLock = getWorkingTablesLock(executionContext.getScope());
-				if (!ddlCreator.isUptodate(session, executionContext.getUseRowid(), executionContext.getUseRowIdsOnlyForTablesWithoutPK(), executionContext.getWorkingTableSchema())) {
+				String workingTablesKey = workingTablesKey(executionContext, extractionModel.dataModel);
+				boolean verified = verifiedWorkingTables != null && verifiedWorkingTables.contains(workingTablesKey);
+				if (!verified && !ddlCreator.isUptodate(session, executionContext.getUseRowid(), executionContext.getUseRowIdsOnlyForTablesWithoutPK(), executionContext.getWorkingTableSchema())) {
 					writeLock = workingTablesLock.writeLock();
 					writeLock.lock();
 					ddlCreator.createDDL(extractionModel.dataModel, session, executionContext.getScope(), executionContext.getWorkingTableSchema());
+					if (verifiedWorkingTables != null) {
+						verifiedWorkingTables.add(workingTablesKey);
+					}
 					// Lock downgrading
 					readLock = workingTablesLock.readLock();
 					readLock.lock();
 					writeLock.unlock();
 					writeLock = null;
 				} else {
+					if (verifiedWorkingTables != null) {
+						verifiedWorkingTables.add(workingTablesKey);
+					}
 					readLock = workingTablesLock.readLock();
 					readLock.lock();
 				}
@@ -1619,6 +1837,16 @@ public class SubsettingEngine {
 				RowIdSupport rowIdSupport = new RowIdSupport(extractionModel.dataModel, session.dbms, executionContext);
 				entityGraph = RemoteEntityGraph.create(extractionModel.dataModel, EntityGraph.createUniqueGraphID(), session, rowIdSupport.getUniversalPrimaryKey(session), updateStatistics, executionContext);
 			}
+			long transactionSize = session.dbms.getLimitTransactionSize().getSize(executionContext);
+			if (executionContext.getTransactionLatency() > 0 && transactionSize > 0) {
+				entityGraph.setTransactionSizeController(new TransactionSizeController(transactionSize, executionContext.getTransactionLatency()));
+			}
+			statementProfiler = null;
+			if (executionContext.getExplainSlowestStatements() > 0) {
+				statementProfiler = new StatementProfiler(executionContext.getExplainSlowestStatements());
+				session.setStatementProfiler(statementProfiler);
+				entityGraph.getSession().setStatementProfiler(statementProfiler);
+			}
 
 			Charset charset = SqlUtil.getDefaultCharset();
 			if (scriptFormat.isUsesUTF8()) {
@@ -1646,15 +1874,15 @@ public class SubsettingEngine {
 				extractionModelURLNT = tmpUrl.get(extractionModelURL);
 			}
 			appendCommentHeader("Extraction Model:  " + (condition.replaceAll("\\s+", " ")) + (extractionModelURLNT != null? " (" + extractionModelURLNT + ")" : ""));
-			if (extractionModel.subjectLimitDefinition.limit != null) {
-				appendCommentHeader("                         limit " + extractionModel.subjectLimitDefinition.limit + (extractionModel.subjectLimitDefinition.orderBy != null? " order by " + extractionModel.subjectLimitDefinition.orderBy : ""));
+			if (extractionModel.subjectLimitDefinition.isRestricted()) {
+				appendCommentHeader("                         " + extractionModel.subjectLimitDefinition.getDescription());
 			}
 			for (AdditionalSubject as: extractionModel.additionalSubjects) {
 				condition = (as.getCondition() != null && as.getCondition().trim().length() > 0) ? as.getSubject().getName() + " where " + (as.getCondition().replaceAll("\\s+", " "))
 						: "all rows from " + as.getSubject().getName();
 				appendCommentHeader("                   Union " + condition);
-				if (as.getSubjectLimitDefinition().limit != null) {
-					appendCommentHeader("                         limit " + as.getSubjectLimitDefinition().limit + (as.getSubjectLimitDefinition().orderBy != null? " order by " + as.getSubjectLimitDefinition().orderBy : ""));
+				if (as.getSubjectLimitDefinition().isRestricted()) {
+					appendCommentHeader("                         " + as.getSubjectLimitDefinition().getDescription());
 				}
 			}
 			if (executionContext.getNoSorting()) {
@@ -1693,7 +1921,7 @@ public class SubsettingEngine {
 			try {
 				runstats();
 				entityGraph.checkExist(executionContext);
-				initRowLimit(executionContext.getLimit());
+				initRowLimit(executionContext.getLimit(), executionContext.getRowBudget(), executionContext.getTableRowBudget());
 				executionContext.getProgressListenerRegistry().fireNewStage("collecting rows", false, false);
 				Set<Table> completedTables = new HashSet<Table>();
 				Set<Table> progress = exportSubjects(extractionModel, completedTables);
@@ -1706,6 +1934,10 @@ public class SubsettingEngine {
 
 				afterCollectionTimestamp = System.currentTimeMillis();
 
+				if (statementProfiler != null) {
+					explainSlowestStatements(scriptFile != null? scriptFile : deleteScriptFileName);
+				}
+
 				totalProgress = datamodel.normalize(totalProgress);
 				subjects = datamodel.normalize(subjects);
 
@@ -1750,7 +1982,7 @@ public class SubsettingEngine {
 					}
 				}
 				exportedCount = entityGraph.getExportedCount();
-				initRowLimit(null);
+				initRowLimit(null, null, null);
 				if (deleteScriptFileName != null) {
 					executionContext.getProgressListenerRegistry().fireNewStage("delete", false, false);
 					executionContext.getProgressListenerRegistry().fireNewStage("delete-reduction", false, false);
@@ -1763,8 +1995,20 @@ public class SubsettingEngine {
 						Table.clearSessionProperties(session);
 						deleteEntities(subjects, totalProgress, session);
 
+						boolean deleteDirectly = false;
+						if (executionContext.isDeleteDirectly()) {
+							if (getEntityGraph() instanceof RemoteEntityGraph) {
+								((RemoteEntityGraph) getEntityGraph()).setDeleteDirectly(true);
+								deleteDirectly = true;
+								appendCommentHeader("");
+								appendCommentHeader("Rows have been deleted directly in the source database.");
+							} else {
+								_log.warn("direct deletion requires working tables in the source database, writing delete-script instead");
+							}
+						}
+
 						datamodel.transpose();
-						writeEntities(deleteScriptFileName, ScriptType.DELETE, totalProgress, session, "writing delete-script", null, null,
+						writeEntities(deleteScriptFileName, ScriptType.DELETE, totalProgress, session, deleteDirectly? "deleting rows" : "writing delete-script", null, null,
 								() -> {
 									if (restrictedDependenciesForDelete != null) {
 										for (Table table: restrictedDependenciesForDelete.keySet()) {
@@ -1798,6 +2042,7 @@ public class SubsettingEngine {
 				}
 
 				datamodel.deriveFilters();
+				shutDownStatisticRenovation();
 				entityGraph.truncate(executionContext, true);
 				entityGraph.delete();
 				entityGraph.getSession().commitAll();
@@ -1806,6 +2051,7 @@ public class SubsettingEngine {
 				try {
 					_log.info("cleaning up after cancellation...");
 					CancellationHandler.reset(null);
+					shutDownStatisticRenovation();
 					entityGraph.getSession().rollbackAll();
 					entityGraph.truncate(executionContext, false);
 					entityGraph.delete();
@@ -1834,6 +2080,7 @@ public class SubsettingEngine {
 							// ignore
 						}
 					};
+					tryAndIgnore.accept(() -> shutDownStatisticRenovation());
 					tryAndIgnore.accept(() -> entityGraph.truncate(executionContext, false));
 					tryAndIgnore.accept(() -> entityGraph.delete());
 					if (exportedEntities != null) {
@@ -1878,10 +2125,10 @@ public class SubsettingEngine {
 			}
 			if (modelPoolSize > 0) {
 				synchronized (modelPool) {
-					List<ExtractionModel> models = modelPool.get(extractionModelURL.toString());
+					List<ExtractionModel> models = modelPool.get(modelPoolKey(extractionModelURL));
 					if (models == null) {
 						models = new LinkedList<ExtractionModel>();
-						modelPool.put(extractionModelURL.toString(), models);
+						modelPool.put(modelPoolKey(extractionModelURL), models);
 					}
 					if (models.size() < modelPoolSize) {
 						models.add(extractionModel);
@@ -1990,17 +2237,36 @@ public class SubsettingEngine {
 
 	private AtomicLong maxAllowedNumRows = null;
 	private Long limit = null;
+	private AtomicLong rowBudgetLeft = null;
+	private Long tableRowBudget = null;
+	private final Map<Table, AtomicLong> rowsPerTable = new ConcurrentHashMap<Table, AtomicLong>();
+	private final Set<Association> truncatedAssociations = Collections.synchronizedSet(new LinkedHashSet<Association>());
 
-	private void initRowLimit(Long limit) {
+	private void initRowLimit(Long limit, Long rowBudget, Long tableRowBudget) {
 		this.limit = limit;
 		if (limit != null) {
 			maxAllowedNumRows = new AtomicLong(limit);
 		} else {
 			maxAllowedNumRows = null;
 		}
+		if (rowBudget != null) {
+			rowBudgetLeft = new AtomicLong(rowBudget);
+		} else {
+			rowBudgetLeft = null;
+		}
+		this.tableRowBudget = tableRowBudget;
+		rowsPerTable.clear();
 	}
 
-	private void checkRowLimit(long rowCount) {
+	private void checkRowLimit(Table table, long rowCount) {
+		if (rowCount > 0) {
+			if (rowBudgetLeft != null) {
+				rowBudgetLeft.addAndGet(-rowCount);
+			}
+			if (tableRowBudget != null) {
+				rowsPerTable.computeIfAbsent(table, t -> new AtomicLong()).addAndGet(rowCount);
+			}
+		}
 		if (maxAllowedNumRows != null && rowCount > 0) {
 			if (maxAllowedNumRows.addAndGet(-rowCount) < 0) {
 				throw new RowLimitExceededException("The row limit (" + limit + ") has been exceeded.");
@@ -2008,6 +2274,100 @@ public class SubsettingEngine {
 		}
 	}
 
+	/**
+	 * Gets the number of rows that can still be collected into a table without exceeding the row budgets.
+	 *
+	 * @param table the table
+	 * @return the remaining budget
+	 */
+	private long remainingRowBudget(Table table) {
+		long left = Long.MAX_VALUE;
+		if (rowBudgetLeft != null) {
+			left = rowBudgetLeft.get();
+		}
+		if (tableRowBudget != null) {
+			AtomicLong rows = rowsPerTable.get(table);
+			left = Math.min(left, tableRowBudget - (rows == null? 0 : rows.get()));
+		}
+		return left;
+	}
+
+	/**
+	 * Selects the associations that can be resolved without exceeding the row budgets (see {@link ExecutionContext#getRowBudget()}).<br>
+	 * The number of new rows of each association is estimated upfront (see {@link EntityGraph#estimateAssociation(Table, Association, int, long)}).
+	 * Associations are admitted in ascending order of their estimates (to include as many as possible)
+	 * as long as the estimates fit into the remaining budgets, the others are truncated (not resolved).
+	 * Dependencies are always resolved, so that the subset stays consistent.
+	 *
+	 * @param today birthday of newly created entities
+	 * @param associations the associations to be resolved
+	 * @return the associations to be resolved within the budget
+	 */
+	private List<Association> applyRowBudget(final int today, List<Association> associations) throws CancellationException, SQLException {
+		final Map<Association, Long> estimates = new ConcurrentHashMap<Association, Long>();
+		List<JobManager.Job> jobs = new ArrayList<JobManager.Job>();
+		for (final Association association: associations) {
+			if (association.getJoinCondition() == null || association.isInsertDestinationBeforeSource()) {
+				continue;
+			}
+			final long left = remainingRowBudget(association.destination);
+			if (left <= 0) {
+				estimates.put(association, Long.MAX_VALUE);
+			} else {
+				jobs.add(new JobManager.Job() {
+					@Override
+					public void run() throws SQLException {
+						setStatementOrigin("estimate " + datamodel.getDisplayName(association.source) + " -> " + association.toString(0, true));
+						try {
+							estimates.put(association, entityGraph.estimateAssociation(association.source, association, today, left + 1));
+						} finally {
+							setStatementOrigin(null);
+						}
+					}
+				});
+			}
+		}
+		jobManager.executeJobs(jobs);
+
+		List<Association> estimated = new ArrayList<Association>(estimates.keySet());
+		estimated.sort(Comparator.comparingLong(estimates::get));
+		Map<Table, Long> reservedPerTable = new HashMap<Table, Long>();
+		long reserved = 0;
+		Set<Association> truncated = new HashSet<Association>();
+		for (Association association: estimated) {
+			long estimate = estimates.get(association);
+			if (estimate < 0) {
+				// unknown, can only be checked afterwards
+				continue;
+			}
+			Long tableReserved = reservedPerTable.get(association.destination);
+			if (tableReserved == null) {
+				tableReserved = 0L;
+			}
+			long left = remainingRowBudget(association.destination);
+			if (rowBudgetLeft != null) {
+				left = Math.min(left, rowBudgetLeft.get() - reserved);
+			}
+			if (estimate > left - tableReserved) {
+				truncated.add(association);
+				truncatedAssociations.add(association);
+				_log.warn("row budget exceeded, association " + datamodel.getDisplayName(association.source) + " -> " + association.toString(0, true) + " is truncated" +
+						(estimate == Long.MAX_VALUE? "" : estimate > left? " (more than " + left + " new rows)" : " (about " + estimate + " new rows)"));
+			} else {
+				reserved += estimate;
+				reservedPerTable.put(association.destination, tableReserved + estimate);
+			}
+		}
+
+		List<Association> result = new ArrayList<Association>();
+		for (Association association: associations) {
+			if (!truncated.contains(association)) {
+				result.add(association);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Gets user-name.
 	 *
@@ -15,23 +15,31 @@
  */
 package net.sf.jailer.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Parser for CSV-files.
+ * Parser for CSV-files.<br>
+ * Content is read through a char buffer by a {@link Tokenizer} that decodes the cells in place.
+ * Lines are either collected (see {@link #getLines()}) or streamed to a {@link LineVisitor}.
  * 
  * @author Ralf Wisser
  */
@@ -117,6 +125,21 @@ public class CsvFile {
 		boolean accept(Line line);
 	}
 	
+	/**
+	 * Receives the lines of CSV content one at a time, see {@link CsvFile#read(Reader, String, LineVisitor)}.
+	 */
+	public static interface LineVisitor {
+		/**
+		 * Visits a line.
+		 *
+		 * @param cells the decoded and trimmed cells. The array is reused for the next line.
+		 * @param numCells the number of cells
+		 * @param lineNr the number of the line
+		 * @return <code>false</code> to stop reading
+		 */
+		boolean visit(String[] cells, int numCells, int lineNr);
+	}
+
 	/**
 	 * List of lines.
 	 */
@@ -165,41 +188,9 @@ public class CsvFile {
 	 */
 	public CsvFile(File csvFile, String block, LineFilter filter) throws IOException {
 		if (csvFile.exists()) {
-			BufferedReader reader = new BufferedReader(new FileReader(csvFile));
-			String line = null;
-			int lineNr = 0;
-			boolean inBlock = block == null;
-			while ((line = reader.readLine()) != null) {
-				++lineNr;
-				if (line.trim().length() == 0) {
-					continue;
-				}
-				if (line.trim().startsWith(BLOCK_INDICATOR)) {
-					if (inBlock) {
-						break;
-					}
-					String blockName = line.trim().substring(BLOCK_INDICATOR.length()).trim();
-					inBlock = blockName.equals(block);
-					continue;
-				}
-				if (line.trim().startsWith("#")) {
-					continue;
-				}
-				if (!inBlock) {
-					continue;
-				}
-				String[] col = decodeLine(line);
-				List<String> row = new ArrayList<String>(col.length + 34);
-				for (int i = 0; i < col.length; ++i) {
-					String s = col[i];
-					row.add(s.trim());
-				}
-				Line cvsLine = new Line(csvFile.getName() + ", line " + lineNr, row);
-				if (filter == null || filter.accept(cvsLine)) {
-					rows.add(cvsLine);
-				}
+			try (Reader reader = new FileReader(csvFile)) {
+				read(reader, block, csvFile.getName(), filter);
 			}
-			reader.close();
 		}
 	}
 
@@ -223,56 +214,315 @@ public class CsvFile {
 	 */
 	public CsvFile(InputStream in, String block, String location, LineFilter filter) throws IOException {
 		if (in != null) {
-			BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-			String line = null;
-			int lineNr = 0;
-			boolean all = ALL_BLOCKS.equals(block);
-			if (all) {
-				block = null;
-				blocks = new HashMap<String, List<Line>>();
-			}
-			boolean inBlock = block == null;
-			String blockName = null;
-			while ((line = reader.readLine()) != null) {
+			try (Reader reader = new InputStreamReader(in)) {
+				read(reader, block, location, filter);
+			}
+		}
+	}
+
+	private void read(Reader reader, String block, String location, LineFilter filter) throws IOException {
+		Tokenizer tokenizer = new Tokenizer(reader);
+		boolean all = ALL_BLOCKS.equals(block);
+		if (all) {
+			block = null;
+			blocks = new HashMap<String, List<Line>>();
+		}
+		boolean inBlock = block == null;
+		String blockName = null;
+		int type;
+		while ((type = tokenizer.next(inBlock || all)) != Tokenizer.EOF) {
+			if (type == Tokenizer.BLOCK) {
+				if (all) {
+					blocks.put(blockName == null? DEFAULT_BLOCK : blockName, rows);
+					rows = new ArrayList<CsvFile.Line>();
+				} else {
+					if (inBlock) {
+						break;
+					}
+				}
+				blockName = tokenizer.blockName;
+				inBlock = blockName.equals(block);
+				continue;
+			}
+			if (!inBlock && !all) {
+				continue;
+			}
+			List<String> row = new ArrayList<String>(tokenizer.numCells + 34);
+			for (int i = 0; i < tokenizer.numCells; ++i) {
+				row.add(tokenizer.cells[i]);
+			}
+			Line cvsLine = new Line(location + ", " + "line " + tokenizer.lineNr, row);
+			if (filter == null || filter.accept(cvsLine)) {
+				rows.add(cvsLine);
+			}
+		}
+		if (all) {
+			blocks.put(blockName == null? DEFAULT_BLOCK : blockName, rows);
+			rows = new ArrayList<CsvFile.Line>();
+		}
+	}
+
+	/**
+	 * Reads CSV content line by line without collecting it.
+	 *
+	 * @param reader the content
+	 * @param block the block to read, <code>null</code> to read default block
+	 * @param visitor receives the lines
+	 */
+	public static void read(Reader reader, String block, LineVisitor visitor) throws IOException {
+		Tokenizer tokenizer = new Tokenizer(reader);
+		boolean inBlock = block == null;
+		int type;
+		while ((type = tokenizer.next(inBlock)) != Tokenizer.EOF) {
+			if (type == Tokenizer.BLOCK) {
+				if (inBlock) {
+					break;
+				}
+				inBlock = tokenizer.blockName.equals(block);
+			} else if (inBlock) {
+				if (!visitor.visit(tokenizer.cells, tokenizer.numCells, tokenizer.lineNr)) {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maximum number of CSV files read in parallel.
+	 */
+	private static final int MAX_PARALLEL_READERS = 4;
+
+	/**
+	 * Pool for reading CSV files in parallel.
+	 */
+	private static ExecutorService readerPool;
+
+	/**
+	 * Executes a task that reads CSV files on a background thread, so that several files can be parsed in parallel.
+	 *
+	 * @param task the task
+	 * @return the future result, see {@link #await(Future)}
+	 */
+	public static <T> Future<T> submit(Callable<T> task) {
+		synchronized (CsvFile.class) {
+			if (readerPool == null) {
+				readerPool = Executors.newFixedThreadPool(MAX_PARALLEL_READERS, r -> {
+					Thread thread = new Thread(r, "CsvReader");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+		return readerPool.submit(task);
+	}
+
+	/**
+	 * Waits for the result of a task executed via {@link #submit(Callable)}.
+	 *
+	 * @param future the future result
+	 * @return the result
+	 * @throws IOException if the task failed with an {@link IOException}
+	 */
+	public static <T> T await(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Splits CSV content into lines and cells.<br>
+	 * The content is read through a char buffer. Cells are decoded (see {@link CsvFile#decodeLine(String)})
+	 * and trimmed in a reused buffer, so the cell strings are the only allocations per line.
+	 */
+	private static class Tokenizer {
+		static final int EOF = 0;
+		static final int LINE = 1;
+		static final int BLOCK = 2;
+
+		private final Reader reader;
+		private char[] buffer = new char[8192];
+		private int pos = 0;
+		private int limit = 0;
+		private boolean eof = false;
+		private boolean skipLF = false;
+		private char[] cell = new char[256];
+		private int cellLength;
+
+		String[] cells = new String[16];
+		int numCells;
+		int lineNr = 0;
+		String blockName;
+
+		Tokenizer(Reader reader) {
+			this.reader = reader;
+		}
+
+		/**
+		 * Reads up to the next non-empty, non-comment line or block indicator.
+		 *
+		 * @param decode whether to decode the cells of the line
+		 * @return {@link #LINE}, {@link #BLOCK} or {@link #EOF}
+		 */
+		int next(boolean decode) throws IOException {
+			for (;;) {
+				int end = findLineEnd();
+				if (end < 0) {
+					return EOF;
+				}
+				int start = pos;
+				pos = end < limit? end + 1 : end;
+				skipLF = end < limit && buffer[end] == '\r';
 				++lineNr;
-				if (line.trim().length() == 0) {
-					continue;
+				int first = start;
+				while (first < end && buffer[first] <= ' ') {
+					++first;
 				}
-				if (line.trim().startsWith(BLOCK_INDICATOR)) {
-					if (all) {
-						blocks.put(blockName == null? DEFAULT_BLOCK : blockName, rows);
-						rows = new ArrayList<CsvFile.Line>();
-					} else {
-						if (inBlock) {
-							break;
-						}
-					}
-					blockName = line.trim().substring(BLOCK_INDICATOR.length()).trim();
-					inBlock = blockName.equals(block);
+				if (first == end) {
 					continue;
 				}
-				if (line.trim().startsWith("#")) {
-					continue;
+				if (startsWith(first, end, BLOCK_INDICATOR)) {
+					blockName = new String(buffer, first + BLOCK_INDICATOR.length(), end - first - BLOCK_INDICATOR.length()).trim();
+					return BLOCK;
 				}
-				if (!inBlock && !all) {
+				if (buffer[first] == '#') {
 					continue;
 				}
-				String[] col = decodeLine(line);
-				List<String> row = new ArrayList<String>(col.length + 34);
-				for (int i = 0; i < col.length; ++i) {
-					String s = col[i];
-					row.add(s.trim());
+				numCells = 0;
+				if (decode) {
+					decode(start, end);
+				}
+				return LINE;
+			}
+		}
+
+		/**
+		 * Makes sure that the next line is completely in the buffer.
+		 *
+		 * @return the end of the line (exclusive), or <code>-1</code> at the end of the content
+		 */
+		private int findLineEnd() throws IOException {
+			int i = pos;
+			for (;;) {
+				if (skipLF && i < limit) {
+					skipLF = false;
+					if (buffer[i] == '\n') {
+						pos = ++i;
+					}
+				}
+				while (i < limit) {
+					char c = buffer[i];
+					if (c == '\n' || c == '\r') {
+						return i;
+					}
+					++i;
+				}
+				if (eof) {
+					return pos < limit? limit : -1;
+				}
+				// compact, grow if the line doesn't fit, and read more
+				int offset = i - pos;
+				if (pos > 0) {
+					System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+					limit -= pos;
+					pos = 0;
+				} else if (limit == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+				int n = reader.read(buffer, limit, buffer.length - limit);
+				if (n < 0) {
+					eof = true;
+				} else {
+					limit += n;
 				}
-				Line cvsLine = new Line(location + ", " + "line " + lineNr, row);
-				if (filter == null || filter.accept(cvsLine)) {
-					rows.add(cvsLine);
+				i = pos + offset;
+			}
+		}
+
+		private boolean startsWith(int from, int end, String prefix) {
+			if (end - from < prefix.length()) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length(); ++i) {
+				if (buffer[from + i] != prefix.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void decode(int start, int end) {
+			cellLength = 0;
+			boolean esc = false;
+			for (int i = start; i < end; ++i) {
+				char c = buffer[i];
+				if (c == '{' && i + 3 < end && buffer[i + 1] == '\\' && buffer[i + 2] == 'u') {
+					// an unencodable char: '{', backslash, 'u', lower case hex digits, '}' (see encodeUnencodableChars)
+					int j = i + 3;
+					int code = 0;
+					while (j < end && j - i <= 9 && ((buffer[j] >= '0' && buffer[j] <= '9') || (buffer[j] >= 'a' && buffer[j] <= 'f'))) {
+						code = code * 16 + Character.digit(buffer[j], 16);
+						++j;
+					}
+					if (j > i + 3 && j < end && buffer[j] == '}') {
+						c = (char) code;
+						i = j;
+					}
+				}
+				if (c == '\\') {
+					if (esc) {
+						esc = false;
+					} else {
+						esc = true;
+						continue;
+					}
+				}
+				if (!esc && c == ';') {
+					addCell();
+				} else {
+					if (esc && c == 'n') {
+						c = '\n';
+					} else if (esc && c == 'r') {
+						c = '\r';
+					}
+					if (cellLength == cell.length) {
+						cell = Arrays.copyOf(cell, cell.length * 2);
+					}
+					cell[cellLength++] = c;
 				}
+				esc = false;
+			}
+			addCell();
+		}
+
+		private void addCell() {
+			int from = 0;
+			int to = cellLength;
+			while (from < to && cell[from] <= ' ') {
+				++from;
+			}
+			while (to > from && cell[to - 1] <= ' ') {
+				--to;
 			}
-			if (all) {
-				blocks.put(blockName == null? DEFAULT_BLOCK : blockName, rows);
-				rows = new ArrayList<CsvFile.Line>();
+			if (numCells == cells.length) {
+				cells = Arrays.copyOf(cells, cells.length * 2);
 			}
-			in.close();
+			cells[numCells++] = from == to? "" : new String(cell, from, to - from);
+			cellLength = 0;
 		}
 	}
 
@@ -394,22 +644,38 @@ public class CsvFile {
 		return false;
 	}
 
-	private static CharsetEncoder DEFAULT_CHARSET_ENCODER = null;
-	private static boolean DEFAULT_CHARSET_ENCODER_INITIALIZED = false;
+	/**
+	 * Encoder of the default charset per thread ({@link CharsetEncoder}s are not thread-safe), empty if there is none.
+	 */
+	private static final ThreadLocal<CharsetEncoder[]> DEFAULT_CHARSET_ENCODER = new ThreadLocal<CharsetEncoder[]>() {
+		@Override
+		protected CharsetEncoder[] initialValue() {
+			try {
+				return new CharsetEncoder[] { Charset.defaultCharset().newEncoder() };
+			} catch (Exception e) {
+				return new CharsetEncoder[0];
+			}
+		}
+	};
 
-	private static synchronized String encodeUnencodableChars(String content) {
+	private static String encodeUnencodableChars(String content) {
 		try {
-			if (!DEFAULT_CHARSET_ENCODER_INITIALIZED) {
-				DEFAULT_CHARSET_ENCODER_INITIALIZED = true;
-				DEFAULT_CHARSET_ENCODER = Charset.defaultCharset().newEncoder();
-			} else if (DEFAULT_CHARSET_ENCODER == null) {
+			int l = content.length();
+			int i = 0;
+			while (i < l && content.charAt(i) < 128) {
+				++i;
+			}
+			if (i == l) {
+				return content;
+			}
+			CharsetEncoder[] encoder = DEFAULT_CHARSET_ENCODER.get();
+			if (encoder.length == 0) {
 				return content;
 			}
 			StringBuilder sb = null;
-			int l = content.length();
-			for (int i = 0; i < l; ++i) {
+			for (; i < l; ++i) {
 				char c = content.charAt(i);
-				if (!DEFAULT_CHARSET_ENCODER.canEncode(c)) {
+				if (c >= 128 && !encoder[0].canEncode(c)) {
 					if (sb == null) {
 						sb = new StringBuilder(content.substring(0, i));
 					}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the last computed value for a limited time.
+ *
+ * @author Ralf Wisser
+ */
+public class ExpiringMemo<K, V> {
+
+	private final long timeToLive;
+	private final LongSupplier clock;
+
+	private K key;
+	private V value;
+	private long time;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param timeToLive time in ms a value is valid
+	 */
+	public ExpiringMemo(long timeToLive) {
+		this(timeToLive, System::currentTimeMillis);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param timeToLive time in ms a value is valid
+	 * @param clock current time in ms
+	 */
+	public ExpiringMemo(long timeToLive, LongSupplier clock) {
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+	}
+
+	/**
+	 * Gets the remembered value.
+	 *
+	 * @param key the key
+	 * @return the value remembered for the key, or <code>null</code> if there is none or it has expired
+	 */
+	public synchronized V get(K key) {
+		if (value != null && this.key.equals(key) && clock.getAsLong() < time + timeToLive) {
+			return value;
+		}
+		return null;
+	}
+
+	/**
+	 * Remembers a value, replacing the previous one.
+	 *
+	 * @param key the key
+	 * @param value the value
+	 */
+	public synchronized void put(K key, V value) {
+		this.key = key;
+		this.value = value;
+		this.time = clock.getAsLong();
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Immutable index of objects by name for case-insensitive prefix lookups.
+ * Finds the same objects, in the same order, as filtering with {@link #matches(String, String)},
+ * but without looking at the names not matching.
+ *
+ * @author Ralf Wisser
+ */
+public class PrefixIndex<T> {
+
+	/**
+	 * Sorted upper case names.
+	 */
+	private final String[] namesUC;
+
+	/**
+	 * Positions of the objects in the indexed collection, ordered like {@link #namesUC}.
+	 */
+	private final int[] positions;
+
+	/**
+	 * The objects.
+	 */
+	private final Object[] elements;
+
+	/**
+	 * Creates the index.
+	 *
+	 * @param elements the objects
+	 * @param name gets the name of an object
+	 */
+	public PrefixIndex(Collection<? extends T> elements, Function<? super T, String> name) {
+		this.elements = elements.toArray();
+		List<Pair<String, Integer>> entries = new ArrayList<Pair<String, Integer>>(this.elements.length);
+		for (int i = 0; i < this.elements.length; ++i) {
+			@SuppressWarnings("unchecked")
+			T element = (T) this.elements[i];
+			entries.add(new Pair<String, Integer>(toUpperCase(name.apply(element)), i));
+		}
+		entries.sort(Comparator.comparing(e -> e.a));
+		this.namesUC = new String[entries.size()];
+		this.positions = new int[entries.size()];
+		for (int i = 0; i < namesUC.length; ++i) {
+			namesUC[i] = entries.get(i).a;
+			positions[i] = entries.get(i).b;
+		}
+	}
+
+	/**
+	 * Finds all objects whose name starts with a given prefix, ignoring case.
+	 *
+	 * @param prefix the prefix
+	 * @return all objects whose name starts with the prefix, in the order of the indexed collection
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> find(String prefix) {
+		String prefixUC = toUpperCase(prefix);
+		int i = Arrays.binarySearch(namesUC, prefixUC);
+		if (i < 0) {
+			i = -i - 1;
+		} else {
+			// first of equal names
+			while (i > 0 && namesUC[i - 1].equals(prefixUC)) {
+				--i;
+			}
+		}
+		int end = i;
+		while (end < namesUC.length && namesUC[end].startsWith(prefixUC)) {
+			++end;
+		}
+		int[] found = Arrays.copyOfRange(positions, i, end);
+		Arrays.sort(found);
+		List<T> result = new ArrayList<T>(found.length);
+		for (int position: found) {
+			result.add((T) elements[position]);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of indexed objects.
+	 */
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Checks if a name starts with a prefix, ignoring case.
+	 *
+	 * @param name the name
+	 * @param prefix the prefix
+	 * @return <code>true</code> iff the name matches
+	 */
+	public static boolean matches(String name, String prefix) {
+		return toUpperCase(name).startsWith(toUpperCase(prefix));
+	}
+
+	private static String toUpperCase(String name) {
+		return name.toUpperCase(Locale.ENGLISH);
+	}
+
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jailer.configuration.Configuration;
+
+/**
+ * Append-only list of rows that keeps rows in memory up to a given budget and
+ * spills all further rows into a temporary file using a compact binary row format.
+ * Spilled rows are paged back on access through a small page cache.<br>
+ * Cell values that have no binary representation (LOB renderers etc.) stay in memory.
+ *
+ * @author Ralf Wisser
+ */
+public class SpillableRowList extends AbstractList<Object[]> implements Closeable {
+
+	private static final byte T_NULL = 0;
+	private static final byte T_STRING = 1;
+	private static final byte T_INTEGER = 2;
+	private static final byte T_LONG = 3;
+	private static final byte T_DOUBLE = 4;
+	private static final byte T_FLOAT = 5;
+	private static final byte T_SHORT = 6;
+	private static final byte T_BYTE = 7;
+	private static final byte T_BOOLEAN = 8;
+	private static final byte T_BIGDECIMAL = 9;
+	private static final byte T_BIGINTEGER = 10;
+	private static final byte T_TIMESTAMP = 11;
+	private static final byte T_DATE = 12;
+	private static final byte T_TIME = 13;
+	private static final byte T_BYTES = 14;
+	private static final byte T_OBJECT_REF = 15;
+
+	/**
+	 * Number of rows per page.
+	 */
+	private static final int PAGE_SIZE = 256;
+
+	/**
+	 * Maximum number of cached pages.
+	 */
+	private static final int MAX_CACHED_PAGES = 16;
+
+	/**
+	 * Memory budget (estimated number of bytes) for rows kept in memory.
+	 */
+	private final long memoryBudget;
+
+	/**
+	 * Rows kept in memory.
+	 */
+	private final List<Object[]> inMemoryRows = new ArrayList<Object[]>();
+
+	/**
+	 * Estimated size of the rows kept in memory.
+	 */
+	private long inMemorySize = 0;
+
+	/**
+	 * File offsets of the spilled rows.
+	 */
+	private long[] offsets = new long[1024];
+
+	/**
+	 * Number of spilled rows.
+	 */
+	private int numSpilled = 0;
+
+	/**
+	 * Cell values of spilled rows that cannot be written in binary format.
+	 */
+	private final List<Object> objectRefs = new ArrayList<Object>();
+
+	private File spillFile;
+	private FileOutputStream spillFileOut;
+	private BufferedOutputStream out;
+	private RandomAccessFile in;
+	private final ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream(1024);
+	private final DataOutputStream rowOut = new DataOutputStream(rowBuffer);
+	private long outPosition = 0;
+	private boolean outFlushed = true;
+
+	/**
+	 * Cached pages of spilled rows, keyed by page number.
+	 */
+	private final Map<Integer, Object[][]> pageCache = new LinkedHashMap<Integer, Object[][]>(MAX_CACHED_PAGES, 0.75f, true) {
+		private static final long serialVersionUID = 5472928146839104537L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+			return size() > MAX_CACHED_PAGES;
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param memoryBudget estimated number of bytes of rows to keep in memory before spilling to disk
+	 */
+	public SpillableRowList(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	@Override
+	public synchronized boolean add(Object[] row) {
+		if (numSpilled == 0) {
+			long rowSize = estimateSize(row);
+			if (inMemorySize + rowSize <= memoryBudget || inMemoryRows.isEmpty()) {
+				inMemoryRows.add(row);
+				inMemorySize += rowSize;
+				return true;
+			}
+		}
+		try {
+			spill(row);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized Object[] get(int index) {
+		if (index < inMemoryRows.size()) {
+			return inMemoryRows.get(index);
+		}
+		int spilledIndex = index - inMemoryRows.size();
+		if (spilledIndex < 0 || spilledIndex >= numSpilled) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		int pageNumber = spilledIndex / PAGE_SIZE;
+		Object[][] page = pageCache.get(pageNumber);
+		if (page == null) {
+			try {
+				page = readPage(pageNumber);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			pageCache.put(pageNumber, page);
+		}
+		return page[spilledIndex % PAGE_SIZE];
+	}
+
+	/**
+	 * Removes the last row. Other rows can't be removed.
+	 *
+	 * @param index index of the last row
+	 * @return the removed row
+	 */
+	@Override
+	public synchronized Object[] remove(int index) {
+		if (index != size() - 1) {
+			throw new UnsupportedOperationException("only the last row can be removed");
+		}
+		Object[] row = get(index);
+		if (numSpilled > 0) {
+			try {
+				releaseObjectRefs(numSpilled - 1);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			--numSpilled;
+			pageCache.remove(numSpilled / PAGE_SIZE);
+		} else {
+			inMemoryRows.remove(index);
+			inMemorySize -= estimateSize(row);
+		}
+		return row;
+	}
+
+	@Override
+	public synchronized int size() {
+		return inMemoryRows.size() + numSpilled;
+	}
+
+	/**
+	 * Gets the number of rows written to the spill file.
+	 *
+	 * @return number of spilled rows
+	 */
+	public synchronized int getNumSpilled() {
+		return numSpilled;
+	}
+
+	/**
+	 * Gets the number of cell values of spilled rows that are kept in memory.
+	 *
+	 * @return number of object references
+	 */
+	public synchronized int getNumObjectRefs() {
+		return objectRefs.size();
+	}
+
+	@Override
+	public synchronized void clear() {
+		inMemoryRows.clear();
+		inMemorySize = 0;
+		deleteSpillFile();
+	}
+
+	/**
+	 * Deletes the spill file.
+	 */
+	@Override
+	public synchronized void close() {
+		deleteSpillFile();
+	}
+
+	private void deleteSpillFile() {
+		try {
+			if (out != null) {
+				out.close();
+			}
+			if (in != null) {
+				in.close();
+			}
+		} catch (IOException e) {
+			LogUtil.warn(e);
+		}
+		out = null;
+		in = null;
+		spillFileOut = null;
+		if (spillFile != null) {
+			spillFile.delete();
+			spillFile = null;
+		}
+		numSpilled = 0;
+		outPosition = 0;
+		outFlushed = true;
+		objectRefs.clear();
+		pageCache.clear();
+	}
+
+	private void spill(Object[] row) throws IOException {
+		if (out == null) {
+			spillFile = Configuration.getInstance().createTempFile();
+			spillFile.deleteOnExit();
+			spillFileOut = new FileOutputStream(spillFile);
+			out = new BufferedOutputStream(spillFileOut, 64 * 1024);
+		}
+		if (numSpilled == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		offsets[numSpilled++] = outPosition;
+		rowBuffer.reset();
+		writeRow(row);
+		rowBuffer.writeTo(out);
+		outPosition += rowBuffer.size();
+		outFlushed = false;
+		int lastPage = (numSpilled - 1) / PAGE_SIZE;
+		pageCache.remove(lastPage);
+	}
+
+	private Object[][] readPage(int pageNumber) throws IOException {
+		int first = pageNumber * PAGE_SIZE;
+		int count = Math.min(PAGE_SIZE, numSpilled - first);
+		long start = offsets[first];
+		byte[] buffer = readSpilled(first, first + count);
+		ByteArrayInputStream bufferIn = new ByteArrayInputStream(buffer);
+		DataInputStream pageIn = new DataInputStream(bufferIn);
+		Object[][] page = new Object[count][];
+		for (int i = 0; i < count; ++i) {
+			// skip the remains of removed rows
+			bufferIn.skip(offsets[first + i] - start - (buffer.length - bufferIn.available()));
+			page[i] = readRow(pageIn, null);
+		}
+		return page;
+	}
+
+	/**
+	 * Reads the bytes of a range of spilled rows.
+	 */
+	private byte[] readSpilled(int from, int to) throws IOException {
+		if (!outFlushed) {
+			out.flush();
+			outFlushed = true;
+		}
+		if (in == null) {
+			in = new RandomAccessFile(spillFile, "r");
+		}
+		long start = offsets[from];
+		long end = to < numSpilled? offsets[to] : outPosition;
+		byte[] buffer = new byte[(int) (end - start)];
+		in.seek(start);
+		in.readFully(buffer);
+		return buffer;
+	}
+
+	/**
+	 * Releases the cell values of the last spilled row that are kept in memory.
+	 */
+	private void releaseObjectRefs(int spilledIndex) throws IOException {
+		List<Integer> refs = new ArrayList<Integer>();
+		readRow(new DataInputStream(new ByteArrayInputStream(readSpilled(spilledIndex, spilledIndex + 1))), refs);
+		if (!refs.isEmpty()) {
+			// the list is append-only, so the references of the last row are at its end
+			objectRefs.subList(refs.get(0), objectRefs.size()).clear();
+		}
+	}
+
+	private void writeRow(Object[] row) throws IOException {
+		rowOut.writeShort(row.length);
+		for (Object value: row) {
+			if (value == null) {
+				rowOut.writeByte(T_NULL);
+			} else if (value instanceof String) {
+				String s = (String) value;
+				if (s.length() > 16000) {
+					writeObjectRef(value);
+				} else {
+					rowOut.writeByte(T_STRING);
+					rowOut.writeUTF(s);
+				}
+			} else if (value instanceof Integer) {
+				rowOut.writeByte(T_INTEGER);
+				rowOut.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				rowOut.writeByte(T_LONG);
+				rowOut.writeLong((Long) value);
+			} else if (value instanceof Double) {
+				rowOut.writeByte(T_DOUBLE);
+				rowOut.writeDouble((Double) value);
+			} else if (value instanceof Float) {
+				rowOut.writeByte(T_FLOAT);
+				rowOut.writeFloat((Float) value);
+			} else if (value instanceof Short) {
+				rowOut.writeByte(T_SHORT);
+				rowOut.writeShort((Short) value);
+			} else if (value instanceof Byte) {
+				rowOut.writeByte(T_BYTE);
+				rowOut.writeByte((Byte) value);
+			} else if (value instanceof Boolean) {
+				rowOut.writeByte(T_BOOLEAN);
+				rowOut.writeBoolean((Boolean) value);
+			} else if (value.getClass() == BigDecimal.class) {
+				BigDecimal bd = (BigDecimal) value;
+				byte[] unscaled = bd.unscaledValue().toByteArray();
+				rowOut.writeByte(T_BIGDECIMAL);
+				rowOut.writeInt(bd.scale());
+				rowOut.writeShort(unscaled.length);
+				rowOut.write(unscaled);
+			} else if (value.getClass() == BigInteger.class) {
+				byte[] bytes = ((BigInteger) value).toByteArray();
+				rowOut.writeByte(T_BIGINTEGER);
+				rowOut.writeShort(bytes.length);
+				rowOut.write(bytes);
+			} else if (value.getClass() == Timestamp.class) {
+				Timestamp ts = (Timestamp) value;
+				rowOut.writeByte(T_TIMESTAMP);
+				rowOut.writeLong(ts.getTime());
+				rowOut.writeInt(ts.getNanos());
+			} else if (value.getClass() == Date.class) {
+				rowOut.writeByte(T_DATE);
+				rowOut.writeLong(((Date) value).getTime());
+			} else if (value.getClass() == Time.class) {
+				rowOut.writeByte(T_TIME);
+				rowOut.writeLong(((Time) value).getTime());
+			} else if (value instanceof byte[] && ((byte[]) value).length <= 16000) {
+				byte[] bytes = (byte[]) value;
+				rowOut.writeByte(T_BYTES);
+				rowOut.writeInt(bytes.length);
+				rowOut.write(bytes);
+			} else {
+				writeObjectRef(value);
+			}
+		}
+	}
+
+	private void writeObjectRef(Object value) throws IOException {
+		rowOut.writeByte(T_OBJECT_REF);
+		rowOut.writeInt(objectRefs.size());
+		objectRefs.add(value);
+	}
+
+	private Object[] readRow(DataInputStream in, List<Integer> refs) throws IOException {
+		Object[] row = new Object[in.readShort()];
+		for (int i = 0; i < row.length; ++i) {
+			byte type = in.readByte();
+			switch (type) {
+			case T_NULL: row[i] = null; break;
+			case T_STRING: row[i] = in.readUTF(); break;
+			case T_INTEGER: row[i] = in.readInt(); break;
+			case T_LONG: row[i] = in.readLong(); break;
+			case T_DOUBLE: row[i] = in.readDouble(); break;
+			case T_FLOAT: row[i] = in.readFloat(); break;
+			case T_SHORT: row[i] = in.readShort(); break;
+			case T_BYTE: row[i] = in.readByte(); break;
+			case T_BOOLEAN: row[i] = in.readBoolean(); break;
+			case T_BIGDECIMAL: {
+				int scale = in.readInt();
+				byte[] unscaled = new byte[in.readShort()];
+				in.readFully(unscaled);
+				row[i] = new BigDecimal(new BigInteger(unscaled), scale);
+				break;
+			}
+			case T_BIGINTEGER: {
+				byte[] bytes = new byte[in.readShort()];
+				in.readFully(bytes);
+				row[i] = new BigInteger(bytes);
+				break;
+			}
+			case T_TIMESTAMP: {
+				Timestamp ts = new Timestamp(in.readLong());
+				ts.setNanos(in.readInt());
+				row[i] = ts;
+				break;
+			}
+			case T_DATE: row[i] = new Date(in.readLong()); break;
+			case T_TIME: row[i] = new Time(in.readLong()); break;
+			case T_BYTES: {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				row[i] = bytes;
+				break;
+			}
+			case T_OBJECT_REF: {
+				int ref = in.readInt();
+				if (refs != null) {
+					refs.add(ref);
+				}
+				row[i] = objectRefs.get(ref);
+				break;
+			}
+			default: throw new IOException("unknown cell type " + type);
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Estimates the number of bytes a row occupies in memory.
+	 *
+	 * @param row the row
+	 * @return estimated size in bytes
+	 */
+	public static long estimateSize(Object[] row) {
+		long size = 16 + 8L * row.length;
+		for (Object value: row) {
+			if (value instanceof String) {
+				size += 40 + 2L * ((String) value).length();
+			} else if (value instanceof byte[]) {
+				size += 16 + ((byte[]) value).length;
+			} else if (value != null) {
+				size += 24;
+			}
+		}
+		return size;
+	}
+
+}
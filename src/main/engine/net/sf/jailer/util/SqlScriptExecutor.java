@@ -64,6 +64,11 @@ public class SqlScriptExecutor {
 	 * Comment prefix for last line of a multi-line comment.
 	 */
 	public static final String FINISHED_MULTILINE_COMMENT = "--.";
+
+	/**
+	 * Command (in a multi-line comment) referencing a file that holds the content of a CLOB/BLOB/XML.
+	 */
+	public static final String LOB_FILE = "LOBFILE";
 	
 	/**
 	 * The logger.
@@ -91,6 +96,11 @@ public class SqlScriptExecutor {
 	private final boolean logStatements;
 
 	private RuntimeException exception;
+
+	/**
+	 * Folder of the script being executed. (LOB files are referenced relative to it)
+	 */
+	private File scriptDirectory;
 	
 	/**
 	 * Constructor.
@@ -206,6 +216,7 @@ public class SqlScriptExecutor {
 		Charset encoding = SqlUtil.retrieveEncoding(scriptFileName);
 		
 		File file = new File(scriptFileName);
+		scriptDirectory = file.getAbsoluteFile().getParentFile();
 		InputStream inputStream = new FileInputStream(file);
 		inputStream = new FilterInputStream(inputStream) { // lgtm [java/input-resource-leak]
 			@Override
@@ -307,6 +318,9 @@ public class SqlScriptExecutor {
 							if (cmd.startsWith("BLOB")) {
 								importBLob(cmd.substring(4).trim(), lineReader);
 							}
+							if (cmd.startsWith(LOB_FILE)) {
+								importLobFile(cmd.substring(LOB_FILE.length()).trim());
+							}
 						} else if (uncommentedLine.equals("sync")) {
 							inSync = true;
 							sync();
@@ -637,6 +651,39 @@ public class SqlScriptExecutor {
 		lobFile.delete();
 	}
 
+	/**
+	 * Imports the content of a LOB file referenced by the sql-script.
+	 * 
+	 * @param lobFileLocator type, length and file name of the content followed by the location of the column
+	 */
+	private void importLobFile(final String lobFileLocator) throws IOException, SQLException {
+		String[] typeLengthAndLocator = lobFileLocator.split(" ", 3);
+		final String type = typeLengthAndLocator[0];
+		final long length = Long.parseLong(typeLengthAndLocator[1]);
+		String locator = typeLengthAndLocator[2];
+		int c0 = locator.indexOf(',');
+		File lobFile = new File(locator.substring(0, c0).trim());
+		if (!lobFile.isAbsolute()) {
+			lobFile = new File(scriptDirectory, lobFile.getPath());
+		}
+		int c1 = locator.indexOf(',', c0 + 1);
+		int c2 = locator.indexOf(',', c1 + 1);
+		final String table = locator.substring(c0 + 1, c1).trim();
+		final String column = locator.substring(c1 + 1, c2).trim();
+		final String where = locator.substring(c2 + 1).trim();
+		if (!lobFile.exists()) {
+			throw new IOException("LOB file \"" + lobFile.getPath() + "\" not found");
+		}
+		sync();
+		if ("BLOB".equals(type)) {
+			session.insertBlob(table, column, where, lobFile);
+		} else if ("XML".equals(type)) {
+			session.insertSQLXML(table, column, where, lobFile, length);
+		} else {
+			session.insertClob(table, column, where, lobFile, length);
+		}
+	}
+
 	private static Pair<Integer, Long> lastRowCount = null;
 	
 	/**
@@ -225,6 +225,26 @@ public class SqlUtil {
 		return result.toString();
 	}
 
+	/**
+	 * Limits the number of rows a query returns using the DBMS's limit clause (see {@link DBMS#getSqlLimitSuffix()}).
+	 *
+	 * @param select the query, starting with "Select "
+	 * @param maxRows maximum number of rows
+	 * @param dbms the DBMS
+	 * @return the limited query, or <code>null</code> if the DBMS has no limit clause
+	 */
+	public static String limitSelect(String select, long maxRows, DBMS dbms) {
+		if (dbms.getSqlLimitSuffix() == null) {
+			return null;
+		}
+		String limitSuffix = String.format(dbms.getSqlLimitSuffix(), maxRows);
+		String lc = limitSuffix.toLowerCase(Locale.ENGLISH);
+		if (lc.startsWith("top ") || lc.startsWith("first ")) {
+			return select.substring(0, "Select ".length()) + limitSuffix + " " + select.substring("Select ".length());
+		}
+		return select + " " + limitSuffix;
+	}
+
 	/**
 	 * Resolves the pseudo-columns in a restriction condition.
 	 *
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded-memory statistics of the values of a column read from a sample of a table:
+ * the most frequent values (space-saving top-K) and an estimate of the number of distinct values (HyperLogLog).
+ *
+ * @author Ralf Wisser
+ */
+public class ValueSketch {
+
+	/**
+	 * Number of HyperLogLog registers (2^14, standard error about 0.8%).
+	 */
+	private static final int REGISTER_BITS = 14;
+	private static final int NUM_REGISTERS = 1 << REGISTER_BITS;
+
+	private static class Counter implements Comparable<Counter> {
+		final String value;
+		final long seq;
+		long count;
+
+		Counter(String value, long seq, long count) {
+			this.value = value;
+			this.seq = seq;
+			this.count = count;
+		}
+
+		@Override
+		public int compareTo(Counter o) {
+			int c = Long.compare(count, o.count);
+			return c != 0? c : Long.compare(seq, o.seq);
+		}
+	}
+
+	private final int capacity;
+	private final Map<String, Counter> counters = new HashMap<String, Counter>();
+	private final TreeSet<Counter> byCount = new TreeSet<Counter>();
+	private final byte[] registers = new byte[NUM_REGISTERS];
+	private long seq = 0;
+	private boolean evicted = false;
+	private long numRows = 0;
+	private long numNulls = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity maximum number of counted values
+	 */
+	public ValueSketch(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Adds a null value.
+	 */
+	public void addNull() {
+		++numRows;
+		++numNulls;
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value
+	 */
+	public void add(String value) {
+		++numRows;
+		long hash = hash(value);
+		int index = (int) (hash >>> (64 - REGISTER_BITS));
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << REGISTER_BITS) | (1L << (REGISTER_BITS - 1))) + 1);
+		if (registers[index] < rank) {
+			registers[index] = rank;
+		}
+		Counter counter = counters.get(value);
+		if (counter != null) {
+			byCount.remove(counter);
+			++counter.count;
+			byCount.add(counter);
+			return;
+		}
+		long count = 1;
+		if (counters.size() >= capacity) {
+			// space-saving: the new value replaces the least frequent one and inherits its count
+			Counter min = byCount.pollFirst();
+			counters.remove(min.value);
+			count = min.count + 1;
+			evicted = true;
+		}
+		counter = new Counter(value, seq++, count);
+		counters.put(value, counter);
+		byCount.add(counter);
+	}
+
+	/**
+	 * Gets the counted values and their (possibly overestimated) number of occurrences.
+	 *
+	 * @return map from value to count
+	 */
+	public Map<String, Long> getCounts() {
+		Map<String, Long> result = new HashMap<String, Long>();
+		for (Counter counter: counters.values()) {
+			result.put(counter.value, counter.count);
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the counts are exact, i.e. no value has been displaced.
+	 *
+	 * @return <code>true</code> if the counts are exact
+	 */
+	public boolean isExact() {
+		return !evicted;
+	}
+
+	/**
+	 * Gets the number of added values (including nulls).
+	 *
+	 * @return number of added values
+	 */
+	public long getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Gets the number of added nulls.
+	 *
+	 * @return number of added nulls
+	 */
+	public long getNumNulls() {
+		return numNulls;
+	}
+
+	/**
+	 * Gets the number of values that occurred exactly once. Only meaningful if the counts are exact.
+	 *
+	 * @return number of values that occurred exactly once
+	 */
+	public long getNumSingletons() {
+		long n = 0;
+		for (Counter counter: counters.values()) {
+			if (counter.count == 1) {
+				++n;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Estimates the number of distinct non-null values added.
+	 *
+	 * @return estimated number of distinct values
+	 */
+	public long estimateDistinct() {
+		if (!evicted) {
+			return counters.size();
+		}
+		double sum = 0;
+		int zeros = 0;
+		for (byte r: registers) {
+			sum += 1.0 / (1L << r);
+			if (r == 0) {
+				++zeros;
+			}
+		}
+		double m = NUM_REGISTERS;
+		double estimate = (0.7213 / (1 + 1.079 / m)) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// linear counting for small cardinalities
+			estimate = m * Math.log(m / zeros);
+		}
+		return Math.max(counters.size(), Math.round(estimate));
+	}
+
+	/**
+	 * Estimates the number of distinct non-null values of the table the values have been sampled from.
+	 * If the counts are exact, the GEE estimator is used: values seen once in the sample stand for up to
+	 * sqrt(1/fraction) values of the table.
+	 *
+	 * @param fraction the fraction of the table the values have been sampled from, <code>-1</code> if unknown
+	 * @return estimated number of distinct values
+	 */
+	public long estimateDistinct(double fraction) {
+		long distinct = estimateDistinct();
+		if (fraction > 0 && fraction < 1 && !evicted) {
+			long singletons = getNumSingletons();
+			distinct = Math.round(Math.sqrt(1.0 / fraction) * singletons) + distinct - singletons;
+		}
+		return distinct;
+	}
+
+	/**
+	 * 64 bit FNV-1a hash with a final avalanche step.
+	 */
+	private static long hash(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); ++i) {
+			h ^= value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
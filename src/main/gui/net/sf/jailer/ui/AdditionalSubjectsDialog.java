@@ -125,7 +125,7 @@ public class AdditionalSubjectsDialog extends javax.swing.JDialog {
 			return new String[] { 
 					getDisplayName(element),
 					element.getCondition().length() > 0 ? ("Where " + element.getCondition()) : "all rows",
-					element.getSubjectLimitDefinition().limit == null? "" : (element.getSubjectLimitDefinition().limit + " rows" + (element.getSubjectLimitDefinition().orderBy != null ? " (ordered)" : ""))
+					element.getSubjectLimitDefinition().limit == null? (element.getSubjectLimitDefinition().sampling != null? "sample" : "") : (element.getSubjectLimitDefinition().limit + " rows" + (element.getSubjectLimitDefinition().orderBy != null ? " (ordered)" : "") + (element.getSubjectLimitDefinition().sampling != null? " (sample)" : ""))
 				};
 		}
 
@@ -77,6 +77,7 @@ import javax.swing.table.TableColumn;
 import javax.swing.table.TableModel;
 
 import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.ClosureEngine;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.ui.StringSearchPanel.AdditionalComponentFactory;
@@ -877,6 +878,15 @@ public abstract class ClosureView extends javax.swing.JDialog implements PlafAwa
 		refreshAssociationView(selectedTable);
 		refreshNeigborView(selectedTable);
 
+		// the distances of the closure are taken from the closure engine, unless a path is forced
+		ClosureEngine.Snapshot closure = null;
+		if (forcedDistance.isEmpty() && selectedTable != null) {
+			closure = getClosureSnapshot(selectedTable);
+			if (closure != null && closure.getVersion() != getDataModel().getVersion()) {
+				closure = null;
+			}
+		}
+
 		Object[] columns = new Object[tablesPerLine + 1];
 		for (int i = 0; i < columns.length; ++i) {
 			columns[i] = "";
@@ -969,8 +979,14 @@ public abstract class ClosureView extends javax.swing.JDialog implements PlafAwa
                         	}
                         }
 						String displayName = getDataModel().getDisplayName(association.destination);
-                        if (!association.isIgnored() ||
-                        		(forcedDistance.containsKey(association.source) && forcedDistance.containsKey(association.destination))) {
+                        boolean inNextLine;
+                        if (closure != null && distance < OMEGA) {
+                        	inNextLine = !association.isIgnored() && Integer.valueOf(distance + 1).equals(closure.getDistance(association.destination));
+                        } else {
+                        	inNextLine = !association.isIgnored() ||
+                        		(forcedDistance.containsKey(association.source) && forcedDistance.containsKey(association.destination));
+                        }
+                        if (inNextLine) {
 							if (!visited.contains(displayName)) {
 								nextLine.add(displayName);
 								visited.add(displayName);
@@ -1417,7 +1433,7 @@ public abstract class ClosureView extends javax.swing.JDialog implements PlafAwa
 				next.add(a.reversalAssociation);
 			}
 
-			Set<Table> closure = selectedTable.closure();
+			Set<Table> closure = getClosure(selectedTable);
 			while (!next.isEmpty()) {
 				Set<Association> neighbors  = new HashSet<Association>();
 				List<String> assocList = new ArrayList<String>();
@@ -1478,6 +1494,42 @@ public abstract class ClosureView extends javax.swing.JDialog implements PlafAwa
 		}
 	}
 
+	/**
+	 * Gets the closure of the selected table without computing it on the event dispatch thread.
+	 * If it is not yet computed or outdated, the views are refreshed
+	 * as soon as it has been computed in the background.
+	 *
+	 * @param selectedTable selected table (focus)
+	 * @return the closure, possibly outdated or empty
+	 */
+	private Set<Table> getClosure(Table selectedTable) {
+		ClosureEngine.Snapshot closure = getClosureSnapshot(selectedTable);
+		return closure == null? Collections.emptySet() : closure.getClosure();
+	}
+
+	/**
+	 * Gets the closure of the selected table without computing it on the event dispatch thread.
+	 * If it is not yet computed or outdated, the views are refreshed
+	 * as soon as it has been computed in the background.
+	 *
+	 * @param selectedTable selected table (focus)
+	 * @return the closure, possibly outdated, or <code>null</code> if it has not been computed yet
+	 */
+	private ClosureEngine.Snapshot getClosureSnapshot(Table selectedTable) {
+		return extractionModelEditor.getPublishedClosure(selectedTable, () -> {
+			if (selectedTable == getSelectedTable()) {
+				if (currentForcedDistance == null) {
+					refresh();
+				} else {
+					refreshAssociationView(selectedTable);
+					refreshNeigborView(selectedTable);
+					assocViewPanel.revalidate();
+					assocViewPanel.repaint();
+				}
+			}
+		});
+	}
+
 	private void refreshNeigborView(Table selectedTable) {
 		DefaultTableModel tableModel = new DefaultTableModel(new Object[] { "Table", "Degree" }, 0) {
 			@Override
@@ -1498,7 +1550,7 @@ public abstract class ClosureView extends javax.swing.JDialog implements PlafAwa
 			tableModel.removeRow(0);
 		}
 		if (selectedTable != null) {
-			Set<Table> closure = selectedTable.closure();
+			Set<Table> closure = getClosure(selectedTable);
 			for (Table table: closure) {
 				Set<Table> neighbors = new HashSet<Table>();
 				for (Association a: table.associations) {
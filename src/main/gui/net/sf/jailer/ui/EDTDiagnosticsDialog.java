@@ -0,0 +1,163 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import net.sf.jailer.ui.util.EDTStatistics;
+
+/**
+ * Shows the responsiveness telemetry of the event dispatch thread (see {@link EDTStatistics}).
+ *
+ * @author Ralf Wisser
+ */
+public class EDTDiagnosticsDialog extends JDialog {
+
+	private static final long serialVersionUID = 2309471923586283740L;
+
+	private final JLabel summaryLabel = new JLabel();
+	private final DefaultTableModel histogramModel = new ReadOnlyTableModel(new Object[] { "Time (ms)", "Dispatched", "Queued" });
+	private final DefaultTableModel slowEventsModel = new ReadOnlyTableModel(new Object[] { "Event", "Count", "Total (ms)", "Max (ms)", "Hot spots" });
+	private final DefaultTableModel statementsModel = new ReadOnlyTableModel(new Object[] { "Caller", "Count", "Total (ms)", "Max (ms)", "Slowest statement" });
+
+	private static class ReadOnlyTableModel extends DefaultTableModel {
+		private static final long serialVersionUID = -2207185327424012960L;
+
+		ReadOnlyTableModel(Object[] columnNames) {
+			super(columnNames, 0);
+		}
+
+		@Override
+		public boolean isCellEditable(int row, int column) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates a menu item that opens the dialog.
+	 *
+	 * @param owner the owner of the dialog
+	 * @return the menu item
+	 */
+	public static JMenuItem createMenuItem(Window owner) {
+		JMenuItem item = new JMenuItem("UI Responsiveness...");
+		item.setToolTipText("Show how long the user interface was blocked by which actions. Helps to locate the cause of freezes.");
+		item.addActionListener(e -> new EDTDiagnosticsDialog(owner).setVisible(true));
+		return item;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner the owner
+	 */
+	public EDTDiagnosticsDialog(Window owner) {
+		super(owner, "UI Responsiveness", ModalityType.MODELESS);
+		JTabbedPane tabbedPane = new JTabbedPane();
+		tabbedPane.addTab("Slow Events", new JScrollPane(new JTable(slowEventsModel)));
+		tabbedPane.addTab("Database Calls on UI Thread", new JScrollPane(new JTable(statementsModel)));
+		tabbedPane.addTab("Histogram", new JScrollPane(new JTable(histogramModel)));
+
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		JButton refreshButton = new JButton("Refresh");
+		refreshButton.addActionListener(e -> refresh());
+		JButton resetButton = new JButton("Reset");
+		resetButton.addActionListener(e -> {
+			EDTStatistics.reset();
+			refresh();
+		});
+		JButton exportButton = new JButton("Export as JSON...");
+		exportButton.addActionListener(e -> export());
+		JButton closeButton = new JButton("Close");
+		closeButton.addActionListener(e -> dispose());
+		buttons.add(refreshButton);
+		buttons.add(resetButton);
+		buttons.add(exportButton);
+		buttons.add(closeButton);
+
+		summaryLabel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+		getContentPane().add(summaryLabel, BorderLayout.NORTH);
+		getContentPane().add(tabbedPane, BorderLayout.CENTER);
+		getContentPane().add(buttons, BorderLayout.SOUTH);
+		setSize(new Dimension(900, 500));
+		setLocationRelativeTo(owner);
+		refresh();
+	}
+
+	private void refresh() {
+		summaryLabel.setText(EDTStatistics.getNumEvents() + " events in " + (EDTStatistics.getRecordingTime() / 1000) + " s, "
+				+ EDTStatistics.getSlowEvents().stream().collect(Collectors.summingLong(c -> c.count)) + " took "
+				+ EDTStatistics.SLOW_EVENT_MILLIS + " ms or longer");
+
+		histogramModel.setRowCount(0);
+		long[] dispatched = EDTStatistics.getDispatchHistogram();
+		long[] queued = EDTStatistics.getQueueHistogram();
+		long[] bounds = EDTStatistics.BUCKET_BOUNDS;
+		for (int i = 0; i < dispatched.length; ++i) {
+			String range = i < bounds.length? ((i == 0? 0 : bounds[i - 1]) + " - " + bounds[i]) : (">= " + bounds[bounds.length - 1]);
+			histogramModel.addRow(new Object[] { range, dispatched[i], queued[i] });
+		}
+
+		slowEventsModel.setRowCount(0);
+		for (EDTStatistics.Counter counter: EDTStatistics.getSlowEvents()) {
+			slowEventsModel.addRow(new Object[] { counter.origin, counter.count, counter.totalMillis, counter.maxMillis, hotFrames(counter.hotFrames) });
+		}
+
+		statementsModel.setRowCount(0);
+		for (EDTStatistics.Counter counter: EDTStatistics.getEDTStatements()) {
+			statementsModel.addRow(new Object[] { counter.origin, counter.count, counter.totalMillis, counter.maxMillis, counter.example });
+		}
+	}
+
+	private static String hotFrames(Map<String, Integer> hotFrames) {
+		List<Map.Entry<String, Integer>> entries = hotFrames.entrySet().stream()
+				.sorted((a, b) -> b.getValue() - a.getValue())
+				.collect(Collectors.toList());
+		return entries.stream().map(e -> e.getKey() + " (" + e.getValue() + ")").collect(Collectors.joining(", "));
+	}
+
+	private void export() {
+		String fn = UIUtil.choseFile(null, ".", "Export UI Responsiveness Statistics", ".json", this, true, false, false);
+		if (fn != null) {
+			try {
+				Files.write(new File(fn).toPath(), EDTStatistics.toJson().getBytes(StandardCharsets.UTF_8));
+			} catch (Throwable t) {
+				UIUtil.showException(this, "Error", t);
+			}
+		}
+	}
+
+}
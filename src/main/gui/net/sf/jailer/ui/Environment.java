@@ -46,6 +46,7 @@ import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.Configuration;
 import net.sf.jailer.render.HtmlDataModelRenderer;
 import net.sf.jailer.ui.util.AWTWatchdog;
+import net.sf.jailer.ui.util.EDTStatistics;
 import net.sf.jailer.util.LogUtil;
 
 /**
@@ -300,6 +301,7 @@ public class Environment {
 
 		@Override
 		protected void dispatchEvent(AWTEvent newEvent) {
+		    EDTStatistics.eventStarted(newEvent);
 		    try {
 		        super.dispatchEvent(newEvent);
 		    } catch (Throwable t) {
@@ -320,6 +322,8 @@ public class Environment {
 		        } else {
 		        	throw t;
 		        }
+		    } finally {
+		    	EDTStatistics.eventFinished(newEvent);
 		    }
 		}
 	}
@@ -116,6 +116,7 @@ import net.sf.jailer.database.BasicDataSource;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.datamodel.AggregationSchema;
 import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.ClosureEngine;
 import net.sf.jailer.datamodel.Column;
 import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.datamodel.ModelElement;
@@ -172,14 +173,9 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
 	DataModel dataModel;
 
 	/**
-	 * Closure of current {@link #subjectTable}.
+	 * Computes the closures of the subjects and of the tables in the closure view.
 	 */
-	private Set<Table> currentSubjectClosure = null;
-
-	/**
-	 * Version of data model from which {@link #currentSubjectClosure} is build.
-	 */
-	private long closureVersion = -1;
+	private ClosureEngine closureEngine;
 
 	/**
 	 * Subject table.
@@ -3133,9 +3129,6 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
 					markDirty();
 				}
 			});
-			synchronized (currentSubjectClosureLock) {
-				currentSubjectClosure = null; // force re-calculation
-			}
 			subject = newSubject;
 			pendingDecisionsPanel.updateView();
 			extractionModel.subjectLimitDefinition = new SubjectLimitDefinition(null, null);
@@ -3207,9 +3200,6 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
     private void changeAdditionalSubjects(List<AdditionalSubject> newSubjects) {
     	final ArrayList<AdditionalSubject> oldSubjects = new ArrayList<ExtractionModel.AdditionalSubject>(extractionModel.additionalSubjects);
 		extractionModel.additionalSubjects = new ArrayList<>(newSubjects);
-		synchronized (currentSubjectClosureLock) {
-			currentSubjectClosure = null; // force re-calculation
-		}
 		markDirty();
 		updateAdditionalSubjectsButton();
 		pendingDecisionsPanel.updateView();
@@ -3916,7 +3906,9 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
 			return false;
 		}
 
+		long versionBefore = dataModel.getVersion();
 		dataModel.getRestrictionModel().addRestriction(association, condition, "GUI", true, new HashMap<String, String>());
+		getClosureEngine().associationChanged(association, versionBefore);
 
 		if (modifyFilter) {
 			if (association.getRestrictionCondition() == null) {
@@ -4009,7 +4001,31 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
 		}
 	}
 	
-	private Object currentSubjectClosureLock = new Object();
+	/**
+	 * Gets the closure engine.
+	 *
+	 * @return the closure engine
+	 */
+	public synchronized ClosureEngine getClosureEngine() {
+		if (closureEngine == null) {
+			closureEngine = new ClosureEngine(dataModel);
+		}
+		return closureEngine;
+	}
+
+	/**
+	 * Gets the subject and the additional subjects.
+	 */
+	private Set<Table> getCurrentSubjects() {
+		Set<Table> subjects = new HashSet<Table>();
+		if (extractionModel.additionalSubjects != null) {
+			for (AdditionalSubject as: extractionModel.additionalSubjects) {
+				subjects.add(as.getSubject());
+			}
+		}
+		subjects.add(subject);
+		return subjects;
+	}
 
 	/**
 	 * Gets closure of current subject table.
@@ -4017,29 +4033,53 @@ public class ExtractionModelEditor extends javax.swing.JPanel implements PlafAwa
 	 * @return closure of current subject table
 	 */
 	public Set<Table> getCurrentSubjectClosure() {
-		synchronized (currentSubjectClosureLock) {
-			if (dataModel == null || subject == null) {
-				return Collections.emptySet();
-			}
-			if (currentSubjectClosure == null || dataModel.getVersion() != closureVersion) {
-				Set<Table> subjects = new HashSet<Table>();
-				if (extractionModel.additionalSubjects != null) {
-					for (AdditionalSubject as: extractionModel.additionalSubjects) {
-						subjects.add(as.getSubject());
-					}
-				}
-				subjects.add(subject);
-	
-				currentSubjectClosure = new HashSet<Table>();
-				for (Table subject: subjects) {
-					for (Table table: subject.closure(currentSubjectClosure)) {
-						currentSubjectClosure.add(table);
-					}
+		if (dataModel == null || subject == null) {
+			return Collections.emptySet();
+		}
+		return getClosureEngine().getSnapshot(getCurrentSubjects()).getClosure();
+	}
+
+	/**
+	 * Gets the most recently published closure of current subject table without computing it on the calling thread.
+	 * If it is outdated, it is recomputed in the background and the graphical view is repainted afterwards.
+	 *
+	 * @return closure of current subject table, possibly outdated
+	 */
+	public Set<Table> getPublishedSubjectClosure() {
+		if (dataModel == null || subject == null) {
+			return Collections.emptySet();
+		}
+		Set<Table> subjects = getCurrentSubjects();
+		ClosureEngine.Snapshot snapshot = getClosureEngine().getLatestSnapshot(subjects);
+		if (snapshot == null) {
+			return getCurrentSubjectClosure();
+		}
+		if (snapshot.getVersion() != dataModel.getVersion()) {
+			getClosureEngine().requestSnapshot(subjects, s -> UIUtil.invokeLater(() -> {
+				if (graphView != null) {
+					graphView.display.repaint();
 				}
-				closureVersion = dataModel.getVersion();
-			}
-			return currentSubjectClosure;
+			}));
+		}
+		return snapshot.getClosure();
+	}
+
+	/**
+	 * Gets the most recently published closure of a table without computing it on the calling thread.
+	 * If there is none or it is outdated, it is recomputed in the background and the given
+	 * runnable is invoked on the event dispatch thread afterwards.
+	 *
+	 * @param table the table
+	 * @param onUpdate invoked after the closure has been recomputed
+	 * @return the closure of the table, possibly outdated, or <code>null</code> if it has not been computed yet
+	 */
+	public ClosureEngine.Snapshot getPublishedClosure(Table table, Runnable onUpdate) {
+		Set<Table> roots = Collections.singleton(table);
+		ClosureEngine.Snapshot snapshot = getClosureEngine().getLatestSnapshot(roots);
+		if (snapshot == null || snapshot.getVersion() != dataModel.getVersion()) {
+			getClosureEngine().requestSnapshot(roots, s -> UIUtil.invokeLater(onUpdate));
 		}
+		return snapshot;
 	}
 
 	private static final int MAX_NAVIGATIONSTACKSIZE = 20;
@@ -350,6 +350,7 @@ public class ExtractionModelFrame extends javax.swing.JFrame implements Connecti
 		tutorial.setToolTipText("Open the step-by-step tutorial.");
 		helpForum.setToolTipText("Open the user forum in your web browser.");
 		downloadMenuItem.setToolTipText("Check for and download the latest Jailer release.");
+		jMenu2.insert(EDTDiagnosticsDialog.createMenuItem(this), jMenu2.getPopupMenu().getComponentIndex(downloadMenuItem) + 1);
 
 		JMenuItem aiExtractionModelItem = new JMenuItem("AI Subsetting Assistant...");
 		aiExtractionModelItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_A, mask | InputEvent.SHIFT_DOWN_MASK));
@@ -26,6 +26,8 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
 import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -173,6 +175,11 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
         limitTextField = new javax.swing.JTextField();
         jLabel2 = new javax.swing.JLabel();
         orderByCheckBox = new javax.swing.JCheckBox();
+        samplingPanel = new javax.swing.JPanel();
+        jLabel3 = new javax.swing.JLabel();
+        samplingComboBox = new javax.swing.JComboBox<>();
+        samplePercentTextField = new javax.swing.JTextField();
+        jLabel4 = new javax.swing.JLabel();
         jPanel3 = new javax.swing.JPanel();
         okButton = new javax.swing.JButton();
         cancelButton = new javax.swing.JButton();
@@ -229,6 +236,34 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
         gridBagConstraints.anchor = java.awt.GridBagConstraints.WEST;
         jPanel2.add(orderByCheckBox, gridBagConstraints);
 
+        samplingPanel.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT, 0, 0));
+
+        jLabel3.setText(" Sample ");
+        samplingPanel.add(jLabel3);
+
+        samplingComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "none", "random", "stratified" }));
+        samplingComboBox.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                samplingComboBoxActionPerformed(evt);
+            }
+        });
+        samplingPanel.add(samplingComboBox);
+
+        samplePercentTextField.setColumns(4);
+        samplePercentTextField.setToolTipText("<html>Percentage of rows to be sampled.<br>Optional for stratified samples with a row limit.</html>");
+        samplingPanel.add(samplePercentTextField);
+
+        jLabel4.setText(" %");
+        samplingPanel.add(jLabel4);
+
+        gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 0;
+        gridBagConstraints.gridy = 3;
+        gridBagConstraints.gridwidth = 10;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.WEST;
+        gridBagConstraints.insets = new java.awt.Insets(2, 0, 2, 0);
+        jPanel2.add(samplingPanel, gridBagConstraints);
+
         gridBagConstraints = new java.awt.GridBagConstraints();
         gridBagConstraints.gridx = 10;
         gridBagConstraints.gridy = 5;
@@ -335,6 +370,10 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
     	}
     }//GEN-LAST:event_orderByCheckBoxActionPerformed
 
+    private void samplingComboBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_samplingComboBoxActionPerformed
+    	samplePercentTextField.setEnabled(samplingComboBox.getSelectedIndex() > 0);
+    }//GEN-LAST:event_samplingComboBoxActionPerformed
+
 	private SubjectLimitDefinition subjectLimitDefinition;
 	
 	/**
@@ -358,6 +397,9 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
 			editorPane.setText("");
 			editorPane.setEnabled(false);
 		}
+		samplingComboBox.setSelectedIndex(subjectLimitDefinition.sampling == null? 0 : subjectLimitDefinition.sampling.ordinal() + 1);
+		samplePercentTextField.setText(subjectLimitDefinition.samplePercent == null? "" : new BigDecimal(subjectLimitDefinition.samplePercent.toString()).stripTrailingZeros().toPlainString());
+		samplePercentTextField.setEnabled(subjectLimitDefinition.sampling != null);
 		editorPane.setCaretPosition(0);
 		editorPane.discardAllEdits();
 
@@ -457,6 +499,8 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
     private javax.swing.JLabel hintLabel;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
+    private javax.swing.JLabel jLabel3;
+    private javax.swing.JLabel jLabel4;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JPanel jPanel2;
     private javax.swing.JPanel jPanel3;
@@ -465,6 +509,9 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
     private javax.swing.JTextField limitTextField;
     private javax.swing.JButton okButton;
     private javax.swing.JCheckBox orderByCheckBox;
+    private javax.swing.JTextField samplePercentTextField;
+    private javax.swing.JComboBox<String> samplingComboBox;
+    private javax.swing.JPanel samplingPanel;
     // End of variables declaration//GEN-END:variables
 	
 	private Icon dropDownIcon;
@@ -536,7 +583,24 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
 			.replace('\r', ' ')
 			.replaceFirst("(?is)^order\\s+by\\s*", "")
 			.replaceAll(";\\s*$", "");
-		SubjectLimitDefinition def = new SubjectLimitDefinition(limit, limit != null && orderBy.length() > 0? orderBy : null);
+		SubjectLimitDefinition.Sampling sampling = null;
+		Double samplePercent = null;
+		if (samplingComboBox.getSelectedIndex() > 0) {
+			sampling = SubjectLimitDefinition.Sampling.values()[samplingComboBox.getSelectedIndex() - 1];
+			try {
+				samplePercent = Double.parseDouble(samplePercentTextField.getText().trim());
+				if (samplePercent <= 0 || samplePercent > 100) {
+					samplePercent = null;
+				}
+			} catch (Exception e) {
+				samplePercent = null;
+			}
+			if (samplePercent == null && (sampling == SubjectLimitDefinition.Sampling.RANDOM || limit == null)) {
+				// no valid percentage
+				sampling = null;
+			}
+		}
+		SubjectLimitDefinition def = new SubjectLimitDefinition(limit, (limit != null || sampling != null) && orderBy.length() > 0? orderBy : null, sampling, samplePercent);
 		if (ok && def.equals(subjectLimitDefinition)) {
 			ok = false;
 		}
@@ -550,10 +614,14 @@ public abstract class SubjectLimitEditor extends EscapableDialog {
 	 * @return HTML string representation of the limit definition
 	 */
 	public static String subjectLimitDefinitionRender(SubjectLimitDefinition limitDefinition) {
+		String sample = "";
+		if (limitDefinition.sampling != null) {
+			sample = " (" + (limitDefinition.samplePercent != null? limitDefinition.samplePercent + "% " : "") + limitDefinition.sampling.name().toLowerCase(Locale.ENGLISH) + " sample)";
+		}
 		if (limitDefinition.limit == null) {
-			return "<html><i>no limit</i></html>";
+			return limitDefinition.sampling == null? "<html><i>no limit</i></html>" : "<html>all rows" + sample + "</html>";
 		} else {
-			return "<html><b>" + limitDefinition.limit + "</b> rows" + (limitDefinition.orderBy != null ? " (ordered)" : "") + "</html>";
+			return "<html><b>" + limitDefinition.limit + "</b> rows" + (limitDefinition.orderBy != null ? " (ordered)" : "") + sample + "</html>";
 		}
 	}
 
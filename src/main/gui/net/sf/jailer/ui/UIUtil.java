@@ -142,6 +142,7 @@ import com.formdev.flatlaf.FlatLightLaf;
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.Jailer;
 import net.sf.jailer.JailerVersion;
+import net.sf.jailer.configuration.Configuration;
 import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.database.BasicDataSource;
 import net.sf.jailer.database.PrimaryKeyValidator;
@@ -1625,6 +1626,24 @@ public class UIUtil {
 	@SuppressWarnings("serial")
 	public static void validatePrimaryKeys(final Window windowAncestor, final BasicDataSource basicDataSource, final Set<Table> tables) {
 		final Object cancellationContext = new Object();
+		final boolean tiered;
+		final double fastPKCheckSamplePercent = Configuration.getInstance().getFastPKCheckSamplePercent();
+		final int fastPKCheckFullScanBudget = Configuration.getInstance().getFastPKCheckFullScanBudget();
+		if (tables.size() > 1) {
+			Object[] options = { "Fast Check", "Full Check", "Cancel" };
+			int option = JOptionPane.showOptionDialog(windowAncestor,
+					"Fast Check: Skips primary keys that are backed by the database catalog,\n"
+					+ "checks samples of the other tables and limits full table scans to "
+					+ (fastPKCheckFullScanBudget % 60 == 0? (fastPKCheckFullScanBudget / 60) + " minutes" : fastPKCheckFullScanBudget + " seconds") + ".\n\n"
+					+ "Full Check: Checks all tables completely. This may take a long time on large databases.",
+					"Check Primary Keys", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+			if (option != 0 && option != 1) {
+				return;
+			}
+			tiered = option == 0;
+		} else {
+			tiered = false;
+		}
 
 		final String infoPrefix = "<html>"
 		+ "Checking the primary key definitions in the data model <br>for uniqueness...<br><br><br>".replace(" ", "&nbsp;");
@@ -1655,8 +1674,9 @@ public class UIUtil {
 							}
 						}
 					};
+					final PrimaryKeyValidator primaryKeyValidator;
 					try {
-						new PrimaryKeyValidator(cancellationContext) {
+						primaryKeyValidator = new PrimaryKeyValidator(cancellationContext) {
 							boolean initialized = false;
 							@Override
 							protected void updateProgressBar() {
@@ -1669,6 +1689,11 @@ public class UIUtil {
 											total = 1;
 										}
 										info = String.format("%1.1f", numDone.get() * 100d / total) + "%";
+										long remaining = getEstimatedRemainingTime();
+										if (remaining >= 0 && numDone.get() < total) {
+											long seconds = remaining / 1000;
+											info += "&nbsp;&nbsp;(" + (seconds >= 3600? (seconds / 3600) + "h&nbsp;" : "") + ((seconds / 60) % 60) + "m&nbsp;" + (seconds % 60) + "s&nbsp;left)";
+										}
 										int errors = numErrors.get();
 										if (errors > 0) {
 											info += "&nbsp;<font color=" + Colors.HTMLColor_ff2222 + ">" + errors + "&nbsp;Error" + (errors == 1? "" : "s") + "</font>";
@@ -1681,7 +1706,11 @@ public class UIUtil {
 									}
 								});
 							}
-						}.validatePrimaryKey(session, tables, jobManager);
+						};
+						if (tiered) {
+							primaryKeyValidator.setTiered(fastPKCheckSamplePercent, fastPKCheckFullScanBudget * 1000L);
+						}
+						primaryKeyValidator.validatePrimaryKey(session, tables, jobManager);
 					} catch (final Throwable t) {
 						invokeLater(new Runnable() {
 							@Override
@@ -1702,6 +1731,14 @@ public class UIUtil {
 						public void run() {
 							if (concurrentTaskControl.master.isShowing()) {
 								Object message = tables.size() == 1? "The primary key definition is valid." : "All primary key definitions are valid.";
+								if (tiered && (!primaryKeyValidator.getSampledTables().isEmpty() || !primaryKeyValidator.getNotCheckedTables().isEmpty())) {
+									message = "No invalid primary key definition found.\n\n"
+											+ primaryKeyValidator.getTablesProvenByCatalog().size() + " tables are backed by the database catalog.\n"
+											+ primaryKeyValidator.getSampledTables().size() + " tables have only been checked by sampling.\n"
+											+ (primaryKeyValidator.getNotCheckedTables().isEmpty()? "" :
+												primaryKeyValidator.getNotCheckedTables().size() + " tables have not been checked completely because the time limit was reached.\n")
+											+ "\nUse \"Full Check\" to check all tables completely.";
+								}
 								JOptionPane.showMessageDialog(windowAncestor, message);
 								concurrentTaskControl.closeWindow();
 								if (validatePrimaryKeysPending) {
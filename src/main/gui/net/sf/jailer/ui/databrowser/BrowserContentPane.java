@@ -416,7 +416,8 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 	 * Concurrently loads rows.
 	 */
 	public class LoadJob implements RunnableWithPriority {
-		private List<Row> rows = Collections.synchronizedList(new ArrayList<Row>());
+		private final List<Row> loadedRows = createRowList();
+		private List<Row> rows = Collections.synchronizedList(loadedRows);
 		private Throwable exception;
 		private boolean isCanceled;
 		private final int limit;
@@ -501,6 +502,7 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 			} catch (CancellationException e) {
 				Session._log.info("cancelled");
 				CancellationHandler.reset(this);
+				rows.clear();
 				return;
 			} catch (Throwable e) {
 				reconnectAndRetry = true;
@@ -525,6 +527,7 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 				} catch (CancellationException e) {
 					Session._log.info("cancelled");
 					CancellationHandler.reset(this);
+					rows.clear();
 					return;
 				} catch (Throwable e) {
 					synchronized (rows) {
@@ -565,6 +568,7 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 							sortRowsByParentViewIndex();
 						}
 						if (e != null) {
+							rows.clear();
 							updateMode("error", null);
 							propagateErrorState(BrowserContentPane.this);
 							unhide();
@@ -615,37 +619,21 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 							} else {
 								theSession = null;
 							}
+						} else if (destroyed) {
+							// the rows have been read in the background for a closed browser
+							rows.clear();
 						} else {
-							long prevHash = 0;
-							for (Row r: BrowserContentPane.this.rows) {
-								try {
-									for (Object v: r.values) {
-										if (v != null) {
-											prevHash = 2 * prevHash + v.hashCode();
-										}
-									}
-								} catch (RuntimeException e1) {
-									// ignore
-								}
-							}
 							onContentChange(new ArrayList<Row>(), false);
 							BrowserContentPane.this.rows.clear();
-							BrowserContentPane.this.rows.addAll(rows);
-							updateTableModel(l, limitExceeded, closureLimitExceeded);
-							long currentHash = 0;
-							for (Row r: rows) {
-								try {
-									for (Object v: r.values) {
-										if (v != null) {
-											currentHash = 2 * currentHash + v.hashCode();
-										}
-									}
-								} catch (RuntimeException e1) {
-									// ignore
-								}
+							if (loadedRows instanceof SpilledRows) {
+								// spilled rows are paged in on access, don't copy them
+								BrowserContentPane.this.rows = loadedRows;
+							} else {
+								BrowserContentPane.this.rows.addAll(rows);
 							}
+							updateTableModel(l, limitExceeded, closureLimitExceeded);
 							setPendingState(false, true);
-							onContentChange(rows, true); // rows.isEmpty() || currentHash != prevHash || rows.size() != prevSize || !prevIDs.equals(currentIDs) || rows.size() != currentIDs.size());
+							onContentChange(rows, true);
 							updateMode("table", null);
 							if (BrowserContentPane.this.association == null && (andCond == null || andCond.trim().isEmpty())) {
 								updateERCounts(table, limitExceeded || BrowserContentPane.this.getQueryBuilderDialog() == null // SQL Console
@@ -820,6 +808,15 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 	 */
 	public List<Row> rows = new ArrayList<Row>();
 
+	/**
+	 * Creates the list into which a load job reads the rows.
+	 *
+	 * @return an empty row list
+	 */
+	protected List<Row> createRowList() {
+		return new ArrayList<Row>();
+	}
+
 	/**
 	 * Column types of rows.
 	 */
@@ -2058,12 +2055,9 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 
 								if (popup != null) {
 									if (row != null && !row.nonEmptyRowId.isEmpty()) {
-										for (Row r: rows) {
-											if (r.nonEmptyRowId.equals(row.nonEmptyRowId) && BrowserContentPane.this.rowsClosure.currentClosureRootID.contains(r.nonEmptyRowId) && getQueryBuilderDialog() != null) {
-												currentRowSelection = -1;
-												onRedraw();
-												break;
-											}
+										if (BrowserContentPane.this.rowsClosure.currentClosureRootID.contains(row.nonEmptyRowId) && getQueryBuilderDialog() != null) {
+											currentRowSelection = -1;
+											onRedraw();
 										}
 										int cvi = rowsTable.columnAtPoint(e.getPoint());
 										if (cvi >= 0 && rows.size() > 1) {
@@ -3325,7 +3319,7 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 				}
 
 				final List<Row> toSelect = new ArrayList<Row>();
-				if (row != null && !row.nonEmptyRowId.isEmpty() && rows != null) {
+				if (row != null && !row.nonEmptyRowId.isEmpty() && rows != null && !rowsClosure.currentClosureRootID.isEmpty()) {
 					for (Row r: rows) {
 						if (!r.nonEmptyRowId.isEmpty() && rowsClosure.currentClosureRootID.contains(r.nonEmptyRowId)) {
 							toSelect.add(r);
@@ -4842,10 +4836,11 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 			try {
 				session.setSilent(true);
 				Map<String, List<Row>> rowsMap = new HashMap<String, List<Row>>();
+				rowsMap.put("", rows);
 				reloadRows(inputResultSet, null, andCond, null, rowsMap, loadJob, limit, false, null, existingColumnsLowerCase);
-				if (rowsMap.get("") != null) {
-					rows.addAll(rowsMap.get(""));
-				}
+			} catch (Throwable e) {
+				rows.clear();
+				throw e;
 			} finally {
 				session.setSilent(false);
 			}
@@ -5580,6 +5575,72 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 		return null;
 	}
 
+	private static final String HOUR = " 00:00:00.0";
+
+	/**
+	 * Checks whether a value doesn't prevent its column from being shown without time.
+	 *
+	 * @param value the value
+	 * @return <code>true</code> if the value is <code>null</code> or a date without time
+	 */
+	static boolean canStripHour(Object value) {
+		if (value == null) {
+			return true;
+		}
+		if (!(value instanceof java.sql.Date) && !(value instanceof java.sql.Timestamp)) {
+			return false;
+		}
+		return value.toString().endsWith(HOUR);
+	}
+
+	/**
+	 * Converts a row into a row of the rows table model.
+	 *
+	 * @param row the row
+	 * @param stripHour columns whose dates are shown without time
+	 * @param columnTypes SQL types of the columns, or <code>null</code>
+	 * @param columnNameMap column indexes by name
+	 * @return the table model row
+	 */
+	private Object[] toTableModelRow(Row row, boolean[] stripHour, int[] columnTypes, Map<String, Integer> columnNameMap) {
+		Object[] rowData = new Object[stripHour.length];
+		for (int i = 0; i < rowData.length; ++i) {
+			rowData[i] = row.values[i];
+			if (rowData[i] instanceof PObjectWrapper) {
+				rowData[i] = ((PObjectWrapper) rowData[i]).getValue();
+			}
+			if (rowData[i] == null) {
+				rowData[i] = UIUtil.NULL;
+			} else if (rowData[i] instanceof UnknownValue) {
+				rowData[i] = UNKNOWN;
+			}
+			if (stripHour[i] && (rowData[i] instanceof java.sql.Date || rowData[i] instanceof java.sql.Timestamp)) {
+				final long time = rowData[i] instanceof Date? ((Date) rowData[i]).getTime() : ((Timestamp) rowData[i]).getTime();
+				if (time == SqlUtil.PG_NEGATIVE_INFINITY || time == SqlUtil.PG_NEGATIVE_SMALLER_INFINITY) {
+					continue;
+				}
+				if (time == SqlUtil.PG_POSITIVE_INFINITY || time == SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
+					continue;
+				}
+				String asString = rowData[i].toString();
+				int endIndex = asString.length() - HOUR.length();
+				if (endIndex > 0) {
+					rowData[i] = asString.substring(0, endIndex);
+				}
+			}
+		}
+		if (tableContentViewFilter != null) {
+			tableContentViewFilter.filter(rowData, columnNameMap);
+		}
+		for (int i = 0; i < rowData.length; ++i) {
+			TableModelItem item = new TableModelItem(row.getParentModelIndex(), row.getInheritedParentModelIndex(), rowData[i],
+					columnTypes == null || columnTypes.length >= i? 
+							0: columnTypes[i]);
+			rowData[i] = item;
+		}
+		return rowData;
+	}
+
 	public static class TableModelItem {
 		public final int blockNr;
 		public final double inheritedBlockNumber;
@@ -5800,7 +5861,57 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 					}
 				}
 			}
+			boolean stripHour[];
+			if (rows instanceof SpilledRows) {
+				// determined while the rows were read
+				stripHour = ((SpilledRows) rows).getStripHour(columns.size());
+			} else {
+				stripHour = new boolean[columns.size()];
+				for (int i = 0; i < columns.size(); ++i) {
+					stripHour[i] = true;
+					for (Row row : rows) {
+						if (!canStripHour(row.values[i])) {
+							stripHour[i] = false;
+							break;
+						}
+					}
+				}
+			}
+
+			final int[] columnTypes = browserContentCellEditor == null? null : browserContentCellEditor.getColumnTypes();
+
+			// spilled rows are paged in and converted on access
+			final int numRows = Math.min(rows.size(), limit);
+			final Map<Integer, Object[]> pagedRowData = !(rows instanceof SpilledRows)? null : new LinkedHashMap<Integer, Object[]>(1024, 0.75f, true) {
+				private static final long serialVersionUID = 1739263829419362145L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+					return size() > 1024;
+				}
+			};
 			dtm = new DefaultTableModel(uqColumnNames, 0) {
+				// initialized after the super constructor has set up the (empty) data vector
+				private final boolean paged = pagedRowData != null;
+
+				@Override
+				public int getRowCount() {
+					return paged? numRows : super.getRowCount();
+				}
+
+				@Override
+				public Object getValueAt(int row, int column) {
+					if (!paged) {
+						return super.getValueAt(row, column);
+					}
+					Object[] rowData = pagedRowData.get(row);
+					if (rowData == null) {
+						rowData = toTableModelRow(rows.get(row), stripHour, columnTypes, columnNameMap);
+						pagedRowData.put(row, rowData);
+					}
+					return rowData[column];
+				}
+
 				@Override
 				public boolean isCellEditable(int row, int column) {
 					Row r = null;
@@ -5907,72 +6018,12 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 					}
 				}
 			};
-			
-			boolean stripHour[] = new boolean[columns.size()];
-			final String HOUR = " 00:00:00.0";
-			for (int i = 0; i < columns.size(); ++i) {
-				stripHour[i] = true;
+			if (pagedRowData == null) {
 				for (Row row : rows) {
-					Object value = row.values[i];
-					if (value == null) {
-						continue;
-					}
-					if (!(value instanceof java.sql.Date) && !(value instanceof java.sql.Timestamp)) {
-						stripHour[i] = false;
+					dtm.addRow(toTableModelRow(row, stripHour, columnTypes, columnNameMap));
+					if (++rn >= limit) {
 						break;
 					}
-					String asString = value.toString();
-					if (asString.endsWith(HOUR)) {
-						continue;
-					}
-					stripHour[i] = false;
-					break;
-				}
-			}
-
-			int[] columnTypes = null;
-			if (browserContentCellEditor != null) {
-				columnTypes = browserContentCellEditor.getColumnTypes();
-			}
-			for (Row row : rows) {
-				Object[] rowData = new Object[columns.size()];
-				for (int i = 0; i < columns.size(); ++i) {
-					rowData[i] = row.values[i];
-					if (rowData[i] instanceof PObjectWrapper) {
-						rowData[i] = ((PObjectWrapper) rowData[i]).getValue();
-					}
-					if (rowData[i] == null) {
-						rowData[i] = UIUtil.NULL;
-					} else if (rowData[i] instanceof UnknownValue) {
-						rowData[i] = UNKNOWN;
-					}
-					if (stripHour[i] && (rowData[i] instanceof java.sql.Date || rowData[i] instanceof java.sql.Timestamp)) {
-						final long time = rowData[i] instanceof Date? ((Date) rowData[i]).getTime() : ((Timestamp) rowData[i]).getTime();
-						if (time == SqlUtil.PG_NEGATIVE_INFINITY || time == SqlUtil.PG_NEGATIVE_SMALLER_INFINITY) {
-							continue;
-						}
-						if (time == SqlUtil.PG_POSITIVE_INFINITY || time == SqlUtil.PG_POSITIVE_SMALLER_INFINITY) {
-							continue;
-						}
-						String asString = rowData[i].toString();
-						int endIndex = asString.length() - HOUR.length();
-						if (endIndex > 0) {
-							rowData[i] = asString.substring(0, endIndex);
-						}
-					}
-				}
-				if (tableContentViewFilter != null) {
-					tableContentViewFilter.filter(rowData, columnNameMap);
-				}
-				for (int i = 0; i < columns.size(); ++i) {
-					TableModelItem item = new TableModelItem(row.getParentModelIndex(), row.getInheritedParentModelIndex(), rowData[i],
-							columnTypes == null || columnTypes.length >= i? 
-									0: columnTypes[i]);
-					rowData[i] = item;
-				}
-				dtm.addRow(rowData);
-				if (++rn >= limit) {
-					break;
 				}
 			}
 
@@ -9841,7 +9892,13 @@ public abstract class BrowserContentPane extends javax.swing.JPanel implements P
 		this.rows.clear();
 	}
 
+	/**
+	 * Whether this browser has been destroyed.
+	 */
+	private volatile boolean destroyed = false;
+
 	public void destroy() {
+		destroyed = true;
 		if (rows != null) {
 			rows.clear();
 		}
@@ -166,6 +166,7 @@ import net.sf.jailer.ui.DbConnectionDialog.ConnectionInfo;
 import net.sf.jailer.ui.DbConnectionDialog.ConnectionType;
 import net.sf.jailer.ui.DbConnectionDialog.ConnectionTypeChangeListener;
 import net.sf.jailer.ui.DbConnectionDialog.DataModelChanger;
+import net.sf.jailer.ui.EDTDiagnosticsDialog;
 import net.sf.jailer.ui.Environment;
 import net.sf.jailer.ui.ExtractionModelFrame;
 import net.sf.jailer.ui.ImportDialog;
@@ -6808,6 +6809,7 @@ public class DataBrowser extends javax.swing.JFrame implements ConnectionTypeCha
 		jMenuItem4.setToolTipText("Open the online user manual.");
 		helpForum.setToolTipText("Open the user forum in your web browser.");
 		downloadMenuItem.setToolTipText("Check for and download the latest Jailer release.");
+		helpMenu.insert(EDTDiagnosticsDialog.createMenuItem(this), helpMenu.getPopupMenu().getComponentIndex(downloadMenuItem) + 1);
 
 		aiAssistantMenuItem = new JMenuItem("AI Assistant...");
 		aiAssistantMenuItem.setAccelerator(KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_A, mask | InputEvent.SHIFT_DOWN_MASK));
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui.databrowser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+
+import net.sf.jailer.util.LogUtil;
+
+/**
+ * Inverted trigram index over the cell texts of a table model.
+ * Used by the {@link FullTextSearchPanel} to find the candidate cells
+ * for a search text without scanning the whole table.<br>
+ * The index is built in the background (one index at a time) and maintained incrementally when rows are appended.
+ *
+ * @author Ralf Wisser
+ */
+public class FullTextSearchIndex implements TableModelListener {
+
+	/**
+	 * Cells with longer texts are not indexed but always treated as candidates.
+	 */
+	private static final int MAX_INDEXED_LENGTH = 512;
+
+	private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s|\\h");
+
+	private static final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "FullTextSearchIndex");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/**
+	 * Sorted list of cell IDs (<code>row * columnCount + column</code>).
+	 */
+	private static class Posting {
+		int[] cells = new int[4];
+		int size = 0;
+
+		void add(int cell) {
+			if (size > 0 && cells[size - 1] == cell) {
+				return;
+			}
+			if (size == cells.length) {
+				cells = Arrays.copyOf(cells, size * 2);
+			}
+			cells[size++] = cell;
+		}
+	}
+
+	private final TableModel model;
+
+	private Map<Long, Posting> postings;
+	private Posting unindexedCells;
+	private int columnCount;
+	private int rowCount;
+	private boolean ready = false;
+	private boolean stale = false;
+	private int generation = 0;
+	private Future<?> rebuildFuture;
+
+	/**
+	 * Constructor. Starts building the index in the background.
+	 *
+	 * @param model the table model to index
+	 */
+	public FullTextSearchIndex(TableModel model) {
+		this.model = model;
+		model.addTableModelListener(this);
+		rebuild();
+	}
+
+	/**
+	 * Detaches the index from the model.
+	 */
+	public void dispose() {
+		model.removeTableModelListener(this);
+		synchronized (this) {
+			++generation;
+			ready = false;
+			postings = null;
+			unindexedCells = null;
+			cancelRebuild();
+		}
+	}
+
+	/**
+	 * Gets the indexed model.
+	 *
+	 * @return the model
+	 */
+	public TableModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Rebuilds the index in the background. A rebuild still running is cancelled.
+	 * The rebuild is abandoned as soon as the model changes.
+	 */
+	private synchronized void rebuild() {
+		final int cc = model.getColumnCount();
+		final int rc = model.getRowCount();
+		final int myGeneration = ++generation;
+		ready = false;
+		stale = false;
+		postings = null;
+		unindexedCells = null;
+		cancelRebuild();
+		rebuildFuture = rebuildExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Map<Long, Posting> newPostings = new HashMap<Long, Posting>();
+					Posting newUnindexedCells = new Posting();
+					for (int y = 0; y < rc; ++y) {
+						synchronized (FullTextSearchIndex.this) {
+							if (generation != myGeneration) {
+								return;
+							}
+						}
+						for (int x = 0; x < cc; ++x) {
+							addCell(newPostings, newUnindexedCells, y * cc + x, cellText(y, x));
+						}
+					}
+					synchronized (FullTextSearchIndex.this) {
+						if (generation == myGeneration) {
+							postings = newPostings;
+							unindexedCells = newUnindexedCells;
+							columnCount = cc;
+							rowCount = rc;
+							ready = true;
+						}
+					}
+				} catch (RuntimeException e) {
+					synchronized (FullTextSearchIndex.this) {
+						if (generation != myGeneration) {
+							// the model has been changed while reading it
+							return;
+						}
+					}
+					LogUtil.warn(e);
+				}
+			}
+		});
+	}
+
+	private void cancelRebuild() {
+		if (rebuildFuture != null) {
+			rebuildFuture.cancel(false);
+			rebuildFuture = null;
+		}
+	}
+
+	private String cellText(int y, int x) {
+		Object v = model.getValueAt(y, x);
+		return v == null? null : v.toString().toUpperCase(Locale.ENGLISH);
+	}
+
+	private static void addCell(Map<Long, Posting> postings, Posting unindexedCells, int cell, String text) {
+		if (text == null || text.length() > MAX_INDEXED_LENGTH) {
+			unindexedCells.add(cell);
+			return;
+		}
+		for (int i = 0; i + 3 <= text.length(); ++i) {
+			Long trigram = trigram(text, i);
+			Posting posting = postings.get(trigram);
+			if (posting == null) {
+				posting = new Posting();
+				postings.put(trigram, posting);
+			}
+			posting.add(cell);
+		}
+	}
+
+	private static Long trigram(String text, int i) {
+		return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+	}
+
+	@Override
+	public void tableChanged(TableModelEvent e) {
+		boolean isAppend = e.getType() == TableModelEvent.INSERT
+				&& e.getColumn() == TableModelEvent.ALL_COLUMNS
+				&& e.getLastRow() == model.getRowCount() - 1;
+		synchronized (this) {
+			if (isAppend && ready && columnCount == model.getColumnCount() && rowCount == e.getFirstRow()) {
+				int cc = columnCount;
+				for (int y = e.getFirstRow(); y <= e.getLastRow(); ++y) {
+					for (int x = 0; x < cc; ++x) {
+						addCell(postings, unindexedCells, y * cc + x, cellText(y, x));
+					}
+				}
+				rowCount = e.getLastRow() + 1;
+				return;
+			}
+			++generation;
+			ready = false;
+			stale = true;
+			postings = null;
+			unindexedCells = null;
+		}
+	}
+
+	/**
+	 * Gets the sorted IDs (<code>row * columnCount + column</code>) of all cells that may contain the search text.
+	 *
+	 * @param searchText the search text, may contain the wildcards '*' and '?'
+	 * @return the candidate cells or <code>null</code> if the index cannot narrow down the search (all cells are candidates)
+	 */
+	public int[] candidates(String searchText) {
+		boolean doRebuild;
+		synchronized (this) {
+			doRebuild = stale;
+		}
+		if (doRebuild) {
+			rebuild();
+			return null;
+		}
+		String text = WHITESPACE_PATTERN.matcher(searchText).replaceAll(" ").toUpperCase(Locale.ENGLISH);
+		String[] fragments = text.split("\\*|\\?");
+		if (fragments.length > 0) {
+			fragments[0] = fragments[0].trim();
+			fragments[fragments.length - 1] = fragments[fragments.length - 1].trim();
+		}
+		synchronized (this) {
+			if (!ready || rowCount != model.getRowCount() || columnCount != model.getColumnCount()) {
+				return null;
+			}
+			int[] result = null;
+			for (String fragment: fragments) {
+				for (int i = 0; i + 3 <= fragment.length(); ++i) {
+					Posting posting = postings.get(trigram(fragment, i));
+					if (posting == null) {
+						result = new int[0];
+						break;
+					}
+					result = result == null? Arrays.copyOf(posting.cells, posting.size) : intersect(result, posting);
+					if (result.length == 0) {
+						break;
+					}
+				}
+				if (result != null && result.length == 0) {
+					break;
+				}
+			}
+			if (result == null) {
+				return null;
+			}
+			return union(result, unindexedCells);
+		}
+	}
+
+	/**
+	 * Gets the number of columns of the indexed model.
+	 *
+	 * @return the number of columns
+	 */
+	public synchronized int getColumnCount() {
+		return columnCount;
+	}
+
+	private static int[] intersect(int[] a, Posting b) {
+		int[] result = new int[Math.min(a.length, b.size)];
+		int i = 0, j = 0, n = 0;
+		while (i < a.length && j < b.size) {
+			if (a[i] < b.cells[j]) {
+				++i;
+			} else if (a[i] > b.cells[j]) {
+				++j;
+			} else {
+				result[n++] = a[i];
+				++i;
+				++j;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	private static int[] union(int[] a, Posting b) {
+		int[] result = new int[a.length + b.size];
+		int i = 0, j = 0, n = 0;
+		while (i < a.length || j < b.size) {
+			if (j >= b.size || (i < a.length && a[i] < b.cells[j])) {
+				result[n++] = a[i++];
+			} else if (i >= a.length || a[i] > b.cells[j]) {
+				result[n++] = b.cells[j++];
+			} else {
+				result[n++] = a[i];
+				++i;
+				++j;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+}
@@ -259,6 +259,27 @@ public class FullTextSearchPanel extends javax.swing.JPanel {
 
     private boolean updatePending = false;
 
+    /**
+     * Index over the cell texts of the table model.
+     */
+    private FullTextSearchIndex searchIndex;
+
+    /**
+     * Gets the search index for the given model, (re)creating it if the model has changed.
+     *
+     * @param model the table model
+     * @return the search index
+     */
+    private FullTextSearchIndex getSearchIndex(TableModel model) {
+    	if (searchIndex == null || searchIndex.getModel() != model) {
+    		if (searchIndex != null) {
+    			searchIndex.dispose();
+    		}
+    		searchIndex = new FullTextSearchIndex(model);
+    	}
+    	return searchIndex;
+    }
+
 	/**
 	 * Opens the search panel without displaying it visibly if not already open.
 	 *
@@ -422,74 +443,75 @@ public class FullTextSearchPanel extends javax.swing.JPanel {
 					viewColumn.put(table.getColumnModel().getColumn(i).getModelIndex(), i);
 				}
 
-				boolean stop = false;
-				for (int y = 0; y < rc; ++y) {
-					for (int x = 0; x < cc; ++x) {
-						Object v = dm.getValueAt(y, x);
-						if (v != null) {
-							searchTextUC = extendedSearchText(searchText, v.toString().trim()).toUpperCase(Locale.ENGLISH);
-						}
-						if (v != null && !v.toString().toUpperCase(Locale.ENGLISH).contains(searchTextUC)) {
-							continue;
-						}
-						Component comp = renderer.getTableCellRendererComponent(table, dm.getValueAt(y, x), false, false, y, x);
-						if (comp instanceof JLabel) {
-							String value = ((JLabel) comp).getText();
-							if (value != null && value.toUpperCase(Locale.ENGLISH).contains(searchTextUC)) {
-								String markedValue = null;
-								int i;
-								int offset = 0;
-								while (offset < value.length() && value.charAt(offset) == ' ') {
-									offset += 1;
-								}
-								String core = value.trim();
-								if (searchText.startsWith(" ") && !core.toUpperCase(Locale.ENGLISH).startsWith(searchTextUC)) {
-									continue;
-								}
-								if (searchText.endsWith(" ") && !core.toUpperCase(Locale.ENGLISH).endsWith(searchTextUC)) {
-									continue;
-								}
-								if (searchText.startsWith(" ") && searchText.endsWith(" ") && !core.toUpperCase(Locale.ENGLISH).equals(searchTextUC)) {
-									continue;
-								}
-								i = searchText.endsWith(" ")? core.toUpperCase(Locale.ENGLISH).lastIndexOf(searchTextUC) : core.toUpperCase(Locale.ENGLISH).indexOf(searchTextUC);
-								if (i < 0) {
-									continue;
-								}
-								i += offset;
-								i = Math.min(i, value.length());
-								if (i + searchTextUC.length() <= value.length()) {
-									markedValue = UIUtil.toHTMLFragment(value.substring(0, i), 0, false) + "<b><u><font color=" + Colors.HTMLColor_0000D0 + ">" + UIUtil.toHTMLFragment(value.substring(i, i + searchTextUC.length()), 0, false) + "</font></u></b>" + UIUtil.toHTMLFragment(value.substring(i + searchTextUC.length()), 0, false);
-								}
-								if (markedValue == null) {
-									markedValue = "<b><u><font color=" + Colors.HTMLColor_0000D0 + ">" + UIUtil.toHTMLFragment(value, 0, false) + "</font></u></b>";
-								}
-								markedValue = "<html>" + markedValue + "</html>";
-								markedValues.put(value, markedValue);
-								Integer vx = viewColumn.get(x);
-								if (vx == null) {
-									continue;
-								}
-								int vy = table.getRowSorter() != null? table.getRowSorter().convertRowIndexToView(y) : y;
-								if (vy < 0) {
-									continue;
-								}
-
-								Integer viewPosition = vx + vy * cc;
-								Integer modelPosition = x + y * cc;
-								markedValuePerPosition.put(viewPosition, markedValue);
-								viewToModelPosition.put(viewPosition, modelPosition);
-								
-								if (markedValuePerPosition.size() > MAX_OCCURRENCES) {
-									stop = true;
-									break;
-								}
+				int[] candidates = getSearchIndex(dm).candidates(searchText);
+				int numCandidates = candidates == null? rc * cc : candidates.length;
+				for (int ci = 0; ci < numCandidates; ++ci) {
+					int cell = candidates == null? ci : candidates[ci];
+					int y = cell / cc;
+					int x = cell % cc;
+					if (y >= rc) {
+						break;
+					}
+					Object v = dm.getValueAt(y, x);
+					if (v != null) {
+						searchTextUC = extendedSearchText(searchText, v.toString().trim()).toUpperCase(Locale.ENGLISH);
+					}
+					if (v != null && !v.toString().toUpperCase(Locale.ENGLISH).contains(searchTextUC)) {
+						continue;
+					}
+					Component comp = renderer.getTableCellRendererComponent(table, dm.getValueAt(y, x), false, false, y, x);
+					if (comp instanceof JLabel) {
+						String value = ((JLabel) comp).getText();
+						if (value != null && value.toUpperCase(Locale.ENGLISH).contains(searchTextUC)) {
+							String markedValue = null;
+							int i;
+							int offset = 0;
+							while (offset < value.length() && value.charAt(offset) == ' ') {
+								offset += 1;
+							}
+							String core = value.trim();
+							if (searchText.startsWith(" ") && !core.toUpperCase(Locale.ENGLISH).startsWith(searchTextUC)) {
+								continue;
+							}
+							if (searchText.endsWith(" ") && !core.toUpperCase(Locale.ENGLISH).endsWith(searchTextUC)) {
+								continue;
+							}
+							if (searchText.startsWith(" ") && searchText.endsWith(" ") && !core.toUpperCase(Locale.ENGLISH).equals(searchTextUC)) {
+								continue;
+							}
+							i = searchText.endsWith(" ")? core.toUpperCase(Locale.ENGLISH).lastIndexOf(searchTextUC) : core.toUpperCase(Locale.ENGLISH).indexOf(searchTextUC);
+							if (i < 0) {
+								continue;
+							}
+							i += offset;
+							i = Math.min(i, value.length());
+							if (i + searchTextUC.length() <= value.length()) {
+								markedValue = UIUtil.toHTMLFragment(value.substring(0, i), 0, false) + "<b><u><font color=" + Colors.HTMLColor_0000D0 + ">" + UIUtil.toHTMLFragment(value.substring(i, i + searchTextUC.length()), 0, false) + "</font></u></b>" + UIUtil.toHTMLFragment(value.substring(i + searchTextUC.length()), 0, false);
+							}
+							if (markedValue == null) {
+								markedValue = "<b><u><font color=" + Colors.HTMLColor_0000D0 + ">" + UIUtil.toHTMLFragment(value, 0, false) + "</font></u></b>";
+							}
+							markedValue = "<html>" + markedValue + "</html>";
+							markedValues.put(value, markedValue);
+							Integer vx = viewColumn.get(x);
+							if (vx == null) {
+								continue;
+							}
+							int vy = table.getRowSorter() != null? table.getRowSorter().convertRowIndexToView(y) : y;
+							if (vy < 0) {
+								continue;
+							}
+
+							Integer viewPosition = vx + vy * cc;
+							Integer modelPosition = x + y * cc;
+							markedValuePerPosition.put(viewPosition, markedValue);
+							viewToModelPosition.put(viewPosition, modelPosition);
+							
+							if (markedValuePerPosition.size() > MAX_OCCURRENCES) {
+								break;
 							}
 						}
 					}
-					if (stop) {
-						break;
-					}
 				}
 				int ord = 1;
 				for (Map.Entry<Integer, String> e: markedValuePerPosition.entrySet()) {
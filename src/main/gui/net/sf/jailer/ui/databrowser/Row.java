@@ -42,6 +42,21 @@ public class Row {
 		}
 	}
 
+	/**
+	 * Constructor. Re-creates a row having a given unique ID.
+	 *
+	 * @param rowId unique ID, also serves as SQL predicate which identifies this row
+	 * @param nonEmptyRowId unique ID, equals rowId if it's not empty
+	 * @param primaryKey primary key values
+	 * @param v column values
+	 */
+	Row(String rowId, String nonEmptyRowId, String[] primaryKey, Object[] v) {
+		this.rowId = rowId;
+		this.nonEmptyRowId = nonEmptyRowId;
+		this.values = v;
+		this.primaryKey = primaryKey;
+	}
+
 	/**
 	 * Unique ID, also serves as SQL predicate which identifies this row.
 	 * Empty string if row has no key.
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui.databrowser;
+
+import java.io.Closeable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import net.sf.jailer.util.SpillableRowList;
+
+/**
+ * List of {@link Row}s that keeps rows in memory up to a given budget and
+ * spills all further rows into a {@link SpillableRowList}.
+ * Spilled rows are re-created when they are paged back on access. Their column values
+ * must not be changed, changes of their block numbers are written back.
+ *
+ * @author Ralf Wisser
+ */
+public class SpilledRows extends AbstractList<Row> implements RandomAccess, Closeable {
+
+	/**
+	 * Maximum number of cached re-created rows.
+	 */
+	private static final int MAX_CACHED_ROWS = 4096;
+
+	/**
+	 * Memory budget (estimated number of bytes) for rows kept in memory.
+	 */
+	private final long memoryBudget;
+
+	/**
+	 * Rows kept in memory.
+	 */
+	private final List<Row> inMemoryRows = new ArrayList<Row>();
+
+	/**
+	 * Estimated size of the rows kept in memory.
+	 */
+	private long inMemorySize = 0;
+
+	/**
+	 * The spilled rows. Each row is stored as row ID, unique ID, primary key and column values.
+	 */
+	private final SpillableRowList spilledRows = new SpillableRowList(0);
+
+	/**
+	 * Block numbers of the spilled rows.
+	 */
+	private int[] parentModelIndexes = new int[1024];
+
+	/**
+	 * Inherited block numbers of the spilled rows.
+	 */
+	private int[] inheritedParentModelIndexes = new int[1024];
+
+	/**
+	 * Columns whose values are all <code>null</code> or dates without time.
+	 */
+	private boolean[] stripHour;
+
+	/**
+	 * Re-created spilled rows, keyed by index.
+	 */
+	private final Map<Integer, Row> rowCache = new LinkedHashMap<Integer, Row>(MAX_CACHED_ROWS, 0.75f, true) {
+		private static final long serialVersionUID = -3109843578729135428L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Row> eldest) {
+			return size() > MAX_CACHED_ROWS;
+		}
+	};
+
+	/**
+	 * Constructor.
+	 *
+	 * @param memoryBudget estimated number of bytes of rows to keep in memory before spilling to disk
+	 */
+	public SpilledRows(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	@Override
+	public synchronized boolean add(Row row) {
+		if (stripHour == null) {
+			stripHour = new boolean[row.values.length];
+			Arrays.fill(stripHour, true);
+		}
+		for (int i = 0; i < stripHour.length && i < row.values.length; ++i) {
+			if (stripHour[i] && !BrowserContentPane.canStripHour(row.values[i])) {
+				stripHour[i] = false;
+			}
+		}
+		if (spilledRows.isEmpty()) {
+			long rowSize = SpillableRowList.estimateSize(row.values);
+			if (inMemorySize + rowSize <= memoryBudget || inMemoryRows.isEmpty()) {
+				inMemoryRows.add(row);
+				inMemorySize += rowSize;
+				return true;
+			}
+		}
+		int numPK = row.primaryKey == null? -1 : row.primaryKey.length;
+		Object[] cells = new Object[3 + Math.max(numPK, 0) + row.values.length];
+		cells[0] = row.rowId;
+		cells[1] = row.nonEmptyRowId;
+		cells[2] = numPK;
+		for (int i = 0; i < numPK; ++i) {
+			cells[3 + i] = row.primaryKey[i];
+		}
+		System.arraycopy(row.values, 0, cells, 3 + Math.max(numPK, 0), row.values.length);
+		int spilledIndex = spilledRows.size();
+		if (spilledIndex == parentModelIndexes.length) {
+			parentModelIndexes = Arrays.copyOf(parentModelIndexes, 2 * spilledIndex);
+			inheritedParentModelIndexes = Arrays.copyOf(inheritedParentModelIndexes, 2 * spilledIndex);
+		}
+		parentModelIndexes[spilledIndex] = row.getParentModelIndex();
+		inheritedParentModelIndexes[spilledIndex] = row.getInheritedParentModelIndex();
+		spilledRows.add(cells);
+		return true;
+	}
+
+	@Override
+	public synchronized Row get(int index) {
+		if (index < inMemoryRows.size()) {
+			return inMemoryRows.get(index);
+		}
+		Row row = rowCache.get(index);
+		if (row == null) {
+			int spilledIndex = index - inMemoryRows.size();
+			Object[] cells = spilledRows.get(spilledIndex);
+			int numPK = (Integer) cells[2];
+			String[] primaryKey = null;
+			if (numPK >= 0) {
+				primaryKey = new String[numPK];
+				for (int i = 0; i < numPK; ++i) {
+					primaryKey[i] = (String) cells[3 + i];
+				}
+			}
+			Object[] values = new Object[cells.length - 3 - Math.max(numPK, 0)];
+			System.arraycopy(cells, 3 + Math.max(numPK, 0), values, 0, values.length);
+			row = new SpilledRow((String) cells[0], (String) cells[1], primaryKey, values, spilledIndex);
+			rowCache.put(index, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Removes the last row. Other rows can't be removed.
+	 *
+	 * @param index index of the last row
+	 * @return the removed row
+	 */
+	@Override
+	public synchronized Row remove(int index) {
+		if (index != size() - 1) {
+			throw new UnsupportedOperationException("only the last row can be removed");
+		}
+		Row row = get(index);
+		if (spilledRows.isEmpty()) {
+			inMemoryRows.remove(index);
+			inMemorySize -= SpillableRowList.estimateSize(row.values);
+		} else {
+			spilledRows.remove(spilledRows.size() - 1);
+			rowCache.remove(index);
+		}
+		return row;
+	}
+
+	/**
+	 * Gets the columns whose values are all <code>null</code> or dates without time.
+	 * They are determined while the rows are added, so that they don't have to be paged in again.
+	 *
+	 * @param numColumns the number of columns
+	 * @return flags per column
+	 */
+	public synchronized boolean[] getStripHour(int numColumns) {
+		boolean[] result = new boolean[numColumns];
+		Arrays.fill(result, true);
+		if (stripHour != null) {
+			System.arraycopy(stripHour, 0, result, 0, Math.min(numColumns, stripHour.length));
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized int size() {
+		return inMemoryRows.size() + spilledRows.size();
+	}
+
+	/**
+	 * Removes all rows and deletes the spill file.
+	 */
+	@Override
+	public synchronized void clear() {
+		inMemoryRows.clear();
+		inMemorySize = 0;
+		rowCache.clear();
+		spilledRows.clear();
+		stripHour = null;
+	}
+
+	/**
+	 * Removes all rows and deletes the spill file.
+	 */
+	@Override
+	public void close() {
+		clear();
+	}
+
+	/**
+	 * Re-created spilled row. Changes of its block numbers are written back,
+	 * so that they survive the eviction of the row from the cache.
+	 */
+	private class SpilledRow extends Row {
+		private final int spilledIndex;
+
+		SpilledRow(String rowId, String nonEmptyRowId, String[] primaryKey, Object[] v, int spilledIndex) {
+			super(rowId, nonEmptyRowId, primaryKey, v);
+			this.spilledIndex = spilledIndex;
+		}
+
+		@Override
+		public int getParentModelIndex() {
+			synchronized (SpilledRows.this) {
+				return parentModelIndexes[spilledIndex];
+			}
+		}
+
+		@Override
+		public void setParentModelIndex(int parentModelIndex) {
+			synchronized (SpilledRows.this) {
+				parentModelIndexes[spilledIndex] = parentModelIndex;
+			}
+		}
+
+		@Override
+		public int getInheritedParentModelIndex() {
+			synchronized (SpilledRows.this) {
+				return inheritedParentModelIndexes[spilledIndex];
+			}
+		}
+
+		@Override
+		public void setInheritedParentModelIndex(int inheritedParentModelIndex) {
+			synchronized (SpilledRows.this) {
+				inheritedParentModelIndexes[spilledIndex] = inheritedParentModelIndex;
+			}
+		}
+	}
+
+}
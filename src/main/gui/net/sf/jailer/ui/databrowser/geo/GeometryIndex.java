@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui.databrowser.geo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static R-tree (Sort-Tile-Recursive bulk loading) over the envelopes of the leaf geometries
+ * ({@link Geometry.Point}/{@link Geometry.LineString}/{@link Geometry.Polygon}) of a geometry,
+ * so that {@link GeometryPreviewPanel} only has to draw and hit-test the leaves near the visible
+ * area instead of all of them.
+ *
+ * <p>Envelopes are kept in Web Mercator world fractions (see {@link WebMercator}), the space the
+ * panel's view works in, so a screen rectangle can be queried without inverse projection.
+ * Query results are returned in the leaves' original (drawing) order.
+ *
+ * @author Ralf Wisser
+ */
+class GeometryIndex {
+
+	/** Maximum number of entries per tree node. */
+	private static final int NODE_CAPACITY = 16;
+
+	private static final class Node {
+		final double minX, minY, maxX, maxY;
+		final Node[] children;
+		// ordinal of the leaf geometry, only for leaf nodes
+		final int ordinal;
+
+		Node(double minX, double minY, double maxX, double maxY, int ordinal) {
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.children = null;
+			this.ordinal = ordinal;
+		}
+
+		Node(List<Node> children) {
+			double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			for (Node child : children) {
+				minX = Math.min(minX, child.minX);
+				minY = Math.min(minY, child.minY);
+				maxX = Math.max(maxX, child.maxX);
+				maxY = Math.max(maxY, child.maxY);
+			}
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.children = children.toArray(new Node[0]);
+			this.ordinal = -1;
+		}
+
+		boolean intersects(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+			return minX <= qMaxX && maxX >= qMinX && minY <= qMaxY && maxY >= qMinY;
+		}
+
+		double centerX() {
+			return (minX + maxX) / 2;
+		}
+
+		double centerY() {
+			return (minY + maxY) / 2;
+		}
+	}
+
+	private final Geometry geometry;
+	private final double[] bounds;
+	private final List<Geometry> leaves = new ArrayList<Geometry>();
+	private final Node root;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param geometry the (WGS84) geometry
+	 */
+	GeometryIndex(Geometry geometry) {
+		this.geometry = geometry;
+		this.bounds = geometry.getBounds();
+		collectLeaves(geometry);
+		List<Node> level = new ArrayList<Node>(leaves.size());
+		for (int i = 0; i < leaves.size(); i++) {
+			double[] b = leaves.get(i).getBounds();
+			if (b != null) {
+				// latitude grows northwards, the y fraction southwards
+				level.add(new Node(WebMercator.lonToXFraction(b[0]), WebMercator.latToYFraction(b[3]),
+						WebMercator.lonToXFraction(b[2]), WebMercator.latToYFraction(b[1]), i));
+			}
+		}
+		while (level.size() > NODE_CAPACITY) {
+			level = pack(level);
+		}
+		this.root = level.isEmpty() ? null : new Node(level);
+	}
+
+	private void collectLeaves(Geometry geo) {
+		if (geo instanceof Geometry.GeometryCollection) {
+			for (Geometry sub : ((Geometry.GeometryCollection) geo).geometries) {
+				collectLeaves(sub);
+			}
+		} else if (geo != null) {
+			leaves.add(geo);
+		}
+	}
+
+	/**
+	 * Sort-Tile-Recursive: sorts the nodes by x into vertical slices of about sqrt(#parents)
+	 * parents each, sorts every slice by y and groups consecutive runs into parent nodes.
+	 */
+	private static List<Node> pack(List<Node> nodes) {
+		int numParents = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+		int numSlices = (int) Math.ceil(Math.sqrt(numParents));
+		int sliceSize = numSlices * NODE_CAPACITY;
+		nodes.sort(Comparator.comparingDouble(Node::centerX));
+		List<Node> parents = new ArrayList<Node>(numParents);
+		for (int sliceStart = 0; sliceStart < nodes.size(); sliceStart += sliceSize) {
+			List<Node> slice = new ArrayList<Node>(nodes.subList(sliceStart, Math.min(nodes.size(), sliceStart + sliceSize)));
+			slice.sort(Comparator.comparingDouble(Node::centerY));
+			for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+				parents.add(new Node(slice.subList(start, Math.min(slice.size(), start + NODE_CAPACITY))));
+			}
+		}
+		return parents;
+	}
+
+	/**
+	 * @return the geometry this index has been built for
+	 */
+	Geometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * @return the geometry's (lon/lat) bounds, see {@link Geometry#getBounds()}
+	 */
+	double[] getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Gets the leaf geometries whose envelopes intersect a rectangle.
+	 *
+	 * @param minX minimum x world fraction
+	 * @param minY minimum y world fraction
+	 * @param maxX maximum x world fraction
+	 * @param maxY maximum y world fraction
+	 * @return the leaf geometries in their original order
+	 */
+	List<Geometry> query(double minX, double minY, double maxX, double maxY) {
+		List<Geometry> result = new ArrayList<Geometry>();
+		if (root == null) {
+			return result;
+		}
+		BitSet hits = new BitSet(leaves.size());
+		collect(root, minX, minY, maxX, maxY, hits);
+		for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+			result.add(leaves.get(i));
+		}
+		return result;
+	}
+
+	private static void collect(Node node, double minX, double minY, double maxX, double maxY, BitSet hits) {
+		if (!node.intersects(minX, minY, maxX, maxY)) {
+			return;
+		}
+		if (node.children == null) {
+			hits.set(node.ordinal);
+			return;
+		}
+		for (Node child : node.children) {
+			collect(child, minX, minY, maxX, maxY, hits);
+		}
+	}
+
+}
@@ -43,10 +43,15 @@ import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.function.Function;
@@ -105,6 +110,15 @@ public class GeometryPreviewPanel extends JComponent {
 	private static final float LINE_WIDTH_HOVER_EXTRA = 3.0f;
 	private static final double HOVER_HIT_TOLERANCE = 4.0;
 
+	// Lines and polygon rings are simplified (Douglas-Peucker) to this many screen pixels before they
+	// are drawn/hit-tested - a 20k-vertex parcel boundary shown a few pixels wide doesn't need 20k
+	// line segments. Simplified vertices are cached per zoom level (see simplifiedPoints).
+	private static final double SIMPLIFICATION_TOLERANCE = 0.5;
+	private static final int MAX_SIMPLIFICATION_LEVEL = 30;
+	// How far (in pixels) a leaf's envelope may lie outside the visible area and still be drawn -
+	// the marker radius/line halo extend beyond the geometry's own coordinates.
+	private static final double CULLING_MARGIN = POINT_RADIUS + POINT_RADIUS_HOVER_EXTRA + LINE_HALO_WIDTH + LINE_WIDTH_HOVER_EXTRA;
+
 	// Tracks every panel currently part of a displayed component tree, so a tile-loaded
 	// notification can be broadcast to whichever panel(s) are actually visible right now -
 	// not just the one panel instance that happened to trigger the fetch. That instance can
@@ -140,6 +154,11 @@ public class GeometryPreviewPanel extends JComponent {
 	// Non-null only while a shift+left-mouse-button zoom-box drag is in progress, in panel-local
 	// screen coordinates - painted on top of everything else, then consumed (zooms in) on release.
 	private Rectangle zoomBoxRect;
+	// Spatial index over the leaves of `geometry` (only those near the visible area are drawn and
+	// hit-tested) and the simplified vertices of its lines/rings, keyed by the (identity of the)
+	// original vertex array, one slot per zoom level - both are rebuilt lazily after setGeometry().
+	private GeometryIndex geometryIndex;
+	private final Map<double[][], double[][][]> simplifiedPoints = new IdentityHashMap<double[][], double[][][]>();
 
 	private static final int SETTINGS_BUTTON_SIZE = 32;
 	private static final int SETTINGS_OVERLAY_MARGIN = 4;
@@ -289,7 +308,23 @@ public class GeometryPreviewPanel extends JComponent {
 		if (geometry == null || !Geometry.isWgs84(geometry.getSrid())) {
 			return null;
 		}
-		return geometry.getBounds();
+		return geometryIndex().getBounds();
+	}
+
+	private GeometryIndex geometryIndex() {
+		if (geometryIndex == null || geometryIndex.getGeometry() != geometry) {
+			geometryIndex = new GeometryIndex(geometry);
+		}
+		return geometryIndex;
+	}
+
+	/**
+	 * @return the leaf geometries whose envelopes intersect the given screen rectangle, in drawing order
+	 */
+	private List<Geometry> leavesWithin(OsmTileLayer.MercatorView view, double minX, double minY, double maxX, double maxY) {
+		double[] min = view.screenToFraction(minX, minY);
+		double[] max = view.screenToFraction(maxX, maxY);
+		return geometryIndex().query(min[0], min[1], max[0], max[1]);
 	}
 
 	private int currentZoom(double[] bounds) {
@@ -414,7 +449,15 @@ public class GeometryPreviewPanel extends JComponent {
 			if (bounds == null) {
 				return null;
 			}
-			return hitTest(geometry, currentView(bounds), mx, my);
+			OsmTileLayer.MercatorView view = currentView(bounds);
+			double reach = POINT_RADIUS + LINE_WIDTH + HOVER_HIT_TOLERANCE;
+			for (Geometry leaf : leavesWithin(view, mx - reach, my - reach, mx + reach, my + reach)) {
+				Geometry hit = hitTest(leaf, view, mx, my);
+				if (hit != null) {
+					return hit;
+				}
+			}
+			return null;
 		}
 
 		private void updateHover(Geometry hit) {
@@ -521,6 +564,8 @@ public class GeometryPreviewPanel extends JComponent {
 		// New geometries are fresh instances anyway (hoveredGeometry couldn't match), but clear
 		// explicitly so a stale tooltip doesn't linger if the mouse doesn't move again right away.
 		hoveredGeometry = null;
+		geometryIndex = null;
+		simplifiedPoints.clear();
 		if (tooltipProvider != null) {
 			setToolTipText(null);
 		}
@@ -1004,13 +1049,15 @@ public class GeometryPreviewPanel extends JComponent {
 			if (geometry == null || !Geometry.isWgs84(geometry.getSrid())) {
 				return;
 			}
-			double[] bounds = geometry.getBounds();
+			double[] bounds = geometryIndex().getBounds();
 			if (bounds == null) {
 				return;
 			}
 			OsmTileLayer.MercatorView view = currentView(bounds);
 			tileLayer.paint(g2, view, getWidth(), getHeight(), GeometryPreviewPanel::repaintAllLivePanels);
-			draw(g2, geometry, view);
+			for (Geometry leaf : leavesWithin(view, -CULLING_MARGIN, -CULLING_MARGIN, getWidth() + CULLING_MARGIN, getHeight() + CULLING_MARGIN)) {
+				draw(g2, leaf, view);
+			}
 			double centerLat = (bounds[1] + bounds[3]) / 2;
 			ScaleBar.paint(g2, view, getWidth(), getHeight(), centerLat, ScaleBar.MARGIN);
 			if (zoomBoxRect != null) {
@@ -1172,6 +1219,7 @@ public class GeometryPreviewPanel extends JComponent {
 	}
 
 	private Path2D toPath(double[][] points, CoordinateTransform t, boolean closed) {
+		points = simplified(points, t, closed);
 		Path2D path = new Path2D.Double();
 		for (int i = 0; i < points.length; i++) {
 			double[] sp = t.toScreen(points[i][0], points[i][1]);
@@ -1187,4 +1235,97 @@ public class GeometryPreviewPanel extends JComponent {
 		return path;
 	}
 
+	/**
+	 * @return the vertices simplified for the zoom level of {@code t} (cached), or {@code points}
+	 *         itself if {@code t} isn't a map view or there's nothing to simplify
+	 */
+	private double[][] simplified(double[][] points, CoordinateTransform t, boolean closed) {
+		if (!(t instanceof OsmTileLayer.MercatorView) || points.length <= (closed ? 4 : 2)) {
+			return points;
+		}
+		OsmTileLayer.MercatorView view = (OsmTileLayer.MercatorView) t;
+		int level = view.getZoom() + (int) Math.ceil(Math.log(view.getScale()) / Math.log(2));
+		level = Math.max(0, Math.min(MAX_SIMPLIFICATION_LEVEL, level));
+		double[][][] levels = simplifiedPoints.computeIfAbsent(points, p -> new double[MAX_SIMPLIFICATION_LEVEL + 1][][]);
+		if (levels[level] == null) {
+			levels[level] = simplify(points, SIMPLIFICATION_TOLERANCE / WebMercator.worldSize(level), closed);
+		}
+		return levels[level];
+	}
+
+	/**
+	 * Douglas-Peucker simplification in Web Mercator world fractions.
+	 *
+	 * @param tolerance maximum deviation (world fraction) of a dropped vertex from the simplified line
+	 * @param closed whether {@code points} is a ring - its first and last vertex coincide, so it's split
+	 *               at the vertex farthest from the first one to keep at least a (degenerate) triangle
+	 * @return the remaining vertices, or {@code points} itself if none can be dropped
+	 */
+	private static double[][] simplify(double[][] points, double tolerance, boolean closed) {
+		int n = points.length;
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = WebMercator.lonToXFraction(points[i][0]);
+			ys[i] = WebMercator.latToYFraction(points[i][1]);
+		}
+		boolean[] keep = new boolean[n];
+		keep[0] = true;
+		keep[n - 1] = true;
+		Deque<int[]> ranges = new ArrayDeque<int[]>();
+		if (closed) {
+			int farthest = 0;
+			double maxDist = 0;
+			for (int i = 1; i < n - 1; i++) {
+				double dist = Point2D.distanceSq(xs[0], ys[0], xs[i], ys[i]);
+				if (dist > maxDist) {
+					maxDist = dist;
+					farthest = i;
+				}
+			}
+			if (farthest > 0) {
+				keep[farthest] = true;
+				ranges.push(new int[] { 0, farthest });
+				ranges.push(new int[] { farthest, n - 1 });
+			}
+		} else {
+			ranges.push(new int[] { 0, n - 1 });
+		}
+		double toleranceSq = tolerance * tolerance;
+		int numKept = 0;
+		while (!ranges.isEmpty()) {
+			int[] range = ranges.pop();
+			int farthest = -1;
+			double maxDist = toleranceSq;
+			for (int i = range[0] + 1; i < range[1]; i++) {
+				double dist = Line2D.ptSegDistSq(xs[range[0]], ys[range[0]], xs[range[1]], ys[range[1]], xs[i], ys[i]);
+				if (dist > maxDist) {
+					maxDist = dist;
+					farthest = i;
+				}
+			}
+			if (farthest >= 0) {
+				keep[farthest] = true;
+				ranges.push(new int[] { range[0], farthest });
+				ranges.push(new int[] { farthest, range[1] });
+			}
+		}
+		for (boolean k : keep) {
+			if (k) {
+				numKept++;
+			}
+		}
+		if (numKept == n) {
+			return points;
+		}
+		double[][] result = new double[numKept][];
+		int j = 0;
+		for (int i = 0; i < n; i++) {
+			if (keep[i]) {
+				result[j++] = points[i];
+			}
+		}
+		return result;
+	}
+
 }
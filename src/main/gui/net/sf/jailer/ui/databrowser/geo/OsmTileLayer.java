@@ -18,18 +18,25 @@ package net.sf.jailer.ui.databrowser.geo;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.HashSet;
+import java.net.URLConnection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.imageio.ImageIO;
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
 
+import net.sf.jailer.ui.Environment;
 import net.sf.jailer.util.LogUtil;
 
 /**
@@ -39,12 +46,21 @@ import net.sf.jailer.util.LogUtil;
  *
  * <p>Tiles are fetched via plain {@link HttpURLConnection} (not
  * {@code java.net.http.HttpClient}, which needs Java 11+ - this project
- * targets Java 8) on a background thread ({@link SwingWorker}) and cached
- * in-memory; a failed/missing tile is simply left blank rather than
- * blocking the UI or crashing. All cache/in-flight bookkeeping here is only
- * ever touched from the EDT (tile fetches are kicked off from
- * {@link #paint}, which runs during painting, and {@code SwingWorker.done()}
- * also runs on the EDT), so no synchronization is needed.
+ * targets Java 8) on a small, bounded pool of background threads and cached
+ * in two levels: in-memory, and on disk ({@link TileDiskCache}, size-bounded,
+ * tiles expire after a week) so reopening a preview doesn't download them again.
+ * A failed/missing tile is simply left blank rather than blocking the UI or
+ * crashing. Once every visible tile is available, the neighboring tiles are
+ * prefetched with lower priority, so panning shows tiles right away. The tiles of
+ * the next zoom level are only prefetched from a replaced tile server, since
+ * OpenStreetMap's tile usage policy forbids bulk downloading. All memory-cache/in-flight bookkeeping
+ * here is only ever touched from the EDT (tile fetches are kicked off from
+ * {@link #paint}, which runs during painting, and results are handed back via
+ * {@link SwingUtilities#invokeLater}), so no synchronization is needed.
+ *
+ * <p>The tile server can be replaced (see {@link #setTileUrlTemplate(String)} and
+ * {@link #TILE_URL_PROPERTY}), e.g. by a local tile server or a {@code file:} URL
+ * of a directory of tiles in air-gapped environments.
  *
  * @author Ralf Wisser
  */
@@ -60,7 +76,9 @@ public class OsmTileLayer {
 	// geographically meaningful minimum instead (~400m at the equator) makes a point pick a
 	// sensible "neighborhood" zoom, so the extra scale stays close to 1.
 	private static final double MIN_SPAN_FRACTION = 1e-5;
-	private static final String TILE_URL_TEMPLATE = "https://tile.openstreetmap.org/%d/%d/%d.png";
+	public static final String DEFAULT_TILE_URL_TEMPLATE = "https://tile.openstreetmap.org/{z}/{x}/{y}.png";
+	/** System property overriding {@link #DEFAULT_TILE_URL_TEMPLATE}. */
+	public static final String TILE_URL_PROPERTY = "jailer.tileserver.url";
 	private static final String USER_AGENT = "Jailer-DataBrowser-SpatialPreview/1.0 (+https://github.com/Wisser/Jailer)";
 
 	/** Required by OpenStreetMap's tile usage policy. */
@@ -76,7 +94,43 @@ public class OsmTileLayer {
 			return size() > CACHE_CAPACITY;
 		}
 	};
-	private static final Set<String> inFlight = new HashSet<String>();
+	// Keyed like TILE_CACHE - a prefetched tile that becomes visible while still in flight
+	// gets the paint()'s repaint callback attached instead of being requested again.
+	private static final Map<String, TileRequest> inFlight = new HashMap<String, TileRequest>();
+
+	// OpenStreetMap's tile usage policy asks for at most two concurrent downloads.
+	private static final int MAX_CONCURRENT_FETCHES = 2;
+	private static final int MAX_IN_FLIGHT_FOR_PREFETCH = 64;
+	private static final long DISK_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+	private static final long DISK_CACHE_MAX_AGE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+	private static volatile String tileUrlTemplate = System.getProperty(TILE_URL_PROPERTY, DEFAULT_TILE_URL_TEMPLATE);
+	private static ThreadPoolExecutor fetchPool;
+	// one store for all tile servers, so the size limit holds for the whole cache directory
+	private static TileDiskCache diskCache;
+
+	/**
+	 * Sets the URL template of the tile server. Placeholders <code>{z}</code>, <code>{x}</code> and
+	 * <code>{y}</code> are replaced by the zoom level and tile coordinates. Must be called on the EDT.
+	 *
+	 * @param template the template, <code>null</code> for {@link #DEFAULT_TILE_URL_TEMPLATE}
+	 */
+	public static void setTileUrlTemplate(String template) {
+		if (template == null || template.trim().isEmpty()) {
+			template = DEFAULT_TILE_URL_TEMPLATE;
+		}
+		if (!template.equals(tileUrlTemplate)) {
+			tileUrlTemplate = template;
+			TILE_CACHE.clear();
+		}
+	}
+
+	/**
+	 * @return the URL template of the tile server, see {@link #setTileUrlTemplate(String)}
+	 */
+	public static String getTileUrlTemplate() {
+		return tileUrlTemplate;
+	}
 
 	/**
 	 * Maps (lon, lat) to screen pixels for a chosen zoom level and auto-fit
@@ -242,6 +296,7 @@ public class OsmTileLayer {
 	 */
 	public void paint(Graphics2D g2, MercatorView view, int width, int height, Runnable onTileLoaded) {
 		int[] range = tileRange(view, width, height);
+		boolean complete = true;
 		for (int tx = range[0]; tx <= range[1]; tx++) {
 			for (int ty = range[2]; ty <= range[3]; ty++) {
 				String key = view.zoom + "/" + tx + "/" + ty;
@@ -253,10 +308,14 @@ public class OsmTileLayer {
 					g2.drawImage(img, (int) Math.round(screenX), (int) Math.round(screenY),
 							(int) Math.round(screenSize), (int) Math.round(screenSize), null);
 				} else {
-					fetchAsync(view.zoom, tx, ty, onTileLoaded);
+					fetchAsync(view.zoom, tx, ty, onTileLoaded, false);
+					complete = false;
 				}
 			}
 		}
+		if (complete) {
+			prefetch(view.zoom, range);
+		}
 
 		g2.setColor(new Color(255, 255, 255, 190));
 //		g2.fillRect(0, height - ATTRIBUTION_HEIGHT, 160, ATTRIBUTION_HEIGHT);
@@ -285,44 +344,114 @@ public class OsmTileLayer {
 		return Math.max(min, Math.min(max, v));
 	}
 
-	private void fetchAsync(int z, int x, int y, Runnable onTileLoaded) {
+	/**
+	 * Requests the tiles around the visible ones, and (except from the default tile server) those
+	 * of the next zoom level covering the visible area, unless too many tiles are already in flight.
+	 */
+	private void prefetch(int zoom, int[] range) {
+		int maxTileIndex = (int) (WebMercator.worldSize(zoom) / TILE_SIZE) - 1;
+		for (int tx = Math.max(0, range[0] - 1); tx <= Math.min(maxTileIndex, range[1] + 1); tx++) {
+			for (int ty = Math.max(0, range[2] - 1); ty <= Math.min(maxTileIndex, range[3] + 1); ty++) {
+				if (tx < range[0] || tx > range[1] || ty < range[2] || ty > range[3]) {
+					prefetch(zoom, tx, ty);
+				}
+			}
+		}
+		if (zoom < MAX_ZOOM && !DEFAULT_TILE_URL_TEMPLATE.equals(tileUrlTemplate)) {
+			for (int tx = range[0] * 2; tx <= range[1] * 2 + 1; tx++) {
+				for (int ty = range[2] * 2; ty <= range[3] * 2 + 1; ty++) {
+					prefetch(zoom + 1, tx, ty);
+				}
+			}
+		}
+	}
+
+	private void prefetch(int z, int x, int y) {
 		String key = z + "/" + x + "/" + y;
-		if (inFlight.contains(key)) {
+		if (inFlight.size() < MAX_IN_FLIGHT_FOR_PREFETCH && !TILE_CACHE.containsKey(key)) {
+			fetchAsync(z, x, y, null, true);
+		}
+	}
+
+	private void fetchAsync(int z, int x, int y, Runnable onTileLoaded, boolean prefetch) {
+		String key = z + "/" + x + "/" + y;
+		TileRequest pending = inFlight.get(key);
+		if (pending != null) {
+			if (pending.onTileLoaded == null) {
+				pending.onTileLoaded = onTileLoaded;
+			}
 			return;
 		}
-		inFlight.add(key);
-		new SwingWorker<BufferedImage, Void>() {
-			@Override
-			protected BufferedImage doInBackground() {
-				try {
-					URL url = new URL(String.format(TILE_URL_TEMPLATE, z, x, y));
-					HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-					conn.setRequestProperty("User-Agent", USER_AGENT);
-					conn.setConnectTimeout(30000);
-					conn.setReadTimeout(30000);
-					conn.setInstanceFollowRedirects(true);
-					if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
-						return null;
-					}
-					try (InputStream in = conn.getInputStream()) {
-						return ImageIO.read(in);
-					}
-				} catch (IOException e) {
-					LogUtil.warn(e);
-					return null;
-				}
+		TileRequest request = new TileRequest(tileUrlTemplate, z, x, y, key, prefetch);
+		request.onTileLoaded = onTileLoaded;
+		inFlight.put(key, request);
+		fetchPool().execute(request);
+	}
+
+	private static synchronized ThreadPoolExecutor fetchPool() {
+		if (fetchPool == null) {
+			// requests are taken from a priority queue: visible tiles before prefetched ones, newest first
+			fetchPool = new ThreadPoolExecutor(MAX_CONCURRENT_FETCHES, MAX_CONCURRENT_FETCHES, 0, TimeUnit.MILLISECONDS,
+					new PriorityBlockingQueue<Runnable>(), r -> {
+						Thread thread = new Thread(r, "TileFetcher");
+						thread.setDaemon(true);
+						return thread;
+					});
+		}
+		return fetchPool;
+	}
+
+	/**
+	 * @return the disk cache for the tiles of a tile server, <code>null</code> for local ({@code file:}) tiles
+	 */
+	private static synchronized TileDiskCache diskCache(String template) {
+		if (template.startsWith("file:")) {
+			return null;
+		}
+		if (diskCache == null) {
+			diskCache = new TileDiskCache(Environment.newFile("tilecache"), DISK_CACHE_MAX_BYTES, DISK_CACHE_MAX_AGE_MILLIS);
+		}
+		return diskCache;
+	}
+
+	/**
+	 * Loading of a tile, executed by the fetch pool.
+	 */
+	private static final class TileRequest implements Runnable, Comparable<TileRequest> {
+		private static final AtomicLong nextSeqNr = new AtomicLong();
+
+		final String template;
+		final int z, x, y;
+		final String key;
+		final boolean prefetch;
+		final long seqNr = nextSeqNr.getAndIncrement();
+		// only accessed on the EDT
+		Runnable onTileLoaded;
+
+		TileRequest(String template, int z, int x, int y, String key, boolean prefetch) {
+			this.template = template;
+			this.z = z;
+			this.x = x;
+			this.y = y;
+			this.key = key;
+			this.prefetch = prefetch;
+		}
+
+		@Override
+		public int compareTo(TileRequest o) {
+			if (prefetch != o.prefetch) {
+				return prefetch ? 1 : -1;
 			}
-			@Override
-			protected void done() {
+			return Long.compare(o.seqNr, seqNr);
+		}
+
+		@Override
+		public void run() {
+			BufferedImage img = load();
+			SwingUtilities.invokeLater(() -> {
 				inFlight.remove(key);
-				BufferedImage img = null;
-				try {
-					img = get();
-				} catch (Exception e) {
-					// img stays null - treated as a failed fetch (see below)
-					LogUtil.warn(e);
-				}
-				if (img != null) {
+				// discarded if the tile server has been changed in the meantime
+				if (img != null && template.equals(tileUrlTemplate)) {
 					TILE_CACHE.put(key, img);
 					if (onTileLoaded != null) {
 						onTileLoaded.run();
@@ -330,8 +459,59 @@ public class OsmTileLayer {
 				}
 				// No permanent failure blacklist - a missing tile is simply retried the next time
 				// paint() finds it still absent from TILE_CACHE (e.g. next repaint/pan/zoom).
+			});
+		}
+
+		private BufferedImage load() {
+			TileDiskCache diskCache = diskCache(template);
+			// the tiles of each tile server are kept in a directory of their own
+			String diskKey = Integer.toHexString(template.hashCode()) + "/" + key;
+			if (diskCache != null) {
+				BufferedImage img = diskCache.read(diskKey, false);
+				if (img != null) {
+					return img;
+				}
 			}
-		}.execute();
+			try {
+				byte[] data = download();
+				BufferedImage img = data == null ? null : ImageIO.read(new ByteArrayInputStream(data));
+				if (img != null && diskCache != null) {
+					diskCache.write(diskKey, data);
+				}
+				if (img != null) {
+					return img;
+				}
+			} catch (IOException e) {
+				if (!prefetch) {
+					LogUtil.warn(e);
+				}
+			}
+			// an expired tile is better than none (e.g. while offline)
+			return diskCache == null ? null : diskCache.read(diskKey, true);
+		}
+
+		private byte[] download() throws IOException {
+			URL url = new URL(template.replace("{z}", String.valueOf(z)).replace("{x}", String.valueOf(x)).replace("{y}", String.valueOf(y)));
+			URLConnection conn = url.openConnection();
+			conn.setRequestProperty("User-Agent", USER_AGENT);
+			conn.setConnectTimeout(30000);
+			conn.setReadTimeout(30000);
+			if (conn instanceof HttpURLConnection) {
+				((HttpURLConnection) conn).setInstanceFollowRedirects(true);
+				if (((HttpURLConnection) conn).getResponseCode() != HttpURLConnection.HTTP_OK) {
+					return null;
+				}
+			}
+			try (InputStream in = conn.getInputStream()) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int n;
+				while ((n = in.read(buffer)) != -1) {
+					out.write(buffer, 0, n);
+				}
+				return out.toByteArray();
+			}
+		}
 	}
 
 }
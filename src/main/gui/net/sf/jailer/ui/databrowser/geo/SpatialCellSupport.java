@@ -16,6 +16,12 @@
 package net.sf.jailer.ui.databrowser.geo;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sf.jailer.util.CellContentConverter;
 import net.sf.jailer.util.LogUtil;
@@ -47,9 +53,70 @@ import net.sf.jailer.util.LogUtil;
  */
 public class SpatialCellSupport {
 
+	/** Below this many values, parsing them in parallel isn't worth handing them over to the pool. */
+	private static final int MIN_PARALLEL_VALUES = 256;
+
+	/** Parses large result sets in parallel, see {@link #parseAll(List)}. Created on first use. */
+	private static ExecutorService parserPool;
+
 	private SpatialCellSupport() {
 	}
 
+	/**
+	 * Decodes many raw cell values, see {@link #parse(Object)}. Large lists are split into chunks
+	 * that are decoded in parallel on a background pool (WKB/SDO/MSSQL decoding of e.g. 20k parcel
+	 * polygons otherwise dominates the time until the map can be shown).
+	 *
+	 * @param rawValues the cells' raw (un-formatted) values
+	 * @return the decoded geometries, in the order of {@code rawValues}, <code>null</code> for
+	 *         each value that isn't a recognized/decodable spatial value
+	 */
+	public static List<Geometry> parseAll(List<?> rawValues) {
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		if (rawValues.size() < MIN_PARALLEL_VALUES || numThreads < 2) {
+			return parseChunk(rawValues);
+		}
+		int chunkSize = Math.max(MIN_PARALLEL_VALUES / 4, (rawValues.size() + numThreads * 4 - 1) / (numThreads * 4));
+		List<Future<List<Geometry>>> chunks = new ArrayList<Future<List<Geometry>>>();
+		ExecutorService pool = parserPool(numThreads);
+		for (int start = 0; start < rawValues.size(); start += chunkSize) {
+			List<?> chunk = rawValues.subList(start, Math.min(rawValues.size(), start + chunkSize));
+			chunks.add(pool.submit(() -> parseChunk(chunk)));
+		}
+		List<Geometry> result = new ArrayList<Geometry>(rawValues.size());
+		try {
+			for (Future<List<Geometry>> chunk : chunks) {
+				result.addAll(chunk.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return parseChunk(rawValues);
+		} catch (ExecutionException e) {
+			LogUtil.warn(e);
+			return parseChunk(rawValues);
+		}
+		return result;
+	}
+
+	private static List<Geometry> parseChunk(List<?> rawValues) {
+		List<Geometry> result = new ArrayList<Geometry>(rawValues.size());
+		for (Object rawValue : rawValues) {
+			result.add(parse(rawValue));
+		}
+		return result;
+	}
+
+	private static synchronized ExecutorService parserPool(int numThreads) {
+		if (parserPool == null) {
+			parserPool = Executors.newFixedThreadPool(numThreads, r -> {
+				Thread thread = new Thread(r, "GeometryParser");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return parserPool;
+	}
+
 	/**
 	 * Tries to decode a DataBrowser cell's raw value into a {@link Geometry}.
 	 *
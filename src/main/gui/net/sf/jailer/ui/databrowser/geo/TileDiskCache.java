@@ -0,0 +1,168 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui.databrowser.geo;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import net.sf.jailer.util.LogUtil;
+
+/**
+ * Size-bounded on-disk store of map tiles, the second cache level of {@link OsmTileLayer}
+ * (behind its in-memory cache), so reopening a preview or panning back doesn't download the
+ * same tiles again.
+ *
+ * <p>Tiles are stored as downloaded (PNG bytes) in one file per tile, named after its
+ * key (e.g. {@code <server>/z/x/y}). The size limit holds for all tiles below the directory. A tile older than the maximum age is not returned by {@link #read(String, boolean)}
+ * unless expired tiles are explicitly accepted (e.g. as a fallback while offline). When the
+ * store exceeds its size limit, the oldest tiles are deleted. Thread-safe - used by the tile
+ * fetch pool's threads concurrently.
+ *
+ * @author Ralf Wisser
+ */
+class TileDiskCache {
+
+	private final File dir;
+	private final long maxBytes;
+	private final long maxAgeMillis;
+	// -1 = not yet determined (the directory is only scanned on the first write)
+	private long totalBytes = -1;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dir the directory holding the tiles
+	 * @param maxBytes maximum total size of the stored tiles
+	 * @param maxAgeMillis maximum age of a tile before it's considered expired
+	 */
+	TileDiskCache(File dir, long maxBytes, long maxAgeMillis) {
+		this.dir = dir;
+		this.maxBytes = maxBytes;
+		this.maxAgeMillis = maxAgeMillis;
+	}
+
+	private File file(String key) {
+		return new File(dir, key.replace('/', File.separatorChar) + ".png");
+	}
+
+	/**
+	 * Reads a tile.
+	 *
+	 * @param key the tile's key, a relative path like {@code <server>/z/x/y}
+	 * @param acceptExpired whether to return a tile older than the maximum age too
+	 * @return the tile, or <code>null</code> if it isn't (or no longer) stored
+	 */
+	BufferedImage read(String key, boolean acceptExpired) {
+		File file = file(key);
+		long lastModified = file.lastModified();
+		if (lastModified == 0 || (!acceptExpired && System.currentTimeMillis() - lastModified > maxAgeMillis)) {
+			return null;
+		}
+		try {
+			BufferedImage img = ImageIO.read(file);
+			if (img == null) {
+				// unreadable (e.g. truncated) - don't try again
+				file.delete();
+			}
+			return img;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a tile, evicting the oldest tiles if the size limit is exceeded.
+	 *
+	 * @param key the tile's key, a relative path like {@code <server>/z/x/y}
+	 * @param data the tile image's (encoded) bytes
+	 */
+	void write(String key, byte[] data) {
+		File file = file(key);
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			// written to a temporary file first, so a concurrent read never sees a partial tile
+			File tmp = File.createTempFile("tile", ".tmp", file.getParentFile());
+			Files.write(tmp.toPath(), data);
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LogUtil.warn(e);
+			return;
+		}
+		synchronized (this) {
+			if (totalBytes < 0) {
+				totalBytes = 0;
+				for (File f : listTiles()) {
+					totalBytes += f.length();
+				}
+			} else {
+				totalBytes += data.length;
+			}
+			if (totalBytes > maxBytes) {
+				evict();
+			}
+		}
+	}
+
+	/**
+	 * Deletes the oldest tiles until the store has shrunk to three quarters of its size limit.
+	 */
+	private void evict() {
+		List<File> tiles = listTiles();
+		tiles.sort(Comparator.comparingLong(File::lastModified));
+		totalBytes = 0;
+		for (File f : tiles) {
+			totalBytes += f.length();
+		}
+		for (File f : tiles) {
+			if (totalBytes <= maxBytes / 4 * 3) {
+				break;
+			}
+			long length = f.length();
+			if (f.delete()) {
+				totalBytes -= length;
+			}
+		}
+	}
+
+	private List<File> listTiles() {
+		List<File> result = new ArrayList<File>();
+		collectTiles(dir, result);
+		return result;
+	}
+
+	private static void collectTiles(File dir, List<File> result) {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File f : files) {
+			if (f.isDirectory()) {
+				collectTiles(f, result);
+			} else if (f.getName().endsWith(".png")) {
+				result.add(f);
+			}
+		}
+	}
+
+}
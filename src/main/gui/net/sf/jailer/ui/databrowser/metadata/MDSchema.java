@@ -43,6 +43,7 @@ import net.sf.jailer.datamodel.DataModel;
 import net.sf.jailer.modelbuilder.JDBCMetaDataBasedModelElementFinder;
 import net.sf.jailer.modelbuilder.MemorizedResultSet;
 import net.sf.jailer.ui.UIUtil;
+import net.sf.jailer.util.PrefixIndex;
 import net.sf.jailer.util.Quoting;
 
 /**
@@ -371,6 +372,55 @@ public class MDSchema extends MDObject {
 		}
 	}
 
+	/**
+	 * Index of the tables by (unquoted) name. Used for prefix lookups.
+	 */
+	private PrefixIndex<MDTable> prefixIndex;
+
+	/**
+	 * Incremented whenever the prefix index is invalidated.
+	 */
+	private int prefixIndexVersion = 0;
+
+	/**
+	 * Finds all tables whose (unquoted) name starts with a given prefix, ignoring case.
+	 *
+	 * @param prefix the prefix
+	 * @return all tables whose name starts with the prefix
+	 */
+	public List<MDTable> findByPrefix(String prefix) {
+		PrefixIndex<MDTable> index;
+		int version;
+		synchronized (tablePerUnquotedNameUC) {
+			index = prefixIndex;
+			version = prefixIndexVersion;
+		}
+		if (index == null) {
+			boolean isComplete = isLoaded();
+			List<MDTable> allTables;
+			synchronized (getTablesLock) {
+				allTables = new ArrayList<MDTable>(getTables());
+			}
+			index = new PrefixIndex<MDTable>(allTables, MDTable::getUnquotedName);
+			if (isComplete) {
+				synchronized (tablePerUnquotedNameUC) {
+					if (version == prefixIndexVersion) {
+						prefixIndex = index;
+					}
+				}
+			}
+		}
+		return index.find(prefix);
+	}
+
+	/**
+	 * Discards the prefix index. Must be called while holding the lock on {@link #tablePerUnquotedNameUC}.
+	 */
+	private void invalidatePrefixIndex() {
+		prefixIndex = null;
+		++prefixIndexVersion;
+	}
+
 	private Object validLock = new Object();
 	
 	/**
@@ -578,6 +628,7 @@ public class MDSchema extends MDObject {
 			tables.add(insertAt, newTable);
 			synchronized (tablePerUnquotedNameUC) {
 				tablePerUnquotedNameUC.clear();
+				invalidatePrefixIndex();
 			}
 			final MDTable finalNewTable = newTable;
 			if (loadColumnsEagerly) {
@@ -620,6 +671,7 @@ public class MDSchema extends MDObject {
 				tables.remove(t);
 				synchronized (tablePerUnquotedNameUC) {
 					tablePerUnquotedNameUC.remove(Quoting.normalizeIdentifier(tableName));
+					invalidatePrefixIndex();
 				}
 			}
 			return t;
@@ -50,6 +50,7 @@ import net.sf.jailer.ui.UIUtil;
 import net.sf.jailer.ui.syntaxtextarea.BasicFormatterImpl;
 import net.sf.jailer.util.LogUtil;
 import net.sf.jailer.util.Pair;
+import net.sf.jailer.util.PrefixIndex;
 import net.sf.jailer.util.Quoting;
 import net.sf.jailer.util.SqlUtil;
 
@@ -68,6 +69,8 @@ public class MDTable extends MDObject {
 	private final MDSchema schema;
     private List<String> primaryKey;
     private List<String> columns;
+    private PrefixIndex<String> columnIndex;
+    private List<String> indexedColumns;
     private List<String> columnComments = new ArrayList<String>();
     private String comment;
     private List<Column> columnTypes;
@@ -180,6 +183,21 @@ public class MDTable extends MDObject {
         return getColumns();
     }
 
+    /**
+     * Finds all columns whose (unquoted) name starts with a given prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return all columns whose name starts with the prefix, in the order of the table's columns
+     */
+    public synchronized List<String> findColumnsByPrefix(String prefix) throws SQLException {
+        List<String> columns = getColumns();
+        if (columnIndex == null || indexedColumns != columns) {
+            columnIndex = new PrefixIndex<String>(columns, Quoting::staticUnquote);
+            indexedColumns = columns;
+        }
+        return columnIndex.find(prefix);
+    }
+
     /**
      * Gets primary key columns of table
      *
@@ -216,6 +234,8 @@ public class MDTable extends MDObject {
      */
     synchronized void invalidate() {
         columns = null;
+        columnIndex = null;
+        indexedColumns = null;
         columnTypes = null;
         columnComments = new ArrayList<String>();
         primaryKey = null;
@@ -59,6 +59,18 @@ public class MetaDataBasedSQLCompletionProvider extends SQLCompletionProvider<Me
 		}
 	}
 
+	@Override
+	protected List<String> getColumns(MDTable table, String prefix) {
+		if (!table.isLoaded()) {
+			return super.getColumns(table, prefix);
+		}
+		try {
+			return table.findColumnsByPrefix(prefix);
+		} catch (SQLException e) {
+			return Collections.emptyList();
+		}
+	}
+
 	@Override
 	protected MDSchema getDefaultSchema(MetaDataSource metaDataSource) {
 		return metaDataSource.isInitialized()? metaDataSource.getDefaultSchema() : null;
@@ -112,6 +124,14 @@ public class MetaDataBasedSQLCompletionProvider extends SQLCompletionProvider<Me
 		return schema.getTables();
 	}
 
+	@Override
+	protected List<MDTable> getTables(MDSchema schema, String prefix) {
+		if (!schema.isLoaded()) {
+			return super.getTables(schema, prefix);
+		}
+		return schema.findByPrefix(prefix);
+	}
+
 	@Override
 	protected String getSchemaName(MDSchema schema) {
 		return schema.getName();
@@ -55,6 +55,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -64,6 +65,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -158,6 +160,7 @@ import net.sf.jailer.datamodel.PrimaryKey;
 import net.sf.jailer.datamodel.Table;
 import net.sf.jailer.modelbuilder.JDBCMetaDataBasedModelElementFinder;
 import net.sf.jailer.modelbuilder.MemorizedResultSet;
+import net.sf.jailer.modelbuilder.MemorizedResultSet.MemorizedResultSetMetaData;
 import net.sf.jailer.ui.Colors;
 import net.sf.jailer.ui.DbConnectionDialog;
 import net.sf.jailer.ui.DbConnectionDialog.ConnectionType;
@@ -186,6 +189,7 @@ import net.sf.jailer.ui.databrowser.FullTextSearchPanel;
 import net.sf.jailer.ui.databrowser.Reference;
 import net.sf.jailer.ui.databrowser.Row;
 import net.sf.jailer.ui.databrowser.SQLValue;
+import net.sf.jailer.ui.databrowser.SpilledRows;
 import net.sf.jailer.ui.databrowser.lob.LobCellValue;
 import net.sf.jailer.ui.databrowser.metadata.MDSchema;
 import net.sf.jailer.ui.databrowser.metadata.MDTable;
@@ -225,6 +229,17 @@ public abstract class SQLConsole extends javax.swing.JPanel {
 	private static final Logger logger = LoggerFactory.getLogger(MetaDataDetailsPanel.class);
 
     private static final int MAX_TAB_COUNT = 8;
+
+    /**
+     * Estimated number of bytes of the rows of a result kept in memory. Further rows are spilled to disk.
+     */
+    private static final long ROWS_MEMORY_BUDGET = Runtime.getRuntime().maxMemory() / (4 * MAX_TAB_COUNT);
+
+    /**
+     * Number of rows shown while the remaining rows of a result are being fetched.
+     */
+    private static final int INITIAL_ROWS = 1000;
+
     private static final int MAX_HISTORY_SIZE = 100;
 
     private Session session;
@@ -1738,73 +1753,12 @@ public abstract class SQLConsole extends javax.swing.JPanel {
 	                }
 	            }
                 final List<Table> resultTypes = nfResultTypes;
-                final MemorizedResultSet metaDataDetails = new MemorizedResultSet(resultSet, limit, session, SQLConsole.this) { // lgtm [java/database-resource-leak]
-            		@Override
-                	protected Object convertCellContent(ContentSupplier supplier) throws SQLException {
-            			Object object = supplier.get();
-						boolean isBlob = object instanceof Blob;
-						Object lobValue = BrowserContentPane.toLobRender(object);
-            			if (lobValue != null) {
-							object = supplier.get();
-						}
-						String smallLob = CellContentConverter.getSmallLob(object, session.dbms, BrowserContentPane.MAXBLOBLENGTH, BrowserContentPane.MAXCLOBLENGTH);
-						if (smallLob != null && lobValue != null) {
-							if (isBlob) {
-								lobValue = new SQLValue() {
-									@Override
-									public String getSQLExpression() {
-										return smallLob;
-									}
-									@Override
-									public String toString() {
-										return smallLob;
-									}
-								};
-							} else {
-								// small text LOB (CLOB/XML): keep it exportable (SQLValue) and let the
-								// LOB viewer recognize it, carrying the complete small text for inline display.
-								lobValue = new LobCellValue(smallLob, lobValue.toString());
-							}
-						}
-						if (lobValue != null) {
-                			return lobValue;
-                		}
-                		return object;
-            		}
-
-            		@Override
-            		protected void prepareHook(ResultSetMetaData rmd) throws SQLException {
-            			sqlPlusSupport.prepareColumnSubstitution(rmd);
-            		}
-
-            		@Override
-            		protected void readRowHook(ResultSet resultSet) throws SQLException {
-                        try {
-                        	sqlPlusSupport.substituteColumns(resultSet);
-                        } catch (SQLException e) {
-                        	// ignore
-                        }
-            		}
-                };
-                resultSet.close();
-                long now = System.currentTimeMillis();
-                status.hasSelected = true;
-                status.timeInMS += (now - startTime);
-                localStatus.timeInMS += (now - startTime);
-                status.numRowsRead += metaDataDetails.getSize();
-                localStatus.numRowsRead += metaDataDetails.getSize();
-                localStatus.hasSelected = true;
-                if (metaDataDetails.getSize() > limit) {
-                    status.limitExceeded = true;
-                    localStatus.limitExceeded = true;
-                }
-                status.updateView(false);
-            	status.statement = sqlStatement;
-            	
-            	if (wcBaseTable != null) {
-            		updateERCounts(resultType, wcBaseTable.isSimpleSelect, status.numRowsRead, status.limitExceeded);
-            	}
-            	
+                final List<Object[]> firstRowList = new ArrayList<Object[]>();
+                final MemorizedResultSet firstRows = fetchRows(resultSet, Math.min(limit, INITIAL_ROWS), firstRowList, status, 0);
+                // the first rows are shown while the remaining rows are being fetched
+                final boolean fetchedAll = limit <= INITIAL_ROWS || firstRowList.size() <= INITIAL_ROWS;
+                final MemorizedResultSet metaDataDetails = fetchedAll? firstRows : new MemorizedResultSet(firstRowList.subList(0, INITIAL_ROWS), firstRows.getMetaData());
+                final AtomicReference<TabContentPanel> shownResult = new AtomicReference<TabContentPanel>();
                 final String finalSqlStatement = sqlStatement;
                 final Table finalResultType = resultType;
                 final boolean finalLoadButtonIsVisible = loadButtonIsVisible;
@@ -2217,6 +2171,7 @@ public abstract class SQLConsole extends javax.swing.JPanel {
                         	}
                         }
                         rb.resetRowsTableContainer();
+                        shownResult.set(tabContentPanel);
                         jTabbedPane1.repaint();
                     }
 
@@ -2283,6 +2238,36 @@ public abstract class SQLConsole extends javax.swing.JPanel {
 						}
 					}
                 });
+                int numRowsRead = firstRowList.size();
+                if (!fetchedAll) {
+                	// the remaining rows are read directly into the row model of the shown result, off the EDT
+                	BrowserContentPane rb = getShownResultBrowser(shownResult);
+                	if (rb != null) {
+                		StreamedResultSet allRows = new StreamedResultSet(firstRowList, firstRows.getMetaData(), resultSet, limit, wcBaseTable == null, rb, status);
+                		rb.newLoadJob(allRows, limit).run();
+                		CancellationHandler.checkForCancellation(SQLConsole.this);
+                		numRowsRead = allRows.getNumRowsRead();
+                	}
+                }
+                resultSet.close();
+                long now = System.currentTimeMillis();
+                status.numRowsFetched = 0;
+                status.hasSelected = true;
+                status.timeInMS += (now - startTime);
+                localStatus.timeInMS += (now - startTime);
+                status.numRowsRead += numRowsRead;
+                localStatus.numRowsRead += numRowsRead;
+                localStatus.hasSelected = true;
+                if (numRowsRead > limit) {
+                    status.limitExceeded = true;
+                    localStatus.limitExceeded = true;
+                }
+                status.updateView(false);
+            	status.statement = sqlStatement;
+            	
+            	if (wcBaseTable != null) {
+            		updateERCounts(resultType, wcBaseTable.isSimpleSelect, status.numRowsRead, status.limitExceeded);
+            	}
             } else {
             	Session.lastUpdateTS = System.currentTimeMillis();
                 status.timeInMS += (System.currentTimeMillis() - startTime);
@@ -2427,6 +2412,185 @@ public abstract class SQLConsole extends javax.swing.JPanel {
         }
     }
 
+    /**
+     * Reads rows of a result set into a row list.
+     *
+     * @param resultSet the result set
+     * @param limit row limit
+     * @param rowList the row list, may already contain rows read before
+     * @param status status of the statement's execution
+     * @return result set containing all rows of the row list
+     */
+    private MemorizedResultSet fetchRows(ResultSet resultSet, int limit, final List<Object[]> rowList, final Status status, final int numRowsReadBefore) throws SQLException {
+    	return new MemorizedResultSet(resultSet, limit, session, SQLConsole.this) { // lgtm [java/database-resource-leak]
+    		@Override
+    		protected List<Object[]> createRowList(Integer limit) {
+    			return rowList;
+    		}
+
+    		@Override
+    		protected void rowsReadHook(int numRowsRead) {
+    			status.numRowsFetched = numRowsReadBefore + numRowsRead;
+    			status.updateView(false);
+    		}
+
+    		@Override
+        	protected Object convertCellContent(ContentSupplier supplier) throws SQLException {
+    			Object object = supplier.get();
+    			boolean isBlob = object instanceof Blob;
+    			Object lobValue = BrowserContentPane.toLobRender(object);
+    			if (lobValue != null) {
+    				object = supplier.get();
+    			}
+    			String smallLob = CellContentConverter.getSmallLob(object, session.dbms, BrowserContentPane.MAXBLOBLENGTH, BrowserContentPane.MAXCLOBLENGTH);
+    			if (smallLob != null && lobValue != null) {
+    				if (isBlob) {
+    					lobValue = new SQLValue() {
+    						@Override
+    						public String getSQLExpression() {
+    							return smallLob;
+    						}
+    						@Override
+    						public String toString() {
+    							return smallLob;
+    						}
+    					};
+    				} else {
+    					// small text LOB (CLOB/XML): keep it exportable (SQLValue) and let the
+    					// LOB viewer recognize it, carrying the complete small text for inline display.
+    					lobValue = new LobCellValue(smallLob, lobValue.toString());
+    				}
+    			}
+    			if (lobValue != null) {
+    				return lobValue;
+    			}
+    			return object;
+    		}
+
+    		@Override
+    		protected void prepareHook(ResultSetMetaData rmd) throws SQLException {
+    			sqlPlusSupport.prepareColumnSubstitution(rmd);
+    		}
+
+    		@Override
+    		protected void readRowHook(ResultSet resultSet) throws SQLException {
+                try {
+                	sqlPlusSupport.substituteColumns(resultSet);
+                } catch (SQLException e) {
+                	// ignore
+                }
+    		}
+    	};
+    }
+
+    /**
+     * Gets the browser of a result shown by {@link #executeSQL}, waiting until its first rows are loaded.
+     *
+     * @return the browser, or <code>null</code> if the result has been closed or replaced meanwhile
+     */
+    private BrowserContentPane getShownResultBrowser(AtomicReference<TabContentPanel> shownResult) throws InterruptedException, InvocationTargetException {
+    	// the first wait lets the result be shown, the second one lets the completion of its load job run
+    	SwingUtilities.invokeAndWait(() -> {});
+    	AtomicReference<BrowserContentPane> rb = new AtomicReference<BrowserContentPane>();
+    	SwingUtilities.invokeAndWait(() -> {
+    		TabContentPanel tabContentPanel = shownResult.get();
+    		if (tabContentPanel != null && tabContentPanel.getParent() == tabContentPanel.shimPanel && jTabbedPane1.indexOfComponent(tabContentPanel.shimPanel) >= 0) {
+    			rb.set(tabContentPanel.rowBrowser);
+    		}
+    	});
+    	return rb.get();
+    }
+
+    /**
+     * Result set that continues reading a JDBC result set after the rows already fetched, chunk by chunk.
+     * Only the current chunk is kept in memory, the rows end up in the row model of the result browser only.
+     */
+    private class StreamedResultSet extends MemorizedResultSet {
+    	private static final int CHUNK_SIZE = 10000;
+    	private final ChunkedRowList rows;
+    	private final ResultSet resultSet;
+    	private final int limit;
+    	private final boolean filterable;
+    	private final BrowserContentPane rb;
+    	private final Status status;
+    	private boolean exhausted;
+    	private SQLException error;
+    	private int position = -1;
+
+    	StreamedResultSet(List<Object[]> firstRows, MemorizedResultSetMetaData metaData, ResultSet resultSet, int limit, boolean filterable, BrowserContentPane rb, Status status) {
+    		this(new ChunkedRowList(firstRows), metaData, resultSet, limit, filterable, rb, status);
+    	}
+
+    	private StreamedResultSet(ChunkedRowList rows, MemorizedResultSetMetaData metaData, ResultSet resultSet, int limit, boolean filterable, BrowserContentPane rb, Status status) {
+    		super(rows, metaData);
+    		this.rows = rows;
+    		this.resultSet = resultSet;
+    		this.limit = limit;
+    		this.filterable = filterable;
+    		this.rb = rb;
+    		this.status = status;
+    	}
+
+    	@Override
+    	public boolean next() throws SQLException {
+    		if (error != null) {
+    			// the rows can't be read again
+    			throw error;
+    		}
+    		++position;
+    		if (position >= rows.size() && !exhausted) {
+    			int numRows = Math.min(CHUNK_SIZE, limit + 1 - rows.size());
+    			List<Object[]> chunk = new ArrayList<Object[]>();
+    			if (numRows > 0) {
+    				try {
+    					fetchRows(resultSet, numRows - 1, chunk, status, rows.size());
+    				} catch (SQLException e) {
+    					error = e;
+    					throw e;
+    				}
+    			}
+    			exhausted = chunk.size() < numRows || numRows <= 0;
+    			rows.nextChunk(chunk);
+    			if (exhausted) {
+    				// read by the completion of the load job on the EDT
+    				rb.setTableFilterEnabled(filterable && rows.size() > 1 && rows.size() <= limit);
+    			}
+    		}
+    		return super.next();
+    	}
+
+    	int getNumRowsRead() {
+    		return rows.size();
+    	}
+    }
+
+    /**
+     * Forward-only row list holding the current chunk only.
+     */
+    private static class ChunkedRowList extends AbstractList<Object[]> {
+    	private int offset = 0;
+    	private List<Object[]> chunk;
+
+    	ChunkedRowList(List<Object[]> firstChunk) {
+    		this.chunk = firstChunk;
+    	}
+
+    	@Override
+    	public Object[] get(int index) {
+    		return chunk.get(index - offset);
+    	}
+
+    	@Override
+    	public int size() {
+    		return offset + chunk.size();
+    	}
+
+    	void nextChunk(List<Object[]> nextChunk) {
+    		offset += chunk.size();
+    		chunk = nextChunk;
+    	}
+    }
+
 	/**
      * Update estimated row count after simple select.
      */
@@ -2737,6 +2901,7 @@ public abstract class SQLConsole extends javax.swing.JPanel {
         boolean running;
         boolean limitExceeded;
         int numRowsRead;
+        int numRowsFetched;
         int numRowsUpdated;
         int numStatements;
         boolean hasSelected = false;
@@ -2948,6 +3113,9 @@ public abstract class SQLConsole extends javax.swing.JPanel {
 			String text = "<html>";
             if (running) {
                 String runText = "Running... ";
+                if (numRowsFetched > 0) {
+                	runText += numRowsFetched + " rows fetched... ";
+                }
                 if (numStatements <= 1 && numRowsRead == 0 && numRowsUpdated == 0) {
                     return text + "<b>" + runText + "</b></html>";
                 }
@@ -3601,6 +3769,10 @@ public abstract class SQLConsole extends javax.swing.JPanel {
         protected void onContentChange(List<Row> rows, boolean reloadChildren) {
         }
         @Override
+        protected List<Row> createRowList() {
+        	return new SpilledRows(ROWS_MEMORY_BUDGET);
+        }
+        @Override
         protected RowBrowser navigateTo(Association association, List<Row> pRows) {
         	return null;
         }
@@ -34,12 +34,13 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -64,6 +65,7 @@ import javax.swing.SpinnerNumberModel;
 import javax.swing.RowSorter;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -93,9 +95,8 @@ import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.statistics.HistogramDataset;
 import org.jfree.data.statistics.HistogramType;
+import org.jfree.data.xy.DefaultXYDataset;
 import org.jfree.data.xy.DefaultXYZDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 import org.jfree.svg.SVGGraphics2D;
 
 import com.orsoncharts.Chart3D;
@@ -239,6 +240,16 @@ public class SQLConsoleChartPanel extends JPanel {
     private ViewPoint3D  pendingViewPoint3D = null;
     private final List<Integer> columnTypes;
     private boolean suppressUpdate = false;
+    // incremented per updateChart(), so a chart prepared in the background for an outdated request is dropped
+    private int chartGeneration = 0;
+
+    // Larger results are prepared for charting in the background.
+    private static final int MAX_SYNCHRONOUS_ROWS = 20000;
+    // Scatter plots with more points are reduced to one point per grid cell (see binScatterPoints).
+    private static final int MAX_SCATTER_POINTS = 20000;
+    // Edge length in pixels of a grid cell. The default scatter shape is 6 pixels wide, so finer cells change nothing visible.
+    private static final int SCATTER_CELL_SIZE = 3;
+    private static final int MIN_PLOT_SIZE = 400;
 
     private static final Pattern BOLD_PATTERN = Pattern.compile("<b>(.*?)</b>");
 
@@ -737,11 +748,58 @@ public class SQLConsoleChartPanel extends JPanel {
         }
         currentChartType = type;
 
+        // Only the cell references are collected on the EDT. Conversion, aggregation and
+        // downsampling run on primitive arrays - in the background for large results.
+        ChartSource source = new ChartSource(type, model, sorter, rowCount, xModelCol, yModelCols);
+        int generation = ++chartGeneration;
+        final Range theSavedDomainRange = savedDomainRange;
+        final Range theSavedRangeRange = savedRangeRange;
+        final ViewPoint3D theSavedViewPoint3D = savedViewPoint3D;
+        if (rowCount <= MAX_SYNCHRONOUS_ROWS) {
+            ChartData data;
+            try {
+                data = prepare(source);
+            } catch (Exception ex) {
+                showError(ex.getMessage());
+                return;
+            }
+            showChart(type, data, xLabel, yLabels, theSavedDomainRange, theSavedRangeRange, theSavedViewPoint3D);
+            return;
+        }
+        chartContainer.removeAll();
+        chartContainer.add(new JLabel("Preparing chart for " + rowCount + " rows...", SwingConstants.CENTER));
+        chartContainer.revalidate();
+        chartContainer.repaint();
+        new SwingWorker<ChartData, Void>() {
+            @Override
+            protected ChartData doInBackground() {
+                return prepare(source);
+            }
+            @Override
+            protected void done() {
+                if (generation != chartGeneration) {
+                    return; // outdated
+                }
+                ChartData data;
+                try {
+                    data = get();
+                } catch (ExecutionException ex) {
+                    showError(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                    return;
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                showChart(type, data, xLabel, yLabels, theSavedDomainRange, theSavedRangeRange, theSavedViewPoint3D);
+            }
+        }.execute();
+    }
+
+    private void showChart(ChartType type, ChartData data, String xLabel, String[] yLabels, Range savedDomainRange, Range savedRangeRange, ViewPoint3D savedViewPoint3D) {
         if (type.family == PlotFamily.BAR_3D || type.family == PlotFamily.PIE_3D) {
             try {
                 Chart3D chart3d = (type.family == PlotFamily.BAR_3D)
-                    ? buildBar3DChart(model, sorter, rowCount, xModelCol, yModelCols, xLabel, yLabels)
-                    : buildPie3DChart(model, sorter, rowCount, xModelCol, yModelCols[0]);
+                    ? buildBar3DChart(data, xLabel, yLabels)
+                    : buildPie3DChart(data);
                 applyFonts3D(chart3d, type);
                 ViewPoint3D vp3d = pendingViewPoint3D != null ? pendingViewPoint3D : savedViewPoint3D;
                 pendingViewPoint3D = null;
@@ -767,19 +825,19 @@ public class SQLConsoleChartPanel extends JPanel {
         try {
             switch (type.family) {
                 case PIE_LIKE:
-                    chart = buildPieChart(type, model, sorter, rowCount, xModelCol, yModelCols[0]);
+                    chart = buildPieChart(type, data);
                     break;
                 case XY_LIKE:
                     if (type == ChartType.HISTOGRAM) {
-                        chart = buildHistogramChart(model, sorter, rowCount, yModelCols[0], yLabels[0]);
+                        chart = buildHistogramChart(data, yLabels[0]);
                     } else if (type == ChartType.BUBBLE) {
-                        chart = buildBubbleChart(model, sorter, rowCount, xModelCol, yModelCols, xLabel, yLabels);
+                        chart = buildBubbleChart(data, xLabel, yLabels);
                     } else {
-                        chart = buildXYChart(model, sorter, rowCount, xModelCol, yModelCols, xLabel, yLabels);
+                        chart = buildXYChart(data, xLabel, yLabels);
                     }
                     break;
                 default: // CATEGORY
-                    chart = buildCategoryChart(type, model, sorter, rowCount, xModelCol, yModelCols, xLabel, yLabels);
+                    chart = buildCategoryChart(type, data, xLabel, yLabels);
                     break;
             }
         } catch (Exception ex) {
@@ -816,10 +874,11 @@ public class SQLConsoleChartPanel extends JPanel {
 
     // -------------------------------------------------------------------------
 
-    private JFreeChart buildPieChart(ChartType type, TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int yCol) {
-        Map<String, Double> data = aggregateAndSort(model, sorter, rowCount, xCol, yCol);
+    private JFreeChart buildPieChart(ChartType type, ChartData data) {
         DefaultPieDataset dataset = new DefaultPieDataset();
-        for (Map.Entry<String, Double> e : data.entrySet()) dataset.setValue(e.getKey(), e.getValue());
+        for (int i = 0; i < data.keys.size(); i++) {
+            if (!Double.isNaN(data.keyValues[0][i])) dataset.setValue(data.keys.get(i), data.keyValues[0][i]);
+        }
         boolean legend = legendCheckBox.isSelected();
         if (type == ChartType.RING) {
             return ChartFactory.createRingChart(null, dataset, legend, true, false);
@@ -827,34 +886,28 @@ public class SQLConsoleChartPanel extends JPanel {
         return ChartFactory.createPieChart(null, dataset, legend, true, false);
     }
 
-    private JFreeChart buildXYChart(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int[] yCols, String xLabel, String[] yLabels) {
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        for (int si = 0; si < yCols.length; si++) {
-            XYSeries series = new XYSeries(yLabels[si]);
-            for (int i = 0; i < rowCount; i++) {
-                int row = sorter != null ? sorter.convertRowIndexToModel(i) : i;
-                double x = cellDouble(model.getValueAt(row, xCol));
-                double y = cellDouble(model.getValueAt(row, yCols[si]));
-                if (!Double.isNaN(x) && !Double.isNaN(y)) series.add(x, y);
-            }
-            dataset.addSeries(series);
+    private JFreeChart buildXYChart(ChartData data, String xLabel, String[] yLabels) {
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        for (int si = 0; si < data.xy.length; si++) {
+            dataset.addSeries(yLabels[si], data.xy[si]);
         }
-        String yAxisLabel = yCols.length == 1 ? yLabels[0] : "Value";
+        String yAxisLabel = yLabels.length == 1 ? yLabels[0] : "Value";
         return ChartFactory.createScatterPlot(null, xLabel, yAxisLabel, dataset,
                 PlotOrientation.VERTICAL, legendCheckBox.isSelected(), true, false);
     }
 
-    private JFreeChart buildCategoryChart(ChartType type, TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int[] yCols, String xLabel, String[] yLabels) {
+    private JFreeChart buildCategoryChart(ChartType type, ChartData data, String xLabel, String[] yLabels) {
         boolean stacked = stackedCheckBox.isSelected();
         boolean horizontal = "Horizontal".equals(orientationCombo.getSelectedItem());
         PlotOrientation orientation = horizontal ? PlotOrientation.HORIZONTAL : PlotOrientation.VERTICAL;
         boolean legend = legendCheckBox.isSelected();
-        String yAxisLabel = yCols.length == 1 ? yLabels[0] : "Value";
+        String yAxisLabel = yLabels.length == 1 ? yLabels[0] : "Value";
 
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        for (int si = 0; si < yCols.length; si++) {
-            Map<String, Double> data = aggregateAndSort(model, sorter, rowCount, xCol, yCols[si]);
-            for (Map.Entry<String, Double> e : data.entrySet()) dataset.addValue(e.getValue(), yLabels[si], e.getKey());
+        for (int si = 0; si < data.keyValues.length; si++) {
+            for (int i = 0; i < data.keys.size(); i++) {
+                if (!Double.isNaN(data.keyValues[si][i])) dataset.addValue(data.keyValues[si][i], yLabels[si], data.keys.get(i));
+            }
         }
 
         switch (type) {
@@ -875,61 +928,33 @@ public class SQLConsoleChartPanel extends JPanel {
         }
     }
 
-    private JFreeChart buildBubbleChart(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int[] yCols, String xLabel, String[] yLabels) {
+    private JFreeChart buildBubbleChart(ChartData data, String xLabel, String[] yLabels) {
         DefaultXYZDataset dataset = new DefaultXYZDataset();
-        int zCol = yCols.length > 1 ? yCols[1] : -1;
-        double[] xData = new double[rowCount];
-        double[] yData = new double[rowCount];
-        double[] zData = new double[rowCount];
-        int count = 0;
-        for (int i = 0; i < rowCount; i++) {
-            int row = sorter != null ? sorter.convertRowIndexToModel(i) : i;
-            double x = cellDouble(model.getValueAt(row, xCol));
-            double y = cellDouble(model.getValueAt(row, yCols[0]));
-            double z = zCol >= 0 ? cellDouble(model.getValueAt(row, zCol)) : 1.0;
-            if (!Double.isNaN(x) && !Double.isNaN(y)) {
-                xData[count] = x;
-                yData[count] = y;
-                zData[count] = Double.isNaN(z) ? 1.0 : z;
-                count++;
-            }
-        }
-        double[][] data = { Arrays.copyOf(xData, count), Arrays.copyOf(yData, count), Arrays.copyOf(zData, count) };
-        dataset.addSeries(yLabels[0], data);
+        dataset.addSeries(yLabels[0], data.xy[0]);
         return ChartFactory.createBubbleChart(null, xLabel, yLabels[0], dataset,
                 PlotOrientation.VERTICAL, legendCheckBox.isSelected(), true, false);
     }
 
-    private JFreeChart buildHistogramChart(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int yCol, String yLabel) {
-        List<Double> values = new ArrayList<>();
-        for (int i = 0; i < rowCount; i++) {
-            int row = sorter != null ? sorter.convertRowIndexToModel(i) : i;
-            double v = cellDouble(model.getValueAt(row, yCol));
-            if (!Double.isNaN(v)) values.add(v);
-        }
-        if (values.isEmpty()) throw new IllegalArgumentException("No numeric data in selected column");
-        double[] data = new double[values.size()];
-        for (int i = 0; i < data.length; i++) data[i] = values.get(i);
+    private JFreeChart buildHistogramChart(ChartData data, String yLabel) {
         int bins = 20;
         try { bins = Integer.parseInt((String) binsCombo.getSelectedItem()); } catch (NumberFormatException e) { /* ignore */ }
         HistogramDataset dataset = new HistogramDataset();
         dataset.setType(HistogramType.FREQUENCY);
-        dataset.addSeries(yLabel, data, bins);
+        dataset.addSeries(yLabel, data.values, bins);
         boolean horizontal = "Horizontal".equals(orientationCombo.getSelectedItem());
         PlotOrientation orientation = horizontal ? PlotOrientation.HORIZONTAL : PlotOrientation.VERTICAL;
         return ChartFactory.createHistogram(null, yLabel, "Frequency", dataset, orientation, legendCheckBox.isSelected(), true, false);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private Chart3D buildBar3DChart(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int[] yCols, String xLabel, String[] yLabels) {
+    private Chart3D buildBar3DChart(ChartData data, String xLabel, String[] yLabels) {
         StandardCategoryDataset3D dataset = new StandardCategoryDataset3D();
-        for (int si = 0; si < yCols.length; si++) {
-            Map<String, Double> data = aggregateAndSort(model, sorter, rowCount, xCol, yCols[si]);
-            for (Map.Entry<String, Double> e : data.entrySet()) {
-                dataset.addValue(e.getValue(), yLabels[si], yLabels[si], e.getKey());
+        for (int si = 0; si < data.keyValues.length; si++) {
+            for (int i = 0; i < data.keys.size(); i++) {
+                if (!Double.isNaN(data.keyValues[si][i])) dataset.addValue(data.keyValues[si][i], yLabels[si], yLabels[si], data.keys.get(i));
             }
         }
-        String yAxisLabel = yCols.length == 1 ? yLabels[0] : "Value";
+        String yAxisLabel = yLabels.length == 1 ? yLabels[0] : "Value";
         Chart3D chart = Chart3DFactory.createBarChart(null, null, dataset, null, xLabel, yAxisLabel);
         String title = titleField.getText().trim();
         if (!title.isEmpty()) chart.setTitle(title);
@@ -943,10 +968,11 @@ public class SQLConsoleChartPanel extends JPanel {
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private Chart3D buildPie3DChart(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int yCol) {
-        Map<String, Double> data = aggregateAndSort(model, sorter, rowCount, xCol, yCol);
+    private Chart3D buildPie3DChart(ChartData data) {
         StandardPieDataset3D dataset = new StandardPieDataset3D();
-        for (Map.Entry<String, Double> e : data.entrySet()) dataset.add(e.getKey(), e.getValue());
+        for (int i = 0; i < data.keys.size(); i++) {
+            if (!Double.isNaN(data.keyValues[0][i])) dataset.add(data.keys.get(i), data.keyValues[0][i]);
+        }
         Chart3D chart = Chart3DFactory.createPieChart(null, null, dataset);
         String title = titleField.getText().trim();
         if (!title.isEmpty()) chart.setTitle(title);
@@ -963,32 +989,261 @@ public class SQLConsoleChartPanel extends JPanel {
 
     // -------------------------------------------------------------------------
 
-    private Map<String, Double> aggregateAndSort(TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int yCol) {
-        String aggMode = (String) aggregateCombo.getSelectedItem();
-        Map<String, List<Double>> raw = new LinkedHashMap<>();
+    /**
+     * The cells a chart is built from, collected on the EDT together with the settings
+     * {@link #prepare(ChartSource)} depends on.
+     */
+    private final class ChartSource {
+        final ChartType type;
+        final Object[] xValues;
+        final Object[][] yValues;
+        final String aggMode;
+        final boolean sortX;
+        final int width;
+        final int height;
+
+        ChartSource(ChartType type, TableModel model, RowSorter<? extends TableModel> sorter, int rowCount, int xCol, int[] yCols) {
+            this.type = type;
+            this.aggMode = (String) aggregateCombo.getSelectedItem();
+            this.sortX = sortXCheckBox.isEnabled() && sortXCheckBox.isSelected();
+            this.width = Math.max(MIN_PLOT_SIZE, chartContainer.getWidth());
+            this.height = Math.max(MIN_PLOT_SIZE, chartContainer.getHeight());
+            int numSeries = type.family == PlotFamily.PIE_LIKE || type.family == PlotFamily.PIE_3D || type == ChartType.HISTOGRAM ? 1
+                    : type == ChartType.BUBBLE ? Math.min(2, yCols.length) : yCols.length;
+            xValues = new Object[rowCount];
+            yValues = new Object[numSeries][rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                int row = sorter != null ? sorter.convertRowIndexToModel(i) : i;
+                xValues[i] = model.getValueAt(row, xCol);
+                for (int si = 0; si < numSeries; si++) {
+                    yValues[si][i] = model.getValueAt(row, yCols[si]);
+                }
+            }
+        }
+    }
+
+    /** Chart values, aggregated and reduced to what can be displayed. */
+    private static final class ChartData {
+        /** Category keys in display order (category and pie charts). */
+        List<String> keys;
+        /** Per series and key, NaN if the series has no value for the key. */
+        double[][] keyValues;
+        /** Per series, <code>{ x[], y[] }</code> (bubble: <code>{ x[], y[], z[] }</code>). */
+        double[][][] xy;
+        /** The values of a histogram. */
+        double[] values;
+    }
+
+    /**
+     * Converts the collected cells into chart values. Called off the EDT for large results.
+     */
+    private ChartData prepare(ChartSource source) {
+        ChartData data = new ChartData();
+        ChartType type = source.type;
+        int rowCount = source.xValues.length;
+        if (type == ChartType.HISTOGRAM) {
+            double[] values = new double[rowCount];
+            int count = 0;
+            for (int i = 0; i < rowCount; i++) {
+                double v = cellDouble(source.yValues[0][i]);
+                if (!Double.isNaN(v)) values[count++] = v;
+            }
+            if (count == 0) throw new IllegalArgumentException("No numeric data in selected column");
+            data.values = Arrays.copyOf(values, count);
+        } else if (type == ChartType.BUBBLE) {
+            double[] xData = new double[rowCount];
+            double[] yData = new double[rowCount];
+            double[] zData = new double[rowCount];
+            int count = 0;
+            for (int i = 0; i < rowCount; i++) {
+                double x = cellDouble(source.xValues[i]);
+                double y = cellDouble(source.yValues[0][i]);
+                double z = source.yValues.length > 1 ? cellDouble(source.yValues[1][i]) : 1.0;
+                if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                    xData[count] = x;
+                    yData[count] = y;
+                    zData[count] = Double.isNaN(z) ? 1.0 : z;
+                    count++;
+                }
+            }
+            data.xy = new double[][][] { { Arrays.copyOf(xData, count), Arrays.copyOf(yData, count), Arrays.copyOf(zData, count) } };
+        } else if (type.family == PlotFamily.XY_LIKE) {
+            data.xy = new double[source.yValues.length][][];
+            double[] xData = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                xData[i] = cellDouble(source.xValues[i]);
+            }
+            int totalPoints = 0;
+            for (int si = 0; si < source.yValues.length; si++) {
+                double[] xs = new double[rowCount];
+                double[] ys = new double[rowCount];
+                int count = 0;
+                for (int i = 0; i < rowCount; i++) {
+                    double y = cellDouble(source.yValues[si][i]);
+                    if (!Double.isNaN(xData[i]) && !Double.isNaN(y)) {
+                        xs[count] = xData[i];
+                        ys[count] = y;
+                        count++;
+                    }
+                }
+                data.xy[si] = new double[][] { Arrays.copyOf(xs, count), Arrays.copyOf(ys, count) };
+                totalPoints += count;
+            }
+            if (totalPoints > MAX_SCATTER_POINTS) {
+                binScatterPoints(data.xy, source.width / SCATTER_CELL_SIZE, source.height / SCATTER_CELL_SIZE);
+            }
+        } else {
+            aggregate(source, data);
+            // DefaultCategoryDataset.addValue() takes linear time per key, so bar charts are reduced too
+            if (type.family == PlotFamily.CATEGORY && data.keys.size() > 2 * source.width) {
+                downsample(data, source.width);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Groups the values of each series by category key (in order of first appearance, or sorted)
+     * and aggregates them per key.
+     */
+    private void aggregate(ChartSource source, ChartData data) {
+        int rowCount = source.xValues.length;
+        int numSeries = source.yValues.length;
+        Map<String, Integer> keyIds = new HashMap<>();
+        List<String> keyById = new ArrayList<>();
+        int[] rowKey = new int[rowCount];
         for (int i = 0; i < rowCount; i++) {
-            int row = sorter != null ? sorter.convertRowIndexToModel(i) : i;
-            String key = cellString(model.getValueAt(row, xCol));
-            double val = cellDouble(model.getValueAt(row, yCol));
-            if (!Double.isNaN(val)) raw.computeIfAbsent(key, k -> new ArrayList<>()).add(val);
+            String key = cellString(source.xValues[i]);
+            Integer id = keyIds.get(key);
+            if (id == null) {
+                id = keyById.size();
+                keyIds.put(key, id);
+                keyById.add(key);
+            }
+            rowKey[i] = id;
+        }
+        int numKeys = keyById.size();
+        double[][] result = new double[numSeries][numKeys];
+        int[] order = new int[numKeys];
+        boolean[] ordered = new boolean[numKeys];
+        int numOrdered = 0;
+        double[] sum = new double[numKeys];
+        int[] count = new int[numKeys];
+        for (int si = 0; si < numSeries; si++) {
+            Arrays.fill(sum, 0);
+            Arrays.fill(count, 0);
+            Arrays.fill(result[si], Double.NaN);
+            for (int i = 0; i < rowCount; i++) {
+                double val = cellDouble(source.yValues[si][i]);
+                if (Double.isNaN(val)) continue;
+                int k = rowKey[i];
+                if (!ordered[k]) {
+                    ordered[k] = true;
+                    order[numOrdered++] = k;
+                }
+                if (count[k]++ == 0) result[si][k] = val;
+                sum[k] += val;
+            }
+            for (int k = 0; k < numKeys; k++) {
+                if (count[k] == 0) continue;
+                switch (source.aggMode != null ? source.aggMode : "None") {
+                    case "Sum":     result[si][k] = sum[k]; break;
+                    case "Average": result[si][k] = sum[k] / count[k]; break;
+                    case "Count":   result[si][k] = count[k]; break;
+                    default:        break; // first value
+                }
+            }
+        }
+        List<Integer> keyOrder = new ArrayList<>(numOrdered);
+        for (int i = 0; i < numOrdered; i++) keyOrder.add(order[i]);
+        if (source.sortX) keyOrder.sort((a, b) -> keyById.get(a).compareTo(keyById.get(b)));
+        data.keys = new ArrayList<>(numOrdered);
+        data.keyValues = new double[numSeries][numOrdered];
+        for (int i = 0; i < numOrdered; i++) {
+            int k = keyOrder.get(i);
+            data.keys.add(keyById.get(k));
+            for (int si = 0; si < numSeries; si++) data.keyValues[si][i] = result[si][k];
+        }
+    }
+
+    /**
+     * Min-max downsampling: splits the categories into one bucket per pixel column and keeps,
+     * per series, the minimum and the maximum of each bucket (plus the first and last category),
+     * so peaks remain visible.
+     */
+    private static void downsample(ChartData data, int numBuckets) {
+        int numKeys = data.keys.size();
+        boolean[] keep = new boolean[numKeys];
+        keep[0] = true;
+        keep[numKeys - 1] = true;
+        for (int b = 0; b < numBuckets; b++) {
+            int start = (int) ((long) b * numKeys / numBuckets);
+            int end = (int) ((long) (b + 1) * numKeys / numBuckets);
+            for (double[] values : data.keyValues) {
+                int min = -1;
+                int max = -1;
+                for (int i = start; i < end; i++) {
+                    if (Double.isNaN(values[i])) continue;
+                    if (min < 0 || values[i] < values[min]) min = i;
+                    if (max < 0 || values[i] > values[max]) max = i;
+                }
+                if (min >= 0) {
+                    keep[min] = true;
+                    keep[max] = true;
+                }
+            }
         }
-        Map<String, Double> result = new LinkedHashMap<>();
-        for (Map.Entry<String, List<Double>> e : raw.entrySet()) result.put(e.getKey(), computeAggregate(e.getValue(), aggMode));
-        if (sortXCheckBox.isEnabled() && sortXCheckBox.isSelected()) {
-            List<Map.Entry<String, Double>> entries = new ArrayList<>(result.entrySet());
-            entries.sort(Map.Entry.comparingByKey());
-            result = new LinkedHashMap<>();
-            for (Map.Entry<String, Double> e : entries) result.put(e.getKey(), e.getValue());
+        List<String> keys = new ArrayList<>();
+        List<Integer> kept = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++) {
+            if (keep[i]) {
+                keys.add(data.keys.get(i));
+                kept.add(i);
+            }
         }
-        return result;
+        double[][] keyValues = new double[data.keyValues.length][kept.size()];
+        for (int si = 0; si < keyValues.length; si++) {
+            for (int i = 0; i < kept.size(); i++) keyValues[si][i] = data.keyValues[si][kept.get(i)];
+        }
+        data.keys = keys;
+        data.keyValues = keyValues;
     }
 
-    private double computeAggregate(List<Double> values, String mode) {
-        switch (mode != null ? mode : "None") {
-            case "Sum":     return values.stream().mapToDouble(Double::doubleValue).sum();
-            case "Average": return values.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
-            case "Count":   return values.size();
-            default:        return values.isEmpty() ? Double.NaN : values.get(0);
+    /**
+     * Reduces scatter plots with more points than can be told apart: the plot area is divided
+     * into a grid of <code>width</code> x <code>height</code> cells and each series keeps only the first point
+     * falling into a cell.
+     */
+    private static void binScatterPoints(double[][][] xy, int width, int height) {
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (double[][] series : xy) {
+            for (int i = 0; i < series[0].length; i++) {
+                minX = Math.min(minX, series[0][i]);
+                maxX = Math.max(maxX, series[0][i]);
+                minY = Math.min(minY, series[1][i]);
+                maxY = Math.max(maxY, series[1][i]);
+            }
+        }
+        double cellWidth = Math.max((maxX - minX) / width, Double.MIN_VALUE);
+        double cellHeight = Math.max((maxY - minY) / height, Double.MIN_VALUE);
+        for (int si = 0; si < xy.length; si++) {
+            double[] xs = xy[si][0];
+            double[] ys = xy[si][1];
+            BitSet occupied = new BitSet((width + 1) * (height + 1));
+            int count = 0;
+            for (int i = 0; i < xs.length; i++) {
+                int cx = (int) Math.min(width, (xs[i] - minX) / cellWidth);
+                int cy = (int) Math.min(height, (ys[i] - minY) / cellHeight);
+                int cell = cy * (width + 1) + cx;
+                if (!occupied.get(cell)) {
+                    occupied.set(cell);
+                    xs[count] = xs[i];
+                    ys[count] = ys[i];
+                    count++;
+                }
+            }
+            xy[si] = new double[][] { Arrays.copyOf(xs, count), Arrays.copyOf(ys, count) };
         }
     }
 
@@ -1304,9 +1559,14 @@ public class SQLConsoleChartPanel extends JPanel {
     private double cellDouble(Object value) {
         if (value instanceof TableModelItem) value = ((TableModelItem) value).value;
         if (value == null || value == UIUtil.NULL) return Double.NaN;
-        if (value instanceof Number) return ((Number) value).doubleValue();
-        try { return Double.parseDouble(value.toString().trim().replace(",", ".")); }
-        catch (NumberFormatException e) { return Double.NaN; }
+        double d;
+        if (value instanceof Number) d = ((Number) value).doubleValue();
+        else {
+            try { d = Double.parseDouble(value.toString().trim().replace(",", ".")); }
+            catch (NumberFormatException e) { return Double.NaN; }
+        }
+        // JFreeChart's datasets reject infinite values ("Must be finite")
+        return Double.isInfinite(d) ? Double.NaN : d;
     }
 
     private String stripHtml(String html) {
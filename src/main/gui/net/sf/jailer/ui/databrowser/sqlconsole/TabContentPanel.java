@@ -37,6 +37,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -135,12 +136,21 @@ public class TabContentPanel extends javax.swing.JPanel {
 		Map<Geometry, Row> rowByGeometry = new LinkedHashMap<Geometry, Row>();
 		Set<Integer> spatialColumnIndices = new LinkedHashSet<Integer>();
 		if (rows != null) {
+			List<Object> values = new ArrayList<Object>();
+			for (Row row : rows) {
+				if (row.values != null) {
+					values.addAll(Arrays.asList(row.values));
+				}
+			}
+			// decoded in parallel for large results, then matched back to the cells in the same order
+			List<Geometry> geometries = SpatialCellSupport.parseAll(values);
+			int pos = 0;
 			for (Row row : rows) {
 				if (row.values == null) {
 					continue;
 				}
 				for (int i = 0; i < row.values.length; i++) {
-					Geometry geometry = SpatialCellSupport.parse(row.values[i]);
+					Geometry geometry = geometries.get(pos++);
 					if (geometry != null) {
 						spatialColumnIndices.add(i);
 						rowByGeometry.put(geometry, row);
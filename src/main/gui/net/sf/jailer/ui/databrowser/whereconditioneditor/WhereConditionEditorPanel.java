@@ -90,6 +90,7 @@ import org.fife.ui.rtextarea.SmartHighlightPainter;
 import net.sf.jailer.ExecutionContext;
 import net.sf.jailer.configuration.DBMS;
 import net.sf.jailer.database.InlineViewStyle;
+import net.sf.jailer.database.PrimaryKeyValidator;
 import net.sf.jailer.database.Session;
 import net.sf.jailer.database.Session.AbstractResultSetReader;
 import net.sf.jailer.datamodel.Column;
@@ -121,6 +122,7 @@ import net.sf.jailer.util.LogUtil;
 import net.sf.jailer.util.Pair;
 import net.sf.jailer.util.Quoting;
 import net.sf.jailer.util.SqlUtil;
+import net.sf.jailer.util.ValueSketch;
 
 /**
  * SQL-Where-Condition Editor.
@@ -136,6 +138,11 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 	private final int MAX_NUM_DISTINCTEXISTINGVALUES = 100_000;
 	private final int MAX_SIZE_DISTINCTEXISTINGVALUES = 500_000;
 	private final int SIZE_DISTINCTEXISTINGVALUESCACHE = 40;
+	private final int MAX_NUM_PREFIX_ROWS = 50_000;
+	private final int MAX_NUM_SAMPLE_ROWS = 200_000;
+	private final int[] REFINEMENT_ROWS = { 500_000, 5_000_000 };
+	private final double SAMPLE_PERCENT = 1.0;
+	private final int SKETCH_CAPACITY = 10_000;
 	private final int MAX_HISTORY_SIZE = 8;
 	
 	private final DataModel dataModel;
@@ -2127,6 +2134,7 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
     private final String DISTINCTEXISTINGVALUESICCACHEKEY = "DistinctExistingValuesICCache";
     private final String DISTINCTEXISTINGVALUESWNCACHEKEY = "DistinctExistingValuesWNCache";
     private final String DISTINCTEXISTINGVALUESTSKEY = "DistinctExistingValuesTS";
+    private final String DISTINCTEXISTINGVALUESREFININGKEY = "DistinctExistingValuesRefining";
 
 	protected synchronized void clearCache() {
 		session.setSessionProperty(getClass(), DISTINCTEXISTINGVALUESCACHEKEY, null);
@@ -2147,7 +2155,7 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 		synchronized (this) {
 			Long ts = (Long) session.getSessionProperty(getClass(), DISTINCTEXISTINGVALUESTSKEY);
 			cache = (Map<Pair<String, String>, Map<String, Integer>>) session.getSessionProperty(getClass(), DISTINCTEXISTINGVALUESCACHEKEY);
-			if (cache == null || ts == null || ts < Session.lastUpdateTS || ts < System.currentTimeMillis() - (4 * (1000) /* 4 s */)) {
+			if (cache == null || ts == null || ts < Session.lastUpdateTS) {
 				cache = new LRUCache<Pair<String,String>, Map<String, Integer>>(SIZE_DISTINCTEXISTINGVALUESCACHE);
 				session.setSessionProperty(getClass(), DISTINCTEXISTINGVALUESCACHEKEY, cache);
 				session.setSessionProperty(getClass(), DISTINCTEXISTINGVALUESTSKEY, System.currentTimeMillis());
@@ -2172,6 +2180,7 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 			}
 		}
 		long time = -1;
+		boolean estimated = false;
 		
 		if (result == null) {
 			long startTime = System.currentTimeMillis();
@@ -2189,8 +2198,16 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 					}
 					boolean needsSort = false;
 					if (extJoins.isEmpty() || !withExtJoins) {
-						loadValues(comparison, cancellationContext, incomplete, withNull, condition, MAX_TEXT_LENGTH, result, tabName,
-							columnIndex, "", true);
+						long[] numTableRows = new long[1];
+						Boolean exact = loadValuesFromSample(comparison, cancellationContext, incomplete, withNull, condition, MAX_TEXT_LENGTH, result, tabName,
+								columnIndex, numTableRows);
+						if (exact == null) {
+							loadValues(comparison, cancellationContext, incomplete, withNull, condition, MAX_TEXT_LENGTH, result, tabName,
+								columnIndex, "", true);
+						} else if (!exact) {
+							estimated = true;
+							scheduleRefinement(comparison, cancellationContext, condition, MAX_TEXT_LENGTH, tabName, columnIndex, numTableRows[0], key, cache, icCache, wnCache);
+						}
 					} else {
 						try {
 							if (extJoins.size() == 1) {
@@ -2228,7 +2245,7 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 		synchronized (result) {
 			Long sumLength = result.keySet().stream().collect(Collectors.summingLong(String::length));
 			if (sumLength == null || sumLength <= MAX_SIZE_DISTINCTEXISTINGVALUES) {
-				if (time < 0 || time > 500) {
+				if (time < 0 || time > 500 || estimated) {
 					cache.put(key, result);
 					icCache.put(key, incomplete[0]);
 					wnCache.put(key, withNull[0]);
@@ -2238,6 +2255,291 @@ public abstract class WhereConditionEditorPanel extends javax.swing.JPanel {
 		return result;
 	}
 
+	/**
+	 * Reads the values of a column from a bounded prefix of the table. If the table is larger than the prefix,
+	 * the values are estimated from a random sample (if the DBMS supports sampling). The size of the sample
+	 * gives the size of the table, which scales the prefix if the sample is smaller than it.
+	 * Without a sample, the prefix is not representative for the table and only provides values, no counts.
+	 *
+	 * @param numTableRows receives the estimated number of rows of the table, <code>-1</code> if unknown
+	 * @return <code>true</code> if the result is exact, <code>false</code> if it is an estimation,
+	 *         <code>null</code> if the values have to be aggregated exactly
+	 */
+	private Boolean loadValuesFromSample(Comparison comparison, Object cancellationContext, int[] incomplete, boolean[] withNull, String condition,
+			final int MAX_TEXT_LENGTH, Map<String, Integer> result, String tabName, int columnIndex, long[] numTableRows) throws SQLException {
+		numTableRows[0] = -1;
+		int[] skipped = new int[1];
+		ValueSketch sketch = readSketch(prefixQuery(comparison, condition, tabName),
+				MAX_NUM_PREFIX_ROWS + 1, cancellationContext, skipped, columnIndex, MAX_TEXT_LENGTH);
+		long numPrefixRows = sketch.getNumRows() + skipped[0];
+		if (numPrefixRows <= MAX_NUM_PREFIX_ROWS) {
+			// the prefix is the whole table
+			if (!sketch.isExact()) {
+				return null;
+			}
+			fillValues(sketch, 1.0, skipped[0], false, incomplete, withNull, result, columnIndex);
+			return true;
+		}
+		double fraction = -1;
+		if (canSample(condition, tabName)) {
+			try {
+				double percent = SAMPLE_PERCENT;
+				int[] sampleSkipped = new int[1];
+				ValueSketch sample = readSample(comparison, tabName, percent, MAX_NUM_SAMPLE_ROWS, cancellationContext, sampleSkipped, columnIndex, MAX_TEXT_LENGTH);
+				if (sample == null) {
+					// the sample is too large, take a smaller one
+					long numSampleRows = countSample(tabName, percent, cancellationContext);
+					if (numSampleRows > 0) {
+						percent = percent * MAX_NUM_SAMPLE_ROWS / (2.0 * numSampleRows);
+						sampleSkipped[0] = 0;
+						sample = readSample(comparison, tabName, percent, MAX_NUM_SAMPLE_ROWS, cancellationContext, sampleSkipped, columnIndex, MAX_TEXT_LENGTH);
+					}
+				}
+				if (sample != null) {
+					long numSampleRows = sample.getNumRows() + sampleSkipped[0];
+					numTableRows[0] = Math.max(numPrefixRows, Math.round(numSampleRows * 100.0 / percent));
+					if (numSampleRows >= numPrefixRows) {
+						sketch = sample;
+						skipped = sampleSkipped;
+						fraction = percent / 100.0;
+					} else {
+						fraction = (double) numPrefixRows / numTableRows[0];
+					}
+				}
+			} catch (SQLException e) {
+				// sampling not supported, use prefix
+				LogUtil.warn(e);
+			}
+		}
+		fillValues(sketch, fraction, skipped[0], true, incomplete, withNull, result, columnIndex);
+		return false;
+	}
+
+	/**
+	 * Whether the values can be read from a random sample of the table.
+	 */
+	private boolean canSample(String condition, String tabName) {
+		return tableAlias == null && condition.isEmpty() && getCTE().trim().isEmpty() && !inSQLConsole() && tabName.equals(table.getName())
+				&& PrimaryKeyValidator.sampleClause(session.dbms, SAMPLE_PERCENT) != null;
+	}
+
+	/**
+	 * Reads the values of a column from a random sample of the table.
+	 *
+	 * @param percent size of the sample in percent of the table
+	 * @param maxRows maximum size of the sample
+	 * @return the sample or <code>null</code> if the sample has more than maxRows rows
+	 */
+	private ValueSketch readSample(Comparison comparison, String tabName, double percent, int maxRows, Object cancellationContext, int[] skipped, int columnIndex, final int MAX_TEXT_LENGTH) throws SQLException {
+		String columnName = CellContentConverter.prepareForComparison(session, comparison.column);
+		ValueSketch sample = readSketch("Select " + columnName + " From " + tabName + PrimaryKeyValidator.sampleClause(session.dbms, percent),
+				maxRows + 1, cancellationContext, skipped, columnIndex, MAX_TEXT_LENGTH);
+		if (sample.getNumRows() + skipped[0] > maxRows) {
+			return null;
+		}
+		return sample;
+	}
+
+	/**
+	 * Counts the rows of a random sample of the table.
+	 *
+	 * @param percent size of the sample in percent of the table
+	 */
+	private long countSample(String tabName, double percent, Object cancellationContext) throws SQLException {
+		long[] count = new long[1];
+		session.executeQuery("Select count(*) From " + tabName + PrimaryKeyValidator.sampleClause(session.dbms, percent), new AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				count[0] = resultSet.getLong(1);
+			}
+		}, null, cancellationContext, 0);
+		return count[0];
+	}
+
+	/**
+	 * Gets the query that selects the values of a column, to be read up to a bounded number of rows.
+	 */
+	private String prefixQuery(Comparison comparison, String condition, String tabName) {
+		String columnName = CellContentConverter.prepareForComparison(session, comparison.column);
+		String cte = getCTE().trim();
+		String tabNameWithAlias = tabName;
+		if (tableAlias != null) {
+			columnName = tableAlias + "." + columnName;
+			tabNameWithAlias += " " + tableAlias;
+		}
+		if (!cte.isEmpty()) {
+			cte = cte + " ";
+		}
+		return cte + "Select " + columnName + " From " + createTableWithCondition(condition, tabNameWithAlias, "");
+	}
+
+	/**
+	 * Reads values into a {@link ValueSketch}.
+	 */
+	private ValueSketch readSketch(String sqlQuery, int limit, Object cancellationContext, int[] skipped, int columnIndex, final int MAX_TEXT_LENGTH) throws SQLException {
+		ValueSketch sketch = new ValueSketch(SKETCH_CAPACITY);
+		AbstractResultSetReader reader = new AbstractResultSetReader() {
+			@Override
+			public void readCurrentRow(ResultSet resultSet) throws SQLException {
+				Object obj = getCellContentConverter(resultSet, session, session.dbms).getObject(resultSet, 1);
+				if (obj == null) {
+					sketch.addNull();
+				} else if (cellEditor.isEditable(table, columnIndex, obj, true)) {
+					String text = cellEditor.cellContentToText(columnIndex, obj);
+					if (text.length() <= MAX_TEXT_LENGTH) {
+						sketch.add(text);
+					} else {
+						skipped[0]++;
+					}
+				} else {
+					skipped[0]++;
+				}
+			}
+		};
+		DBMS.setTmpFetchSize(25100);
+		try {
+			session.executeQuery(sqlQuery, reader, null, cancellationContext, limit);
+		} finally {
+			DBMS.setTmpFetchSize(null);
+		}
+		return sketch;
+	}
+
+	/**
+	 * Puts the values of a sketch into the result, ordered by value.
+	 *
+	 * @param fraction the fraction of the table the sketch was built from, <code>-1</code> if unknown (no counts are given then)
+	 */
+	private void fillValues(ValueSketch sketch, double fraction, int skipped, boolean isEstimation, int[] incomplete, boolean[] withNull, Map<String, Integer> result, int columnIndex) {
+		double scale = dontCount? 0 : fraction > 0? 1.0 / fraction : 0;
+		long numNonNulls = sketch.getNumRows() - sketch.getNumNulls() + skipped;
+		if (sketch.getNumNulls() > 0) {
+			withNull[0] = true;
+			result.put(IS_NULL, (int) -Math.min(Integer.MAX_VALUE, Math.round(sketch.getNumNulls() * scale)));
+		}
+		if (numNonNulls > 0) {
+			result.put(IS_NOT_NULL, (int) -Math.min(Integer.MAX_VALUE, Math.round(numNonNulls * scale)));
+		}
+		Map<String, Integer> values = new LinkedHashMap<String, Integer>();
+		sketch.getCounts().forEach((value, count) -> values.put(value, (int) Math.min(Integer.MAX_VALUE, Math.round(count * scale))));
+		sortValues(values, columnIndex);
+		result.putAll(values);
+		incomplete[0] += Math.min(skipped, MAX_NUM_DISTINCTEXISTINGVALUES - 1);
+		if (isEstimation) {
+			long distinct = sketch.estimateDistinct(fraction);
+			long missing = Math.max(1, distinct - values.size());
+			incomplete[0] = (int) Math.min(MAX_NUM_DISTINCTEXISTINGVALUES - 1, incomplete[0] + missing);
+		}
+	}
+
+	/**
+	 * For refining estimated values in the background.
+	 */
+	private static final BlockingQueue<Runnable> refinementQueue = new LinkedBlockingQueue<Runnable>();
+	static {
+		Thread t = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (;;) {
+					try {
+						refinementQueue.take().run();
+					} catch (InterruptedException e) {
+						// ignore
+					} catch (CancellationException e) {
+						// ignore
+					} catch (Throwable t) {
+						LogUtil.warn(t);
+					}
+				}
+			}
+		}, "DistinctValuesRefiner");
+		t.setDaemon(true);
+		t.start();
+	}
+
+	/**
+	 * Refines the estimated values in the cache in the background. To keep the costs bounded, progressively larger
+	 * random samples of the table are read. Once a sample would cover most of the table, a prefix is read instead,
+	 * which gives the exact values if it covers the whole table. If the table can't be sampled, progressively larger
+	 * prefixes are read. Each step replaces the estimation in the cache.
+	 * The refinement is cancelled together with the values picker.
+	 * Results are discarded if data has been modified in the meantime.
+	 *
+	 * @param numTableRows estimated number of rows of the table, <code>-1</code> if unknown
+	 */
+	@SuppressWarnings("unchecked")
+	private void scheduleRefinement(Comparison comparison, Object cancellationContext, String condition, final int MAX_TEXT_LENGTH, String tabName, int columnIndex,
+			long numTableRows, Pair<String, String> key, Map<Pair<String, String>, Map<String, Integer>> cache, Map<Pair<String, String>, Integer> icCache, Map<Pair<String, String>, Boolean> wnCache) {
+		Set<Pair<String, String>> refining;
+		synchronized (this) {
+			refining = (Set<Pair<String, String>>) session.getSessionProperty(getClass(), DISTINCTEXISTINGVALUESREFININGKEY);
+			if (refining == null) {
+				refining = Collections.synchronizedSet(new HashSet<Pair<String, String>>());
+				session.setSessionProperty(getClass(), DISTINCTEXISTINGVALUESREFININGKEY, refining);
+			}
+		}
+		if (!refining.add(key)) {
+			return;
+		}
+		Set<Pair<String, String>> theRefining = refining;
+		refinementQueue.add(() -> {
+			try {
+				long startTime = System.currentTimeMillis();
+				for (int numRefinementRows: REFINEMENT_ROWS) {
+					int[] skipped = new int[1];
+					if (numTableRows > 2L * numRefinementRows) {
+						double percent = 100.0 * numRefinementRows / numTableRows;
+						ValueSketch sample = readSample(comparison, tabName, percent, 2 * numRefinementRows, cancellationContext, skipped, columnIndex, MAX_TEXT_LENGTH);
+						if (sample == null) {
+							// the table has grown, keep the last estimation
+							break;
+						}
+						cacheRefinement(sample, percent / 100.0, skipped[0], true, startTime, columnIndex, key, cache, icCache, wnCache);
+						continue;
+					}
+					ValueSketch sketch = readSketch(prefixQuery(comparison, condition, tabName),
+							numRefinementRows + 1, cancellationContext, skipped, columnIndex, MAX_TEXT_LENGTH);
+					long numRows = sketch.getNumRows() + skipped[0];
+					if (numRows <= numRefinementRows) {
+						// the prefix is the whole table
+						cacheRefinement(sketch, 1.0, skipped[0], !sketch.isExact(), startTime, columnIndex, key, cache, icCache, wnCache);
+						break;
+					}
+					if (numTableRows < 0) {
+						// a larger prefix, still without counts
+						cacheRefinement(sketch, -1, skipped[0], true, startTime, columnIndex, key, cache, icCache, wnCache);
+					} else if (numTableRows > numRows) {
+						cacheRefinement(sketch, (double) numRows / numTableRows, skipped[0], true, startTime, columnIndex, key, cache, icCache, wnCache);
+					}
+				}
+			} catch (SQLException e) {
+				LogUtil.warn(e);
+			} finally {
+				theRefining.remove(key);
+			}
+		});
+	}
+
+	/**
+	 * Replaces the values in the cache by the values of a sketch, unless data has been modified in the meantime.
+	 *
+	 * @param startTime start time of the reading of the sketch
+	 */
+	private void cacheRefinement(ValueSketch sketch, double fraction, int skipped, boolean isEstimation, long startTime, int columnIndex,
+			Pair<String, String> key, Map<Pair<String, String>, Map<String, Integer>> cache, Map<Pair<String, String>, Integer> icCache, Map<Pair<String, String>, Boolean> wnCache) {
+		Map<String, Integer> result = Collections.synchronizedMap(new LinkedHashMap<String, Integer>());
+		int[] incomplete = new int[1];
+		boolean[] withNull = new boolean[1];
+		fillValues(sketch, fraction, skipped, isEstimation, incomplete, withNull, result, columnIndex);
+		synchronized (this) {
+			if (Session.lastUpdateTS < startTime) {
+				cache.put(key, result);
+				icCache.put(key, incomplete[0]);
+				wnCache.put(key, withNull[0]);
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private void sortValues(Map<String, Integer> resultMap, int columnIndex) {
 		List<String> result = new ArrayList<String>(resultMap.keySet());
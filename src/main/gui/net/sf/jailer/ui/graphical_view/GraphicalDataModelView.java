@@ -186,6 +186,20 @@ public class GraphicalDataModelView extends JPanel {
 
 	private NBodyForce force;
 	private volatile boolean layoutHasBeenSet = false;
+
+	/**
+	 * Graphs with more tables than this get a limited number of layout iterations
+	 * after each change so that the animation does not hog the display.
+	 */
+	private static final int LARGE_GRAPH_SIZE = 300;
+
+	/**
+	 * Number of layout iterations after a change of a large graph.
+	 */
+	private static final int LAYOUT_ITERATION_BUDGET = 400;
+
+	private volatile int layoutIterationsLeft = LAYOUT_ITERATION_BUDGET;
+	private volatile long layoutBudgetVersion = -1;
 	private final ExecutionContext executionContext;
 
 	private final ActionList animate;
@@ -379,7 +393,13 @@ public class GraphicalDataModelView extends JPanel {
 //		draw.add(new ColorAction(edges, VisualItem.FILLCOLOR, ColorLib.gray(200)));
 //		draw.add(new ColorAction(edges, VisualItem.STROKECOLOR, ColorLib.gray(200)));
 
-		animate = new ActionList(Activity.INFINITY);
+		animate = new ActionList(Activity.INFINITY) {
+			@Override
+			protected void run(long elapsedTime) {
+				// the actions lock the visualization themselves, the layout only while taking and publishing snapshots
+				run(getPace(elapsedTime));
+			}
+		};
 //		animate.add(fill);
 		animate.add(new RepaintAction());
 
@@ -490,6 +510,7 @@ public class GraphicalDataModelView extends JPanel {
 				resetScrollTimer();
 				// fix after drag
 				super.itemReleased(item, e);
+				layoutIterationsLeft = LAYOUT_ITERATION_BUDGET;
 				if (!SwingUtilities.isLeftMouseButton(e)) return;
 				if (item instanceof NodeItem) {
 					item.setFixed(true);
@@ -561,6 +582,80 @@ public class GraphicalDataModelView extends JPanel {
 		}
 
 		layout = new ForceDirectedLayout(graph) {
+			private long lastTime = -1;
+			private final List<VisualItem> snapshotItems = new ArrayList<VisualItem>();
+			private final List<ForceItem> snapshotForceItems = new ArrayList<ForceItem>();
+
+			/**
+			 * Takes a snapshot of the positions, runs the simulation step on it without holding
+			 * the visualization lock and publishes the new positions. Painting only has to wait for
+			 * taking the snapshot and publishing it, not for the simulation.
+			 */
+			@Override
+			public void run(double frac) {
+				ForceSimulator fsim = getForceSimulator();
+				long timestep;
+				synchronized (visualization) {
+					if (tableNodes.size() > LARGE_GRAPH_SIZE) {
+						if (layoutBudgetVersion != tableNodesVersion) {
+							layoutBudgetVersion = tableNodesVersion;
+							layoutIterationsLeft = LAYOUT_ITERATION_BUDGET;
+						}
+						if (layoutIterationsLeft <= 0) {
+							return;
+						}
+						--layoutIterationsLeft;
+					}
+					long now = System.currentTimeMillis();
+					if (lastTime == -1) {
+						lastTime = now - 20;
+					}
+					timestep = Math.min(getMaxTimeStep(), now - lastTime);
+					lastTime = now;
+					fsim.clear();
+					initSimulator(fsim);
+					snapshotItems.clear();
+					snapshotForceItems.clear();
+					@SuppressWarnings("rawtypes")
+					Iterator iter = visualization.visibleItems(m_nodeGroup);
+					while (iter.hasNext()) {
+						VisualItem item = (VisualItem) iter.next();
+						snapshotItems.add(item);
+						snapshotForceItems.add((ForceItem) item.get(FORCEITEM));
+					}
+				}
+				fsim.runSimulator(timestep);
+				synchronized (visualization) {
+					// items added meanwhile are laid out in the next step
+					for (int i = 0; i < snapshotItems.size(); ++i) {
+						VisualItem item = snapshotItems.get(i);
+						ForceItem fitem = snapshotForceItems.get(i);
+						if (!item.isValid() || !item.isVisible()) {
+							continue;
+						}
+						if (item.isFixed()) {
+							fitem.force[0] = 0.0f;
+							fitem.force[1] = 0.0f;
+							fitem.velocity[0] = 0.0f;
+							fitem.velocity[1] = 0.0f;
+							if (Double.isNaN(item.getX())) {
+								setX(item, referrer, 0.0);
+								setY(item, referrer, 0.0);
+							}
+							continue;
+						}
+						setX(item, referrer, fitem.location[0]);
+						setY(item, referrer, fitem.location[1]);
+					}
+					snapshotItems.clear();
+					snapshotForceItems.clear();
+				}
+			}
+			@Override
+			public void reset() {
+				super.reset();
+				lastTime = -1;
+			}
 			@Override
 			protected float getMassValue(VisualItem n) {
 				return zoomBoxControl.getRenderer().isBoxItem(n)? 0.01f : showTableDetails? 2.0f : 1.0f;
@@ -725,9 +820,9 @@ public class GraphicalDataModelView extends JPanel {
 									}
 								}
 							}
+							layout.reset();
+							visualization.invalidateAll();
 						}
-						layout.reset();
-						visualization.invalidateAll();
 						done = true;
 						layoutHasBeenSet = true;
 					}
@@ -743,8 +838,10 @@ public class GraphicalDataModelView extends JPanel {
 			@Override
 			public void run(double frac) {
 				if (!done && System.currentTimeMillis() > startTime + 30) {
-					display.pan(1, 1);
-					display.pan(-1, -1);
+					synchronized (visualization) {
+						display.pan(1, 1);
+						display.pan(-1, -1);
+					}
 					done = true;
 				}
 			}
@@ -99,6 +99,16 @@ public abstract class TableRenderer extends AbstractShapeRenderer {
 	protected Dimension m_headerDim = new Dimension(); // text width / height of header
 	
 	private int m_color;
+
+	/**
+	 * Minimum font height (in pixel) at which table names are rendered.
+	 */
+	private static final double MIN_NAME_FONT_HEIGHT = 3.5;
+
+	/**
+	 * Minimum font height (in pixel) at which columns are rendered.
+	 */
+	private static final double MIN_COLUMNS_FONT_HEIGHT = 6.5;
 	
 	// ------------------------------------------------------------------------
 	
@@ -172,7 +182,7 @@ public abstract class TableRenderer extends AbstractShapeRenderer {
 			if (table != null) {
 				tableName = model.getDisplayName(table);
 			}
-			if (table != null && !graphicalDataModelView.modelEditor.getCurrentSubjectClosure().contains(table)) {
+			if (table != null && !graphicalDataModelView.modelEditor.getPublishedSubjectClosure().contains(table)) {
 				m_color = Colors.Color_170_50_50.getRGB();
 			}
 			if (table != null && graphicalDataModelView.showDetails(table)) {
@@ -425,6 +435,12 @@ public abstract class TableRenderer extends AbstractShapeRenderer {
 		RectangularShape shape = (RectangularShape)getShape(item);
 		if ( shape == null ) return;
 		
+		// viewport culling, the display only culls against its own bounds, not against the repainted region
+		Shape clip = g.getClip();
+		if (clip != null && !clip.intersects(item.getBounds())) {
+			return;
+		}
+		
 		// fill the shape, if requested
 		int type = getRenderType(item);
 		if ( type==RENDER_TYPE_FILL || type==RENDER_TYPE_DRAW_AND_FILL ) {
@@ -484,6 +500,26 @@ public abstract class TableRenderer extends AbstractShapeRenderer {
 		
 		if (text == null)
 			return;
+
+		// level of detail
+		if (!graphicalDataModelView.inImageExport) {
+			double scale = Math.max(g.getTransform().getScaleX(), g.getTransform().getScaleY());
+			double fontHeight = scale * DEFAULT_GRAPHICS.getFontMetrics(m_font).getHeight();
+			if (fontHeight < MIN_NAME_FONT_HEIGHT) {
+				// boxes only
+				if (type==RENDER_TYPE_DRAW || type==RENDER_TYPE_DRAW_AND_FILL) {
+					GraphicsLib.paint(g,item,shape,getStroke(item),RENDER_TYPE_DRAW);
+				}
+				return;
+			}
+			if (fontHeight < MIN_COLUMNS_FONT_HEIGHT) {
+				// names only
+				int end = text.indexOf(m_delim);
+				if (end >= 0) {
+					text = text.substring(0, end);
+				}
+			}
+		}
 						
 		double size = item.getSize();
 		boolean useInt = 1.5 > Math.max(g.getTransform().getScaleX(),
@@ -51,8 +51,10 @@ import net.sf.jailer.ui.Colors;
 import net.sf.jailer.ui.databrowser.metadata.MDSchema;
 import net.sf.jailer.ui.databrowser.metadata.MDTable;
 import net.sf.jailer.ui.databrowser.metadata.MetaDataPanel.OutlineInfo;
+import net.sf.jailer.util.ExpiringMemo;
 import net.sf.jailer.util.LogUtil;
 import net.sf.jailer.util.Pair;
+import net.sf.jailer.util.PrefixIndex;
 import net.sf.jailer.util.Quoting;
 import net.sf.jailer.util.SqlUtil;
 
@@ -160,6 +162,7 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
     
     private long timeOut;
     private JComponent waitCursorSubject;
+    private String alreadyEnteredPrefix = "";
     private final int COLUMN_LOADING_TIMEOUT = 500;
 
     private static final String reIdentifier = "(?:[\"][^\"]+[\"])|(?:[`][^`]+[`])|(?:['][^']+['])|(?:[\\w]+)";
@@ -187,6 +190,10 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
         waitCursorSubject = comp;
         String text = getAlreadyEnteredText(comp);
         if (text!=null) {
+            alreadyEnteredPrefix = text;
+            if (text.length() > 0 && (text.charAt(0) == '\"' || text.charAt(0) == '`')) {
+            	alreadyEnteredPrefix = text.substring(1);
+            }
             List<SQLCompletion> potentialCompletions = new ArrayList<SQLCompletion>();
             potentialCompletions = getPotentialCompletions(comp, text);
             List<SQLCompletion> matched = new ArrayList<SQLCompletion>(); 
@@ -226,10 +233,40 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
         return retrieveCompletions(line, lineBeforeCaret, sb.toString(), isCaretAtEOL);
     }
 
+    /**
+     * Result of the alias analysis of a statement.
+     */
+    private class AliasAnalysis {
+    	final Map<String, TABLE> aliases = new LinkedHashMap<String, TABLE>();
+    	final Map<String, TABLE> aliasesTopLevel = new LinkedHashMap<String, TABLE>();
+    	final Set<String> cteAliases = new HashSet<String>();
+    }
+
+    /**
+     * Maximum time in ms an alias analysis is reused. (Tables may be loaded in the meantime.)
+     */
+    private static final long ALIAS_ANALYSIS_TTL = 4000;
+
+    private static final Pattern identifierAtEndPattern = Pattern.compile("[\\w\"`]+$");
+
+    /**
+     * The last alias analysis, per statement.
+     */
+    private final ExpiringMemo<Pair<String, String>, AliasAnalysis> lastAliasAnalysis = new ExpiringMemo<Pair<String, String>, AliasAnalysis>(ALIAS_ANALYSIS_TTL);
+    private String lastLine;
+    private String lastLineWithoutCommentsAndLiterals;
+
     private List<SQLCompletion> retrieveCompletions(String line, String beforeCaret, String indent, boolean isCaretAtEOL) {
         int pos = beforeCaret.length();
         String afterCaret = null;
-        String origStatement = removeCommentsAndLiterals(line);
+        String origStatement;
+        if (line.equals(lastLine)) {
+        	origStatement = lastLineWithoutCommentsAndLiterals;
+        } else {
+        	origStatement = removeCommentsAndLiterals(line);
+        	lastLine = line;
+        	lastLineWithoutCommentsAndLiterals = origStatement;
+        }
         if (pos > 0) {
 			line = reduceStatement(origStatement, pos - 1);
             if (pos < line.length()) {
@@ -237,13 +274,35 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
                 afterCaret = line.substring(pos, line.length());
             }
         }
+        Clause clause = currentClause(beforeCaret);
         aliases.clear();
         aliasesTopLevel.clear();
         cteAliases.clear();
-        aliases.putAll(findAliases(afterCaret != null? beforeCaret + "=" + afterCaret : (line + "="), afterCaret != null? beforeCaret.length() : line.length(), origStatement, aliasesTopLevel, cteAliases, null));
+        String aliasAnalysisBeforeCaret = afterCaret != null? beforeCaret : line;
+        String aliasAnalysisOrigStatement = origStatement;
+        if (clause != Clause.FROM && clause != Clause.TABLE && clause != Clause.UPDATE && clause != Clause.JOIN && clause != Clause.INTO) {
+        	// the identifier being typed does not define an alias, so leave it out
+        	// to be able to reuse the analysis while it is being typed
+        	Matcher matcher = identifierAtEndPattern.matcher(aliasAnalysisBeforeCaret);
+        	if (matcher.find() && aliasAnalysisBeforeCaret.length() <= origStatement.length()) {
+        		int start = matcher.start();
+        		aliasAnalysisOrigStatement = origStatement.substring(0, start) + origStatement.substring(aliasAnalysisBeforeCaret.length());
+        		aliasAnalysisBeforeCaret = aliasAnalysisBeforeCaret.substring(0, start);
+        	}
+        }
+        String aliasAnalysisStatement = afterCaret != null? aliasAnalysisBeforeCaret + "=" + afterCaret : (aliasAnalysisBeforeCaret + "=");
+        Pair<String, String> aliasAnalysisKey = new Pair<String, String>(aliasAnalysisStatement, aliasAnalysisOrigStatement);
+        AliasAnalysis aliasAnalysis = lastAliasAnalysis.get(aliasAnalysisKey);
+        if (aliasAnalysis == null) {
+        	aliasAnalysis = new AliasAnalysis();
+        	aliasAnalysis.aliases.putAll(findAliases(aliasAnalysisStatement, aliasAnalysisBeforeCaret.length(), aliasAnalysisOrigStatement, aliasAnalysis.aliasesTopLevel, aliasAnalysis.cteAliases, null));
+        	lastAliasAnalysis.put(aliasAnalysisKey, aliasAnalysis);
+        }
+        aliases.putAll(aliasAnalysis.aliases);
+        aliasesTopLevel.putAll(aliasAnalysis.aliasesTopLevel);
+        cteAliases.addAll(aliasAnalysis.cteAliases);
         aliases.putAll(userDefinedAliases);
         aliasesTopLevel.putAll(userDefinedAliases);
-        Clause clause = currentClause(beforeCaret);
         List<SQLCompletion> result = new ArrayList<SQLCompletion>();
         for (CompletionRetriever<TABLE, SOURCE> completionRetriever: completionRetrievers) {
             List<SQLCompletion> compl = completionRetriever.retrieveCompletion(line, origStatement, beforeCaret, clause, metaDataSource, indent, isCaretAtEOL);
@@ -781,7 +840,7 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
     private List<SQLCompletion> tableCompletions(TABLE context) {
         List<SQLCompletion> newCompletions = new ArrayList<SQLCompletion>();
         if (context != null) {
-            for (String column: getAndWaitForColumns(context)) {
+            for (String column: getColumns(context, alreadyEnteredPrefix)) {
                 String tableName = getTableName(context);
                 String info = this.getColumnInfo(context, column);
                 String desc = aliasesTopLevel.size() == 1?
@@ -808,7 +867,7 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
     private List<SQLCompletion> schemaCompletions(SCHEMA schema) {
         List<SQLCompletion> newCompletions = new ArrayList<SQLCompletion>();
         if (schema != null) {
-            for (TABLE table: getTables(schema)) {
+            for (TABLE table: getTables(schema, alreadyEnteredPrefix)) {
                 String tableName = getTableName(table);
                 if (!ModelBuilder.isJailerTable(tableName)) {
                     newCompletions.add(new SQLCompletion(this, Quoting.staticUnquote(tableName), getQuoting() == null? tableName : getQuoting().quote(tableName),
@@ -1611,9 +1670,10 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
         }
     }
 
+    private static final Pattern clausePattern = Pattern.compile(".*\\b(select|from|where|group|having|order|join|on|update|set|into|table)\\b(.*?)$", Pattern.DOTALL|Pattern.CASE_INSENSITIVE);
+
     private Clause currentClause(String sql) {
-        Pattern pattern = Pattern.compile(".*\\b(select|from|where|group|having|order|join|on|update|set|into|table)\\b(.*?)$", Pattern.DOTALL|Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(sql);
+        Matcher matcher = clausePattern.matcher(sql);
         if (matcher.matches()) {
             for (Clause clause: Clause.values()) {
                 if (clause.name.equalsIgnoreCase(matcher.group(1))) {
@@ -1721,6 +1781,25 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
     }
 
     protected abstract List<String> getColumns(TABLE table, long timeOut, JComponent waitCursorSubject);
+
+    /**
+     * Gets all columns of a table whose (unquoted) name starts with a given prefix, ignoring case.
+     * Providers with wide tables should override this with an index based lookup.
+     *
+     * @param table the table
+     * @param prefix the prefix
+     * @return all columns whose name starts with the prefix
+     */
+    protected List<String> getColumns(TABLE table, String prefix) {
+    	List<String> result = new ArrayList<String>();
+    	for (String column: getAndWaitForColumns(table)) {
+    		if (PrefixIndex.matches(Quoting.staticUnquote(column), prefix)) {
+    			result.add(column);
+    		}
+    	}
+    	return result;
+    }
+
     protected abstract String getColumnInfo(TABLE table, String column);
     protected abstract void setColumns(TABLE table, List<String> columns);
 
@@ -1731,6 +1810,24 @@ public abstract class SQLCompletionProvider<SOURCE, SCHEMA, TABLE> extends Defau
     
     protected abstract String getTableName(TABLE table);
     protected abstract List<TABLE> getTables(SCHEMA schema);
+
+    /**
+     * Gets all tables of a schema whose (unquoted) name starts with a given prefix, ignoring case.
+     * Providers with large catalogs should override this with an index based lookup.
+     *
+     * @param schema the schema
+     * @param prefix the prefix
+     * @return all tables whose name starts with the prefix
+     */
+    protected List<TABLE> getTables(SCHEMA schema, String prefix) {
+    	List<TABLE> result = new ArrayList<TABLE>();
+    	for (TABLE table: getTables(schema)) {
+    		if (PrefixIndex.matches(Quoting.staticUnquote(getTableName(table)), prefix)) {
+    			result.add(table);
+    		}
+    	}
+    	return result;
+    }
     protected abstract String getSchemaName(SCHEMA schema);
     protected abstract List<SCHEMA> getSchemas(SOURCE metaDataSource);
     protected abstract List<Association> getAssociations(TABLE source, TABLE destination);
@@ -19,6 +19,7 @@ import net.sf.jailer.ui.UIUtil;
 
 /**
  * Monitors the AWT event dispatch thread and reports hangs.
+ * Also samples the stack of long running events for the {@link EDTStatistics}.
  */
 public class AWTWatchdog {
 
@@ -28,6 +29,7 @@ public class AWTWatchdog {
 	 * Starts the AWT watchdog thread.
 	 */
 	public static void start() {
+		EDTStatistics.install();
 		try {
 			Thread watchdog = new Thread(new Runnable() {
 				@Override
@@ -46,6 +48,7 @@ public class AWTWatchdog {
 						} catch (InterruptedException e) {
 							// ignore
 						}
+						EDTStatistics.sampleStalledEvent();
 						long st = getStarttime();
 						if (st != 0 && st + MAX_DELAY < System.currentTimeMillis()) {
 							if (!issueSent) {
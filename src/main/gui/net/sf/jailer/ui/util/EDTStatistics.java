@@ -0,0 +1,445 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer.ui.util;
+
+import java.awt.AWTEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.InvocationEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.AbstractButton;
+import javax.swing.SwingUtilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import net.sf.jailer.database.Session;
+
+/**
+ * Responsiveness telemetry of the AWT event dispatch thread (EDT).<br>
+ * Records a histogram of the dispatch times and queueing delays of the events,
+ * attributes slow events to the component, listener or runnable that handled them
+ * and counts the JDBC statements executed on the EDT.
+ *
+ * @see AWTWatchdog
+ */
+public class EDTStatistics {
+
+	/**
+	 * Events that take longer are attributed.
+	 */
+	public static final long SLOW_EVENT_MILLIS = 100;
+
+	/**
+	 * The EDT stack of events running longer is sampled.
+	 */
+	private static final long STALL_SAMPLE_MILLIS = 500;
+
+	/**
+	 * Upper bounds (exclusive) of the histogram buckets in milliseconds. The last bucket is unbounded.
+	 */
+	public static final long[] BUCKET_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000 };
+
+	private static final int MAX_ATTRIBUTIONS = 500;
+	private static final int MAX_DEPTH = 64;
+	private static final int MAX_SQL_LENGTH = 200;
+
+	/**
+	 * Accumulated durations of events or statements with the same origin.
+	 */
+	public static class Counter {
+		public final String origin;
+		public long count;
+		public long totalMillis;
+		public long maxMillis;
+		public String example;
+		public final Map<String, Integer> hotFrames = new HashMap<String, Integer>();
+
+		Counter(String origin) {
+			this.origin = origin;
+		}
+
+		void add(long millis, String example) {
+			++count;
+			totalMillis += millis;
+			if (millis >= maxMillis) {
+				maxMillis = millis;
+				if (example != null) {
+					this.example = example;
+				}
+			}
+		}
+	}
+
+	private static final long[] dispatchHistogram = new long[BUCKET_BOUNDS.length + 1];
+	private static final long[] queueHistogram = new long[BUCKET_BOUNDS.length + 1];
+	private static final Map<String, Counter> slowEvents = new HashMap<String, Counter>();
+	private static final Map<String, Counter> edtStatements = new HashMap<String, Counter>();
+	private static long numEvents;
+	private static long numNestedLoops;
+	private static long startTime = System.currentTimeMillis();
+
+	// dispatch stack of the EDT (modal dialogs dispatch events while an event is being dispatched)
+	private static final AWTEvent[] events = new AWTEvent[MAX_DEPTH];
+	private static final long[] starts = new long[MAX_DEPTH];
+	private static final boolean[] nested = new boolean[MAX_DEPTH];
+	private static final List<Set<String>> frames = new ArrayList<Set<String>>();
+	private static int depth = 0;
+	private static Thread edt;
+
+	/**
+	 * Starts counting the JDBC statements executed on the EDT.
+	 */
+	public static void install() {
+		Session.setStatementObserver(new Session.StatementObserver() {
+			@Override
+			public void executed(Session session, String sql, long duration) {
+				if (SwingUtilities.isEventDispatchThread()) {
+					statementExecutedOnEDT(sql, duration);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Called before an event is dispatched.
+	 *
+	 * @param event the event
+	 */
+	public static synchronized void eventStarted(AWTEvent event) {
+		edt = Thread.currentThread();
+		if (depth < MAX_DEPTH) {
+			for (int i = 0; i < depth; ++i) {
+				nested[i] = true;
+			}
+			events[depth] = event;
+			starts[depth] = System.currentTimeMillis();
+			nested[depth] = false;
+			while (frames.size() <= depth) {
+				frames.add(new LinkedHashSet<String>());
+			}
+			frames.get(depth).clear();
+		}
+		++depth;
+	}
+
+	/**
+	 * Called after an event has been dispatched.
+	 *
+	 * @param event the event
+	 */
+	public static synchronized void eventFinished(AWTEvent event) {
+		--depth;
+		if (depth < 0) {
+			depth = 0;
+			return;
+		}
+		if (depth >= MAX_DEPTH || events[depth] != event) {
+			return;
+		}
+		events[depth] = null;
+		if (nested[depth]) {
+			// includes the time a modal dialog was open
+			++numNestedLoops;
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long duration = now - starts[depth];
+		++numEvents;
+		++dispatchHistogram[bucket(duration)];
+		long when = event instanceof InputEvent? ((InputEvent) event).getWhen() : event instanceof InvocationEvent? ((InvocationEvent) event).getWhen() : 0;
+		if (when > 0 && when <= starts[depth]) {
+			++queueHistogram[bucket(starts[depth] - when)];
+		}
+		if (duration >= SLOW_EVENT_MILLIS) {
+			String origin = attribution(event);
+			Counter counter = slowEvents.get(origin);
+			if (counter == null) {
+				if (slowEvents.size() >= MAX_ATTRIBUTIONS) {
+					return;
+				}
+				counter = new Counter(origin);
+				slowEvents.put(origin, counter);
+			}
+			counter.add(duration, null);
+			for (String frame: frames.get(depth)) {
+				counter.hotFrames.merge(frame, 1, Integer::sum);
+			}
+		}
+	}
+
+	/**
+	 * Samples the stack of the EDT if the current event is running for a long time.
+	 * Called periodically by the {@link AWTWatchdog}.
+	 */
+	static void sampleStalledEvent() {
+		Thread thread;
+		int current;
+		synchronized (EDTStatistics.class) {
+			current = Math.min(depth, MAX_DEPTH) - 1;
+			if (current < 0 || nested[current] || events[current] == null || starts[current] + STALL_SAMPLE_MILLIS > System.currentTimeMillis()) {
+				return;
+			}
+			thread = edt;
+		}
+		if (thread == null) {
+			return;
+		}
+		String frame = firstOwnFrame(thread.getStackTrace());
+		if (frame != null) {
+			synchronized (EDTStatistics.class) {
+				if (current < frames.size() && depth - 1 == current) {
+					frames.get(current).add(frame);
+				}
+			}
+		}
+	}
+
+	private static synchronized void statementExecutedOnEDT(String sql, long duration) {
+		String origin = firstOwnFrame(Thread.currentThread().getStackTrace());
+		if (origin == null) {
+			origin = "?";
+		}
+		Counter counter = edtStatements.get(origin);
+		if (counter == null) {
+			if (edtStatements.size() >= MAX_ATTRIBUTIONS) {
+				return;
+			}
+			counter = new Counter(origin);
+			edtStatements.put(origin, counter);
+		}
+		counter.add(duration, sql.length() > MAX_SQL_LENGTH? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql);
+	}
+
+	/**
+	 * Gets the first frame of a stack trace that belongs to the application (and not to the instrumentation, the JDK or the engine).
+	 */
+	private static String firstOwnFrame(StackTraceElement[] stackTrace) {
+		for (StackTraceElement ste: stackTrace) {
+			String className = ste.getClassName();
+			if (className.startsWith("net.sf.jailer.ui.")
+					&& !className.startsWith(EDTStatistics.class.getName())
+					&& !className.startsWith(AWTWatchdog.class.getName())
+					&& !className.startsWith("net.sf.jailer.ui.Environment")) {
+				return normalize(className) + "." + ste.getMethodName() + (ste.getLineNumber() >= 0? ":" + ste.getLineNumber() : "");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets a description of the component, listener or runnable that handles an event.
+	 */
+	private static String attribution(AWTEvent event) {
+		if (event instanceof InvocationEvent) {
+			String param = event.paramString();
+			int i = param.indexOf("runnable=");
+			if (i >= 0) {
+				String runnable = param.substring(i + "runnable=".length());
+				int end = runnable.indexOf(',');
+				if (end >= 0) {
+					runnable = runnable.substring(0, end);
+				}
+				return "Invocation " + normalize(runnable);
+			}
+		}
+		String param = event.paramString();
+		int end = param.indexOf(',');
+		StringBuilder sb = new StringBuilder(event.getClass().getSimpleName());
+		sb.append(" ").append(end >= 0? param.substring(0, end) : param);
+		Object source = event.getSource();
+		sb.append(" on ").append(source == null? "?" : normalize(source.getClass().getName()));
+		if (source instanceof AbstractButton) {
+			Set<String> listeners = new LinkedHashSet<String>();
+			for (ActionListener listener: ((AbstractButton) source).getActionListeners()) {
+				listeners.add(normalize(listener.getClass().getName()));
+			}
+			if (!listeners.isEmpty()) {
+				sb.append(" -> ").append(String.join(", ", listeners));
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Removes identity hash codes and the generated parts of lambda class names.
+	 */
+	private static String normalize(String name) {
+		return name.replaceAll("\\$\\$Lambda.*$", "\\$\\$Lambda").replaceAll("@[0-9a-fA-F]+$", "");
+	}
+
+	private static int bucket(long millis) {
+		int i = 0;
+		while (i < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[i]) {
+			++i;
+		}
+		return i;
+	}
+
+	/**
+	 * Gets the histogram of the dispatch times.
+	 *
+	 * @return number of events per bucket (see {@link #BUCKET_BOUNDS})
+	 */
+	public static synchronized long[] getDispatchHistogram() {
+		return dispatchHistogram.clone();
+	}
+
+	/**
+	 * Gets the histogram of the times the events were queued before being dispatched.
+	 *
+	 * @return number of events per bucket (see {@link #BUCKET_BOUNDS})
+	 */
+	public static synchronized long[] getQueueHistogram() {
+		return queueHistogram.clone();
+	}
+
+	/**
+	 * Gets the slow events, slowest in total first.
+	 *
+	 * @return the slow events
+	 */
+	public static synchronized List<Counter> getSlowEvents() {
+		return sorted(slowEvents);
+	}
+
+	/**
+	 * Gets the JDBC statements executed on the EDT, grouped by calling method, slowest in total first.
+	 *
+	 * @return the statements
+	 */
+	public static synchronized List<Counter> getEDTStatements() {
+		return sorted(edtStatements);
+	}
+
+	private static List<Counter> sorted(Map<String, Counter> counters) {
+		List<Counter> result = new ArrayList<Counter>();
+		for (Counter counter: counters.values()) {
+			Counter copy = new Counter(counter.origin);
+			copy.count = counter.count;
+			copy.totalMillis = counter.totalMillis;
+			copy.maxMillis = counter.maxMillis;
+			copy.example = counter.example;
+			copy.hotFrames.putAll(counter.hotFrames);
+			result.add(copy);
+		}
+		result.sort((a, b) -> Long.compare(b.totalMillis, a.totalMillis));
+		return result;
+	}
+
+	/**
+	 * Gets the number of recorded events.
+	 *
+	 * @return number of recorded events
+	 */
+	public static synchronized long getNumEvents() {
+		return numEvents;
+	}
+
+	/**
+	 * Gets the number of events that have not been recorded because a modal dialog was opened while dispatching them.
+	 *
+	 * @return number of events
+	 */
+	public static synchronized long getNumNestedLoops() {
+		return numNestedLoops;
+	}
+
+	/**
+	 * Gets the time since the recording started.
+	 *
+	 * @return time since the recording started in milliseconds
+	 */
+	public static synchronized long getRecordingTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/**
+	 * Discards the recorded data.
+	 */
+	public static synchronized void reset() {
+		Arrays.fill(dispatchHistogram, 0);
+		Arrays.fill(queueHistogram, 0);
+		slowEvents.clear();
+		edtStatements.clear();
+		numEvents = 0;
+		numNestedLoops = 0;
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Renders the recorded data as JSON.
+	 *
+	 * @return the recorded data in JSON format
+	 */
+	public static String toJson() {
+		ObjectMapper mapper = new ObjectMapper();
+		ObjectNode root = mapper.createObjectNode();
+		root.put("recordingTimeMillis", getRecordingTime());
+		root.put("events", getNumEvents());
+		root.put("eventsWithNestedLoop", getNumNestedLoops());
+		root.set("dispatchHistogram", histogram(mapper, getDispatchHistogram()));
+		root.set("queueHistogram", histogram(mapper, getQueueHistogram()));
+		root.set("slowEvents", counters(mapper, getSlowEvents(), "origin"));
+		root.set("edtStatements", counters(mapper, getEDTStatements(), "caller"));
+		try {
+			return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static ArrayNode histogram(ObjectMapper mapper, long[] histogram) {
+		ArrayNode result = mapper.createArrayNode();
+		for (int i = 0; i < histogram.length; ++i) {
+			ObjectNode bucket = result.addObject();
+			bucket.put("fromMillis", i == 0? 0 : BUCKET_BOUNDS[i - 1]);
+			if (i < BUCKET_BOUNDS.length) {
+				bucket.put("toMillis", BUCKET_BOUNDS[i]);
+			}
+			bucket.put("count", histogram[i]);
+		}
+		return result;
+	}
+
+	private static ArrayNode counters(ObjectMapper mapper, List<Counter> counters, String originName) {
+		ArrayNode result = mapper.createArrayNode();
+		for (Counter counter: counters) {
+			ObjectNode node = result.addObject();
+			node.put(originName, counter.origin);
+			node.put("count", counter.count);
+			node.put("totalMillis", counter.totalMillis);
+			node.put("maxMillis", counter.maxMillis);
+			if (counter.example != null) {
+				node.put("slowestStatement", counter.example);
+			}
+			if (!counter.hotFrames.isEmpty()) {
+				ObjectNode hotFrames = node.putObject("hotFrames");
+				counter.hotFrames.forEach(hotFrames::put);
+			}
+		}
+		return result;
+	}
+
+}
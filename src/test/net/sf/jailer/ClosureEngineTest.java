@@ -0,0 +1,154 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import net.sf.jailer.datamodel.Association;
+import net.sf.jailer.datamodel.ClosureEngine;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.restrictionmodel.RestrictionModel;
+
+/**
+ * Tests the incremental update of the closures computed by {@link ClosureEngine}.
+ *
+ * @author Ralf Wisser
+ */
+public class ClosureEngineTest extends TestCase {
+
+	private DataModel dataModel;
+
+	@Override
+	protected void setUp() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(new File("datamodel/Demo-Scott").toURI().toURL());
+		dataModel = new DataModel(executionContext);
+		if (dataModel.getRestrictionModel() == null) {
+			dataModel.setRestrictionModel(new RestrictionModel(dataModel, executionContext));
+		}
+	}
+
+	private Table table(String name) {
+		Table table = dataModel.getTable(name);
+		assertNotNull(name, table);
+		return table;
+	}
+
+	private Association association(String source, String destination) {
+		for (Association association: table(source).associations) {
+			if (association.destination.getName().equals(destination)) {
+				return association;
+			}
+		}
+		fail("no association " + source + " -> " + destination);
+		return null;
+	}
+
+	/**
+	 * Changes the restriction of an association and notifies the engine.
+	 */
+	private void setIgnored(ClosureEngine engine, Association association, boolean ignored) {
+		long versionBefore = dataModel.getVersion();
+		dataModel.getRestrictionModel().addRestriction(association, ignored? "ignore" : "", "test", true, new HashMap<String, String>());
+		engine.associationChanged(association, versionBefore);
+	}
+
+	/**
+	 * Asserts that the (incrementally updated) closure is the one computed from scratch.
+	 */
+	private void assertUpToDate(ClosureEngine engine, Set<Table> roots) {
+		ClosureEngine.Snapshot snapshot = engine.getSnapshot(roots);
+		assertEquals(dataModel.getVersion(), snapshot.getVersion());
+		assertEquals(new ClosureEngine(dataModel).getSnapshot(roots).getLayers(), snapshot.getLayers());
+	}
+
+	public void testDistances() {
+		ClosureEngine engine = new ClosureEngine(dataModel);
+		ClosureEngine.Snapshot snapshot = engine.getSnapshot(Collections.singleton(table("PROJECT_PARTICIPATION")));
+		assertEquals(Integer.valueOf(0), snapshot.getDistance(table("PROJECT_PARTICIPATION")));
+		assertEquals(Integer.valueOf(1), snapshot.getDistance(table("EMPLOYEE")));
+		assertEquals(Integer.valueOf(2), snapshot.getDistance(table("DEPARTMENT")));
+	}
+
+	public void testDisableAndEnable() {
+		ClosureEngine engine = new ClosureEngine(dataModel);
+		Set<Table> roots = Collections.singleton(table("PROJECT_PARTICIPATION"));
+		engine.getSnapshot(roots);
+
+		Association toEmployee = association("PROJECT_PARTICIPATION", "EMPLOYEE");
+		setIgnored(engine, toEmployee, true);
+		assertUpToDate(engine, roots);
+		assertNull(engine.getSnapshot(roots).getDistance(table("EMPLOYEE")));
+		assertNull(engine.getSnapshot(roots).getDistance(table("DEPARTMENT")));
+
+		setIgnored(engine, toEmployee, false);
+		assertUpToDate(engine, roots);
+		assertEquals(Integer.valueOf(2), engine.getSnapshot(roots).getDistance(table("DEPARTMENT")));
+	}
+
+	public void testDisableAssociationOutsideOfShortestPaths() {
+		ClosureEngine engine = new ClosureEngine(dataModel);
+		Set<Table> roots = Collections.singleton(table("EMPLOYEE"));
+		engine.getSnapshot(roots);
+
+		// the boss of an employee is an employee, the distances don't change
+		setIgnored(engine, association("EMPLOYEE", "EMPLOYEE"), true);
+		assertUpToDate(engine, roots);
+	}
+
+	public void testEachAssociation() {
+		for (Table root: dataModel.getTables()) {
+			ClosureEngine engine = new ClosureEngine(dataModel);
+			Set<Table> roots = Collections.singleton(root);
+			engine.getSnapshot(roots);
+			for (Table table: dataModel.getTables()) {
+				for (Association association: table.associations) {
+					setIgnored(engine, association, true);
+					assertUpToDate(engine, roots);
+					setIgnored(engine, association, false);
+					assertUpToDate(engine, roots);
+				}
+			}
+		}
+	}
+
+	public void testRequestUsesInputsOfCallingThread() throws Exception {
+		ClosureEngine engine = new ClosureEngine(dataModel);
+		Set<Table> roots = Collections.singleton(table("PROJECT_PARTICIPATION"));
+		setIgnored(engine, association("PROJECT_PARTICIPATION", "EMPLOYEE"), true);
+		final CountDownLatch done = new CountDownLatch(1);
+		final AtomicReference<ClosureEngine.Snapshot> result = new AtomicReference<ClosureEngine.Snapshot>();
+		long version = dataModel.getVersion();
+		engine.requestSnapshot(roots, s -> {
+			result.set(s);
+			done.countDown();
+		});
+		// modification after the request has been made
+		setIgnored(engine, association("PROJECT_PARTICIPATION", "EMPLOYEE"), false);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(version, result.get().getVersion());
+		assertNull(result.get().getDistance(table("EMPLOYEE")));
+	}
+
+}
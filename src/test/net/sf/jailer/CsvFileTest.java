@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.CsvFile;
+
+/**
+ * Tests {@link CsvFile}
+ *
+ * @author Ralf Wisser
+ */
+public class CsvFileTest extends TestCase {
+
+	// no 'u', so that the only escaped unencodable chars are the generated ones (which are never ASCII, like the encoded ones)
+	private static final char[] CHARS = { 'a', 'Z', '0', ' ', '\t', ';', '\\', 'n', 'r', '{', '}', 'f', '#', 'ä', '€' };
+
+	public void testTokenizerMatchesDecodeLine() throws Exception {
+		Random random = new Random(4711);
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<String>();
+		for (int lineNr = 1; lineNr <= 2000; ++lineNr) {
+			StringBuilder line = new StringBuilder();
+			int length = random.nextInt(10) == 0? 10000 + random.nextInt(10000) : 1 + random.nextInt(60);
+			for (int i = 0; i < length; ++i) {
+				if (random.nextInt(40) == 0) {
+					line.append("{\\u" + Integer.toHexString(0x80 + random.nextInt(0x3000)) + "}");
+				} else {
+					line.append(CHARS[random.nextInt(CHARS.length)]);
+				}
+			}
+			String l = line.toString();
+			content.append(l).append(random.nextBoolean()? "\n" : random.nextBoolean()? "\r\n" : "\r");
+			if (l.trim().length() > 0 && !l.trim().startsWith("#")) {
+				StringBuilder cells = new StringBuilder();
+				for (String cell: CsvFile.decodeLine(l)) {
+					cells.append(cell.trim()).append('|');
+				}
+				expected.add(lineNr + ": " + cells);
+			}
+		}
+
+		List<String> actual = new ArrayList<String>();
+		CsvFile.read(new StringReader(content.toString()), null, (cells, numCells, lineNr) -> {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < numCells; ++i) {
+				sb.append(cells[i]).append('|');
+			}
+			actual.add(lineNr + ": " + sb);
+			return true;
+		});
+		assertEquals(expected, actual);
+	}
+
+	public void testBlocks() throws Exception {
+		String content = "a; b\r\n# comment\r\n\r\n#! block x\nc;d\n  #! block  y \ne\\;f\n";
+		CsvFile csv = new CsvFile(new ByteArrayInputStream(content.getBytes()), CsvFile.ALL_BLOCKS, "test", null);
+		assertEquals(Arrays.asList("a", "b"), csv.getLines().get(0).cells.subList(0, 2));
+		assertEquals("test, line 1", csv.getLines().get(0).location);
+		assertEquals(Arrays.asList("c", "d"), csv.getLines("x").get(0).cells.subList(0, 2));
+		assertEquals("e;f", csv.getLines("y").get(0).cells.get(0));
+		assertEquals("test, line 7", csv.getLines("y").get(0).location);
+
+		CsvFile blockX = new CsvFile(new ByteArrayInputStream(content.getBytes()), "x", "test", null);
+		assertEquals(1, blockX.getLines().size());
+		assertEquals("c", blockX.getLines().get(0).cells.get(0));
+
+		List<String> firstCells = new ArrayList<String>();
+		CsvFile.read(new StringReader(content), "y", (cells, numCells, lineNr) -> firstCells.add(cells[0]));
+		assertEquals(Arrays.asList("e;f"), firstCells);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import junit.framework.TestCase;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.entitygraph.remote.RemoteEntityGraph;
+
+/**
+ * Tests the set-based delete statements of {@link RemoteEntityGraph}.
+ *
+ * @author Ralf Wisser
+ */
+public class DeleteRowsStatementTest extends TestCase {
+
+	private static final String CONDITION = "E.birthday>=0 and E.r_entitygraph=7 and E.type=3";
+
+	private String deleteRowsStatement(DBMS dbms, boolean incrementally) {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.setInsertIncrementally(incrementally);
+		return RemoteEntityGraph.deleteRowsStatement(dbms, "S.ORDERS", "JAILER_ENTITY", CONDITION, alias -> alias + ".ID=E.PK0", executionContext, 500);
+	}
+
+	public void testPlainDeleteWithAlias() {
+		assertEquals(
+				"Delete from S.ORDERS T Where exists (Select 1 From JAILER_ENTITY E Where " + CONDITION + " and T.ID=E.PK0) ",
+				deleteRowsStatement(DBMS.POSTGRESQL, false));
+	}
+
+	public void testPlainDeleteWithoutAlias() {
+		assertEquals(
+				"Delete from S.ORDERS Where exists (Select 1 From JAILER_ENTITY E Where " + CONDITION + " and S.ORDERS.ID=E.PK0) ",
+				deleteRowsStatement(DBMS.MSSQL, false));
+	}
+
+	public void testChunkedDelete() {
+		assertEquals(
+				"Delete from S.ORDERS T Where exists (Select 1 From JAILER_ENTITY E Where " + CONDITION + " and T.ID=E.PK0) and rownum <= 500 ",
+				deleteRowsStatement(DBMS.ORACLE, true));
+		assertEquals(
+				"Delete TOP(500) from S.ORDERS Where exists (Select 1 From JAILER_ENTITY E Where " + CONDITION + " and S.ORDERS.ID=E.PK0) ",
+				deleteRowsStatement(DBMS.MSSQL, true));
+		assertEquals(
+				"Delete from S.ORDERS Where exists (Select 1 From JAILER_ENTITY E Where " + CONDITION + " and S.ORDERS.ID=E.PK0) limit 500 ",
+				deleteRowsStatement(DBMS.MySQL, true));
+	}
+
+}
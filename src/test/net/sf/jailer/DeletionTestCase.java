@@ -42,6 +42,7 @@ public class DeletionTestCase extends DbmsAwareTestCase {
 	private final File initialDataset;
 	private final File expectedResult;
 	private final String scope;
+	private final boolean deleteDirectly;
 		
 	/**
 	 * Constructor.
@@ -50,12 +51,24 @@ public class DeletionTestCase extends DbmsAwareTestCase {
 	 * @param initialDataset initial data
 	 */
 	public DeletionTestCase(String name, File testDir, File datamodelDir, File initialDataset, File expectedResult, String scope) {
+		this(name, testDir, datamodelDir, initialDataset, expectedResult, scope, false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name test case name
+	 * @param initialDataset initial data
+	 * @param deleteDirectly delete rows directly instead of executing the delete-script
+	 */
+	public DeletionTestCase(String name, File testDir, File datamodelDir, File initialDataset, File expectedResult, String scope, boolean deleteDirectly) {
 		super(name);
 		this.testDir = testDir;
 		this.datamodelDir = datamodelDir;
 		this.initialDataset = initialDataset;
 		this.expectedResult = expectedResult;
 		this.scope = scope;
+		this.deleteDirectly = deleteDirectly;
 	}
 
 	/**
@@ -78,10 +91,12 @@ public class DeletionTestCase extends DbmsAwareTestCase {
 		File insertResult = new File(resultDir, "insert.sql");
 		
 		if (doDeletion(datamodelDir, new File(testDir, "extractionmodel.csv"), result, insertResult, scope)) {
-			BasicDataSource dataSource = new BasicDataSource(connectionArguments.get(0), connectionArguments.get(1), connectionArguments.get(2), connectionArguments.get(3), 0);
-			Session statementExecutor = new Session(dataSource, dataSource.dbms, null);
-			new SqlScriptExecutor(statementExecutor, 1).executeScript(result.getCanonicalPath());
-			statementExecutor.shutDown();
+			if (!deleteDirectly) {
+				BasicDataSource dataSource = new BasicDataSource(connectionArguments.get(0), connectionArguments.get(1), connectionArguments.get(2), connectionArguments.get(3), 0);
+				Session statementExecutor = new Session(dataSource, dataSource.dbms, null);
+				new SqlScriptExecutor(statementExecutor, 1).executeScript(result.getCanonicalPath());
+				statementExecutor.shutDown();
+			}
 			
 			File actualState = new File(resultDir, "remaining-state.xml");
 			IDataSet depDataset = getConnection().createDataSet(getDataSet().getTableNames());
@@ -126,13 +141,16 @@ public class DeletionTestCase extends DbmsAwareTestCase {
 		args.add(scope);
 		args.add("-e");
 		args.add(insertResult.getAbsolutePath());
+		if (deleteDirectly) {
+			args.add("-delete-directly");
+		}
 		System.out.println(args);
 		Jailer.main(args.toArray(new String[0]));
 		return true;
 	}
 
 	public String toString() {
-		return super.toString() + ": " + testDir + ", " + scope;
+		return super.toString() + ": " + testDir + ", " + scope + (deleteDirectly? ", direct" : "");
 	}
 	
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.ExpiringMemo;
+import net.sf.jailer.util.Pair;
+
+/**
+ * Tests {@link ExpiringMemo} the way the SQL code completion uses it to reuse alias analyses for 4 s.
+ *
+ * @author Ralf Wisser
+ */
+public class ExpiringMemoTest extends TestCase {
+
+	private static final long ALIAS_ANALYSIS_TTL = 4000;
+
+	private final AtomicLong now = new AtomicLong(1000000);
+	private final ExpiringMemo<Pair<String, String>, String> memo = new ExpiringMemo<Pair<String, String>, String>(ALIAS_ANALYSIS_TTL, now::get);
+
+	private static Pair<String, String> key(String statement) {
+		return new Pair<String, String>(statement + "=", statement);
+	}
+
+	public void testTimeToLive() {
+		assertNull(memo.get(key("select from EMPLOYEE E where ")));
+		memo.put(key("select from EMPLOYEE E where "), "E");
+		assertEquals("E", memo.get(key("select from EMPLOYEE E where ")));
+		now.addAndGet(ALIAS_ANALYSIS_TTL - 1);
+		assertEquals("E", memo.get(key("select from EMPLOYEE E where ")));
+		now.addAndGet(1);
+		assertNull(memo.get(key("select from EMPLOYEE E where ")));
+	}
+
+	public void testOtherStatement() {
+		memo.put(key("select from EMPLOYEE E where "), "E");
+		assertNull(memo.get(key("select from DEPARTMENT D where ")));
+		assertNull(memo.get(new Pair<String, String>("select from EMPLOYEE E where =", "select from EMPLOYEE E join DEPARTMENT D")));
+		memo.put(key("select from DEPARTMENT D where "), "D");
+		assertNull(memo.get(key("select from EMPLOYEE E where ")));
+		assertEquals("D", memo.get(key("select from DEPARTMENT D where ")));
+	}
+
+	public void testPutRestartsTimeToLive() {
+		memo.put(key("select from EMPLOYEE E where "), "E");
+		now.addAndGet(ALIAS_ANALYSIS_TTL - 1);
+		memo.put(key("select from EMPLOYEE E where "), "E2");
+		now.addAndGet(ALIAS_ANALYSIS_TTL - 1);
+		assertEquals("E2", memo.get(key("select from EMPLOYEE E where ")));
+	}
+
+}
@@ -59,6 +59,7 @@ public class GeneralDbmsTestSuite extends TestSuite {
 						if (expectedResult.exists()) {
 							suite.addTest(new DeletionTestCase("testDeletion", testDir, new File(baseDir, "datamodel"), new File(baseDir, "initial-dataset.xml"), expectedResult, "SESSION_LOCAL"));
 							suite.addTest(new DeletionTestCase("testDeletion", testDir, new File(baseDir, "datamodel"), new File(baseDir, "initial-dataset.xml"), expectedResult, "GLOBAL"));
+							suite.addTest(new DeletionTestCase("testDeletion", testDir, new File(baseDir, "datamodel"), new File(baseDir, "initial-dataset.xml"), expectedResult, "GLOBAL", true));
 						}
 					}
 				}
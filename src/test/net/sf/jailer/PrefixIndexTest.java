@@ -0,0 +1,114 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.sf.jailer.datamodel.Column;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.util.PrefixIndex;
+import net.sf.jailer.util.Quoting;
+
+/**
+ * Tests {@link PrefixIndex}, the table and column lookup of the SQL code completion
+ * (MDSchema#findByPrefix, MDTable#findColumnsByPrefix).
+ *
+ * @author Ralf Wisser
+ */
+public class PrefixIndexTest extends TestCase {
+
+	private static final List<String> PREFIXES = Arrays.asList(
+			"", "e", "E", "emp", "EMPLOYEE", "EMPLOYEES", "p", "project_", "pRoJeCt_P", "x", "_", "a", "m", "ä", "1");
+
+	private DataModel dataModel;
+
+	@Override
+	protected void setUp() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(new File("datamodel/Demo-Scott").toURI().toURL());
+		dataModel = new DataModel(executionContext);
+	}
+
+	/**
+	 * The linear filter the completion falls back to if there is no index.
+	 */
+	private static List<String> filter(List<String> names, String prefix) {
+		List<String> result = new ArrayList<String>();
+		for (String name: names) {
+			if (PrefixIndex.matches(Quoting.staticUnquote(name), prefix)) {
+				result.add(name);
+			}
+		}
+		return result;
+	}
+
+	private static void assertSameAsFilter(List<String> names) {
+		PrefixIndex<String> index = new PrefixIndex<String>(names, Quoting::staticUnquote);
+		assertEquals(names.size(), index.size());
+		for (String prefix: PREFIXES) {
+			assertEquals(prefix, filter(names, prefix), index.find(prefix));
+			for (int i = 1; i <= prefix.length(); ++i) {
+				assertEquals(prefix, filter(names, prefix.substring(0, i)), index.find(prefix.substring(0, i)));
+			}
+		}
+	}
+
+	public void testTableNames() {
+		List<String> names = new ArrayList<String>();
+		for (Table table: dataModel.getTables()) {
+			names.add(table.getName());
+		}
+		assertSameAsFilter(names);
+		assertEquals(Arrays.asList("PROJECT", "PROJECT_PARTICIPATION"), sorted(new PrefixIndex<String>(names, Quoting::staticUnquote).find("proj")));
+	}
+
+	public void testColumnNames() {
+		for (Table table: dataModel.getTables()) {
+			List<String> names = new ArrayList<String>();
+			for (Column column: table.getColumns()) {
+				names.add(column.name);
+			}
+			assertSameAsFilter(names);
+		}
+	}
+
+	public void testQuotedAndMixedCaseNames() {
+		List<String> names = Arrays.asList(
+				"\"Emp\"", "EMP", "emp", "`empNo`", "EMPLOYEE", "\"Employee Name\"", "e", "E", "\"ärger\"", "ÄRGER", "_hidden", "\"1st\"", "ZZ");
+		assertSameAsFilter(names);
+		assertEquals(Arrays.asList("\"Emp\"", "EMP", "emp", "`empNo`", "EMPLOYEE", "\"Employee Name\""), new PrefixIndex<String>(names, Quoting::staticUnquote).find("Emp"));
+	}
+
+	public void testEmpty() {
+		PrefixIndex<String> index = new PrefixIndex<String>(Collections.<String>emptyList(), Quoting::staticUnquote);
+		assertEquals(0, index.size());
+		assertTrue(index.find("").isEmpty());
+		assertTrue(index.find("A").isEmpty());
+	}
+
+	private static List<String> sorted(List<String> names) {
+		List<String> result = new ArrayList<String>(names);
+		Collections.sort(result);
+		return result;
+	}
+
+}
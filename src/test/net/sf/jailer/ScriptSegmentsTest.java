@@ -0,0 +1,139 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import net.sf.jailer.configuration.Configuration;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.datamodel.Table;
+import net.sf.jailer.subsetting.ScriptSegments;
+
+/**
+ * Tests {@link ScriptSegments}.
+ *
+ * @author Ralf Wisser
+ */
+public class ScriptSegmentsTest extends TestCase {
+
+	private List<Table> tables;
+
+	@Override
+	protected void setUp() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		executionContext.setDataModelURL(new File("datamodel/Demo-Scott").toURI().toURL());
+		DataModel dataModel = new DataModel(executionContext);
+		tables = Arrays.asList(dataModel.getTable("EMPLOYEE"), dataModel.getTable("DEPARTMENT"), dataModel.getTable("SALARYGRADE"));
+	}
+
+	private static Set<String> tempFiles() {
+		String[] files = new File(Configuration.getInstance().getTempFileFolder()).list();
+		return files == null? new HashSet<String>() : new HashSet<String>(Arrays.asList(files));
+	}
+
+	/**
+	 * Writes the segments in parallel, in reverse table order.
+	 */
+	private void writeSegments(final ScriptSegments segments) throws Exception {
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = tables.size() - 1; i >= 0; --i) {
+			final Table table = tables.get(i);
+			Thread thread = new Thread(() -> {
+				try {
+					for (int row = 0; row < 1000; ++row) {
+						segments.get(table).getWriter().write(table.getName() + " " + row + "\n");
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+	}
+
+	private String expectedScript() {
+		StringBuilder sb = new StringBuilder("-- header\n");
+		for (Table table: tables) {
+			for (int row = 0; row < 1000; ++row) {
+				sb.append(table.getName() + " " + row + "\n");
+			}
+		}
+		return sb.toString();
+	}
+
+	public void testAppendToStream() throws Exception {
+		Set<String> before = tempFiles();
+		List<Table> withDuplicate = new ArrayList<Table>(tables);
+		withDuplicate.add(tables.get(0));
+		ScriptSegments segments = new ScriptSegments(withDuplicate, StandardCharsets.UTF_8);
+		writeSegments(segments);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStreamWriter result = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		result.write("-- header\n");
+		segments.appendTo(result, out, null);
+		result.flush();
+
+		assertEquals(expectedScript(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(before, tempFiles());
+	}
+
+	public void testAppendToChannel() throws Exception {
+		Set<String> before = tempFiles();
+		ScriptSegments segments = new ScriptSegments(tables, StandardCharsets.UTF_8);
+		writeSegments(segments);
+
+		File script = Configuration.getInstance().createTempFile();
+		try {
+			try (FileOutputStream out = new FileOutputStream(script)) {
+				OutputStreamWriter result = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+				result.write("-- header\n");
+				segments.appendTo(result, out, out.getChannel());
+				result.flush();
+			}
+			assertEquals(expectedScript(), new String(Files.readAllBytes(script.toPath()), StandardCharsets.UTF_8));
+		} finally {
+			script.delete();
+		}
+		assertEquals(before, tempFiles());
+	}
+
+	public void testDiscard() throws Exception {
+		Set<String> before = tempFiles();
+		ScriptSegments segments = new ScriptSegments(tables, StandardCharsets.UTF_8);
+		assertNotNull(segments.get(tables.get(0)));
+		segments.get(tables.get(0)).getWriter().write("row\n");
+		segments.discard();
+		assertNull(segments.get(tables.get(0)));
+		assertEquals(before, tempFiles());
+	}
+
+}
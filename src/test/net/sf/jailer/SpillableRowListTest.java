@@ -0,0 +1,99 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.SpillableRowList;
+
+/**
+ * Tests {@link SpillableRowList}
+ *
+ * @author Ralf Wisser
+ */
+public class SpillableRowListTest extends TestCase {
+
+	public void testObjectRefsOfRemovedRowsAreReleased() throws Exception {
+		SpillableRowList rows = new SpillableRowList(0);
+		try {
+			Object lob = new Object();
+			rows.add(new Object[] { 0 });
+			rows.add(new Object[] { 1, lob });
+			rows.add(new Object[] { 2, new Object(), new Object() });
+			assertEquals(3, rows.getNumObjectRefs());
+			rows.remove(2);
+			assertEquals(1, rows.getNumObjectRefs());
+			rows.add(new Object[] { 3, new Object() });
+			assertEquals(2, rows.getNumObjectRefs());
+			assertSame(lob, rows.get(1)[1]);
+			rows.remove(2);
+			rows.remove(1);
+			assertEquals(0, rows.getNumObjectRefs());
+			assertEquals(0, rows.get(0)[0]);
+		} finally {
+			rows.close();
+		}
+	}
+
+	public void testSpilling() throws Exception {
+		Object lob = new Object();
+		SpillableRowList rows = new SpillableRowList(10000);
+		try {
+			for (int i = 0; i < 5000; ++i) {
+				Timestamp ts = new Timestamp(1000L * i);
+				ts.setNanos(i);
+				rows.add(new Object[] { i, "row " + i, i % 7 == 0? null : new BigDecimal(i).movePointLeft(2), ts, (long) i, i % 100 == 0? lob : new byte[] { (byte) i } });
+			}
+			assertEquals(5000, rows.size());
+			assertTrue(rows.getNumSpilled() > 0);
+			for (int i = 4999; i >= 0; i -= 13) {
+				Object[] row = rows.get(i);
+				assertEquals(i, row[0]);
+				assertEquals("row " + i, row[1]);
+				assertEquals(i % 7 == 0? null : new BigDecimal(i).movePointLeft(2), row[2]);
+				assertEquals(1000L * i, ((Timestamp) row[3]).getTime());
+				assertEquals(i, ((Timestamp) row[3]).getNanos());
+				assertEquals((long) i, row[4]);
+				if (i % 100 == 0) {
+					assertSame(lob, row[5]);
+				} else {
+					assertTrue(Arrays.equals(new byte[] { (byte) i }, (byte[]) row[5]));
+				}
+			}
+			rows.add(new Object[] { -1 });
+			assertEquals(-1, rows.get(5000)[0]);
+			assertEquals(-1, rows.remove(5000)[0]);
+			assertEquals(4999, rows.remove(4999)[0]);
+			rows.add(new Object[] { -2 });
+			assertEquals(5000, rows.size());
+			assertEquals(-2, rows.get(4999)[0]);
+			assertEquals(4998, rows.get(4998)[0]);
+			try {
+				rows.remove(0);
+				fail();
+			} catch (UnsupportedOperationException e) {
+				// expected
+			}
+		} finally {
+			rows.close();
+		}
+		assertEquals(0, rows.getNumSpilled());
+	}
+
+}
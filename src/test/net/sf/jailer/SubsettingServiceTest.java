@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import net.sf.jailer.api.Subsetter;
+import net.sf.jailer.api.SubsettingService;
+import net.sf.jailer.database.WorkingTableScope;
+import net.sf.jailer.datamodel.DataModel;
+import net.sf.jailer.subsetting.ExportStatistic;
+import net.sf.jailer.subsetting.SubsettingEngine;
+
+/**
+ * Tests {@link SubsettingService}
+ *
+ * @author Ralf Wisser
+ */
+public class SubsettingServiceTest extends TestCase {
+
+	/**
+	 * Service whose requests wait for a latch instead of accessing a database.
+	 */
+	private static class BlockingService extends SubsettingService {
+		final CountDownLatch done = new CountDownLatch(1);
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger maxActive = new AtomicInteger();
+		final List<String> admitted = Collections.synchronizedList(new ArrayList<String>());
+
+		BlockingService(int maxConnections) {
+			super(new Subsetter(), maxConnections);
+		}
+
+		@Override
+		protected ExportStatistic executeAdmitted(Subsetter request, String whereClause, File exportScriptFile, File deleteScriptFile) {
+			admitted.add(whereClause);
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				done.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			active.decrementAndGet();
+			return null;
+		}
+
+		Thread submit(String name, int numberOfThreads) {
+			Subsetter request = createRequest();
+			request.getExecutionContext().setScope(WorkingTableScope.GLOBAL);
+			request.setNumberOfThreads(numberOfThreads);
+			Thread thread = new Thread(() -> {
+				try {
+					execute(request, name, null, null);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			thread.start();
+			return thread;
+		}
+	}
+
+	public void testAdmissionLimitsConcurrentConnections() throws Exception {
+		BlockingService service = new BlockingService(2);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 5; ++i) {
+			threads.add(service.submit("r" + i, 1));
+		}
+		awaitCondition(() -> service.getNumActiveRequests() == 2 && service.getNumWaitingRequests() == 3);
+		service.done.countDown();
+		for (Thread thread: threads) {
+			thread.join(10000);
+		}
+		assertEquals(5, service.admitted.size());
+		assertEquals(2, service.maxActive.get());
+		assertEquals(0, service.getNumActiveRequests());
+	}
+
+	public void testWaitingRequestsAreAdmittedInArrivalOrder() throws Exception {
+		BlockingService service = new BlockingService(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		threads.add(service.submit("r0", 1));
+		awaitCondition(() -> service.getNumActiveRequests() == 1);
+		for (int i = 1; i < 5; ++i) {
+			threads.add(service.submit("r" + i, 1));
+			final int waiting = i;
+			awaitCondition(() -> service.getNumWaitingRequests() == waiting);
+		}
+		service.done.countDown();
+		for (Thread thread: threads) {
+			thread.join(10000);
+		}
+		assertEquals(new ArrayList<String>(service.admitted).toString(), "[r0, r1, r2, r3, r4]");
+	}
+
+	public void testSmallRequestDoesNotOvertakeWaitingLargeRequest() throws Exception {
+		BlockingService service = new BlockingService(2);
+		List<Thread> threads = new ArrayList<Thread>();
+		threads.add(service.submit("small1", 1));
+		awaitCondition(() -> service.getNumActiveRequests() == 1);
+		threads.add(service.submit("large", 2));
+		awaitCondition(() -> service.getNumWaitingRequests() == 1);
+		threads.add(service.submit("small2", 1));
+		awaitCondition(() -> service.getNumWaitingRequests() == 2);
+		// a connection is free, but the large request arrived first
+		Thread.sleep(100);
+		assertEquals(1, service.getNumActiveRequests());
+		service.done.countDown();
+		for (Thread thread: threads) {
+			thread.join(10000);
+		}
+		assertEquals(new ArrayList<String>(service.admitted).toString(), "[small1, large, small2]");
+	}
+
+	public void testWorkingTablesKeyDependsOnPrimaryKeys() throws Exception {
+		File folder = Files.createTempDirectory("datamodel").toFile();
+		try {
+			File source = new File("datamodel/Demo-Scott");
+			for (File file: source.listFiles()) {
+				Files.copy(file.toPath(), new File(folder, file.getName()).toPath());
+			}
+			ExecutionContext executionContext = new ExecutionContext();
+			executionContext.setDataModelURL(folder.toURI().toURL());
+
+			String key = SubsettingEngine.workingTablesKey(executionContext, new DataModel(executionContext));
+			assertEquals(key, SubsettingEngine.workingTablesKey(executionContext, new DataModel(executionContext)));
+
+			File tableFile = new File(folder, "table.csv");
+			String tables = new String(Files.readAllBytes(tableFile.toPath()), StandardCharsets.UTF_8);
+			Files.write(tableFile.toPath(), tables.replace("DEPTNO INTEGER", "DEPTNO VARCHAR(20)").getBytes(StandardCharsets.UTF_8));
+			String changedKey = SubsettingEngine.workingTablesKey(executionContext, new DataModel(executionContext));
+			assertFalse(key.equals(changedKey));
+
+			executionContext.setUseRowid(true);
+			assertFalse(changedKey.equals(SubsettingEngine.workingTablesKey(executionContext, new DataModel(executionContext))));
+		} finally {
+			for (File file: folder.listFiles()) {
+				file.delete();
+			}
+			folder.delete();
+		}
+	}
+
+	private interface Condition {
+		boolean holds();
+	}
+
+	private static void awaitCondition(Condition condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!condition.holds()) {
+			assertTrue("timeout", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.sql.SQLException;
+
+import junit.framework.TestCase;
+import net.sf.jailer.configuration.DBMS;
+import net.sf.jailer.entitygraph.TransactionSizeController;
+
+/**
+ * Tests {@link TransactionSizeController}.
+ *
+ * @author Ralf Wisser
+ */
+public class TransactionSizeControllerTest extends TestCase {
+
+	public void testTooBigByVendorCode() {
+		assertTrue(TransactionSizeController.isTooBig(new SQLException("snapshot too old", "72000", 1555), DBMS.ORACLE));
+		assertTrue(TransactionSizeController.isTooBig(new SQLException("undo", "72000", 30036), DBMS.ORACLE));
+		assertTrue(TransactionSizeController.isTooBig(new SQLException("rollback", "72000", 1650), DBMS.ORACLE));
+		assertFalse(TransactionSizeController.isTooBig(new SQLException("unique constraint violated", "23000", 1), DBMS.ORACLE));
+	}
+
+	public void testMessageTextIsIgnored() {
+		assertFalse(TransactionSizeController.isTooBig(new SQLException("ORA-01555: snapshot too old"), DBMS.ORACLE));
+		assertFalse(TransactionSizeController.isTooBig(new SQLException("value 'ORA-30036' not found", "22000", 100), DBMS.ORACLE));
+	}
+
+	public void testOtherDBMS() {
+		assertFalse(TransactionSizeController.isTooBig(new SQLException("error", "HY000", 1555), DBMS.POSTGRESQL));
+		assertFalse(TransactionSizeController.isTooBig(new SQLException("error", "HY000", 1555), null));
+	}
+
+	public void testCauseAndChainedExceptions() {
+		SQLException cause = new SQLException("snapshot too old", "72000", 1555);
+		assertTrue(TransactionSizeController.isTooBig(new SQLException("statement failed", cause), DBMS.ORACLE));
+
+		SQLException chained = new SQLException("batch failed", "72000", 0);
+		chained.setNextException(new SQLException("undo", "72000", 30036));
+		assertTrue(TransactionSizeController.isTooBig(chained, DBMS.ORACLE));
+	}
+
+	public void testShrink() {
+		TransactionSizeController controller = new TransactionSizeController(10000, 1000);
+		assertEquals(10000, controller.getSize("T"));
+		assertTrue(controller.shrink("T", 10000));
+		assertEquals(2500, controller.getSize("T"));
+		assertEquals(10000, controller.getSize("U"));
+		assertTrue(controller.shrink("T", 200));
+		assertEquals(100, controller.getSize("T"));
+		assertFalse(controller.shrink("T", 100));
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2007 - 2026 Ralf Wisser.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sf.jailer;
+
+import java.util.Map;
+
+import junit.framework.TestCase;
+import net.sf.jailer.util.ValueSketch;
+
+/**
+ * Tests {@link ValueSketch}
+ *
+ * @author Ralf Wisser
+ */
+public class ValueSketchTest extends TestCase {
+
+	public void testCountsAreExactBelowCapacity() {
+		ValueSketch sketch = new ValueSketch(10);
+		for (int i = 0; i < 100; ++i) {
+			sketch.add("v" + (i % 5));
+		}
+		sketch.addNull();
+		assertTrue(sketch.isExact());
+		assertEquals(101, sketch.getNumRows());
+		assertEquals(1, sketch.getNumNulls());
+		assertEquals(5, sketch.estimateDistinct());
+		Map<String, Long> counts = sketch.getCounts();
+		assertEquals(5, counts.size());
+		assertEquals(Long.valueOf(20), counts.get("v3"));
+	}
+
+	public void testFrequentValuesSurviveEviction() {
+		ValueSketch sketch = new ValueSketch(10);
+		for (int i = 0; i < 10000; ++i) {
+			sketch.add(i % 2 == 0? "frequent" : ("rare" + i));
+		}
+		assertFalse(sketch.isExact());
+		Map<String, Long> counts = sketch.getCounts();
+		assertEquals(10, counts.size());
+		// space-saving overestimates by at most the number of rows / capacity
+		assertTrue(counts.get("frequent") >= 5000);
+		assertTrue(counts.get("frequent") <= 5000 + 10000 / 10);
+	}
+
+	public void testHyperLogLogEstimate() {
+		ValueSketch sketch = new ValueSketch(100);
+		int distinct = 1_000_000;
+		for (int i = 0; i < distinct; ++i) {
+			sketch.add("value-" + i);
+			if (i % 3 == 0) {
+				sketch.add("value-" + i);
+			}
+		}
+		assertFalse(sketch.isExact());
+		long estimate = sketch.estimateDistinct();
+		assertTrue("estimate " + estimate, Math.abs(estimate - distinct) < distinct * 0.03);
+		// fraction is ignored if the counts are not exact
+		assertEquals(estimate, sketch.estimateDistinct(0.01));
+	}
+
+	public void testLinearCountingForSmallCardinalities() {
+		ValueSketch sketch = new ValueSketch(10);
+		for (int i = 0; i < 2000; ++i) {
+			sketch.add("value-" + i);
+		}
+		long estimate = sketch.estimateDistinct();
+		assertTrue("estimate " + estimate, Math.abs(estimate - 2000) < 2000 * 0.03);
+	}
+
+	public void testGEEScalesSingletons() {
+		ValueSketch sketch = new ValueSketch(1000);
+		for (int i = 0; i < 100; ++i) {
+			sketch.add("single" + i);
+		}
+		for (int i = 0; i < 10; ++i) {
+			sketch.add("double" + i);
+			sketch.add("double" + i);
+		}
+		assertTrue(sketch.isExact());
+		assertEquals(100, sketch.getNumSingletons());
+		assertEquals(110, sketch.estimateDistinct());
+		// 100 singletons * sqrt(1 / 0.25) + 10 values seen more than once
+		assertEquals(210, sketch.estimateDistinct(0.25));
+		assertEquals(110, sketch.estimateDistinct(1.0));
+		assertEquals(110, sketch.estimateDistinct(-1));
+	}
+
+}